@@ -0,0 +1,402 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import com.nuodb.migrator.Migrator;
+import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+import com.nuodb.migrator.backup.loader.ChunkLevelParallelizer;
+import com.nuodb.migrator.backup.loader.Parallelizer;
+import com.nuodb.migrator.backup.loader.RowLevelParallelizer;
+import com.nuodb.migrator.backup.loader.TableLevelParallelizer;
+import com.nuodb.migrator.jdbc.commit.AdaptiveCommitStrategy;
+import com.nuodb.migrator.jdbc.commit.BatchCommitStrategy;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.commit.SingleCommitStrategy;
+import com.nuodb.migrator.spec.DriverConnectionSpec;
+import com.nuodb.migrator.spec.DumpJobSpec;
+import com.nuodb.migrator.spec.LoadJobSpec;
+import com.nuodb.migrator.spec.MetricsSpec;
+import com.nuodb.migrator.spec.ResourceSpec;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.nuodb.migrator.spec.MigrationMode.DATA;
+import static java.lang.Integer.parseInt;
+import static java.lang.String.CASE_INSENSITIVE_ORDER;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.lang.management.ManagementFactory.getGarbageCollectorMXBeans;
+import static java.lang.management.ManagementFactory.getMemoryPoolMXBeans;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.apache.commons.io.FileUtils.sizeOfDirectory;
+import static org.apache.commons.lang3.StringUtils.join;
+import static org.apache.commons.lang3.StringUtils.split;
+
+/**
+ * Drives the real dump & load jobs between in-process H2 databases, so that regressions of the write query & load
+ * table works are caught without a live NuoDB or source database. Source tables of the requested size & type mix are
+ * generated, each format is dumped once and loaded with every parallelizer & commit strategy combination into freshly
+ * created target tables. Reports rows/s, MB/s, GC time & peak heap of every run.
+ * <p/>
+ * Options are given as name=value arguments, such as
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.nuodb.migrator.benchmark.EndToEndBenchmark \
+ *     tables=4 rows=100000 width=8 types=long,string formats=csv,bson parallelizers=table.level,chunk.level
+ * </pre>
+ *
+ * @author Sergey Bushik
+ */
+public class EndToEndBenchmark {
+
+    public static final String SOURCE_URL = "jdbc:h2:mem:source;DB_CLOSE_DELAY=-1";
+    public static final String TARGET_URL = "jdbc:h2:mem:target;DB_CLOSE_DELAY=-1";
+    public static final String SCHEMA = "PUBLIC";
+
+    private static final double MB = 1024D * 1024D;
+
+    private int tables = 4;
+    private int rows = 100000;
+    private int width = 8;
+    private String types = "long,double,decimal,boolean,timestamp,string";
+    private Integer threads;
+    private List<String> formats = newArrayList("csv", "xml", "bson", "columnar");
+    private List<String> parallelizers = newArrayList("table.level", "row.level", "chunk.level");
+    private List<String> commitStrategies = newArrayList("batch", "adaptive");
+    private File dir;
+
+    public static void main(String[] args) throws Exception {
+        EndToEndBenchmark benchmark = new EndToEndBenchmark();
+        benchmark.setOptions(args);
+        benchmark.run();
+    }
+
+    protected void setOptions(String[] args) {
+        Map<String, String> options = new TreeMap<String, String>(CASE_INSENSITIVE_ORDER);
+        for (String arg : args) {
+            int index = arg.indexOf('=');
+            if (index < 0) {
+                throw new IllegalArgumentException(format("Option %s is not in name=value form", arg));
+            }
+            options.put(arg.substring(0, index), arg.substring(index + 1));
+        }
+        if (options.containsKey("tables")) {
+            tables = parseInt(options.get("tables"));
+        }
+        if (options.containsKey("rows")) {
+            rows = parseInt(options.get("rows"));
+        }
+        if (options.containsKey("width")) {
+            width = parseInt(options.get("width"));
+        }
+        if (options.containsKey("types")) {
+            types = options.get("types");
+        }
+        if (options.containsKey("threads")) {
+            threads = parseInt(options.get("threads"));
+        }
+        if (options.containsKey("formats")) {
+            formats = newArrayList(split(options.get("formats"), ','));
+        }
+        if (options.containsKey("parallelizers")) {
+            parallelizers = newArrayList(split(options.get("parallelizers"), ','));
+        }
+        if (options.containsKey("commit.strategies")) {
+            commitStrategies = newArrayList(split(options.get("commit.strategies"), ','));
+        }
+        if (options.containsKey("dir")) {
+            dir = new File(options.get("dir"));
+        }
+    }
+
+    public void run() throws Exception {
+        File dir = this.dir != null ? this.dir : new File(System.getProperty("java.io.tmpdir"), "nuodb-migrator-benchmark");
+        SyntheticSchema schema = new SyntheticSchema(width, types, rows);
+        Connection source = DriverManager.getConnection(SOURCE_URL);
+        Connection target = DriverManager.getConnection(TARGET_URL);
+        try {
+            createTables(source, schema);
+            insertRows(source, schema);
+            long totalRows = (long) tables * rows;
+            System.out.println(format("%d tables x %d rows, %d columns of %s", tables, rows, width, types));
+            System.out.println(format("%-8s %-12s %-10s %-10s %12s %10s %10s %12s", "job", "parallelizer", "commit",
+                    "format", "rows/s", "MB/s", "gc ms", "peak heap MB"));
+            for (String format : formats) {
+                File backup = new File(dir, format);
+                deleteQuietly(backup);
+                Run dump = new Run();
+                getMigrator().execute(createDumpJobSpec(format, backup), newHashMap());
+                dump.end(totalRows, sizeOfDirectory(backup));
+                print("dump", "", "", format, dump);
+                for (String parallelizer : parallelizers) {
+                    for (String commitStrategy : commitStrategies) {
+                        createTables(target, schema);
+                        Run load = new Run();
+                        getMigrator().execute(createLoadJobSpec(backup, parallelizer, commitStrategy),
+                                newHashMap());
+                        load.end(totalRows, dump.bytes);
+                        print("load", parallelizer, commitStrategy, format, load);
+                    }
+                }
+                deleteQuietly(backup);
+            }
+        } finally {
+            source.close();
+            target.close();
+        }
+    }
+
+    protected Migrator getMigrator() {
+        return new Migrator();
+    }
+
+    protected DumpJobSpec createDumpJobSpec(String format, File backup) {
+        DumpJobSpec dumpJobSpec = new DumpJobSpec();
+        dumpJobSpec.setSourceSpec(createConnectionSpec(SOURCE_URL));
+        ResourceSpec outputSpec = new ResourceSpec();
+        outputSpec.setType(format);
+        outputSpec.setPath(backup.getPath());
+        dumpJobSpec.setOutputSpec(outputSpec);
+        dumpJobSpec.setMigrationModes(newHashSet(DATA));
+        dumpJobSpec.setMetricsSpec(createMetricsSpec());
+        dumpJobSpec.setThreads(threads);
+        return dumpJobSpec;
+    }
+
+    protected LoadJobSpec createLoadJobSpec(File backup, String parallelizer, String commitStrategy) {
+        LoadJobSpec loadJobSpec = new LoadJobSpec();
+        loadJobSpec.setTargetSpec(createConnectionSpec(TARGET_URL));
+        ResourceSpec inputSpec = new ResourceSpec();
+        inputSpec.setPath(backup.getPath());
+        loadJobSpec.setInputSpec(inputSpec);
+        loadJobSpec.setMigrationModes(newHashSet(DATA));
+        loadJobSpec.setParallelizer(createParallelizer(parallelizer));
+        loadJobSpec.setCommitStrategy(createCommitStrategy(commitStrategy));
+        loadJobSpec.setMetricsSpec(createMetricsSpec());
+        loadJobSpec.setThreads(threads);
+        return loadJobSpec;
+    }
+
+    protected DriverConnectionSpec createConnectionSpec(String url) {
+        DriverConnectionSpec connectionSpec = new DriverConnectionSpec();
+        connectionSpec.setDriver("org.h2.Driver");
+        connectionSpec.setUrl(url);
+        connectionSpec.setSchema(SCHEMA);
+        return connectionSpec;
+    }
+
+    /**
+     * Logs final figures only, as the runner reports its own
+     */
+    protected MetricsSpec createMetricsSpec() {
+        MetricsSpec metricsSpec = new MetricsSpec();
+        metricsSpec.setInterval(0L);
+        return metricsSpec;
+    }
+
+    protected Parallelizer createParallelizer(String parallelizer) {
+        if ("table.level".equalsIgnoreCase(parallelizer)) {
+            return new TableLevelParallelizer();
+        } else if ("row.level".equalsIgnoreCase(parallelizer)) {
+            return new RowLevelParallelizer();
+        } else if ("chunk.level".equalsIgnoreCase(parallelizer)) {
+            return new ChunkLevelParallelizer();
+        }
+        throw new IllegalArgumentException(format("Unknown parallelizer %s", parallelizer));
+    }
+
+    protected CommitStrategy createCommitStrategy(String commitStrategy) {
+        if ("batch".equalsIgnoreCase(commitStrategy)) {
+            return new BatchCommitStrategy();
+        } else if ("adaptive".equalsIgnoreCase(commitStrategy)) {
+            return new AdaptiveCommitStrategy();
+        } else if ("single".equalsIgnoreCase(commitStrategy)) {
+            return new SingleCommitStrategy();
+        }
+        throw new IllegalArgumentException(format("Unknown commit strategy %s", commitStrategy));
+    }
+
+    protected void createTables(Connection connection, SyntheticSchema schema) throws SQLException {
+        Statement statement = connection.createStatement();
+        try {
+            for (int table = 1; table <= tables; table++) {
+                statement.execute("DROP TABLE IF EXISTS T" + table);
+                List<String> columns = newArrayList();
+                int index = 0;
+                for (Column column : schema.getRowSet().getColumns()) {
+                    columns.add(column.getName() + " " + getColumnType(schema.getColumnValueTypes().get(index++)));
+                }
+                statement.execute("CREATE TABLE T" + table + " (" + join(columns, ", ") + ")");
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    protected void insertRows(Connection connection, SyntheticSchema schema) throws SQLException {
+        List<String> parameters = newArrayList();
+        for (int column = 0; column < width; column++) {
+            parameters.add("?");
+        }
+        connection.setAutoCommit(false);
+        for (int table = 1; table <= tables; table++) {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO T" + table + " VALUES (" + join(parameters, ", ") + ")");
+            try {
+                int batch = 0;
+                for (Value[] values : schema.getRows()) {
+                    for (int column = 0; column < width; column++) {
+                        statement.setObject(column + 1, getObject(values[column]));
+                    }
+                    statement.addBatch();
+                    if (++batch % 1000 == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                statement.executeBatch();
+                connection.commit();
+            } finally {
+                statement.close();
+            }
+        }
+        connection.setAutoCommit(true);
+    }
+
+    protected String getColumnType(ValueType valueType) {
+        switch (valueType) {
+            case LONG:
+                return "BIGINT";
+            case DOUBLE:
+                return "DOUBLE";
+            case DECIMAL:
+                return "DECIMAL(20,2)";
+            case BOOLEAN:
+                return "BOOLEAN";
+            case TIMESTAMP:
+                return "TIMESTAMP";
+            case BINARY:
+                return "VARBINARY(64)";
+            default:
+                return "VARCHAR(64)";
+        }
+    }
+
+    protected Object getObject(Value value) {
+        if (value.isNull()) {
+            return null;
+        }
+        switch (value.getValueType()) {
+            case LONG:
+                return value.asLong();
+            case DOUBLE:
+                return value.asDouble();
+            case DECIMAL:
+                return value.asDecimal();
+            case BOOLEAN:
+                return value.asBoolean();
+            case TIMESTAMP:
+                return value.asTimestamp();
+            case BINARY:
+                return value.asBytes();
+            default:
+                return value.asString();
+        }
+    }
+
+    protected void print(String job, String parallelizer, String commitStrategy, String format, Run run) {
+        System.out.println(String.format("%-8s %-12s %-10s %-10s %12.0f %10.2f %10d %12.1f", job, parallelizer,
+                commitStrategy, format, run.getRowsPerSecond(), run.getBytesPerSecond() / MB, run.gcTime,
+                run.peakHeap / MB));
+    }
+
+    /**
+     * Measurements of a single job run: elapsed time, time spent in garbage collection & peak heap usage
+     */
+    static class Run {
+
+        private final long start;
+        private final long gcStart;
+        private long elapsed;
+        private long rows;
+        private long bytes;
+        private long gcTime;
+        private long peakHeap;
+
+        Run() {
+            System.gc();
+            for (MemoryPoolMXBean memoryPool : getMemoryPoolMXBeans()) {
+                memoryPool.resetPeakUsage();
+            }
+            gcStart = getGcTime();
+            start = nanoTime();
+        }
+
+        void end(long rows, long bytes) {
+            elapsed = nanoTime() - start;
+            gcTime = getGcTime() - gcStart;
+            for (MemoryPoolMXBean memoryPool : getMemoryPoolMXBeans()) {
+                if (memoryPool.getType() == MemoryType.HEAP) {
+                    peakHeap += memoryPool.getPeakUsage().getUsed();
+                }
+            }
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+
+        double getRowsPerSecond() {
+            return rows * 1E9 / elapsed;
+        }
+
+        double getBytesPerSecond() {
+            return bytes * 1E9 / elapsed;
+        }
+
+        static long getGcTime() {
+            long gcTime = 0;
+            for (GarbageCollectorMXBean garbageCollector : getGarbageCollectorMXBeans()) {
+                gcTime += Math.max(garbageCollector.getCollectionTime(), 0);
+            }
+            return gcTime;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+/**
+ * In memory stand-ins of the JDBC objects, so that value formats are measured without a driver in the way. Result set
+ * getters convert the current row values to the requested types, prepared statement setters discard the values.
+ *
+ * @author Sergey Bushik
+ */
+public class JdbcProxies {
+
+    private JdbcProxies() {
+    }
+
+    public static Connection newConnection() {
+        return newProxy(Connection.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return getDefault(method.getReturnType());
+            }
+        });
+    }
+
+    public static PreparedStatement newPreparedStatement(final Connection connection) {
+        return newProxy(PreparedStatement.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return method.getName().equals("getConnection") ? connection : getDefault(method.getReturnType());
+            }
+        });
+    }
+
+    public static RowResultSet newResultSet(final Connection connection) {
+        final RowResultSet.Cursor cursor = new RowResultSet.Cursor();
+        return new RowResultSet(cursor, newProxy(ResultSet.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                Class<?> type = method.getReturnType();
+                if (name.equals("wasNull")) {
+                    return cursor.wasNull;
+                } else if (name.equals("getStatement")) {
+                    return newPreparedStatement(connection);
+                } else if (name.startsWith("get") && args != null && args[0] instanceof Integer) {
+                    Object value = cursor.row[(Integer) args[0] - 1];
+                    cursor.wasNull = value == null;
+                    return value != null ? convert(value, type) : getDefault(type);
+                }
+                return getDefault(type);
+            }
+        }));
+    }
+
+    protected static Object convert(Object value, Class<?> type) {
+        if (type.isInstance(value)) {
+            return value;
+        } else if (type == String.class) {
+            return value.toString();
+        } else if (value instanceof Number) {
+            Number number = (Number) value;
+            if (type == long.class) {
+                return number.longValue();
+            } else if (type == int.class) {
+                return number.intValue();
+            } else if (type == short.class) {
+                return number.shortValue();
+            } else if (type == byte.class) {
+                return number.byteValue();
+            } else if (type == double.class) {
+                return number.doubleValue();
+            } else if (type == float.class) {
+                return number.floatValue();
+            } else if (type == BigDecimal.class) {
+                return new BigDecimal(number.toString());
+            }
+        } else if (value instanceof Timestamp) {
+            long time = ((Timestamp) value).getTime();
+            if (type == Date.class) {
+                return new Date(time);
+            } else if (type == Time.class) {
+                return new Time(time);
+            }
+        } else if (value instanceof Boolean && type == boolean.class) {
+            return value;
+        }
+        throw new IllegalArgumentException("Can't convert " + value.getClass().getName() + " to " + type.getName());
+    }
+
+    protected static Object getDefault(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == double.class) {
+            return 0D;
+        } else if (type == float.class) {
+            return 0F;
+        } else {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <T> T newProxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JdbcProxies.class.getClassLoader(), new Class[]{type}, handler);
+    }
+
+    /**
+     * Result set positioned on a row of plain Java values
+     */
+    public static class RowResultSet {
+
+        private final Cursor cursor;
+        private final ResultSet resultSet;
+
+        protected RowResultSet(Cursor cursor, ResultSet resultSet) {
+            this.cursor = cursor;
+            this.resultSet = resultSet;
+        }
+
+        public void setRow(Object[] row) {
+            cursor.row = row;
+        }
+
+        public ResultSet getResultSet() {
+            return resultSet;
+        }
+
+        static class Cursor {
+            private Object[] row;
+            private boolean wasNull;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueType.fromAlias;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
+import static java.lang.String.format;
+
+/**
+ * Row set of a configurable width filled with random rows, columns cycle through the given mix of value types. Rows
+ * are generated from a fixed seed, so that every run of a benchmark processes the same data.
+ *
+ * @author Sergey Bushik
+ */
+public class SyntheticSchema {
+
+    public static final long SEED = 0x4E754F4442L;
+
+    /**
+     * Share of null values in every column
+     */
+    public static final double NULLS = 0.05;
+
+    private static final String CHARACTERS =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ,;\"'<>&\n\t";
+    private static final long TIMESTAMP = 1388534400000L;
+
+    private final RowSet rowSet;
+    private final List<ValueType> columnValueTypes;
+    private final List<Value[]> rows;
+    private final Random random = new Random(SEED);
+
+    /**
+     * @param width number of columns
+     * @param types comma separated value types, such as long,double,decimal,boolean,timestamp,string,binary
+     * @param rows  number of rows
+     */
+    public SyntheticSchema(int width, String types, int rows) {
+        List<ValueType> valueTypes = newArrayList();
+        for (String type : types.split(",")) {
+            ValueType valueType = fromAlias(type.trim());
+            if (valueType == null) {
+                throw new IllegalArgumentException(format("Unknown value type %s", type));
+            }
+            valueTypes.add(valueType);
+        }
+        rowSet = new RowSet();
+        rowSet.setName("synthetic");
+        columnValueTypes = newArrayList();
+        for (int column = 0; column < width; column++) {
+            ValueType valueType = valueTypes.get(column % valueTypes.size());
+            columnValueTypes.add(valueType);
+            // dumped columns are either binary or string, while their values are typed
+            rowSet.addColumn("c" + (column + 1), valueType == BINARY ? BINARY : STRING);
+        }
+        this.rows = newArrayList();
+        for (int row = 0; row < rows; row++) {
+            Value[] values = new Value[width];
+            for (int column = 0; column < width; column++) {
+                values[column] = createValue(columnValueTypes.get(column));
+            }
+            this.rows.add(values);
+        }
+    }
+
+    protected Value createValue(ValueType valueType) {
+        boolean nullValue = random.nextDouble() < NULLS;
+        switch (valueType) {
+            case LONG:
+                return nullValue ? nullValue(null, valueType) : longValue(random.nextInt());
+            case DOUBLE:
+                return nullValue ? nullValue(null, valueType) : doubleValue(random.nextDouble() * 1000000);
+            case DECIMAL:
+                return decimal(nullValue ? null : BigDecimal.valueOf(random.nextLong() % 100000000000L, 2));
+            case BOOLEAN:
+                return nullValue ? nullValue(null, valueType) : bool(random.nextBoolean());
+            case TIMESTAMP:
+                return timestamp(nullValue ? null : new Timestamp(TIMESTAMP + random.nextInt() * 1000L));
+            case BINARY:
+                return binary(nullValue ? null : createBytes());
+            default:
+                return string(nullValue ? null : createString());
+        }
+    }
+
+    protected String createString() {
+        char[] chars = new char[random.nextInt(40)];
+        for (int index = 0; index < chars.length; index++) {
+            chars[index] = CHARACTERS.charAt(random.nextInt(CHARACTERS.length()));
+        }
+        return new String(chars);
+    }
+
+    protected byte[] createBytes() {
+        byte[] bytes = new byte[random.nextInt(40)];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    public RowSet getRowSet() {
+        return rowSet;
+    }
+
+    /**
+     * Types of the values generated for the columns
+     *
+     * @return value type per column
+     */
+    public List<ValueType> getColumnValueTypes() {
+        return columnValueTypes;
+    }
+
+    public List<Value[]> getRows() {
+        return rows;
+    }
+}
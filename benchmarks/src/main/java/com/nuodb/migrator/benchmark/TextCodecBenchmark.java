@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.xml.XmlEscape;
+import com.nuodb.migrator.utils.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Measures text codecs applied to every cell by the text formats: xml escaping, base64 encoding of binary values and
+ * date time parsing & formatting. Scores are in microseconds per batch of values.
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TextCodecBenchmark {
+
+    public static final String DATE_TIME_FORMAT = "YYYY-MM-DD hh:mm:ss.fff";
+
+    @Param({"1000"})
+    private int values;
+
+    private List<String> strings;
+    private List<String> escapedStrings;
+    private List<byte[]> bytes;
+    private List<String> encodedBytes;
+    private List<String> dateTimes;
+    private List<DateTime> parsedDateTimes;
+
+    @Setup
+    public void setup() {
+        strings = newArrayList();
+        escapedStrings = newArrayList();
+        bytes = newArrayList();
+        encodedBytes = newArrayList();
+        dateTimes = newArrayList();
+        parsedDateTimes = newArrayList();
+        SyntheticSchema schema = new SyntheticSchema(3, "string,binary,timestamp", values);
+        for (Value[] row : schema.getRows()) {
+            String string = row[0].isNull() ? "" : row[0].asString();
+            strings.add(string);
+            escapedStrings.add(XmlEscape.INSTANCE.escape(string));
+            byte[] value = row[1].isNull() ? new byte[0] : row[1].asBytes();
+            bytes.add(value);
+            encodedBytes.add(BASE64.encode(value));
+            String dateTime = row[2].isNull() ? "2014-01-01 00:00:00.000" : row[2].asTimestamp().toString();
+            dateTimes.add(dateTime);
+            DateTime parsedDateTime = new DateTime(dateTime);
+            parsedDateTime.getNanoseconds();
+            parsedDateTimes.add(parsedDateTime);
+        }
+    }
+
+    @Benchmark
+    public void xmlEscape(Blackhole blackhole) {
+        for (String string : strings) {
+            blackhole.consume(XmlEscape.INSTANCE.escape(string));
+        }
+    }
+
+    @Benchmark
+    public void xmlUnescape(Blackhole blackhole) {
+        for (String string : escapedStrings) {
+            blackhole.consume(XmlEscape.INSTANCE.unescape(string));
+        }
+    }
+
+    @Benchmark
+    public void base64Encode(Blackhole blackhole) {
+        for (byte[] value : bytes) {
+            blackhole.consume(BASE64.encode(value));
+        }
+    }
+
+    @Benchmark
+    public void base64Decode(Blackhole blackhole) {
+        for (String value : encodedBytes) {
+            blackhole.consume(BASE64.decode(value));
+        }
+    }
+
+    @Benchmark
+    public void dateTimeParse(Blackhole blackhole) {
+        for (String dateTime : dateTimes) {
+            // date time is parsed lazily on the first access to its fields
+            blackhole.consume(new DateTime(dateTime).getNanoseconds());
+        }
+    }
+
+    @Benchmark
+    public void dateTimeFormat(Blackhole blackhole) {
+        for (DateTime dateTime : parsedDateTimes) {
+            blackhole.consume(dateTime.format(DATE_TIME_FORMAT));
+        }
+    }
+}
@@ -38,9 +38,11 @@ import com.nuodb.migrator.job.Job;
 import com.nuodb.migrator.job.JobExecutor;
 import com.nuodb.migrator.job.TraceJobExecutionListener;
 import com.nuodb.migrator.load.LoadJob;
+import com.nuodb.migrator.migrate.MigrateJob;
 import com.nuodb.migrator.schema.SchemaJob;
 import com.nuodb.migrator.spec.DumpJobSpec;
 import com.nuodb.migrator.spec.LoadJobSpec;
+import com.nuodb.migrator.spec.MigrateJobSpec;
 import com.nuodb.migrator.spec.SchemaJobSpec;
 
 import java.util.Map;
@@ -69,6 +71,10 @@ public class Migrator {
         execute(new LoadJob(jobSpec), context);
     }
 
+    public void execute(MigrateJobSpec jobSpec, Map<Object, Object> context) {
+        execute(new MigrateJob(jobSpec), context);
+    }
+
     public void execute(SchemaJobSpec jobSpec, Map<Object, Object> context) {
         execute(new SchemaJob(jobSpec), context);
     }
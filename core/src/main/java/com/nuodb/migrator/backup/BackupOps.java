@@ -29,6 +29,7 @@ package com.nuodb.migrator.backup;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.util.Map;
 
 /**
@@ -58,6 +59,14 @@ public interface BackupOps {
 
     InputStream openInput(String name);
 
+    /**
+     * Opens read only channel of the named file, which is used to memory map chunks
+     *
+     * @param name file name relative to the backup directory
+     * @return file channel opened for reading
+     */
+    FileChannel openChannel(String name);
+
     OutputStream openOutput(String name);
 
     Backup read();
@@ -68,6 +77,17 @@ public interface BackupOps {
 
     Backup read(InputStream input, Map context);
 
+    /**
+     * Streams backup catalog to the listener, which receives database & row sets as they are parsed
+     *
+     * @param context  read context
+     * @param listener receiver of the parsed catalog entries
+     * @return backup without row sets, which are passed to the listener
+     */
+    Backup read(Map context, BackupReadListener listener);
+
+    Backup read(InputStream input, Map context, BackupReadListener listener);
+
     void write(Backup backup);
 
     void write(Backup backup, Map context);
@@ -75,4 +95,15 @@ public interface BackupOps {
     void write(Backup backup, OutputStream output);
 
     void write(Backup backup, OutputStream output, Map context);
+
+    /**
+     * Opens backup catalog for incremental writing, row sets are appended as they are completed
+     *
+     * @param backup  backup to write attributes & database of
+     * @param context write context
+     * @return opened appender, which should be closed to finish the catalog
+     */
+    BackupAppender openAppender(Backup backup, Map context);
+
+    BackupAppender openAppender(Backup backup, OutputStream output, Map context);
 }
@@ -32,9 +32,11 @@ import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.util.Map;
 
 import static com.nuodb.migrator.match.AntRegexCompiler.INSTANCE;
@@ -113,6 +115,19 @@ public abstract class BackupOpsBase implements BackupOps {
         }
     }
 
+    @Override
+    public FileChannel openChannel(String name) {
+        try {
+            File file = FileUtils.getFile(getDir(), name);
+            if (logger.isTraceEnabled()) {
+                logger.trace(format("Opening file channel for reading %s", file.getPath()));
+            }
+            return new FileInputStream(file).getChannel();
+        } catch (IOException exception) {
+            throw new BackupException("Error opening file channel for reading", exception);
+        }
+    }
+
     @Override
     public OutputStream openOutput(String name) {
         try {
@@ -152,6 +167,19 @@ public abstract class BackupOpsBase implements BackupOps {
 
     public abstract Backup read(InputStream input, Map context);
 
+    @Override
+    public Backup read(Map context, BackupReadListener listener) {
+        InputStream input = openBackupInput();
+        try {
+            return read(input, context, listener);
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    @Override
+    public abstract Backup read(InputStream input, Map context, BackupReadListener listener);
+
     @Override
     public void write(Backup backup) {
         write(backup, (Map) null);
@@ -189,6 +217,20 @@ public abstract class BackupOpsBase implements BackupOps {
     @Override
     public abstract void write(Backup backup, OutputStream output, Map context);
 
+    @Override
+    public BackupAppender openAppender(Backup backup, Map context) {
+        OutputStream output = openBackupOutput();
+        try {
+            return openAppender(backup, output, context);
+        } catch (RuntimeException exception) {
+            closeQuietly(output);
+            throw exception;
+        }
+    }
+
+    @Override
+    public abstract BackupAppender openAppender(Backup backup, OutputStream output, Map context);
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
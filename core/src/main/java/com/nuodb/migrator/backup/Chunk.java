@@ -38,6 +38,8 @@ public class Chunk implements HasSize {
 
     private String name;
     private Long size;
+    private String codec;
+    private String lob;
     private AtomicLong rowCount = new AtomicLong();
     private transient RowSet rowSet;
 
@@ -68,6 +70,25 @@ public class Chunk implements HasSize {
         return size;
     }
 
+    public String getCodec() {
+        return codec;
+    }
+
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Name of the file with large objects streamed from the rows of this chunk, or null if there is no such file
+     */
+    public String getLob() {
+        return lob;
+    }
+
+    public void setLob(String lob) {
+        this.lob = lob;
+    }
+
     public long getRowCount() {
         return rowCount.get();
     }
@@ -101,6 +122,8 @@ public class Chunk implements HasSize {
 
         if (name != null ? !name.equals(chunk.name) : chunk.name != null) return false;
         if (getRowCount() != chunk.getRowCount()) return false;
+        if (codec != null ? !codec.equals(chunk.codec) : chunk.codec != null) return false;
+        if (lob != null ? !lob.equals(chunk.lob) : chunk.lob != null) return false;
 
         return true;
     }
@@ -109,6 +132,8 @@ public class Chunk implements HasSize {
     public int hashCode() {
         int result = name != null ? name.hashCode() : 0;
         result = 31 * result + (rowCount != null ? rowCount.hashCode() : 0);
+        result = 31 * result + (codec != null ? codec.hashCode() : 0);
+        result = 31 * result + (lob != null ? lob.hashCode() : 0);
         return result;
     }
 
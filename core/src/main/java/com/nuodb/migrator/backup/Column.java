@@ -37,6 +37,7 @@ public class Column {
 
     private String name;
     private ValueType valueType;
+    private boolean lob;
     private transient RowSet rowSet;
 
     public Column() {
@@ -63,6 +64,17 @@ public class Column {
         this.valueType = valueType;
     }
 
+    /**
+     * Whether values of the column are references to large objects in the LOB file of a chunk
+     */
+    public boolean isLob() {
+        return lob;
+    }
+
+    public void setLob(boolean lob) {
+        this.lob = lob;
+    }
+
     public RowSet getRowSet() {
         return rowSet;
     }
@@ -80,6 +92,7 @@ public class Column {
 
         if (name != null ? !name.equals(column.name) : column.name != null) return false;
         if (valueType != null ? !valueType.equals(column.valueType) : column.valueType != null) return false;
+        if (lob != column.lob) return false;
 
         return true;
     }
@@ -88,6 +101,7 @@ public class Column {
     public int hashCode() {
         int result = name != null ? name.hashCode() : 0;
         result = 31 * result + (valueType != null ? valueType.hashCode() : 0);
+        result = 31 * result + (lob ? 1 : 0);
         return result;
     }
 
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup;
+
+import com.nuodb.migrator.utils.xml.XmlHandlerStrategy;
+import com.nuodb.migrator.utils.xml.XmlPersisterException;
+import com.nuodb.migrator.utils.xml.XmlWriteContext;
+import com.nuodb.migrator.utils.xml.XmlWriteSourceAwareContext;
+import com.nuodb.migrator.utils.xml.XmlWriteStrategyContext;
+import org.simpleframework.xml.stream.Format;
+import org.simpleframework.xml.stream.NodeBuilder;
+import org.simpleframework.xml.stream.OutputNode;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newIdentityHashSet;
+import static com.nuodb.migrator.utils.Collections.putAll;
+
+/**
+ * Writes backup catalog element by element through the same handlers as {@link XmlBackupOps#write}, so the resulting
+ * catalog is identical to the one written at once, except for the order of row sets, which follows their completion.
+ * Every appended element is committed & flushed, so the catalog of a failed dump lists all completed row sets.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class XmlBackupAppender implements BackupAppender {
+
+    private final Backup backup;
+    private final Writer writer;
+    private final XmlBackupHandler backupHandler;
+    private final Set<RowSet> rowSets = newIdentityHashSet();
+    private OutputNode output;
+    private XmlWriteContext context;
+
+    public XmlBackupAppender(Backup backup, Writer writer, XmlHandlerStrategy strategy, Format format, Map context) {
+        this.backup = backup;
+        this.writer = writer;
+        this.backupHandler = new XmlBackupHandler();
+        open(strategy, format, context);
+    }
+
+    protected void open(XmlHandlerStrategy strategy, Format format, Map context) {
+        try {
+            output = NodeBuilder.write(writer, format).getChild(XmlBackupHandler.BACKUP_ELEMENT);
+            this.context = new XmlWriteSourceAwareContext<Backup>(backup,
+                    new XmlWriteStrategyContext(putAll(newHashMap(), context), strategy));
+            backupHandler.writeAttributes(backup, output, this.context);
+            commit(backupHandler.writeDatabase(backup, output, this.context));
+        } catch (XmlPersisterException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new XmlPersisterException(exception);
+        }
+    }
+
+    @Override
+    public synchronized void appendRowSet(RowSet rowSet) {
+        if (rowSets.add(rowSet)) {
+            commit(backupHandler.writeRowSet(rowSet, output, context));
+        }
+    }
+
+    protected void commit(OutputNode node) {
+        try {
+            if (node != null) {
+                node.commit();
+            }
+            writer.flush();
+        } catch (Exception exception) {
+            throw new XmlPersisterException(exception);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            for (RowSet rowSet : backup.getRowSets()) {
+                appendRowSet(rowSet);
+            }
+            output.commit();
+            writer.flush();
+        } catch (XmlPersisterException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new XmlPersisterException(exception);
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
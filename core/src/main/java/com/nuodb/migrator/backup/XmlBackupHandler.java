@@ -43,6 +43,7 @@ import java.util.Collection;
 import static com.google.common.collect.Iterables.transform;
 import static com.nuodb.migrator.backup.XmlTableHandler.getTableBindings;
 import static com.nuodb.migrator.utils.Collections.isEmpty;
+import static com.nuodb.migrator.utils.ReflectionUtils.getClassName;
 import static java.lang.String.format;
 
 /**
@@ -50,6 +51,9 @@ import static java.lang.String.format;
  */
 public class XmlBackupHandler extends XmlReadWriteHandlerBase<Backup> implements XmlConstants {
 
+    public static final String BACKUP_READ_LISTENER = getClassName(BackupReadListener.class);
+
+    protected static final String BACKUP_ELEMENT = "backup";
     private static final String VERSION_ATTRIBUTE = "version";
     private static final String FORMAT_ATTRIBUTE = "format";
     private static final String DATABASE_ELEMENT = "database";
@@ -59,13 +63,6 @@ public class XmlBackupHandler extends XmlReadWriteHandlerBase<Backup> implements
         super(Backup.class);
     }
 
-    @Override
-    public Backup read(InputNode input, Class<? extends Backup> type, XmlReadContext context) {
-        Backup backup = super.read(input, type, context);
-        processTableBindings(getTableBindings(context));
-        return backup;
-    }
-
     protected void processTableBindings(TableBindings tableBindings) {
         for (TableBinding tableBinding : tableBindings) {
             Table table = tableBinding.getTable();
@@ -96,17 +93,44 @@ public class XmlBackupHandler extends XmlReadWriteHandlerBase<Backup> implements
     protected void readElement(InputNode input, Backup backup, XmlReadContext context) throws Exception {
         String element = input.getName();
         if (DATABASE_ELEMENT.equals(element)) {
-            backup.setDatabase(context.read(input, Database.class));
+            readDatabase(backup, context.read(input, Database.class), context);
         } else if (ROW_SET.equals(element)) {
-            backup.addRowSet(context.read(input, RowSet.class));
+            readRowSet(backup, context.read(input, RowSet.class), context);
         } else if (DATABASE_INFO_ELEMENT.equals(element)) {
             // old format support
             Database database = new Database();
             database.setDatabaseInfo(context.read(input, DatabaseInfo.class));
-            backup.setDatabase(database);
+            readDatabase(backup, database, context);
         }
     }
 
+    /**
+     * Table bindings are complete once the database element is read, so undeclared tables are dropped before any
+     * listener gets the database
+     */
+    protected void readDatabase(Backup backup, Database database, XmlReadContext context) {
+        backup.setDatabase(database);
+        processTableBindings(getTableBindings(context));
+        BackupReadListener listener = getBackupReadListener(context);
+        if (listener != null) {
+            listener.onDatabase(backup);
+        }
+    }
+
+    protected void readRowSet(Backup backup, RowSet rowSet, XmlReadContext context) {
+        BackupReadListener listener = getBackupReadListener(context);
+        if (listener != null) {
+            rowSet.setBackup(backup);
+            listener.onRowSet(backup, rowSet);
+        } else {
+            backup.addRowSet(rowSet);
+        }
+    }
+
+    protected BackupReadListener getBackupReadListener(XmlReadContext context) {
+        return (BackupReadListener) context.get(BACKUP_READ_LISTENER);
+    }
+
     @Override
     protected void writeAttributes(Backup backup, OutputNode output, XmlWriteContext context) throws Exception {
         context.writeAttribute(output, VERSION_ATTRIBUTE, backup.getVersion());
@@ -115,15 +139,22 @@ public class XmlBackupHandler extends XmlReadWriteHandlerBase<Backup> implements
 
     @Override
     protected void writeElements(Backup backup, OutputNode output, XmlWriteContext context) throws Exception {
-        if (backup.getDatabase() != null) {
-            context.writeElement(output, DATABASE_ELEMENT, backup.getDatabase());
-        }
+        writeDatabase(backup, output, context);
         Collection<RowSet> rowSets = backup.getRowSets();
         if (!isEmpty(rowSets)) {
             for (RowSet rowSet : rowSets) {
-                context.writeElement(output, ROW_SET, rowSet);
+                writeRowSet(rowSet, output, context);
             }
         }
     }
+
+    protected OutputNode writeDatabase(Backup backup, OutputNode output, XmlWriteContext context) {
+        return backup.getDatabase() != null ?
+                context.writeElement(output, DATABASE_ELEMENT, backup.getDatabase()) : null;
+    }
+
+    protected OutputNode writeRowSet(RowSet rowSet, OutputNode output, XmlWriteContext context) {
+        return context.writeElement(output, ROW_SET, rowSet);
+    }
 }
 
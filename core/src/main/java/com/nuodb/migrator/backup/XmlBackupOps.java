@@ -37,8 +37,14 @@ import org.simpleframework.xml.stream.Format;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
 import java.util.Map;
 
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.XmlBackupHandler.BACKUP_READ_LISTENER;
+import static com.nuodb.migrator.utils.Collections.putAll;
+
 /**
  * @author Sergey Bushik
  */
@@ -71,11 +77,33 @@ public class XmlBackupOps extends BackupOpsBase implements XmlConstants {
         return getXmlPersister().read(Backup.class, input, context);
     }
 
+    /**
+     * Row sets are passed to the listener as soon as each row set element is parsed, as the persister pulls elements
+     * from the underlying StAX reader one by one
+     */
+    @Override
+    public Backup read(InputStream input, Map context, BackupReadListener listener) {
+        Map readContext = putAll(newHashMap(), context);
+        readContext.put(BACKUP_READ_LISTENER, listener);
+        return read(input, readContext);
+    }
+
     @Override
     public void write(Backup backup, OutputStream output, Map context) {
         getXmlPersister().write(backup, output, context);
     }
 
+    @Override
+    public BackupAppender openAppender(Backup backup, OutputStream output, Map context) {
+        XmlPersister xmlPersister = getXmlPersister();
+        try {
+            return new XmlBackupAppender(backup, new OutputStreamWriter(output, "utf-8"),
+                    (XmlHandlerStrategy) xmlPersister.getStrategy(), xmlPersister.getFormat(), context);
+        } catch (UnsupportedEncodingException exception) {
+            throw new BackupException(exception);
+        }
+    }
+
     public XmlPersister getXmlPersister() {
         return xmlPersister;
     }
@@ -40,6 +40,8 @@ public class XmlChunkHandler extends XmlReadWriteHandlerBase<Chunk> implements X
 
     private static final String NAME = "name";
     private static final String ROW_COUNT = "row-count";
+    private static final String CODEC = "codec";
+    private static final String LOB = "lob";
 
     public XmlChunkHandler() {
         super(Chunk.class);
@@ -49,11 +51,19 @@ public class XmlChunkHandler extends XmlReadWriteHandlerBase<Chunk> implements X
     protected void readAttributes(InputNode input, Chunk chunk, XmlReadContext context) throws Exception {
         chunk.setName(context.readAttribute(input, NAME, String.class));
         chunk.setRowCount(context.readAttribute(input, ROW_COUNT, Long.class));
+        chunk.setCodec(context.readAttribute(input, CODEC, String.class));
+        chunk.setLob(context.readAttribute(input, LOB, String.class));
     }
 
     @Override
     protected void writeAttributes(Chunk chunk, OutputNode output, XmlWriteContext context) throws Exception {
         context.writeAttribute(output, NAME, chunk.getName());
         context.writeAttribute(output, ROW_COUNT, chunk.getRowCount());
+        if (chunk.getCodec() != null) {
+            context.writeAttribute(output, CODEC, chunk.getCodec());
+        }
+        if (chunk.getLob() != null) {
+            context.writeAttribute(output, LOB, chunk.getLob());
+        }
     }
 }
@@ -43,6 +43,7 @@ public class XmlRowSetColumnHandler extends XmlReadWriteHandlerBase<Column> impl
 
     private static final String NAME_ATTRIBUTE = "name";
     private static final String VALUE_TYPE_ATTRIBUTE = "value-type";
+    private static final String LOB_ATTRIBUTE = "lob";
 
     public XmlRowSetColumnHandler() {
         super(Column.class);
@@ -52,6 +53,7 @@ public class XmlRowSetColumnHandler extends XmlReadWriteHandlerBase<Column> impl
     protected void readAttributes(InputNode input, Column target, XmlReadContext context) throws Exception {
         target.setName(context.readAttribute(input, NAME_ATTRIBUTE, String.class));
         target.setValueType(fromAlias(context.readAttribute(input, VALUE_TYPE_ATTRIBUTE, String.class)));
+        target.setLob(context.readAttribute(input, LOB_ATTRIBUTE, Boolean.class, false));
     }
 
     @Override
@@ -59,6 +61,9 @@ public class XmlRowSetColumnHandler extends XmlReadWriteHandlerBase<Column> impl
                                    XmlWriteContext context) throws Exception {
         context.writeAttribute(output, NAME_ATTRIBUTE, column.getName());
         context.writeAttribute(output, VALUE_TYPE_ATTRIBUTE, toAlias(column.getValueType()));
+        if (column.isLob()) {
+            context.writeAttribute(output, LOB_ATTRIBUTE, true);
+        }
     }
 }
 
@@ -27,6 +27,8 @@
  */
 package com.nuodb.migrator.backup.format;
 
+import com.nuodb.migrator.backup.format.codec.Codec;
+
 import java.util.Map;
 
 /**
@@ -37,4 +39,14 @@ public interface FormatFactory {
     Input createInput(String format, Map<String, Object> attributes);
 
     Output createOutput(String format, Map<String, Object> attributes);
+
+    Codec createCodec(String codec);
+
+    /**
+     * Name of the codec to record in the backup catalog, which resolves back to the codec with {@link #createCodec}
+     *
+     * @param codec to record
+     * @return codec short name if it's registered, otherwise codec class name
+     */
+    String getCodecName(Codec codec);
 }
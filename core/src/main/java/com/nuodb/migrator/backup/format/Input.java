@@ -36,11 +36,24 @@ import java.io.Reader;
  * @author Sergey Bushik
  */
 public interface Input extends Format {
+    /**
+     * Attribute name enabling memory mapped reading of chunk files, chunks are read through file streams by default
+     */
+    final String ATTRIBUTE_MAPPED = "mapped";
 
     void readStart();
 
     Value[] readValues();
 
+    /**
+     * Reads values of the next row into the given array reusing the mutable value holders in it, if the array is null
+     * a new array of immutable values is returned.
+     *
+     * @param values array to read values into, may be null
+     * @return array of values or null if there are no more rows
+     */
+    Value[] readValues(Value[] values);
+
     void readEnd();
 
     void setReader(Reader reader);
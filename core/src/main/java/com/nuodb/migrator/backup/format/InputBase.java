@@ -28,6 +28,8 @@
 package com.nuodb.migrator.backup.format;
 
 import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.format.utils.MappedInputStream;
+import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueType;
 
 import java.io.BufferedInputStream;
@@ -79,6 +81,11 @@ public abstract class InputBase extends FormatBase implements Input {
         initValueTypes();
     }
 
+    @Override
+    public Value[] readValues() {
+        return readValues(null);
+    }
+
     protected abstract void init(Reader reader);
 
     protected abstract void init(InputStream inputStream);
@@ -116,7 +123,8 @@ public abstract class InputBase extends FormatBase implements Input {
     }
 
     protected InputStream wrapInputStream(InputStream inputStream) {
-        return isBuffering() ? new BufferedInputStream(inputStream, getBufferSize()) : inputStream;
+        return isBuffering() && !(inputStream instanceof MappedInputStream) ?
+                new BufferedInputStream(inputStream, getBufferSize()) : inputStream;
     }
 
     @Override
@@ -36,6 +36,23 @@ import java.io.Writer;
  * @author Sergey Bushik
  */
 public interface Output extends Format {
+    /**
+     * Attribute name limiting size of a chunk in bytes, the chunk is rolled over to the next one on exceeding the size
+     */
+    final String ATTRIBUTE_CHUNK_SIZE = "chunk.size";
+    /**
+     * Attribute name limiting number of rows in a chunk, the chunk is rolled over to the next one on reaching the limit
+     */
+    final String ATTRIBUTE_CHUNK_ROWS = "chunk.rows";
+    /**
+     * Attribute name of the codec compressing chunks, i.e. gzip or deflate, chunks are not compressed by default
+     */
+    final String ATTRIBUTE_CODEC = "codec";
+    /**
+     * Attribute name enabling streaming of large objects to a separate LOB file per chunk, where rows reference large
+     * objects by offsets instead of holding their content inline, large objects are held in memory by default
+     */
+    final String ATTRIBUTE_LOB_STREAMING = "lob.streaming";
 
     void writeStart();
 
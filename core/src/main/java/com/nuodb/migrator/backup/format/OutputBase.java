@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.backup.format;
 
+import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.utils.Counting;
 import com.nuodb.migrator.utils.CountingOutputStream;
 import com.nuodb.migrator.utils.CountingWriter;
@@ -36,6 +37,9 @@ import java.io.BufferedWriter;
 import java.io.OutputStream;
 import java.io.Writer;
 
+import static java.lang.Long.parseLong;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
 /**
  * @author Sergey Bushik
  */
@@ -45,7 +49,11 @@ public abstract class OutputBase extends FormatBase implements Output {
     private Writer writer;
     private OutputStream outputStream;
     private Long maxSize;
+    private Long maxRows;
     private Counting counting;
+    private long rowCount;
+    private long rowCountLimit = Long.MAX_VALUE;
+    private long sizeLimit = Long.MAX_VALUE;
 
     protected OutputBase() {
     }
@@ -76,6 +84,12 @@ public abstract class OutputBase extends FormatBase implements Output {
 
     @Override
     public void init() {
+        rowCount = 0;
+        // limits are checked per row, so they are resolved from the attributes once per chunk
+        Long maxRows = getMaxRows();
+        rowCountLimit = maxRows != null ? maxRows : Long.MAX_VALUE;
+        Long maxSize = getMaxSize();
+        sizeLimit = maxSize != null ? maxSize : Long.MAX_VALUE;
         if (hasWriter()) {
             init(openWriter());
         } else if (hasOutputStream()) {
@@ -117,20 +131,57 @@ public abstract class OutputBase extends FormatBase implements Output {
         return outputStream;
     }
 
+    @Override
+    public void writeValues(Value[] values) {
+        writeRow(values);
+        rowCount++;
+    }
+
+    protected abstract void writeRow(Value[] values);
+
     @Override
     public boolean canWrite() {
-        return fitMaxSize();
+        return fitMaxSize() && fitMaxRows();
     }
 
     protected boolean fitMaxSize() {
-        return !(getMaxSize() != null && counting != null) || counting.getCount() < getMaxSize();
+        return counting == null || counting.getCount() < sizeLimit;
+    }
+
+    protected boolean fitMaxRows() {
+        return rowCount < rowCountLimit;
     }
 
     public boolean isCounting() {
         return getMaxSize() != null;
     }
 
+    public long getRowCount() {
+        return rowCount;
+    }
+
     public Long getMaxSize() {
-        return maxSize;
+        return getLongAttribute(ATTRIBUTE_CHUNK_SIZE, maxSize);
+    }
+
+    public void setMaxSize(Long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Long getMaxRows() {
+        return getLongAttribute(ATTRIBUTE_CHUNK_ROWS, maxRows);
+    }
+
+    protected Long getLongAttribute(String attribute, Long defaultValue) {
+        Object value = getAttribute(attribute);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        String stringValue = value != null ? value.toString() : null;
+        return isEmpty(stringValue) ? defaultValue : Long.valueOf(parseLong(stringValue.trim()));
+    }
+
+    public void setMaxRows(Long maxRows) {
+        this.maxRows = maxRows;
     }
 }
@@ -30,9 +30,17 @@ package com.nuodb.migrator.backup.format;
 import com.nuodb.migrator.backup.format.bson.BsonFormat;
 import com.nuodb.migrator.backup.format.bson.BsonInput;
 import com.nuodb.migrator.backup.format.bson.BsonOutput;
+import com.nuodb.migrator.backup.format.codec.Codec;
+import com.nuodb.migrator.backup.format.columnar.ColumnarFormat;
+import com.nuodb.migrator.backup.format.columnar.ColumnarInput;
+import com.nuodb.migrator.backup.format.columnar.ColumnarOutput;
+import com.nuodb.migrator.backup.format.codec.DeflateCodec;
+import com.nuodb.migrator.backup.format.codec.GzipCodec;
 import com.nuodb.migrator.backup.format.csv.CsvFormat;
 import com.nuodb.migrator.backup.format.csv.CsvInput;
 import com.nuodb.migrator.backup.format.csv.CsvOutput;
+import com.nuodb.migrator.backup.format.pipe.PipeFormat;
+import com.nuodb.migrator.backup.format.pipe.PipeOutput;
 import com.nuodb.migrator.backup.format.xml.XmlFormat;
 import com.nuodb.migrator.backup.format.xml.XmlInput;
 import com.nuodb.migrator.backup.format.xml.XmlOutput;
@@ -61,14 +69,27 @@ public class SimpleFormatFactory implements FormatFactory {
     private Map<String, Class<? extends Output>> outputFormats =
             new TreeMap<String, Class<? extends Output>>(CASE_INSENSITIVE_ORDER);
 
+    private Map<String, Class<? extends Codec>> codecs =
+            new TreeMap<String, Class<? extends Codec>>(CASE_INSENSITIVE_ORDER);
+
     public SimpleFormatFactory() {
         addFormat(CsvFormat.TYPE, CsvInput.class);
         addFormat(XmlFormat.TYPE, XmlInput.class);
         addFormat(BsonFormat.TYPE, BsonInput.class);
+        addFormat(ColumnarFormat.TYPE, ColumnarInput.class);
 
         addFormat(CsvFormat.TYPE, CsvOutput.class);
         addFormat(XmlFormat.TYPE, XmlOutput.class);
         addFormat(BsonFormat.TYPE, BsonOutput.class);
+        addFormat(ColumnarFormat.TYPE, ColumnarOutput.class);
+        addFormat(PipeFormat.TYPE, PipeOutput.class);
+
+        addCodec(GzipCodec.CODEC, GzipCodec.class);
+        addCodec(DeflateCodec.CODEC, DeflateCodec.class);
+    }
+
+    public void addCodec(String codec, Class<? extends Codec> codecClass) {
+        codecs.put(codec, codecClass);
     }
 
     public void addFormat(String format, Class<? extends Format> formatClass) {
@@ -90,6 +111,25 @@ public class SimpleFormatFactory implements FormatFactory {
         return (Output) createFormat(format, outputFormats.get(format), attributes);
     }
 
+    @Override
+    public Codec createCodec(String codec) {
+        Class<? extends Codec> codecClass = codecs.get(codec);
+        if (codecClass == null) {
+            try {
+                codecClass = (Class<? extends Codec>) getClassLoader().loadClass(codec);
+            } catch (ClassNotFoundException e) {
+                throw new OutputException(format("Codec %s is not supported", codec));
+            }
+        }
+        return newInstance(codecClass);
+    }
+
+    @Override
+    public String getCodecName(Codec codec) {
+        String name = codec.getCodec();
+        return name != null && codec.getClass().equals(codecs.get(name)) ? name : codec.getClass().getName();
+    }
+
     protected Format createFormat(String type, Class<? extends Format> formatClass, Map<String, Object> attributes) {
         if (formatClass == null) {
             if (logger.isTraceEnabled()) {
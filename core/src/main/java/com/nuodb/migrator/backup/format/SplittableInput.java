@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format;
+
+import java.io.InputStream;
+
+/**
+ * Input which is capable of reading a byte range of a chunk, so that a single chunk can be loaded by several workers
+ * concurrently. Range boundaries are found with {@link #sync(InputStream, long)}, which resynchronizes to the first
+ * row starting at or after an arbitrary offset.
+ *
+ * @author Sergey Bushik
+ */
+public interface SplittableInput extends Input {
+
+    /**
+     * Checks whether this input with its current attributes can read byte ranges of a chunk
+     *
+     * @return true if the chunk can be split
+     */
+    boolean isSplittable();
+
+    /**
+     * Scans the input stream positioned at the given offset of a chunk and returns offset of the first row, which
+     * starts at or after the offset.
+     *
+     * @param inputStream chunk stream positioned at the offset
+     * @param offset      offset of the stream in the chunk
+     * @return offset of the first row at or after the given offset or -1 if the row can't be found
+     */
+    long sync(InputStream inputStream, long offset);
+
+    /**
+     * Sets stream to read chunk bytes from start offset inclusive to end offset exclusive, where both offsets are row
+     * boundaries returned by {@link #sync(InputStream, long)} or the chunk's start & end.
+     *
+     * @param inputStream stream positioned at the start offset and limited to the end offset
+     * @param start       start offset in the chunk
+     * @param end         end offset in the chunk
+     * @param length      length of the chunk
+     */
+    void setInputStream(InputStream inputStream, long start, long end, long length);
+}
@@ -29,31 +29,43 @@ package com.nuodb.migrator.backup.format.bson;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
-import com.nuodb.migrator.backup.format.InputBase;
 import com.nuodb.migrator.backup.format.InputException;
+import com.nuodb.migrator.backup.format.SplittableInputBase;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueType;
 import de.undercouch.bson4jackson.BsonFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.SequenceInputStream;
 import java.util.BitSet;
 import java.util.List;
 
 import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
 import static com.fasterxml.jackson.core.JsonToken.VALUE_NULL;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_TRUE;
 import static com.nuodb.migrator.backup.format.utils.BitSetUtils.EMPTY;
 import static com.nuodb.migrator.backup.format.utils.BitSetUtils.fromByteArray;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
 import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
-import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
-import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
 import static de.undercouch.bson4jackson.BsonGenerator.Feature.ENABLE_STREAMING;
 
 /**
  * @author Sergey Bushik
  */
-public class BsonInput extends InputBase implements BsonFormat {
+public class BsonInput extends SplittableInputBase implements BsonFormat {
+
+    /**
+     * Start of the document & rows array preceding the rows of a range in the middle of a chunk
+     */
+    private static final byte[] RANGE_PREFIX = {0, 0, 0, 0, 0x04, 'r', 's', 0, 0, 0, 0, 0};
+    /**
+     * End of the rows array & document following the rows of a range in the middle of a chunk
+     */
+    private static final byte[] RANGE_SUFFIX = {0, 0};
 
     private JsonParser bsonReader;
 
@@ -73,6 +85,12 @@ public class BsonInput extends InputBase implements BsonFormat {
 
     @Override
     protected void init(InputStream input) {
+        if (!isChunkStart()) {
+            input = new SequenceInputStream(new ByteArrayInputStream(RANGE_PREFIX), input);
+        }
+        if (!isChunkEnd()) {
+            input = new SequenceInputStream(input, new ByteArrayInputStream(RANGE_SUFFIX));
+        }
         try {
             bsonReader = createBsonFactory().createJsonParser(input);
         } catch (Exception exception) {
@@ -86,6 +104,21 @@ public class BsonInput extends InputBase implements BsonFormat {
         return factory;
     }
 
+    @Override
+    public boolean isSplittable() {
+        return true;
+    }
+
+    @Override
+    public long sync(InputStream inputStream, long offset) {
+        initValueTypes();
+        try {
+            return new BsonInputSync(getValueTypes()).sync(inputStream, offset);
+        } catch (IOException exception) {
+            throw new InputException(exception);
+        }
+    }
+
     @Override
     public void readStart() {
         try {
@@ -98,37 +131,28 @@ public class BsonInput extends InputBase implements BsonFormat {
     }
 
     @Override
-    public Value[] readValues() {
-        Value[] values = null;
+    public Value[] readValues(Value[] values) {
         try {
             if (isNextToken(START_ARRAY)) {
                 List<ValueType> valueTypes = getValueTypes();
                 int length = valueTypes.size();
-                values = new Value[length];
+                values = values(values, length);
                 int index = 0;
                 BitSet nulls = isNextToken(VALUE_NULL) ? EMPTY :
                         fromByteArray((byte[]) bsonReader.getEmbeddedObject());
                 while (index < length) {
-                    Object value;
-                    if (nulls.get(index)) {
-                        value = null;
-                    } else {
-                        bsonReader.nextToken();
-                        value = bsonReader.getEmbeddedObject();
-                    }
                     ValueType valueType = valueTypes.get(index);
                     valueType = valueType != null ? valueType : STRING;
-                    switch (valueType) {
-                        case BINARY:
-                            values[index] = binary((byte[]) value);
-                            break;
-                        case STRING:
-                            values[index] = string((String) value);
-                            break;
+                    if (nulls.get(index)) {
+                        values[index] = nullValue(values[index], valueType);
+                    } else {
+                        values[index] = readValue(bsonReader.nextToken(), valueType, values[index]);
                     }
                     index++;
                 }
                 bsonReader.nextToken();
+            } else {
+                values = null;
             }
         } catch (IOException exception) {
             throw new InputException(exception);
@@ -136,6 +160,24 @@ public class BsonInput extends InputBase implements BsonFormat {
         return values;
     }
 
+    /**
+     * Reads value of the current token, numbers & booleans written with the native bson types are read as typed values
+     */
+    protected Value readValue(JsonToken token, ValueType valueType, Value reuse) throws IOException {
+        switch (token) {
+            case VALUE_NUMBER_INT:
+                return longValue(reuse, bsonReader.getLongValue());
+            case VALUE_NUMBER_FLOAT:
+                return doubleValue(reuse, bsonReader.getDoubleValue());
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return bool(reuse, token == VALUE_TRUE);
+            default:
+                Object value = bsonReader.getEmbeddedObject();
+                return valueType == BINARY ? binary(reuse, (byte[]) value) : string(reuse, (String) value);
+        }
+    }
+
     protected boolean isNextToken(JsonToken... tokens) throws IOException {
         return isToken(bsonReader.nextToken(), tokens);
     }
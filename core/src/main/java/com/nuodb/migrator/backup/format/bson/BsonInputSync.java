@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.bson;
+
+import com.nuodb.migrator.backup.format.utils.LookaheadBuffer;
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.BitSet;
+import java.util.List;
+
+import static com.nuodb.migrator.backup.format.utils.BitSetUtils.fromByteArray;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+
+/**
+ * Finds the start of the first row at or after an arbitrary offset of a bson chunk. Rows are written as elements of
+ * the rows array keyed by the row index, the first element of a row is either null or a binary bit set of null
+ * values, it's followed by the non null values keyed by their indexes, the values are either strings or binaries or
+ * numbers & booleans written with the native bson types. A candidate row is accepted if it's parsed
+ * according to the value types of the row set and it's followed by either the next row or the end of the chunk.
+ *
+ * @author Sergey Bushik
+ */
+class BsonInputSync {
+
+    /**
+     * Max number of bytes scanned before giving up
+     */
+    private static final int MAX_SCAN = 16 * 1024 * 1024;
+
+    private static final int TYPE_DOUBLE = 0x01;
+    private static final int TYPE_STRING = 0x02;
+    private static final int TYPE_ARRAY = 0x04;
+    private static final int TYPE_BINARY = 0x05;
+    private static final int TYPE_BOOLEAN = 0x08;
+    private static final int TYPE_NULL = 0x0A;
+    private static final int TYPE_INT32 = 0x10;
+    private static final int TYPE_INT64 = 0x12;
+    private static final int MAX_KEY_LENGTH = 10;
+
+    private final List<ValueType> valueTypes;
+    private LookaheadBuffer buffer;
+    private long key;
+
+    public BsonInputSync(List<ValueType> valueTypes) {
+        this.valueTypes = valueTypes;
+    }
+
+    public long sync(InputStream inputStream, long offset) throws IOException {
+        buffer = new LookaheadBuffer(inputStream);
+        int c;
+        for (int position = 0; position < MAX_SCAN && (c = buffer.get(position)) >= 0; position++) {
+            if (c == TYPE_ARRAY && isRow(position)) {
+                return offset + position;
+            }
+        }
+        return -1;
+    }
+
+    protected boolean isRow(int position) throws IOException {
+        int end = readRow(position);
+        if (end < 0) {
+            return false;
+        }
+        long index = key;
+        if (buffer.get(end) == TYPE_ARRAY) {
+            return readKey(end + 1) > 0 && key == index + 1;
+        } else {
+            return buffer.get(end) == 0 && buffer.get(end + 1) == 0 && buffer.get(end + 2) < 0;
+        }
+    }
+
+    /**
+     * Parses row starting at the given position and returns position after the row or -1 if the bytes are not a row
+     */
+    protected int readRow(int position) throws IOException {
+        position = readKey(position + 1);
+        // length of the row document is written as zero in the streaming mode
+        if (position < 0 || buffer.getInt(position) < 0) {
+            return -1;
+        }
+        position += 4;
+        int type = buffer.get(position);
+        position = readKey(position + 1);
+        if (position < 0 || key != 0) {
+            return -1;
+        }
+        BitSet nulls;
+        if (type == TYPE_NULL) {
+            nulls = new BitSet();
+        } else if (type == TYPE_BINARY) {
+            long length = buffer.getInt(position);
+            if (length < 0 || length > (valueTypes.size() + 7) / 8) {
+                return -1;
+            }
+            byte[] bytes = new byte[(int) length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) buffer.get(position + 5 + i);
+            }
+            nulls = fromByteArray(bytes);
+            position += 5 + (int) length;
+        } else {
+            return -1;
+        }
+        int element = 1;
+        for (int index = 0; index < valueTypes.size(); index++) {
+            if (nulls.get(index)) {
+                continue;
+            }
+            type = buffer.get(position);
+            if (valueTypes.get(index) == BINARY ? type != TYPE_BINARY : !isStringType(type)) {
+                return -1;
+            }
+            position = readKey(position + 1);
+            if (position < 0 || key != element++) {
+                return -1;
+            }
+            int size = getFixedSize(type);
+            if (size > 0) {
+                position += size;
+                continue;
+            }
+            long length = buffer.getInt(position);
+            if (length < 0 || length > MAX_SCAN) {
+                return -1;
+            }
+            if (type == TYPE_BINARY) {
+                position += 5 + (int) length;
+            } else {
+                position += 4 + (int) length;
+                if (length == 0 || buffer.get(position - 1) != 0) {
+                    return -1;
+                }
+            }
+        }
+        return buffer.get(position) == 0 ? position + 1 : -1;
+    }
+
+    /**
+     * String columns hold either strings or numbers & booleans written with the native bson types
+     */
+    protected boolean isStringType(int type) {
+        return type == TYPE_STRING || getFixedSize(type) > 0;
+    }
+
+    protected int getFixedSize(int type) {
+        switch (type) {
+            case TYPE_DOUBLE:
+            case TYPE_INT64:
+                return 8;
+            case TYPE_INT32:
+                return 4;
+            case TYPE_BOOLEAN:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Reads decimal element key terminated with zero and returns position after the key or -1 if the key is invalid
+     */
+    protected int readKey(int position) throws IOException {
+        int length = 0;
+        long key = 0;
+        int c;
+        while ((c = buffer.get(position + length)) != 0) {
+            if (c < '0' || c > '9' || length == MAX_KEY_LENGTH || (length == 1 && key == 0)) {
+                return -1;
+            }
+            key = key * 10 + c - '0';
+            length++;
+        }
+        this.key = key;
+        return length > 0 ? position + length + 1 : -1;
+    }
+}
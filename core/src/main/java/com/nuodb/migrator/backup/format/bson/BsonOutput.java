@@ -95,7 +95,7 @@ public class BsonOutput extends OutputBase implements BsonFormat {
     }
 
     @Override
-    public void writeValues(Value[] values) {
+    protected void writeRow(Value[] values) {
         try {
             bsonWriter.writeStartArray();
             BitSet nulls = new BitSet();
@@ -116,7 +116,7 @@ public class BsonOutput extends OutputBase implements BsonFormat {
                             bsonWriter.writeBinary(value.asBytes());
                             break;
                         case STRING:
-                            bsonWriter.writeString(value.asString());
+                            writeValue(value);
                             break;
                     }
                 }
@@ -127,6 +127,26 @@ public class BsonOutput extends OutputBase implements BsonFormat {
         }
     }
 
+    /**
+     * Writes long, double & boolean values with the native bson types, other values are written as strings
+     */
+    protected void writeValue(Value value) throws IOException {
+        switch (value.getValueType()) {
+            case LONG:
+                bsonWriter.writeNumber(value.asLong());
+                break;
+            case DOUBLE:
+                bsonWriter.writeNumber(value.asDouble());
+                break;
+            case BOOLEAN:
+                bsonWriter.writeBoolean(value.asBoolean());
+                break;
+            default:
+                bsonWriter.writeString(value.asString());
+                break;
+        }
+    }
+
     @Override
     public void writeEnd() {
         try {
@@ -0,0 +1,390 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.BitSet;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.columnar.ColumnarFormat.*;
+import static com.nuodb.migrator.backup.format.utils.BitSetUtils.fromByteArray;
+import static com.nuodb.migrator.backup.format.utils.BitSetUtils.toByteArray;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Double.longBitsToDouble;
+
+/**
+ * Values of a single column inside of a row group. Fixed width values are kept in primitive arrays, the rest is kept
+ * as objects. Both sides of the format share the buffer: the output appends values & encodes the column, while the
+ * input decodes the column & serves values by row index.
+ *
+ * @author Sergey Bushik
+ */
+class ColumnarColumn {
+
+    private static final String UTF_8 = "UTF-8";
+
+    private final ValueType valueType;
+    private final BitSet nulls = new BitSet();
+    private byte encoding;
+    private long[] longs;
+    private int[] nanos;
+    private Object[] objects;
+    private byte[] buffer = new byte[256];
+    private int size;
+
+    public ColumnarColumn(ValueType valueType, int capacity) {
+        this.valueType = valueType != null ? valueType : ValueType.STRING;
+        this.longs = new long[capacity];
+        this.nanos = new int[capacity];
+        this.objects = new Object[capacity];
+    }
+
+    public void clear() {
+        nulls.clear();
+        encoding = ENCODING_NULL;
+        for (int index = 0; index < size; index++) {
+            objects[index] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Copies value to the buffer, as the value holders are reused by the callers. The first non null value determines
+     * encoding of the column in the row group, on typed values mismatch the column falls back to plain strings.
+     */
+    public void add(Value value) {
+        int index = size++;
+        if (value.isNull()) {
+            nulls.set(index);
+            return;
+        }
+        byte target = getEncoding(value);
+        if (encoding == ENCODING_NULL) {
+            encoding = target;
+        } else if (encoding != target && encoding != ENCODING_STRING) {
+            toStrings(index);
+        }
+        switch (encoding) {
+            case ENCODING_LONG:
+                longs[index] = value.asLong();
+                break;
+            case ENCODING_DOUBLE:
+                longs[index] = doubleToRawLongBits(value.asDouble());
+                break;
+            case ENCODING_BOOLEAN:
+                longs[index] = value.asBoolean() ? 1 : 0;
+                break;
+            case ENCODING_TIMESTAMP:
+                Timestamp timestamp = value.asTimestamp();
+                longs[index] = timestamp.getTime();
+                nanos[index] = timestamp.getNanos();
+                break;
+            case ENCODING_BINARY:
+                objects[index] = value.asBytes();
+                break;
+            case ENCODING_DECIMAL:
+                objects[index] = value.asDecimal();
+                break;
+            default:
+                objects[index] = value.asString();
+                break;
+        }
+    }
+
+    protected byte getEncoding(Value value) {
+        if (valueType == ValueType.BINARY) {
+            return ENCODING_BINARY;
+        }
+        switch (value.getValueType()) {
+            case LONG:
+                return ENCODING_LONG;
+            case DOUBLE:
+                return ENCODING_DOUBLE;
+            case BOOLEAN:
+                return ENCODING_BOOLEAN;
+            case TIMESTAMP:
+                return ENCODING_TIMESTAMP;
+            case DECIMAL:
+                return ENCODING_DECIMAL;
+            default:
+                return ENCODING_STRING;
+        }
+    }
+
+    protected void toStrings(int length) {
+        for (int index = 0; index < length; index++) {
+            if (!nulls.get(index)) {
+                objects[index] = getValue(index, null).asString();
+            }
+        }
+        encoding = ENCODING_STRING;
+    }
+
+    public void write(DataOutput output) throws IOException {
+        byte encoding = this.encoding;
+        Map<String, Integer> dictionary = null;
+        if (encoding == ENCODING_STRING) {
+            dictionary = createDictionary();
+            if (dictionary != null) {
+                encoding = ENCODING_DICTIONARY;
+            }
+        }
+        output.writeByte(encoding);
+        writeBytes(output, toByteArray(nulls));
+        switch (encoding) {
+            case ENCODING_LONG:
+            case ENCODING_DOUBLE:
+                for (int index = 0; index < size; index++) {
+                    if (!nulls.get(index)) {
+                        output.writeLong(longs[index]);
+                    }
+                }
+                break;
+            case ENCODING_BOOLEAN:
+                BitSet values = new BitSet(size);
+                for (int index = 0; index < size; index++) {
+                    values.set(index, longs[index] != 0 && !nulls.get(index));
+                }
+                writeBytes(output, toByteArray(values));
+                break;
+            case ENCODING_TIMESTAMP:
+                for (int index = 0; index < size; index++) {
+                    if (!nulls.get(index)) {
+                        output.writeLong(longs[index]);
+                        output.writeInt(nanos[index]);
+                    }
+                }
+                break;
+            case ENCODING_DECIMAL:
+                for (int index = 0; index < size; index++) {
+                    if (!nulls.get(index)) {
+                        BigDecimal decimal = (BigDecimal) objects[index];
+                        output.writeInt(decimal.scale());
+                        writeBytes(output, decimal.unscaledValue().toByteArray());
+                    }
+                }
+                break;
+            case ENCODING_STRING:
+                for (int index = 0; index < size; index++) {
+                    if (!nulls.get(index)) {
+                        writeBytes(output, ((String) objects[index]).getBytes(UTF_8));
+                    }
+                }
+                break;
+            case ENCODING_DICTIONARY:
+                writeDictionary(output, dictionary);
+                break;
+            case ENCODING_BINARY:
+                for (int index = 0; index < size; index++) {
+                    if (!nulls.get(index)) {
+                        writeBytes(output, (byte[]) objects[index]);
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * Builds dictionary of distinct strings if the column has low cardinality, i.e. no more distinct values than half
+     * of the non null values & no more than fit into a short index
+     *
+     * @return dictionary mapping strings to their indexes or null if the column is not worth dictionary encoding
+     */
+    protected Map<String, Integer> createDictionary() {
+        int limit = Math.min((size - nulls.cardinality()) / 2, 0xFFFF);
+        Map<String, Integer> dictionary = newHashMap();
+        for (int index = 0; index < size; index++) {
+            if (!nulls.get(index)) {
+                String value = (String) objects[index];
+                if (!dictionary.containsKey(value)) {
+                    if (dictionary.size() >= limit) {
+                        return null;
+                    }
+                    dictionary.put(value, dictionary.size());
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    protected void writeDictionary(DataOutput output, Map<String, Integer> dictionary) throws IOException {
+        String[] values = new String[dictionary.size()];
+        for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+            values[entry.getValue()] = entry.getKey();
+        }
+        output.writeInt(values.length);
+        for (String value : values) {
+            writeBytes(output, value.getBytes(UTF_8));
+        }
+        boolean narrow = values.length <= 0x100;
+        for (int index = 0; index < size; index++) {
+            if (!nulls.get(index)) {
+                int key = dictionary.get(objects[index]);
+                if (narrow) {
+                    output.writeByte(key);
+                } else {
+                    output.writeShort(key);
+                }
+            }
+        }
+    }
+
+    protected void writeBytes(DataOutput output, byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Decodes the whole column of the row group
+     */
+    public void read(DataInput input, int size) throws IOException {
+        clear();
+        if (longs.length < size) {
+            longs = new long[size];
+            nanos = new int[size];
+            objects = new Object[size];
+        }
+        this.size = size;
+        encoding = input.readByte();
+        nulls.or(fromByteArray(readBytes(input)));
+        switch (encoding) {
+            case ENCODING_LONG:
+            case ENCODING_DOUBLE:
+                for (int index = 0; index < size; index++) {
+                    if (!nulls.get(index)) {
+                        longs[index] = input.readLong();
+                    }
+                }
+                break;
+            case ENCODING_BOOLEAN:
+                BitSet values = fromByteArray(readBytes(input));
+                for (int index = 0; index < size; index++) {
+                    longs[index] = values.get(index) ? 1 : 0;
+                }
+                break;
+            case ENCODING_TIMESTAMP:
+                for (int index = 0; index < size; index++) {
+                    if (!nulls.get(index)) {
+                        longs[index] = input.readLong();
+                        nanos[index] = input.readInt();
+                    }
+                }
+                break;
+            case ENCODING_DECIMAL:
+                for (int index = 0; index < size; index++) {
+                    if (!nulls.get(index)) {
+                        int scale = input.readInt();
+                        objects[index] = new BigDecimal(new BigInteger(readBytes(input)), scale);
+                    }
+                }
+                break;
+            case ENCODING_STRING:
+                for (int index = 0; index < size; index++) {
+                    if (!nulls.get(index)) {
+                        objects[index] = readString(input);
+                    }
+                }
+                break;
+            case ENCODING_DICTIONARY:
+                String[] dictionary = new String[input.readInt()];
+                for (int key = 0; key < dictionary.length; key++) {
+                    dictionary[key] = readString(input);
+                }
+                boolean narrow = dictionary.length <= 0x100;
+                for (int index = 0; index < size; index++) {
+                    if (!nulls.get(index)) {
+                        objects[index] = dictionary[narrow ? input.readUnsignedByte() : input.readUnsignedShort()];
+                    }
+                }
+                break;
+            case ENCODING_BINARY:
+                for (int index = 0; index < size; index++) {
+                    if (!nulls.get(index)) {
+                        objects[index] = readBytes(input);
+                    }
+                }
+                break;
+        }
+    }
+
+    protected byte[] readBytes(DataInput input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    protected String readString(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+        input.readFully(buffer, 0, length);
+        return new String(buffer, 0, length, UTF_8);
+    }
+
+    /**
+     * Returns value of the row in the row group reusing the given value holder if possible
+     */
+    public Value getValue(int index, Value reuse) {
+        if (nulls.get(index)) {
+            return nullValue(reuse, valueType);
+        }
+        switch (encoding) {
+            case ENCODING_LONG:
+                return longValue(reuse, longs[index]);
+            case ENCODING_DOUBLE:
+                return doubleValue(reuse, longBitsToDouble(longs[index]));
+            case ENCODING_BOOLEAN:
+                return bool(reuse, longs[index] != 0);
+            case ENCODING_TIMESTAMP:
+                Timestamp timestamp = new Timestamp(longs[index]);
+                timestamp.setNanos(nanos[index]);
+                return timestamp(reuse, timestamp);
+            case ENCODING_DECIMAL:
+                return decimal(reuse, (BigDecimal) objects[index]);
+            case ENCODING_BINARY:
+                return binary(reuse, (byte[]) objects[index]);
+            default:
+                return string(reuse, (String) objects[index]);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+/**
+ * Binary columnar chunk layout. A chunk starts with the {@link #MAGIC} header, {@link #VERSION} and column count,
+ * followed by row groups each prefixed with its row count and terminated with a zero row count. Inside a row group
+ * every column is stored contiguously as an encoding byte, a null bitmap and the encoded non null values.
+ *
+ * @author Sergey Bushik
+ */
+public interface ColumnarFormat {
+
+    final String TYPE = "columnar";
+
+    final String ATTRIBUTE_ROW_GROUP_SIZE = "columnar.row.group.size";
+
+    final int ROW_GROUP_SIZE = 8192;
+
+    final int MAGIC = 0x4E55434C;
+
+    final byte VERSION = 1;
+
+    /**
+     * All values of the column in the row group are nulls, nothing but the null bitmap is stored
+     */
+    final byte ENCODING_NULL = 0;
+    /**
+     * Fixed width 8 byte longs
+     */
+    final byte ENCODING_LONG = 1;
+    /**
+     * Fixed width 8 byte doubles
+     */
+    final byte ENCODING_DOUBLE = 2;
+    /**
+     * Bitmap of true values
+     */
+    final byte ENCODING_BOOLEAN = 3;
+    /**
+     * Fixed width 8 byte milliseconds followed by 4 byte nanoseconds
+     */
+    final byte ENCODING_TIMESTAMP = 4;
+    /**
+     * Scale followed by length prefixed unscaled value bytes
+     */
+    final byte ENCODING_DECIMAL = 5;
+    /**
+     * Length prefixed UTF-8 strings
+     */
+    final byte ENCODING_STRING = 6;
+    /**
+     * Dictionary of distinct length prefixed UTF-8 strings followed by the dictionary indexes of the values
+     */
+    final byte ENCODING_DICTIONARY = 7;
+    /**
+     * Length prefixed bytes
+     */
+    final byte ENCODING_BINARY = 8;
+}
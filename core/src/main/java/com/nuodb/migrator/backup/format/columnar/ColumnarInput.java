@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.format.InputBase;
+import com.nuodb.migrator.backup.format.InputException;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.List;
+
+import static com.nuodb.migrator.backup.format.value.ValueUtils.values;
+import static java.lang.String.format;
+
+/**
+ * Decodes a whole row group column by column & serves rows from the decoded columns.
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnarInput extends InputBase implements ColumnarFormat {
+
+    private DataInputStream columnarReader;
+    private ColumnarColumn[] columns;
+    private int rows;
+    private int row;
+    private boolean end;
+
+    @Override
+    public String getFormat() {
+        return TYPE;
+    }
+
+    @Override
+    protected void init(Reader reader) {
+        throw new InputException("Columnar format requires input stream");
+    }
+
+    @Override
+    protected void init(InputStream inputStream) {
+        columnarReader = new DataInputStream(inputStream);
+        rows = 0;
+        row = 0;
+        end = false;
+    }
+
+    @Override
+    public void readStart() {
+        try {
+            int magic = columnarReader.readInt();
+            byte version = columnarReader.readByte();
+            if (magic != MAGIC || version != VERSION) {
+                throw new InputException(format("Not a columnar chunk of version %d", VERSION));
+            }
+            List<ValueType> valueTypes = getValueTypes();
+            int length = columnarReader.readInt();
+            if (length != valueTypes.size()) {
+                throw new InputException(format("Chunk has %d columns, while %d columns are expected",
+                        length, valueTypes.size()));
+            }
+            columns = new ColumnarColumn[length];
+            for (int index = 0; index < length; index++) {
+                columns[index] = new ColumnarColumn(valueTypes.get(index), ROW_GROUP_SIZE);
+            }
+        } catch (IOException exception) {
+            throw new InputException(exception);
+        }
+    }
+
+    @Override
+    public Value[] readValues(Value[] values) {
+        if (row == rows && !readRowGroup()) {
+            return null;
+        }
+        values = values(values, columns.length);
+        for (int index = 0; index < columns.length; index++) {
+            values[index] = columns[index].getValue(row, values[index]);
+        }
+        row++;
+        return values;
+    }
+
+    protected boolean readRowGroup() {
+        if (end) {
+            return false;
+        }
+        try {
+            rows = columnarReader.readInt();
+            row = 0;
+            if (rows == 0) {
+                end = true;
+                return false;
+            }
+            for (ColumnarColumn column : columns) {
+                column.read(columnarReader, rows);
+            }
+            return true;
+        } catch (IOException exception) {
+            throw new InputException(exception);
+        }
+    }
+
+    @Override
+    public void readEnd() {
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        columnarReader = null;
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.format.OutputBase;
+import com.nuodb.migrator.backup.format.OutputException;
+import com.nuodb.migrator.backup.format.value.Value;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Collection;
+
+import static java.lang.Integer.parseInt;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Buffers rows into row groups of {@link #getRowGroupSize()} rows & writes each group column by column.
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnarOutput extends OutputBase implements ColumnarFormat {
+
+    private DataOutputStream columnarWriter;
+    private ColumnarColumn[] columns;
+    private int rowGroupSize = ROW_GROUP_SIZE;
+    private int rowGroupLimit;
+    private int rows;
+
+    @Override
+    public String getFormat() {
+        return TYPE;
+    }
+
+    @Override
+    protected void init(Writer writer) {
+        throw new OutputException("Columnar format requires output stream");
+    }
+
+    @Override
+    protected void init(OutputStream outputStream) {
+        columnarWriter = new DataOutputStream(outputStream);
+        int rowGroupSize = rowGroupLimit = getRowGroupSize();
+        Collection<Column> columns = getRowSet().getColumns();
+        this.columns = new ColumnarColumn[columns.size()];
+        int index = 0;
+        for (Column column : columns) {
+            this.columns[index++] = new ColumnarColumn(column.getValueType(), rowGroupSize);
+        }
+        rows = 0;
+    }
+
+    @Override
+    public void writeStart() {
+        try {
+            columnarWriter.writeInt(MAGIC);
+            columnarWriter.writeByte(VERSION);
+            columnarWriter.writeInt(columns.length);
+        } catch (IOException exception) {
+            throw new OutputException(exception);
+        }
+    }
+
+    @Override
+    protected void writeRow(Value[] values) {
+        for (int index = 0; index < columns.length; index++) {
+            columns[index].add(values[index]);
+        }
+        if (++rows >= rowGroupLimit) {
+            writeRowGroup();
+        }
+    }
+
+    protected void writeRowGroup() {
+        if (rows == 0) {
+            return;
+        }
+        try {
+            columnarWriter.writeInt(rows);
+            for (ColumnarColumn column : columns) {
+                column.write(columnarWriter);
+                column.clear();
+            }
+            rows = 0;
+        } catch (IOException exception) {
+            throw new OutputException(exception);
+        }
+    }
+
+    @Override
+    public void writeEnd() {
+        writeRowGroup();
+        try {
+            columnarWriter.writeInt(0);
+            columnarWriter.flush();
+        } catch (IOException exception) {
+            throw new OutputException(exception);
+        }
+    }
+
+    public int getRowGroupSize() {
+        Object rowGroupSizeValue = getAttribute(ATTRIBUTE_ROW_GROUP_SIZE);
+        if (rowGroupSizeValue instanceof Number) {
+            return ((Number) rowGroupSizeValue).intValue();
+        }
+        return isEmpty((String) rowGroupSizeValue) ? rowGroupSize : parseInt((String) rowGroupSizeValue);
+    }
+
+    public void setRowGroupSize(int rowGroupSize) {
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    @Override
+    public void close() {
+        if (columnarWriter != null) {
+            try {
+                columnarWriter.close();
+            } catch (IOException exception) {
+                throw new OutputException(exception);
+            }
+            columnarWriter = null;
+        }
+    }
+}
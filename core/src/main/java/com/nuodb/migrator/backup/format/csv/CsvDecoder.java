@@ -0,0 +1,377 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import static java.lang.Character.isWhitespace;
+import static java.lang.Math.max;
+
+/**
+ * Decodes csv records from a char buffer, runs of characters without delimiters, escapes, quotes or line breaks are
+ * found with a table lookup and are turned into values without copying them char by char. The records are the same as
+ * read by the commons-csv 1.1 parser configured by {@link CsvFormatBuilder}, including comment lines, escape sequences
+ * and empty lines, which are read as records of a single empty value.
+ *
+ * @author Sergey Bushik
+ */
+class CsvDecoder implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int EOF = -1;
+    private static final int UNDEFINED = -2;
+
+    private static final int CR = '\r';
+    private static final int LF = '\n';
+    private static final int TAB = '\t';
+    private static final int BACKSPACE = '\b';
+    private static final int FF = '\f';
+    /**
+     * Quote character used by the parser when quoting is off, which doesn't occur in a text
+     */
+    private static final char DISABLED = '\ufffe';
+
+    private static final int TOKEN = 0;
+    private static final int END_OF_RECORD = 1;
+    private static final int END_OF_FILE = 2;
+    private static final int COMMENT = 3;
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char quote;
+    private final char escape;
+    private final char commentMarker;
+    private final boolean[] simpleSpecials;
+    private final boolean[] quotedSpecials;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private int lastChar = UNDEFINED;
+    private boolean ready;
+    private final StringBuilder builder = new StringBuilder();
+    private int runStart = -1;
+    private int runEnd;
+    private String[] values = new String[16];
+    private int size;
+
+    public CsvDecoder(Reader reader, CsvFormatBuilder builder) {
+        this(reader, builder, BUFFER_SIZE);
+    }
+
+    public CsvDecoder(Reader reader, CsvFormatBuilder builder, int bufferSize) {
+        this.reader = reader;
+        this.delimiter = builder.getDelimiter();
+        this.quote = builder.isQuoting() ? builder.getQuote() : DISABLED;
+        this.escape = builder.getEscape();
+        this.commentMarker = builder.getCommentMarker();
+        this.simpleSpecials = specials((char) CR, (char) LF, delimiter, escape);
+        this.quotedSpecials = specials(quote, escape);
+        this.buffer = new char[bufferSize];
+    }
+
+    private static boolean[] specials(char... characters) {
+        int length = 0;
+        for (char character : characters) {
+            length = max(length, character + 1);
+        }
+        boolean[] specials = new boolean[length];
+        for (char character : characters) {
+            specials[character] = true;
+        }
+        return specials;
+    }
+
+    /**
+     * Reads next record
+     *
+     * @return true if record is read, false on the end of input
+     */
+    public boolean next() throws IOException {
+        size = 0;
+        while (true) {
+            switch (nextToken()) {
+                case TOKEN:
+                    addValue();
+                    break;
+                case END_OF_RECORD:
+                    addValue();
+                    return true;
+                case END_OF_FILE:
+                    if (ready) {
+                        addValue();
+                    }
+                    return size > 0;
+            }
+        }
+    }
+
+    /**
+     * Number of values in the current record
+     */
+    public int size() {
+        return size;
+    }
+
+    public String get(int index) {
+        return values[index];
+    }
+
+    protected int nextToken() throws IOException {
+        ready = false;
+        builder.setLength(0);
+        runStart = -1;
+        int lastChar = this.lastChar;
+        int c = read();
+        boolean eol = readEndOfLine(c);
+        if (lastChar == EOF || (lastChar != delimiter && c == EOF)) {
+            return END_OF_FILE;
+        }
+        if (isStartOfLine(lastChar) && c == commentMarker) {
+            skipLine();
+            return COMMENT;
+        }
+        if (c == delimiter) {
+            return TOKEN;
+        } else if (eol) {
+            return END_OF_RECORD;
+        } else if (c == quote) {
+            return readQuotedToken();
+        } else if (c == EOF) {
+            ready = true;
+            return END_OF_FILE;
+        } else {
+            return readSimpleToken(c);
+        }
+    }
+
+    protected int readSimpleToken(int c) throws IOException {
+        while (true) {
+            if (readEndOfLine(c)) {
+                return END_OF_RECORD;
+            } else if (c == EOF) {
+                ready = true;
+                return END_OF_FILE;
+            } else if (c == delimiter) {
+                return TOKEN;
+            } else if (c == escape) {
+                readEscape();
+            } else {
+                // the char just read is still in the buffer and starts a run of plain chars
+                readRun(simpleSpecials);
+            }
+            c = read();
+        }
+    }
+
+    protected int readQuotedToken() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == escape) {
+                readEscape();
+            } else if (c == quote) {
+                if (lookAhead() == quote) {
+                    appendChar(read());
+                } else {
+                    while (true) {
+                        c = read();
+                        if (c == delimiter) {
+                            return TOKEN;
+                        } else if (c == EOF) {
+                            ready = true;
+                            return END_OF_FILE;
+                        } else if (readEndOfLine(c)) {
+                            return END_OF_RECORD;
+                        } else if (!isWhitespace((char) c)) {
+                            throw new IOException("Invalid char between encapsulated token and delimiter");
+                        }
+                    }
+                }
+            } else if (c == EOF) {
+                throw new IOException("EOF reached before encapsulated token finished");
+            } else {
+                readRun(quotedSpecials);
+            }
+        }
+    }
+
+    protected void readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'r':
+                appendChar(CR);
+                break;
+            case 'n':
+                appendChar(LF);
+                break;
+            case 't':
+                appendChar(TAB);
+                break;
+            case 'b':
+                appendChar(BACKSPACE);
+                break;
+            case 'f':
+                appendChar(FF);
+                break;
+            case CR:
+            case LF:
+            case FF:
+            case TAB:
+            case BACKSPACE:
+                appendChar(c);
+                break;
+            case EOF:
+                throw new IOException("EOF whilst processing escape sequence");
+            default:
+                if (c == delimiter || c == escape || c == quote || c == commentMarker) {
+                    appendChar(c);
+                } else {
+                    // unexpected char after escape is kept as is
+                    appendChar(escape);
+                    appendChar(c);
+                }
+        }
+    }
+
+    /**
+     * Consumes the run of chars up to the next special char or the end of the buffer, the run is referenced in the
+     * buffer and copied only if the value continues after it
+     */
+    private void readRun(boolean[] specials) {
+        char[] buffer = this.buffer;
+        int length = specials.length;
+        int start = position - 1;
+        int end = position;
+        int limit = this.limit;
+        while (end < limit) {
+            char c = buffer[end];
+            if (c < length && specials[c]) {
+                break;
+            }
+            end++;
+        }
+        if (runStart < 0 && builder.length() == 0) {
+            runStart = start;
+            runEnd = end;
+        } else {
+            appendRun();
+            builder.append(buffer, start, end - start);
+        }
+        position = end;
+        lastChar = buffer[end - 1];
+    }
+
+    private void appendRun() {
+        if (runStart >= 0) {
+            builder.append(buffer, runStart, runEnd - runStart);
+            runStart = -1;
+        }
+    }
+
+    private void appendChar(int c) {
+        appendRun();
+        builder.append((char) c);
+    }
+
+    private void addValue() {
+        String value;
+        if (runStart >= 0) {
+            value = new String(buffer, runStart, runEnd - runStart);
+        } else {
+            value = builder.length() == 0 ? "" : builder.toString();
+        }
+        if (size == values.length) {
+            String[] values = new String[size << 1];
+            System.arraycopy(this.values, 0, values, 0, size);
+            this.values = values;
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Skips the rest of a comment line
+     */
+    private void skipLine() throws IOException {
+        boolean empty = true;
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                lastChar = empty ? EOF : LF;
+                return;
+            }
+            if (readEndOfLine(c)) {
+                lastChar = LF;
+                return;
+            }
+            empty = false;
+        }
+    }
+
+    private boolean readEndOfLine(int c) throws IOException {
+        if (c == CR && lookAhead() == LF) {
+            c = read();
+        }
+        return c == LF || c == CR;
+    }
+
+    private static boolean isStartOfLine(int c) {
+        return c == LF || c == CR || c == UNDEFINED;
+    }
+
+    private int read() throws IOException {
+        if (position >= limit && !fill()) {
+            return lastChar = EOF;
+        }
+        return lastChar = buffer[position++];
+    }
+
+    private int lookAhead() throws IOException {
+        if (position >= limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Refills the buffer, copying the pending run of the current value out of it first
+     */
+    private boolean fill() throws IOException {
+        appendRun();
+        int count = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = count > 0 ? count : 0;
+        return count > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
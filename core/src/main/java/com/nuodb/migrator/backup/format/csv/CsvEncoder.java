@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.csv;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+import static java.lang.Math.max;
+
+/**
+ * Encodes csv records into a char buffer, which is written out once per record. The output is the same as of the
+ * commons-csv 1.1 printer configured by {@link CsvFormatBuilder}: when quoting is off delimiter, escape and line break
+ * characters are escaped, when quoting is on a value is quoted if it starts a record with a non alphanumeric
+ * character, starts with a character up to the # sign, contains a delimiter, quote or line break or ends with
+ * a whitespace, quotes are doubled inside of the quoted values.
+ *
+ * @author Sergey Bushik
+ */
+class CsvEncoder implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final char CR = '\r';
+    private static final char LF = '\n';
+    private static final char SP = ' ';
+    private static final char COMMENT = '#';
+
+    private final Writer writer;
+    private final char delimiter;
+    private final char quote;
+    private final char escape;
+    private final boolean quoting;
+    private final char[] lineSeparator;
+    private final boolean[] specials;
+    private char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private boolean newRecord = true;
+
+    public CsvEncoder(Writer writer, CsvFormatBuilder builder) {
+        this.writer = writer;
+        this.delimiter = builder.getDelimiter();
+        this.quote = builder.getQuote();
+        this.escape = builder.getEscape();
+        this.quoting = builder.isQuoting();
+        this.lineSeparator = builder.getLineSeparator().toCharArray();
+        this.specials = quoting ? specials(CR, LF, delimiter, quote) : specials(CR, LF, delimiter, escape);
+    }
+
+    /**
+     * Lookup table of characters, which have to be escaped or force value to be quoted
+     */
+    private static boolean[] specials(char... characters) {
+        int length = 0;
+        for (char character : characters) {
+            length = max(length, character + 1);
+        }
+        boolean[] specials = new boolean[length];
+        for (char character : characters) {
+            specials[character] = true;
+        }
+        return specials;
+    }
+
+    /**
+     * Appends value to the current record, null value is written as an empty one
+     *
+     * @param value to append
+     */
+    public void write(String value) {
+        if (!newRecord) {
+            append(delimiter);
+        }
+        if (value == null) {
+            value = "";
+        }
+        if (quoting) {
+            writeQuoted(value);
+        } else {
+            writeEscaped(value);
+        }
+        newRecord = false;
+    }
+
+    /**
+     * Ends current record with the line separator and writes it out
+     */
+    public void writeRecord() throws IOException {
+        ensureCapacity(lineSeparator.length);
+        System.arraycopy(lineSeparator, 0, buffer, position, lineSeparator.length);
+        position += lineSeparator.length;
+        newRecord = true;
+        writer.write(buffer, 0, position);
+        position = 0;
+    }
+
+    /**
+     * Value is copied in bulk and is rewritten from the first character to escape, if there is any
+     */
+    protected void writeEscaped(String value) {
+        int length = value.length();
+        ensureCapacity(length << 1);
+        char[] buffer = this.buffer;
+        int start = position;
+        value.getChars(0, length, buffer, start);
+        int index = indexOfSpecial(buffer, start, start + length);
+        if (index < 0) {
+            position = start + length;
+            return;
+        }
+        int position = index;
+        for (int i = index - start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < specials.length && specials[c]) {
+                buffer[position++] = escape;
+                buffer[position++] = c == LF ? 'n' : c == CR ? 'r' : c;
+            } else {
+                buffer[position++] = c;
+            }
+        }
+        this.position = position;
+    }
+
+    protected void writeQuoted(String value) {
+        int length = value.length();
+        ensureCapacity((length << 1) + 2);
+        boolean quoted;
+        if (length == 0) {
+            // empty value starting a record is quoted, as otherwise the record would be read as an empty line
+            quoted = newRecord;
+        } else {
+            char c = value.charAt(0);
+            if (newRecord && !isAlphanumeric(c)) {
+                quoted = true;
+            } else if (c <= COMMENT) {
+                quoted = true;
+            } else {
+                value.getChars(0, length, buffer, position);
+                quoted = indexOfSpecial(buffer, position, position + length) >= 0 || value.charAt(length - 1) <= SP;
+                if (!quoted) {
+                    position += length;
+                    return;
+                }
+            }
+        }
+        if (!quoted) {
+            return;
+        }
+        char[] buffer = this.buffer;
+        int position = this.position;
+        buffer[position++] = quote;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == quote) {
+                buffer[position++] = quote;
+            }
+            buffer[position++] = c;
+        }
+        buffer[position++] = quote;
+        this.position = position;
+    }
+
+    private int indexOfSpecial(char[] buffer, int start, int end) {
+        boolean[] specials = this.specials;
+        int length = specials.length;
+        for (int i = start; i < end; i++) {
+            char c = buffer[i];
+            if (c < length && specials[c]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return c >= '0' && c <= '9' || c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z';
+    }
+
+    private void append(char c) {
+        ensureCapacity(1);
+        buffer[position++] = c;
+    }
+
+    private void ensureCapacity(int length) {
+        int capacity = position + length;
+        if (capacity > buffer.length) {
+            char[] buffer = new char[max(capacity, this.buffer.length << 1)];
+            System.arraycopy(this.buffer, 0, buffer, 0, position);
+            this.buffer = buffer;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
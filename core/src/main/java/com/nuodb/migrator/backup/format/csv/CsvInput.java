@@ -27,13 +27,12 @@
  */
 package com.nuodb.migrator.backup.format.csv;
 
-import com.nuodb.migrator.backup.format.InputBase;
 import com.nuodb.migrator.backup.format.InputException;
+import com.nuodb.migrator.backup.format.SplittableInputBase;
+import com.nuodb.migrator.backup.format.utils.MappedInputStream;
+import com.nuodb.migrator.backup.format.utils.MappedReader;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueType;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
@@ -41,23 +40,31 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
-import java.util.Iterator;
+import java.nio.charset.Charset;
 import java.util.List;
+import java.util.regex.Pattern;
 
-import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
-import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
 import static java.lang.String.valueOf;
+import static java.nio.charset.Charset.forName;
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+import static java.util.regex.Pattern.compile;
 
 /**
  * @author Sergey Bushik
  */
-public class CsvInput extends InputBase implements CsvFormat {
+public class CsvInput extends SplittableInputBase implements CsvFormat {
+
+    /**
+     * Encodings where each ascii character is encoded with a single byte, which doesn't occur in multi byte sequences
+     */
+    private static final Pattern ASCII_COMPATIBLE_ENCODINGS = compile(
+            "UTF-8|US-ASCII|ISO-8859-\\d+|windows-125\\d", CASE_INSENSITIVE);
 
     private String doubleQuote;
-    private Iterator<CSVRecord> iterator;
-    private CSVParser parser;
+    private CsvDecoder decoder;
 
     @Override
     public String getFormat() {
@@ -66,8 +73,13 @@ public class CsvInput extends InputBase implements CsvFormat {
 
     @Override
     protected void init(InputStream inputStream) {
+        String encoding = (String) getAttribute(ATTRIBUTE_ENCODING, ENCODING);
+        if (getInputStream() instanceof MappedInputStream) {
+            init(new MappedReader((MappedInputStream) getInputStream(), forName(encoding)));
+            return;
+        }
         try {
-            init(new InputStreamReader(getInputStream(), (String) getAttribute(ATTRIBUTE_ENCODING, ENCODING)));
+            init(new InputStreamReader(getInputStream(), encoding));
         } catch (UnsupportedEncodingException exception) {
             throw new InputException(exception);
         }
@@ -76,13 +88,34 @@ public class CsvInput extends InputBase implements CsvFormat {
     @Override
     protected void init(Reader reader) {
         CsvFormatBuilder builder = new CsvFormatBuilder(this);
-        CSVFormat format = builder.build();
+        builder.build();
         Character quote = builder.getQuote();
 
         doubleQuote = valueOf(quote) + valueOf(quote);
+        decoder = new CsvDecoder(reader, builder);
+    }
+
+    @Override
+    public boolean isSplittable() {
+        Charset charset = forName((String) getAttribute(ATTRIBUTE_ENCODING, ENCODING));
+        if (!ASCII_COMPATIBLE_ENCODINGS.matcher(charset.name()).matches()) {
+            return false;
+        }
+        CsvFormatBuilder builder = new CsvFormatBuilder(this);
+        builder.build();
+        return isAscii(builder.getDelimiter()) && isAscii(builder.getQuote()) && isAscii(builder.getEscape());
+    }
+
+    protected boolean isAscii(Character character) {
+        return character == null || character < 0x80;
+    }
+
+    @Override
+    public long sync(InputStream inputStream, long offset) {
+        CsvFormatBuilder builder = new CsvFormatBuilder(this);
+        builder.build();
         try {
-            parser = new CSVParser(reader, format);
-            iterator = parser.iterator();
+            return new CsvInputSync(builder, getRowSet().getColumns().size()).sync(inputStream, offset);
         } catch (IOException exception) {
             throw new InputException(exception);
         }
@@ -90,38 +123,41 @@ public class CsvInput extends InputBase implements CsvFormat {
 
     @Override
     public void readStart() {
-        if (iterator.hasNext()) {
-            iterator.next();
+        if (isChunkStart()) {
+            next();
         }
     }
 
     @Override
-    public Value[] readValues() {
-        return iterator.hasNext() ? readRow() : null;
+    public Value[] readValues(Value[] values) {
+        return next() ? readRow(values) : null;
+    }
+
+    protected boolean next() {
+        try {
+            return decoder.next();
+        } catch (IOException exception) {
+            throw new InputException(exception);
+        }
     }
 
-    protected Value[] readRow() {
-        CSVRecord record = iterator.next();
+    protected Value[] readRow(Value[] values) {
+        CsvDecoder decoder = this.decoder;
         List<ValueType> valueTypes = getValueTypes();
-        Value[] values = new Value[valueTypes.size()];
+        values = values(values, valueTypes.size());
         int index = 0;
-        for (String value : newArrayList(record.iterator())) {
+        for (int size = decoder.size(); index < size; index++) {
+            String value = decoder.get(index);
             if (doubleQuote.equals(value)) {
                 value = StringUtils.EMPTY;
             } else if (value != null && value.length() == 0) {
                 value = null;
             }
-            ValueType type = valueTypes.get(index);
-            type = type != null ? type : STRING;
-            switch (type) {
-                case BINARY:
-                    values[index] = binary(BASE64.decode(value));
-                    break;
-                case STRING:
-                    values[index] = string(value);
-                    break;
+            if (valueTypes.get(index) == BINARY) {
+                values[index] = binary(values[index], BASE64.decode(value));
+            } else {
+                values[index] = string(values[index], value);
             }
-            index++;
         }
         fill(values, valueTypes, index);
         return values;
@@ -133,13 +169,13 @@ public class CsvInput extends InputBase implements CsvFormat {
 
     @Override
     public void close() {
-        if (parser != null) {
+        if (decoder != null) {
             try {
-                parser.close();
+                decoder.close();
             } catch (IOException exception) {
                 throw new InputException(exception);
             }
-            parser = null;
+            decoder = null;
         }
     }
 }
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.csv;
+
+import com.nuodb.migrator.backup.format.utils.LookaheadBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Finds the start of the first record at or after an arbitrary offset of a csv chunk by scanning raw bytes, which is
+ * valid for ascii compatible encodings only. Escaped characters are skipped until a byte which is definitely not
+ * escaped is found. When quoting is off any unescaped line break ends a record. When quoting is on the scanner
+ * doesn't know if the offset is inside of a quoted value, so both cases are tried and a case is accepted if the
+ * records following its boundary have the expected number of values, while the records following the boundary of
+ * the other case don't. If both cases look equally valid the scan is repeated further in the stream.
+ *
+ * @author Sergey Bushik
+ */
+class CsvInputSync {
+
+    /**
+     * Number of records validated after a candidate record boundary
+     */
+    private static final int VALIDATE_RECORDS = 16;
+    /**
+     * Max number of bytes scanned before giving up
+     */
+    private static final int MAX_SCAN = 16 * 1024 * 1024;
+
+    private static final int CR = '\r';
+    private static final int LF = '\n';
+
+    private final int delimiter;
+    private final int quote;
+    private final int escape;
+    private final int commentMarker;
+    private final boolean quoting;
+    private final int columns;
+
+    public CsvInputSync(CsvFormatBuilder builder, int columns) {
+        this.delimiter = builder.getDelimiter();
+        this.quote = builder.getQuote();
+        this.escape = builder.getEscape() != null ? builder.getEscape() : -1;
+        this.commentMarker = builder.getCommentMarker() != null ? builder.getCommentMarker() : -1;
+        this.quoting = builder.isQuoting();
+        this.columns = columns;
+    }
+
+    public long sync(InputStream inputStream, long offset) throws IOException {
+        LookaheadBuffer buffer = new LookaheadBuffer(inputStream);
+        int position = skipEscaped(buffer, 0);
+        while (position >= 0 && position < MAX_SCAN) {
+            if (!quoting) {
+                int boundary = nextBoundary(buffer, position, false);
+                return boundary < 0 ? -1 : offset + boundary;
+            }
+            int outside = nextBoundary(buffer, position, false);
+            int inside = nextBoundary(buffer, position, true);
+            int outsideEnd = outside < 0 ? -1 : validate(buffer, outside);
+            int insideEnd = inside < 0 ? -1 : validate(buffer, inside);
+            if (outsideEnd >= 0 && insideEnd < 0) {
+                return offset + outside;
+            } else if (insideEnd >= 0 && outsideEnd < 0) {
+                return offset + inside;
+            } else if (outsideEnd < 0) {
+                return -1;
+            }
+            // both cases are valid, records after each boundary are the same, continue after the farthest checked
+            int next = Math.max(outsideEnd, insideEnd);
+            if (next <= position || buffer.get(next) < 0) {
+                return -1;
+            }
+            position = skipEscaped(buffer, next);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first position at or after the given, which is not preceded by the escape character, so the byte at
+     * the position is not escaped regardless of the bytes before the scanned range
+     */
+    protected int skipEscaped(LookaheadBuffer buffer, int position) throws IOException {
+        if (position == 0) {
+            position = 1;
+        }
+        while (buffer.get(position - 1) == escape) {
+            position++;
+        }
+        return buffer.get(position - 1) < 0 ? -1 : position;
+    }
+
+    /**
+     * Returns position following the first line break outside of the quotes
+     */
+    protected int nextBoundary(LookaheadBuffer buffer, int position, boolean inside) throws IOException {
+        int c;
+        while ((c = buffer.get(position)) >= 0 && position < MAX_SCAN) {
+            if (c == escape) {
+                position += 2;
+                continue;
+            }
+            if (quoting && c == quote) {
+                inside = !inside;
+            } else if (!inside && (c == CR || c == LF)) {
+                return skipLineBreak(buffer, position);
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * Validates that records starting at the position have the expected number of values and returns the position
+     * after the last validated record or -1 if any of the records is invalid
+     */
+    protected int validate(LookaheadBuffer buffer, int position) throws IOException {
+        int records = 0;
+        int values = 1;
+        boolean inside = false;
+        boolean comment = buffer.get(position) == commentMarker;
+        boolean empty = true;
+        int c;
+        while (records < VALIDATE_RECORDS) {
+            c = buffer.get(position);
+            if (position >= MAX_SCAN) {
+                return -1;
+            } else if (c < 0) {
+                return !inside && (empty || comment || values == columns) ? position : -1;
+            }
+            empty = false;
+            if (c == escape) {
+                position += 2;
+                continue;
+            }
+            if (quoting && c == quote) {
+                inside = !inside;
+            } else if (!inside && c == delimiter) {
+                values++;
+            } else if (!inside && (c == CR || c == LF)) {
+                if (!comment && values != columns) {
+                    return -1;
+                }
+                records++;
+                values = 1;
+                empty = true;
+                position = skipLineBreak(buffer, position);
+                comment = buffer.get(position) == commentMarker;
+                continue;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    protected int skipLineBreak(LookaheadBuffer buffer, int position) throws IOException {
+        return buffer.get(position) == CR && buffer.get(position + 1) == LF ? position + 2 : position + 1;
+    }
+}
@@ -31,16 +31,13 @@ import com.nuodb.migrator.backup.Column;
 import com.nuodb.migrator.backup.format.OutputBase;
 import com.nuodb.migrator.backup.format.OutputException;
 import com.nuodb.migrator.backup.format.value.Value;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.util.Collection;
+import java.util.Iterator;
 
-import static com.google.common.collect.Iterables.get;
 import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
 import static java.lang.String.valueOf;
 import static java.nio.charset.Charset.forName;
@@ -52,7 +49,7 @@ import static java.nio.charset.Charset.forName;
 public class CsvOutput extends OutputBase implements CsvFormat {
 
     private String doubleQuote;
-    private CSVPrinter csvPrinter;
+    private CsvEncoder encoder;
 
     @Override
     public String getFormat() {
@@ -67,35 +64,30 @@ public class CsvOutput extends OutputBase implements CsvFormat {
     @Override
     protected void init(Writer writer) {
         CsvFormatBuilder builder = new CsvFormatBuilder(this);
-        CSVFormat format = builder.build();
+        builder.build();
         doubleQuote = valueOf(builder.getQuote()) + valueOf(builder.getQuote());
-        try {
-            csvPrinter = new CSVPrinter(wrapWriter(writer), format);
-        } catch (IOException exception) {
-            throw new OutputException(exception);
-        }
+        encoder = new CsvEncoder(wrapWriter(writer), builder);
     }
 
     @Override
     public void writeStart() {
         try {
             for (Column column : getRowSet().getColumns()) {
-                csvPrinter.print(column.getName());
+                encoder.write(column.getName());
             }
-            csvPrinter.println();
+            encoder.writeRecord();
         } catch (IOException exception) {
             throw new OutputException(exception);
         }
     }
 
     @Override
-    public void writeValues(Value[] values) {
+    protected void writeRow(Value[] values) {
         try {
-            String[] record = new String[values.length];
-            Collection<Column> columns = getRowSet().getColumns();
+            Iterator<Column> columns = getRowSet().getColumns().iterator();
             for (int i = 0; i < values.length; i++) {
                 String value = null;
-                switch (get(columns, i).getValueType()) {
+                switch (columns.next().getValueType()) {
                     case BINARY:
                         value = BASE64.encode(values[i].asBytes());
                         break;
@@ -106,9 +98,9 @@ public class CsvOutput extends OutputBase implements CsvFormat {
                 if (value != null && value.length() == 0) {
                     value = doubleQuote;
                 }
-                record[i] = value;
+                encoder.write(value);
             }
-            csvPrinter.printRecord(record);
+            encoder.writeRecord();
         } catch (IOException exception) {
             throw new OutputException(exception);
         }
@@ -117,8 +109,8 @@ public class CsvOutput extends OutputBase implements CsvFormat {
     @Override
     public void writeEnd() {
         try {
-            if (csvPrinter != null) {
-                csvPrinter.flush();
+            if (encoder != null) {
+                encoder.flush();
             }
         } catch (IOException exception) {
             throw new OutputException(exception);
@@ -127,13 +119,13 @@ public class CsvOutput extends OutputBase implements CsvFormat {
 
     @Override
     public void close() {
-        if (csvPrinter != null) {
+        if (encoder != null) {
             try {
-                csvPrinter.close();
+                encoder.close();
             } catch (IOException exception) {
                 throw new OutputException(exception);
             }
-            csvPrinter = null;
+            encoder = null;
         }
     }
 }
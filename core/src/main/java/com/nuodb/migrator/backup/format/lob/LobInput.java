@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.lob;
+
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.format.utils.ChannelInputStream;
+import com.nuodb.migrator.backup.format.value.ValueFormatException;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+/**
+ * Opens streams over large objects stored in LOB files of chunks. Channels to LOB files are kept open until the input
+ * is closed, as statement parameters are streamed by a driver when a batch is executed, which may happen after the
+ * rows of the next chunk are bound.
+ *
+ * @author Sergey Bushik
+ */
+public class LobInput implements Closeable {
+
+    private final BackupOps backupOps;
+    private final Map<String, FileChannel> channels = newHashMap();
+    private Chunk chunk;
+    private FileChannel channel;
+
+    public LobInput(BackupOps backupOps) {
+        this.backupOps = backupOps;
+    }
+
+    /**
+     * Sets chunk of the row, which values are bound next
+     *
+     * @param chunk chunk of the row
+     */
+    public void setChunk(Chunk chunk) {
+        if (this.chunk != chunk) {
+            this.chunk = chunk;
+            String lob = chunk != null ? chunk.getLob() : null;
+            channel = lob != null ? getChannel(lob) : null;
+        }
+    }
+
+    protected FileChannel getChannel(String lob) {
+        FileChannel channel = channels.get(lob);
+        if (channel == null) {
+            channels.put(lob, channel = backupOps.openChannel(lob));
+        }
+        return channel;
+    }
+
+    public InputStream openInput(LobReference reference) {
+        if (channel == null) {
+            throw new ValueFormatException("Chunk has no LOB file to read large object from");
+        }
+        return new ChannelInputStream(channel, reference.getOffset(),
+                reference.getOffset() + reference.getLength());
+    }
+
+    @Override
+    public void close() {
+        for (FileChannel channel : channels.values()) {
+            closeQuietly(channel);
+        }
+        channels.clear();
+        chunk = null;
+        channel = null;
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.lob;
+
+import com.nuodb.migrator.utils.CountingOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.nuodb.migrator.backup.format.Format.BUFFER_SIZE;
+
+/**
+ * LOB file of a chunk, where content of large objects is appended one after another, binary objects as is and
+ * character objects encoded as UTF-8. Objects are referenced from the rows by their offsets in the file.
+ *
+ * @author Sergey Bushik
+ */
+public class LobOutput implements Closeable {
+
+    private CountingOutputStream outputStream;
+    private Writer writer;
+
+    public void open(OutputStream outputStream) {
+        this.outputStream = new CountingOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE));
+        this.writer = new OutputStreamWriter(this.outputStream, UTF_8);
+    }
+
+    public boolean isOpen() {
+        return outputStream != null;
+    }
+
+    /**
+     * Offset of the next object in the file
+     */
+    public long getOffset() {
+        return outputStream.getCount();
+    }
+
+    /**
+     * Stream to write binary object to, which should be left open after writing
+     */
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * Writer to write character object to, which should be flushed and left open after writing
+     */
+    public Writer getWriter() {
+        return writer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+        writer = null;
+        outputStream = null;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.lob;
+
+import com.nuodb.migrator.backup.format.value.ValueFormatException;
+
+import static java.lang.Long.parseLong;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.split;
+
+/**
+ * Reference to a large object stored in the LOB file of a chunk, written to the row instead of the object content as
+ * {@code offset:length} for binary objects or as {@code offset:length:characters} for character objects, where
+ * length is a number of bytes of UTF-8 encoded characters.
+ *
+ * @author Sergey Bushik
+ */
+public class LobReference {
+
+    private static final char SEPARATOR = ':';
+
+    private final long offset;
+    private final long length;
+    private final long characters;
+
+    public LobReference(long offset, long length) {
+        this(offset, length, -1);
+    }
+
+    public LobReference(long offset, long length, long characters) {
+        this.offset = offset;
+        this.length = length;
+        this.characters = characters;
+    }
+
+    public static LobReference parse(String reference) {
+        String[] parts = split(reference, SEPARATOR);
+        try {
+            switch (parts.length) {
+                case 2:
+                    return new LobReference(parseLong(parts[0]), parseLong(parts[1]));
+                case 3:
+                    return new LobReference(parseLong(parts[0]), parseLong(parts[1]), parseLong(parts[2]));
+            }
+        } catch (NumberFormatException exception) {
+            // reported below
+        }
+        throw new ValueFormatException(format("Invalid LOB reference %s", reference));
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Number of characters of a character object
+     *
+     * @return number of characters or -1 for a binary object
+     */
+    public long getCharacters() {
+        return characters;
+    }
+
+    public boolean isCharacter() {
+        return characters >= 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LobReference that = (LobReference) o;
+
+        if (offset != that.offset) return false;
+        if (length != that.length) return false;
+        if (characters != that.characters) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (offset ^ (offset >>> 32));
+        result = 31 * result + (int) (length ^ (length >>> 32));
+        result = 31 * result + (int) (characters ^ (characters >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder reference = new StringBuilder().append(offset).append(SEPARATOR).append(length);
+        if (isCharacter()) {
+            reference.append(SEPARATOR).append(characters);
+        }
+        return reference.toString();
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.lob;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueBinder;
+import com.nuodb.migrator.backup.format.value.ValueFormatException;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+import com.nuodb.migrator.jdbc.type.JdbcTypeAdapter;
+import com.nuodb.migrator.jdbc.type.JdbcTypeRegistry;
+import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
+import com.nuodb.migrator.jdbc.type.adapter.JdbcBlobTypeAdapter;
+import com.nuodb.migrator.jdbc.type.adapter.JdbcClobTypeAdapter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+
+import static com.nuodb.migrator.backup.format.value.ValueUtils.STRING_NULL;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static java.lang.String.format;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+/**
+ * Streams large object of the current row to the LOB file of the chunk and returns a reference to it, so that large
+ * objects are never held in memory whatever their size is
+ *
+ * @author Sergey Bushik
+ */
+public class LobValueGetter implements ValueBinder {
+
+    private final ValueHandle valueHandle;
+    private final LobOutput lobOutput;
+    private final JdbcTypeAdapter blobTypeAdapter;
+    private final JdbcTypeAdapter clobTypeAdapter;
+
+    public LobValueGetter(ValueHandle valueHandle, LobOutput lobOutput, JdbcTypeRegistry jdbcTypeRegistry) {
+        this.valueHandle = valueHandle;
+        this.lobOutput = lobOutput;
+        this.blobTypeAdapter = jdbcTypeRegistry.getJdbcTypeAdapter(Blob.class);
+        this.clobTypeAdapter = jdbcTypeRegistry.getJdbcTypeAdapter(Clob.class);
+    }
+
+    @Override
+    public Value getValue() {
+        try {
+            JdbcValueAccess access = valueHandle.getJdbcValueAccess();
+            Object lob = access.getValue(valueHandle.getJdbcValueAccessOptions());
+            if (lob == null) {
+                return STRING_NULL;
+            }
+            long offset = lobOutput.getOffset();
+            LobReference reference;
+            if (lob instanceof Blob) {
+                reference = new LobReference(offset, copyBlob((Blob) lob, access.getConnection()));
+            } else if (lob instanceof Clob) {
+                long characters = copyClob((Clob) lob, access.getConnection());
+                reference = new LobReference(offset, lobOutput.getOffset() - offset, characters);
+            } else if (lob instanceof SQLXML) {
+                long characters = copySqlXml((SQLXML) lob);
+                reference = new LobReference(offset, lobOutput.getOffset() - offset, characters);
+            } else {
+                throw new ValueFormatException(format("Large object of %s type is not supported",
+                        lob.getClass().getName()));
+            }
+            return string(reference.toString());
+        } catch (ValueFormatException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new ValueFormatException(format("Can't get %s %s column value",
+                    valueHandle.getName(), valueHandle.getTypeName()), exception);
+        }
+    }
+
+    protected long copyBlob(Blob blob, Connection connection) throws SQLException, IOException {
+        if (blobTypeAdapter instanceof JdbcBlobTypeAdapter) {
+            return ((JdbcBlobTypeAdapter) blobTypeAdapter).copy(blob, lobOutput.getOutputStream(), connection);
+        }
+        InputStream input = blob.getBinaryStream();
+        try {
+            return ByteStreams.copy(input, lobOutput.getOutputStream());
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    protected long copyClob(Clob clob, Connection connection) throws SQLException, IOException {
+        Writer writer = lobOutput.getWriter();
+        long characters;
+        if (clobTypeAdapter instanceof JdbcClobTypeAdapter) {
+            characters = ((JdbcClobTypeAdapter) clobTypeAdapter).copy(clob, writer, connection);
+        } else {
+            Reader reader = clob.getCharacterStream();
+            try {
+                characters = CharStreams.copy(reader, writer);
+            } finally {
+                closeQuietly(reader);
+            }
+        }
+        writer.flush();
+        return characters;
+    }
+
+    protected long copySqlXml(SQLXML sqlXml) throws SQLException, IOException {
+        Writer writer = lobOutput.getWriter();
+        Reader reader = sqlXml.getCharacterStream();
+        long characters;
+        try {
+            characters = CharStreams.copy(reader, writer);
+        } finally {
+            closeQuietly(reader);
+        }
+        writer.flush();
+        return characters;
+    }
+
+    @Override
+    public void setValue(Value value) {
+        throw new ValueFormatException("Large object value getter can't set values");
+    }
+}
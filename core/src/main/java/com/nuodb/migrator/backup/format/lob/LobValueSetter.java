@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.lob;
+
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueBinder;
+import com.nuodb.migrator.backup.format.value.ValueFormatException;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Binds large object referenced by the row to the statement parameter as a stream over the LOB file of the chunk
+ *
+ * @author Sergey Bushik
+ */
+public class LobValueSetter implements ValueBinder {
+
+    private final ValueHandle valueHandle;
+    private final PreparedStatement statement;
+    private final LobInput lobInput;
+    private final int index;
+
+    public LobValueSetter(ValueHandle valueHandle, PreparedStatement statement, LobInput lobInput) {
+        this.valueHandle = valueHandle;
+        this.statement = statement;
+        this.lobInput = lobInput;
+        this.index = valueHandle.getJdbcValueAccess().getIndex();
+    }
+
+    @Override
+    public void setValue(Value value) {
+        String reference = value.asString();
+        try {
+            if (isEmpty(reference)) {
+                statement.setNull(index, valueHandle.getTypeCode());
+            } else {
+                setValue(LobReference.parse(reference));
+            }
+        } catch (SQLException exception) {
+            throw new ValueFormatException(format("Can't set %s %s column value",
+                    valueHandle.getName(), valueHandle.getTypeName()), exception);
+        }
+    }
+
+    /**
+     * Lengths are passed as ints where possible, as long lengths are supported by JDBC 4 drivers only
+     */
+    protected void setValue(LobReference reference) throws SQLException {
+        InputStream input = lobInput.openInput(reference);
+        if (reference.isCharacter()) {
+            InputStreamReader reader = new InputStreamReader(input, UTF_8);
+            long characters = reference.getCharacters();
+            if (characters <= Integer.MAX_VALUE) {
+                statement.setCharacterStream(index, reader, (int) characters);
+            } else {
+                statement.setCharacterStream(index, reader, characters);
+            }
+        } else {
+            long length = reference.getLength();
+            if (length <= Integer.MAX_VALUE) {
+                statement.setBinaryStream(index, input, (int) length);
+            } else {
+                statement.setBinaryStream(index, input, length);
+            }
+        }
+    }
+
+    @Override
+    public Value getValue() {
+        throw new ValueFormatException("Large object value setter can't get values");
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.pipe;
+
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupException;
+import com.nuodb.migrator.backup.BackupOpsBase;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+
+import static org.apache.commons.io.output.NullOutputStream.NULL_OUTPUT_STREAM;
+
+/**
+ * Backup ops of a writer & a loader running in one pass, the catalog is kept in memory and row sets are transferred
+ * through {@link RowPipes} rather than files.
+ *
+ * @author Sergey Bushik
+ */
+public class PipeBackupOps extends BackupOpsBase {
+
+    private Backup backup;
+
+    public PipeBackupOps(Backup backup) {
+        this.backup = backup;
+    }
+
+    @Override
+    public Long getLength(String name) {
+        return null;
+    }
+
+    @Override
+    public InputStream openInput(String name) {
+        throw new BackupException("Piped row sets are not readable as files");
+    }
+
+    @Override
+    public FileChannel openChannel(String name) {
+        throw new BackupException("Piped row sets are not readable as files");
+    }
+
+    @Override
+    public OutputStream openOutput(String name) {
+        return NULL_OUTPUT_STREAM;
+    }
+
+    @Override
+    public Backup read(Map context) {
+        return backup;
+    }
+
+    @Override
+    public Backup read(InputStream input, Map context) {
+        return backup;
+    }
+
+    @Override
+    public void write(Backup backup, Map context) {
+    }
+
+    @Override
+    public void write(Backup backup, OutputStream output, Map context) {
+    }
+
+    public Backup getBackup() {
+        return backup;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.pipe;
+
+import com.nuodb.migrator.backup.format.OutputBase;
+import com.nuodb.migrator.backup.format.OutputException;
+import com.nuodb.migrator.backup.format.value.Value;
+
+import java.io.OutputStream;
+import java.io.Writer;
+
+import static java.util.Arrays.copyOf;
+
+/**
+ * Writes rows to the {@link RowPipe} of the row set in batches, values are handed over as they are without encoding.
+ *
+ * @author Sergey Bushik
+ */
+public class PipeOutput extends OutputBase implements PipeFormat {
+
+    private RowPipe rowPipe;
+    private Value[][] batch;
+    private int batchSize;
+    private int count;
+
+    @Override
+    public String getFormat() {
+        return TYPE;
+    }
+
+    @Override
+    public void init() {
+        RowPipes rowPipes = (RowPipes) getAttribute(ATTRIBUTE_ROW_PIPES);
+        if (rowPipes == null) {
+            throw new OutputException("Row pipes are required to pipe rows");
+        }
+        rowPipe = rowPipes.getRowPipe(getRowSet().getName());
+        batchSize = rowPipes.getBatchSize();
+    }
+
+    @Override
+    protected void init(Writer writer) {
+    }
+
+    @Override
+    protected void init(OutputStream outputStream) {
+    }
+
+    @Override
+    public void writeStart() {
+    }
+
+    @Override
+    protected void writeRow(Value[] values) {
+        if (batch == null) {
+            batch = new Value[batchSize][];
+        }
+        batch[count++] = values.clone();
+        if (count == batchSize) {
+            writeBatch();
+        }
+    }
+
+    /**
+     * Rows are streamed to the pipe, chunks are never rolled over
+     *
+     * @return true
+     */
+    @Override
+    public boolean canWrite() {
+        return true;
+    }
+
+    @Override
+    public void writeEnd() {
+        if (count > 0) {
+            writeBatch();
+        }
+    }
+
+    protected void writeBatch() {
+        rowPipe.write(count == batch.length ? batch : copyOf(batch, count));
+        batch = null;
+        count = 0;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.pipe;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.format.value.Row;
+import com.nuodb.migrator.backup.format.value.RowReader;
+import com.nuodb.migrator.backup.format.value.Value;
+
+/**
+ * Reads rows from the {@link RowPipe} batch by batch, each reader owns the batch it took from the pipe, so that
+ * several readers of the same pipe do not contend per row.
+ *
+ * @author Sergey Bushik
+ */
+public class PipeRowReader implements RowReader {
+
+    private final RowPipe rowPipe;
+    private final Chunk chunk;
+    private Value[][] batch;
+    private int index;
+    private long number;
+
+    public PipeRowReader(RowPipe rowPipe, Chunk chunk) {
+        this.rowPipe = rowPipe;
+        this.chunk = chunk;
+    }
+
+    @Override
+    public Row readRow() {
+        return readRow(null);
+    }
+
+    @Override
+    public Row readRow(Row row) {
+        if (batch == null || index == batch.length) {
+            batch = rowPipe.read();
+            index = 0;
+        }
+        if (batch == null) {
+            return null;
+        }
+        Value[] values = batch[index];
+        batch[index++] = null;
+        if (row == null) {
+            row = new Row();
+        }
+        row.setChunk(chunk);
+        row.setValues(values);
+        row.setNumber(number++);
+        return row;
+    }
+
+    @Override
+    public void close() {
+        batch = null;
+    }
+
+    public RowPipe getRowPipe() {
+        return rowPipe;
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.pipe;
+
+import com.nuodb.migrator.backup.BackupException;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Bounded queue of row batches connecting the writers of a row set with its loaders. Writers block once the queue is
+ * full until loaders catch up, loaders block until the next batch is written. Blocking is done through {@link
+ * ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)}, so a fork join pool activates a spare worker while its
+ * worker waits on the pipe.
+ *
+ * @author Sergey Bushik
+ */
+public class RowPipe {
+
+    private static final long POLL_TIMEOUT = 100;
+
+    private final String name;
+    private final BlockingQueue<Value[][]> batches;
+    private int splits = -1;
+    private int splitsDone;
+    private volatile boolean closed;
+    private volatile boolean discarded;
+    private volatile Throwable failure;
+
+    public RowPipe(String name, int queueSize) {
+        this.name = name;
+        this.batches = new LinkedBlockingQueue<Value[][]>(queueSize);
+    }
+
+    /**
+     * Writes batch of rows, blocks while the pipe is full
+     *
+     * @param batch rows to write
+     */
+    public void write(Value[][] batch) {
+        checkFailure();
+        if (!discarded) {
+            block(new Put(batch));
+            checkFailure();
+        }
+    }
+
+    /**
+     * Reads next batch of rows, blocks while the pipe is empty
+     *
+     * @return next batch or null when all the batches are read
+     */
+    public Value[][] read() {
+        Take take = new Take();
+        block(take);
+        checkFailure();
+        return take.batch;
+    }
+
+    /**
+     * Notifies that a query split of the row set is written, the pipe is closed once all the splits are written
+     *
+     * @param splitIndex   index of the written split
+     * @param hasNextSplit whether the written split is followed by another split
+     */
+    public synchronized void writeDone(int splitIndex, boolean hasNextSplit) {
+        splitsDone++;
+        if (!hasNextSplit) {
+            splits = splitIndex + 1;
+        }
+        if (splits == splitsDone) {
+            close();
+        }
+    }
+
+    /**
+     * Marks end of the row set, readers get null once they read all the written batches
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Drops written and any further batches, used if the row set has no readers
+     */
+    public void discard() {
+        discarded = true;
+        batches.clear();
+    }
+
+    /**
+     * Fails the pipe releasing blocked writers & readers, which throw exception on their next call
+     *
+     * @param failure cause of the failure
+     */
+    public void fail(Throwable failure) {
+        if (this.failure == null) {
+            this.failure = failure;
+        }
+        batches.clear();
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    protected void checkFailure() {
+        Throwable failure = this.failure;
+        if (failure != null) {
+            throw new BackupException(format("Row pipe %s failed", name), failure);
+        }
+    }
+
+    protected void block(ForkJoinPool.ManagedBlocker blocker) {
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new BackupException(format("Row pipe %s interrupted", name), exception);
+        }
+    }
+
+    class Put implements ForkJoinPool.ManagedBlocker {
+
+        private final Value[][] batch;
+        private boolean done;
+
+        public Put(Value[][] batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            while (!isReleasable()) {
+                done = batches.offer(batch, POLL_TIMEOUT, MILLISECONDS);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done || failure != null || discarded || (done = batches.offer(batch));
+        }
+    }
+
+    class Take implements ForkJoinPool.ManagedBlocker {
+
+        private Value[][] batch;
+        private boolean end;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            while (!isReleasable()) {
+                batch = batches.poll(POLL_TIMEOUT, MILLISECONDS);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (batch != null || end || failure != null) {
+                return true;
+            }
+            // batches are written before the pipe is closed, so a closed pipe found empty afterwards is drained
+            boolean closed = RowPipe.this.closed;
+            batch = batches.poll();
+            return batch != null || (end = closed);
+        }
+    }
+}
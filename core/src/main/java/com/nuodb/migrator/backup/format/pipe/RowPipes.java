@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.pipe;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.collect.Maps.newConcurrentMap;
+
+/**
+ * Row pipes of the row sets written & loaded in one pass, looked up by row set name
+ *
+ * @author Sergey Bushik
+ */
+public class RowPipes {
+
+    /**
+     * Default number of rows in a batch
+     */
+    public static final int BATCH_SIZE = 1000;
+    /**
+     * Default number of batches a pipe holds before its writers block
+     */
+    public static final int QUEUE_SIZE = 4;
+
+    private final ConcurrentMap<String, RowPipe> rowPipes = newConcurrentMap();
+    private final int batchSize;
+    private final int queueSize;
+    private volatile boolean discarded;
+    private volatile Throwable failure;
+
+    public RowPipes() {
+        this(BATCH_SIZE, QUEUE_SIZE);
+    }
+
+    public RowPipes(int batchSize, int queueSize) {
+        this.batchSize = batchSize;
+        this.queueSize = queueSize;
+    }
+
+    public RowPipe getRowPipe(String name) {
+        RowPipe rowPipe = rowPipes.get(name);
+        if (rowPipe == null) {
+            RowPipe newRowPipe = new RowPipe(name, queueSize);
+            rowPipe = rowPipes.putIfAbsent(name, newRowPipe);
+            if (rowPipe == null) {
+                rowPipe = newRowPipe;
+            }
+            // pipes opened after the pipes are discarded or failed follow suit
+            if (discarded) {
+                rowPipe.discard();
+            }
+            if (failure != null) {
+                rowPipe.fail(failure);
+            }
+        }
+        return rowPipe;
+    }
+
+    public Collection<RowPipe> getRowPipes() {
+        return rowPipes.values();
+    }
+
+    /**
+     * Closes all pipes including the pipes of the row sets skipped by the writers
+     */
+    public void close() {
+        for (RowPipe rowPipe : getRowPipes()) {
+            rowPipe.close();
+        }
+    }
+
+    /**
+     * Discards batches of all pipes, unblocking writers of the row sets left without readers
+     */
+    public void discard() {
+        discarded = true;
+        for (RowPipe rowPipe : getRowPipes()) {
+            rowPipe.discard();
+        }
+    }
+
+    public void fail(Throwable failure) {
+        if (this.failure == null) {
+            this.failure = failure;
+        }
+        for (RowPipe rowPipe : getRowPipes()) {
+            rowPipe.fail(failure);
+        }
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+}
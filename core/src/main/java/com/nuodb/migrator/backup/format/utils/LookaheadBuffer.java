@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.lang.Math.max;
+import static java.util.Arrays.copyOf;
+
+/**
+ * Random access to the bytes of an input stream starting from its current position, bytes are read and retained on
+ * demand, so the memory used is proportional to the farthest byte looked at.
+ *
+ * @author Sergey Bushik
+ */
+public class LookaheadBuffer {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream inputStream;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int length;
+    private boolean end;
+
+    public LookaheadBuffer(InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Returns unsigned byte at the given position relative to the start of the buffer or -1 if the position is beyond
+     * the end of the stream
+     *
+     * @param position relative position of the byte
+     * @return unsigned byte value or -1
+     * @throws IOException if reading from the stream fails
+     */
+    public int get(int position) throws IOException {
+        while (position >= length && !end) {
+            fill(position + 1);
+        }
+        return position < length ? buffer[position] & 0xFF : -1;
+    }
+
+    /**
+     * Reads unsigned little endian 32 bit integer at the given position
+     *
+     * @param position relative position of the integer
+     * @return integer value or -1 if the stream ends before the integer
+     * @throws IOException if reading from the stream fails
+     */
+    public long getInt(int position) throws IOException {
+        if (get(position + 3) < 0) {
+            return -1;
+        }
+        return (get(position) | get(position + 1) << 8 | get(position + 2) << 16 | (long) get(position + 3) << 24);
+    }
+
+    protected void fill(int required) throws IOException {
+        if (required > buffer.length) {
+            buffer = copyOf(buffer, max(buffer.length * 2, required));
+        }
+        int read = inputStream.read(buffer, length, buffer.length - length);
+        if (read < 0) {
+            end = true;
+        } else {
+            length += read;
+        }
+    }
+}
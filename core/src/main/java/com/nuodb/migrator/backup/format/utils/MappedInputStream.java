@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static java.lang.Math.min;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+/**
+ * Input stream over a memory mapped region of a file. The region is mapped in windows of {@link #WINDOW_SIZE} bytes
+ * at max, as a single mapping is limited to 2 GB, so multi gigabyte chunks are read window by window. Bytes are read
+ * straight from the mapping without intermediate buffers.
+ *
+ * @author Sergey Bushik
+ */
+public class MappedInputStream extends InputStream {
+
+    public static final long WINDOW_SIZE = 1L << 28;
+
+    private final FileChannel channel;
+    private final long end;
+    private final long windowSize;
+    private long offset;
+    private MappedByteBuffer buffer;
+
+    public MappedInputStream(FileChannel channel) throws IOException {
+        this(channel, 0, channel.size());
+    }
+
+    public MappedInputStream(FileChannel channel, long start, long end) {
+        this(channel, start, end, WINDOW_SIZE);
+    }
+
+    public MappedInputStream(FileChannel channel, long start, long end, long windowSize) {
+        this.channel = channel;
+        this.offset = start;
+        this.end = end;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Returns the current window positioned at the next unread byte. The next window is mapped starting from the
+     * current position when the current window has less than the minimum bytes remaining, so that a multi byte
+     * sequence is never split between the windows.
+     *
+     * @param minimum number of bytes required to be in the window if the stream has that many bytes
+     * @return window of the mapped bytes
+     * @throws IOException if mapping fails
+     */
+    public ByteBuffer getBuffer(int minimum) throws IOException {
+        if (buffer == null || (buffer.remaining() < minimum && !isLast())) {
+            long position = getPosition();
+            buffer = channel.map(READ_ONLY, position, min(windowSize, end - position));
+            offset = position;
+        }
+        return buffer;
+    }
+
+    /**
+     * Checks if the current window reaches the end of the mapped region
+     */
+    public boolean isLast() {
+        return buffer != null && offset + buffer.limit() >= end;
+    }
+
+    public long getPosition() {
+        return buffer != null ? offset + buffer.position() : offset;
+    }
+
+    @Override
+    public int read() throws IOException {
+        ByteBuffer buffer = getBuffer(1);
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = getBuffer(1);
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        len = min(len, buffer.remaining());
+        buffer.get(bytes, off, len);
+        return len;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long position = getPosition();
+        long skip = min(n, end - position);
+        if (skip <= 0) {
+            return 0;
+        }
+        if (buffer != null && skip <= buffer.remaining()) {
+            buffer.position(buffer.position() + (int) skip);
+        } else {
+            buffer = null;
+            offset = position + skip;
+        }
+        return skip;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) min(Integer.MAX_VALUE, end - getPosition());
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+}
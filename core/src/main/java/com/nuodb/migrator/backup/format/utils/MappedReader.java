@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+
+import static java.nio.charset.CodingErrorAction.REPLACE;
+
+/**
+ * Decodes characters straight from the memory mapped bytes into the caller's buffer, skipping the byte buffer copy
+ * made by {@link java.io.InputStreamReader}.
+ *
+ * @author Sergey Bushik
+ */
+public class MappedReader extends Reader {
+    /**
+     * Longest byte sequence of a single character, the window is advanced to keep at least that many bytes ahead
+     */
+    private static final int MAX_SEQUENCE_LENGTH = 8;
+
+    private final MappedInputStream inputStream;
+    private final CharsetDecoder decoder;
+    private boolean end;
+
+    public MappedReader(MappedInputStream inputStream, Charset charset) {
+        this.inputStream = inputStream;
+        this.decoder = charset.newDecoder().onMalformedInput(REPLACE).onUnmappableCharacter(REPLACE);
+    }
+
+    @Override
+    public int read(char[] chars, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (end) {
+            return -1;
+        }
+        CharBuffer buffer = CharBuffer.wrap(chars, off, len);
+        while (buffer.position() == off) {
+            ByteBuffer bytes = inputStream.getBuffer(MAX_SEQUENCE_LENGTH);
+            boolean last = inputStream.isLast();
+            CoderResult result = decoder.decode(bytes, buffer, last);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (last && !bytes.hasRemaining()) {
+                decoder.flush(buffer);
+                end = true;
+                break;
+            }
+            if (result.isOverflow()) {
+                break;
+            }
+        }
+        int read = buffer.position() - off;
+        return read == 0 && end ? -1 : read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
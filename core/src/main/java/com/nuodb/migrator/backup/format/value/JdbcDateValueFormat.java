@@ -33,11 +33,13 @@ import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
 
 import java.sql.Date;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.sql.Timestamp;
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.formatYear;
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.parseDate;
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.parseTimestamp;
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.parseYear;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.STRING_NULL;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
 import static java.lang.String.format;
@@ -46,27 +48,30 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 /**
  * @author Sergey Bushik
  */
+@SuppressWarnings("deprecation")
 public class JdbcDateValueFormat extends ValueFormatBase<Date> {
 
     private static final String YEAR_TYPE = "YEAR";
 
-    private static final DateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy");
-
     @Override
     protected Value doGetValue(JdbcValueAccess<Date> access, Map<String, Object> options) throws SQLException {
         Date date = access.getValue(options);
         if (date == null) {
             return STRING_NULL;
         } else if (JdbcTypeDesc.equals(access.getField().getTypeName(), YEAR_TYPE)) {
-            return string(YEAR_FORMAT.format(date));
+            return string(formatYear(date));
         } else {
             return string(date.toString());
         }
     }
 
+    /**
+     * Strings are classified as a date, a timestamp or a year by their shape, time of a timestamp is discarded
+     */
     @Override
     protected void doSetValue(Value value, JdbcValueAccess<Date> access, Map<String, Object> options) throws SQLException {
         if (!(doSetValueAsDate(access, value, options) ||
+                doSetValueAsTimestamp(access, value, options) ||
                 doSetValueAsYear(access, value, options))) {
             throw new ValueFormatException(format("Value %s is not a date nor year", value));
         }
@@ -74,24 +79,35 @@ public class JdbcDateValueFormat extends ValueFormatBase<Date> {
 
     protected boolean doSetValueAsDate(JdbcValueAccess<Date> jdbcValueAccess, Value variant,
                                        Map<String, Object> valueAccessOptions) throws SQLException {
-        try {
-            final String value = variant.asString();
-            jdbcValueAccess.setValue(!isEmpty(value) ? Date.valueOf(value) : null, valueAccessOptions);
+        final String value = variant.asString();
+        if (isEmpty(value)) {
+            jdbcValueAccess.setValue(null, valueAccessOptions);
             return true;
-        } catch (IllegalArgumentException exception) {
-            return false;
         }
+        Date date = parseDate(value);
+        if (date != null) {
+            jdbcValueAccess.setValue(date, valueAccessOptions);
+        }
+        return date != null;
+    }
+
+    protected boolean doSetValueAsTimestamp(JdbcValueAccess<Date> jdbcValueAccess, Value variant,
+                                            Map<String, Object> valueAccessOptions) throws SQLException {
+        Timestamp timestamp = parseTimestamp(variant.asString());
+        if (timestamp != null) {
+            jdbcValueAccess.setValue(new Date(timestamp.getYear(), timestamp.getMonth(), timestamp.getDate()),
+                    valueAccessOptions);
+        }
+        return timestamp != null;
     }
 
     protected boolean doSetValueAsYear(JdbcValueAccess<Date> jdbcValueAccess, Value variant,
                                        Map<String, Object> valueAccessOptions) throws SQLException {
-        try {
-            final String value = variant.asString();
-            jdbcValueAccess.setValue(YEAR_FORMAT.parse(value), valueAccessOptions);
-            return true;
-        } catch (ParseException e) {
-            return false;
+        Date year = parseYear(variant.asString());
+        if (year != null) {
+            jdbcValueAccess.setValue(year, valueAccessOptions);
         }
+        return year != null;
     }
 
     @Override
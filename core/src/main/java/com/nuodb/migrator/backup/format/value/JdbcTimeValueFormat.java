@@ -32,8 +32,11 @@ import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
 
 import java.sql.SQLException;
 import java.sql.Time;
+import java.sql.Timestamp;
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.parseTime;
+import static com.nuodb.migrator.backup.format.value.ValueType.TIMESTAMP;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
@@ -49,14 +52,26 @@ public class JdbcTimeValueFormat extends ValueFormatBase<Time> {
         return string(time != null ? time.toString() : null);
     }
 
+    /**
+     * Typed timestamps are set as times, while strings are parsed as [h]h:[m]m:[s]s[.f...] times
+     */
     @Override
     protected void doSetValue(Value variant, JdbcValueAccess<Time> access, Map<String, Object> options) throws SQLException {
+        if (variant.getValueType() == TIMESTAMP) {
+            Timestamp timestamp = variant.asTimestamp();
+            access.setValue(timestamp != null ? new Time(timestamp.getTime()) : null, options);
+            return;
+        }
         final String value = variant.asString();
-        try {
-            access.setValue(!isEmpty(value) ? value : null, options);
-        } catch (IllegalArgumentException exception) {
+        if (isEmpty(value)) {
+            access.setValue(null, options);
+            return;
+        }
+        Time time = parseTime(value);
+        if (time == null) {
             throw new ValueFormatException(format("Value %s is not in the hh:mm:ss format", value));
         }
+        access.setValue(time, options);
     }
 
     @Override
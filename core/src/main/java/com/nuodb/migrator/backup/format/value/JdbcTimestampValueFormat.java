@@ -33,12 +33,13 @@ import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
 import java.sql.Date;
 import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Map;
 
-import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.parseDate;
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.parseTimestamp;
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.parseYear;
+import static com.nuodb.migrator.backup.format.value.ValueType.TIMESTAMP;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.timestamp;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
@@ -47,19 +48,21 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  */
 public class JdbcTimestampValueFormat extends ValueFormatBase<Timestamp> {
 
-    private static final DateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy");
-
     @Override
     protected Value doGetValue(JdbcValueAccess<Timestamp> access,
                                Map<String, Object> options) throws SQLException {
-        Timestamp timestamp = access.getValue(options);
-        return string(timestamp != null ? timestamp.toString() : null);
+        return timestamp(access.getValue(options));
     }
 
+    /**
+     * Typed timestamps are set as is, while strings are classified as a timestamp, a date or a year by their shape
+     */
     @Override
     protected void doSetValue(Value value, JdbcValueAccess<Timestamp> access,
                               Map<String, Object> options) throws SQLException {
-        if (!(doSetValueAsTimestamp(value, access, options) || doSetValueAsDate(value,
+        if (value.getValueType() == TIMESTAMP) {
+            access.setValue(value.asTimestamp(), options);
+        } else if (!(doSetValueAsTimestamp(value, access, options) || doSetValueAsDate(value,
                 access, options) ||
                 doSetValueAsYear(value, access, options))) {
             throw new ValueFormatException(format("Value %s is not a timestamp, date nor year", value));
@@ -68,35 +71,34 @@ public class JdbcTimestampValueFormat extends ValueFormatBase<Timestamp> {
 
     protected boolean doSetValueAsTimestamp(Value variant, JdbcValueAccess<Timestamp> access,
                                             Map<String, Object> options) throws SQLException {
-        try {
-            String value = variant.asString();
-            access.setValue(!isEmpty(value) ? Timestamp.valueOf(value) : null, options);
+        String value = variant.asString();
+        if (isEmpty(value)) {
+            access.setValue(null, options);
             return true;
-        } catch (IllegalArgumentException exception) {
-            return false;
         }
+        Timestamp timestamp = parseTimestamp(value);
+        if (timestamp != null) {
+            access.setValue(timestamp, options);
+        }
+        return timestamp != null;
     }
 
     protected boolean doSetValueAsDate(Value variant, JdbcValueAccess<Timestamp> access,
                                        Map<String, Object> options) throws SQLException {
-        try {
-            String value = variant.asString();
-            access.setValue(!isEmpty(value) ? Date.valueOf(value) : null, options);
-            return true;
-        } catch (IllegalArgumentException exception) {
-            return false;
+        Date date = parseDate(variant.asString());
+        if (date != null) {
+            access.setValue(date, options);
         }
+        return date != null;
     }
 
     protected boolean doSetValueAsYear(Value variant, JdbcValueAccess<Timestamp> access,
                                        Map<String, Object> options) throws SQLException {
-        try {
-            String value = variant.asString();
-            access.setValue(YEAR_FORMAT.parse(value), options);
-            return true;
-        } catch (ParseException e) {
-            return false;
+        Date year = parseYear(variant.asString());
+        if (year != null) {
+            access.setValue(year, options);
         }
+        return year != null;
     }
 
     @Override
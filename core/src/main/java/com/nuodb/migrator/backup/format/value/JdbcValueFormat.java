@@ -41,8 +41,11 @@ import java.util.Map;
 
 import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
 import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.google.common.primitives.Ints.checkedCast;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.isEmpty;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.value;
 import static java.lang.String.format;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
@@ -68,8 +71,8 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
             case Types.DOUBLE:
             case Types.NUMERIC:
             case Types.DECIMAL:
-                result = access.getValue(options);
-                value = string(result != null ? result.toString() : null);
+            case Types.BOOLEAN:
+                value = value(access.getValue(options));
                 break;
             case Types.CHAR:
             case Types.VARCHAR:
@@ -103,10 +106,6 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
                 result = access.getValue(options);
                 value = string(result != null ? result.toString() : null);
                 break;
-            case Types.BOOLEAN:
-                result = access.getValue(options);
-                value = string(result != null ? result.toString() : null);
-                break;
             case Types.ROWID:
                 result = access.getValue(options);
                 value = binary(result != null ? ((RowId) result).getBytes() : null);
@@ -121,38 +120,41 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
         return value;
     }
 
+    /**
+     * Numeric & boolean values are set from the typed values as is, while string values are parsed
+     */
     @Override
     protected void doSetValue(Value value, JdbcValueAccess<Object> access, Map<String, Object> options) throws Exception {
         Field field = access.getField();
-        final String result = value.asString();
         switch (field.getTypeCode()) {
             case Types.BIT:
             case Types.BOOLEAN:
-                access.setValue(!isEmpty(result) ? Boolean.parseBoolean(result) : null,
-                        options);
-                break;
+                access.setValue(!isEmpty(value) ? value.asBoolean() : null, options);
+                return;
             case Types.TINYINT:
             case Types.SMALLINT:
-                access.setValue(!isEmpty(result) ? Short.parseShort(result) : null, options);
-                break;
+                access.setValue(!isEmpty(value) ? checkedCastShort(value.asLong()) : null, options);
+                return;
             case Types.INTEGER:
-                access.setValue(!isEmpty(result) ? Integer.parseInt(result) : null,
-                        options);
-                break;
+                access.setValue(!isEmpty(value) ? checkedCast(value.asLong()) : null, options);
+                return;
             case Types.BIGINT:
-                access.setValue(!isEmpty(result) ? Long.parseLong(result) : null, options);
-                break;
+                access.setValue(!isEmpty(value) ? value.asLong() : null, options);
+                return;
             case Types.FLOAT:
             case Types.REAL:
-                access.setValue(!isEmpty(result) ? Float.parseFloat(result) : null, options);
-                break;
+                access.setValue(!isEmpty(value) ? asFloat(value) : null, options);
+                return;
             case Types.DOUBLE:
-                access.setValue(!isEmpty(result) ? Double.parseDouble(result) : null, options);
-                break;
+                access.setValue(!isEmpty(value) ? value.asDouble() : null, options);
+                return;
             case Types.NUMERIC:
             case Types.DECIMAL:
-                access.setValue(!isEmpty(result) ? new BigDecimal(result) : null, options);
-                break;
+                access.setValue(!isEmpty(value) ? value.asDecimal() : null, options);
+                return;
+        }
+        final String result = value.asString();
+        switch (field.getTypeCode()) {
             case Types.CHAR:
             case Types.VARCHAR:
             case Types.LONGVARCHAR:
@@ -196,6 +198,17 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
         }
     }
 
+    protected float asFloat(Value value) {
+        return value.getValueType() == STRING ? Float.parseFloat(value.asString()) : (float) value.asDouble();
+    }
+
+    protected short checkedCastShort(long value) {
+        if ((short) value != value) {
+            throw new NumberFormatException(format("Value %d is out of short range", value));
+        }
+        return (short) value;
+    }
+
     protected byte[] write(Object object) throws IOException {
         if (object == null) {
             return null;
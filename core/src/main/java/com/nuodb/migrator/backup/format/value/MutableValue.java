@@ -0,0 +1,259 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.formatTimestamp;
+import static com.nuodb.migrator.backup.format.value.ValueType.*;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Double.parseDouble;
+import static java.lang.Long.parseLong;
+
+/**
+ * Value holder reused from row to row by the inputs reading into a caller supplied array of values, so that no value
+ * object is allocated per cell. The holder is valid until the next row is read into it.
+ *
+ * @author Sergey Bushik
+ */
+public class MutableValue implements Value {
+
+    private ValueType valueType = STRING;
+    private boolean isNull = true;
+    private String string;
+    private byte[] bytes;
+    private long longValue;
+    private double doubleValue;
+    private Object object;
+
+    public MutableValue setNull(ValueType valueType) {
+        this.valueType = valueType != null ? valueType : STRING;
+        this.isNull = true;
+        this.string = null;
+        this.bytes = null;
+        this.object = null;
+        return this;
+    }
+
+    public MutableValue setString(String string) {
+        setNull(STRING);
+        this.isNull = string == null;
+        this.string = string;
+        return this;
+    }
+
+    public MutableValue setBytes(byte[] bytes) {
+        setNull(BINARY);
+        this.isNull = bytes == null;
+        this.bytes = bytes;
+        return this;
+    }
+
+    public MutableValue setLong(long value) {
+        setNull(LONG);
+        this.isNull = false;
+        this.longValue = value;
+        return this;
+    }
+
+    public MutableValue setDouble(double value) {
+        setNull(DOUBLE);
+        this.isNull = false;
+        this.doubleValue = value;
+        return this;
+    }
+
+    public MutableValue setBoolean(boolean value) {
+        setNull(BOOLEAN);
+        this.isNull = false;
+        this.longValue = value ? 1 : 0;
+        return this;
+    }
+
+    public MutableValue setDecimal(BigDecimal value) {
+        setNull(value != null ? DECIMAL : STRING);
+        this.isNull = value == null;
+        this.object = value;
+        return this;
+    }
+
+    public MutableValue setTimestamp(Timestamp value) {
+        setNull(value != null ? TIMESTAMP : STRING);
+        this.isNull = value == null;
+        this.object = value;
+        return this;
+    }
+
+    /**
+     * Copies state of the given value into this holder
+     *
+     * @param value to copy
+     * @return this holder
+     */
+    public MutableValue setValue(Value value) {
+        if (value.isNull()) {
+            return setNull(value.getValueType());
+        }
+        switch (value.getValueType()) {
+            case BINARY:
+                return setBytes(value.asBytes());
+            case LONG:
+                return setLong(value.asLong());
+            case DOUBLE:
+                return setDouble(value.asDouble());
+            case BOOLEAN:
+                return setBoolean(value.asBoolean());
+            case DECIMAL:
+                return setDecimal(value.asDecimal());
+            case TIMESTAMP:
+                return setTimestamp(value.asTimestamp());
+            default:
+                return setString(value.asString());
+        }
+    }
+
+    @Override
+    public boolean isNull() {
+        return isNull;
+    }
+
+    @Override
+    public String asString() {
+        if (isNull) {
+            return null;
+        }
+        switch (valueType) {
+            case BINARY:
+                return new String(bytes);
+            case LONG:
+                return Long.toString(longValue);
+            case DOUBLE:
+                return Double.toString(doubleValue);
+            case BOOLEAN:
+                return Boolean.toString(longValue != 0);
+            case DECIMAL:
+                return object.toString();
+            case TIMESTAMP:
+                return formatTimestamp((Timestamp) object);
+            default:
+                return string;
+        }
+    }
+
+    @Override
+    public byte[] asBytes() {
+        if (valueType == BINARY) {
+            return bytes;
+        }
+        String value = asString();
+        return value != null ? value.getBytes() : null;
+    }
+
+    @Override
+    public long asLong() {
+        switch (valueType) {
+            case LONG:
+            case BOOLEAN:
+                return longValue;
+            case DOUBLE:
+                long value = (long) doubleValue;
+                if (value != doubleValue) {
+                    throw new NumberFormatException("Value " + doubleValue + " is not a long");
+                }
+                return value;
+            case DECIMAL:
+                return ((BigDecimal) object).longValueExact();
+            case TIMESTAMP:
+                return ((Timestamp) object).getTime();
+            default:
+                return parseLong(asString());
+        }
+    }
+
+    @Override
+    public double asDouble() {
+        switch (valueType) {
+            case LONG:
+            case BOOLEAN:
+                return longValue;
+            case DOUBLE:
+                return doubleValue;
+            case DECIMAL:
+                return ((BigDecimal) object).doubleValue();
+            default:
+                return parseDouble(asString());
+        }
+    }
+
+    @Override
+    public BigDecimal asDecimal() {
+        switch (valueType) {
+            case LONG:
+            case BOOLEAN:
+                return BigDecimal.valueOf(longValue);
+            case DOUBLE:
+                return BigDecimal.valueOf(doubleValue);
+            case DECIMAL:
+                return (BigDecimal) object;
+            default:
+                return new BigDecimal(asString());
+        }
+    }
+
+    @Override
+    public boolean asBoolean() {
+        switch (valueType) {
+            case LONG:
+            case BOOLEAN:
+                return longValue != 0;
+            case DOUBLE:
+                return doubleValue != 0;
+            case DECIMAL:
+                return ((BigDecimal) object).signum() != 0;
+            default:
+                return parseBoolean(asString());
+        }
+    }
+
+    @Override
+    public Timestamp asTimestamp() {
+        return valueType == TIMESTAMP ? (Timestamp) object : Timestamp.valueOf(asString());
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return valueType;
+    }
+
+    @Override
+    public String toString() {
+        return "Mutable{" + valueType + ", " + (valueType == BINARY ? Arrays.toString(bytes) : asString()) + '}';
+    }
+}
@@ -30,9 +30,12 @@ package com.nuodb.migrator.backup.format.value;
 import com.nuodb.migrator.jdbc.model.Field;
 import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
 
+import java.math.BigDecimal;
 import java.util.Map;
 
-import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.backup.format.value.ValueType.DECIMAL;
+import static com.nuodb.migrator.backup.format.value.ValueType.LONG;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.decimal;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 /**
@@ -42,13 +45,17 @@ public class NuoDBSmallIntValueFormat extends ValueFormatBase<String> {
 
     @Override
     protected Value doGetValue(JdbcValueAccess<String> access, Map<String, Object> options) throws Exception {
-        return string(access.getValue(String.class, options));
+        return decimal(access.getValue(BigDecimal.class, options));
     }
 
     @Override
     protected void doSetValue(Value variant, JdbcValueAccess<String> access, Map<String, Object> options) throws Exception {
-        String value = variant.asString();
-        access.setValue(!isEmpty(value) ? value : null, options);
+        if (variant.getValueType() == LONG || variant.getValueType() == DECIMAL) {
+            access.setValue(variant.asDecimal(), options);
+        } else {
+            String value = variant.asString();
+            access.setValue(!isEmpty(value) ? value : null, options);
+        }
     }
 
     @Override
@@ -32,6 +32,8 @@ import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
 
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.formatTime;
+import static com.nuodb.migrator.backup.format.value.ValueType.TIMESTAMP;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
 
 /**
@@ -44,9 +46,13 @@ public class NuoDBTimeValueFormat extends ValueFormatBase<String> {
         return string(access.getValue(String.class, options));
     }
 
+    /**
+     * Strings are passed to the server as is, while typed timestamps are formatted as hh:mm:ss[.f...] times
+     */
     @Override
     protected void doSetValue(Value value, JdbcValueAccess<String> access, Map<String, Object> options) throws Exception {
-        access.setValue(value.asString(), options);
+        access.setValue(value.getValueType() == TIMESTAMP ? formatTime(value.asTimestamp()) : value.asString(),
+                options);
     }
 
     @Override
@@ -37,6 +37,10 @@ public class Row {
     private Chunk chunk;
     private Value[] values;
     private long number;
+    private long offset;
+
+    public Row() {
+    }
 
     public Row(Chunk chunk, Value[] values, long number) {
         this.chunk = chunk;
@@ -48,11 +52,37 @@ public class Row {
         return chunk;
     }
 
+    public void setChunk(Chunk chunk) {
+        this.chunk = chunk;
+    }
+
     public Value[] getValues() {
         return values;
     }
 
+    public void setValues(Value[] values) {
+        this.values = values;
+    }
+
     public long getNumber() {
         return number;
     }
+
+    public void setNumber(long number) {
+        this.number = number;
+    }
+
+    /**
+     * Returns byte offset of the chunk range the row is read from, row number is relative to the range. The offset is
+     * 0 for rows numbered from the start of the chunk.
+     *
+     * @return byte offset of the chunk range
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
 }
@@ -36,5 +36,13 @@ public interface RowReader extends Closeable {
 
     Row readRow();
 
+    /**
+     * Reads next row into the given row reusing its values, which are valid until the next row is read into it.
+     *
+     * @param row row to read into
+     * @return the given row or null if there are no more rows
+     */
+    Row readRow(Row row);
+
     void close();
 }
@@ -32,23 +32,150 @@ import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.Input;
+import com.nuodb.migrator.backup.format.InputException;
+import com.nuodb.migrator.backup.format.SplittableInput;
+import com.nuodb.migrator.backup.format.utils.MappedInputStream;
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
+import com.nuodb.migrator.utils.concurrent.RecursiveAction;
+import org.apache.commons.io.input.BoundedInputStream;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.Input.ATTRIBUTE_MAPPED;
+import static com.nuodb.migrator.utils.concurrent.ForkJoinTask.inForkJoinPool;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Math.max;
+import static java.util.Arrays.copyOf;
+import static java.util.Collections.sort;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.commons.io.IOUtils.closeQuietly;
+import static org.apache.commons.io.IOUtils.skipFully;
 
 /**
  * @author Sergey Bushik
  */
 public class RowReaders {
 
+    private static final Value[] NO_VALUES = new Value[0];
+
+    /**
+     * Number of rows handed over by a read ahead row reader at once
+     */
+    public static final int READ_AHEAD_BATCH_SIZE = 1000;
+
     public static RowReader newSequentialRowReader(RowSet rowSet, BackupOps backupOps,
                                                    FormatFactory formatFactory,
                                                    Map<String, Object> formatAttributes) {
         return new SequentialRowReader(rowSet, backupOps, formatFactory, formatAttributes);
     }
 
+    /**
+     * Creates row readers sharing a lock free queue of row set chunks, so that each of the readers opens, decodes and
+     * closes its own chunk input independently from the others. Chunks are queued largest first to balance the load.
+     *
+     * @param rowSet           row set to read
+     * @param backupOps        backup ops to open chunk inputs with
+     * @param formatFactory    format factory to create chunk inputs with
+     * @param formatAttributes format attributes
+     * @param rowReaders       number of row readers to create
+     * @return row readers sharing chunks of the row set
+     */
+    public static Collection<RowReader> newChunkRowReaders(RowSet rowSet, BackupOps backupOps,
+                                                           FormatFactory formatFactory,
+                                                           Map<String, Object> formatAttributes, int rowReaders) {
+        return newChunkRowReaders(rowSet, backupOps, formatFactory, formatAttributes, rowReaders, 0);
+    }
+
+    /**
+     * Creates row readers sharing a lock free queue of chunk ranges. Chunks larger than the split size are divided into
+     * byte ranges if the input of the format is splittable, range boundaries are resynchronized to the row starts
+     * before the readers are created, so that every row is read by exactly one reader.
+     *
+     * @param rowSet           row set to read
+     * @param backupOps        backup ops to open chunk inputs with
+     * @param formatFactory    format factory to create chunk inputs with
+     * @param formatAttributes format attributes
+     * @param rowReaders       number of row readers to create
+     * @param splitSize        size of chunk range in bytes, zero or negative value disables splitting
+     * @return row readers sharing chunk ranges of the row set
+     */
+    public static Collection<RowReader> newChunkRowReaders(RowSet rowSet, BackupOps backupOps,
+                                                           FormatFactory formatFactory,
+                                                           Map<String, Object> formatAttributes, int rowReaders,
+                                                           long splitSize) {
+        List<ChunkRange> ranges = newChunkRanges(rowSet, backupOps, formatFactory, formatAttributes, splitSize);
+        sort(ranges, new Comparator<ChunkRange>() {
+            @Override
+            public int compare(ChunkRange range1, ChunkRange range2) {
+                return Long.valueOf(range2.getSize()).compareTo(range1.getSize());
+            }
+        });
+        Queue<ChunkRange> queue = new ConcurrentLinkedQueue<ChunkRange>(ranges);
+        Collection<RowReader> chunkRowReaders = newArrayList();
+        for (int rowReader = 0; rowReader < rowReaders; rowReader++) {
+            chunkRowReaders.add(new ChunkRowReader(queue, rowSet, backupOps, formatFactory, formatAttributes));
+        }
+        return chunkRowReaders;
+    }
+
+    protected static List<ChunkRange> newChunkRanges(RowSet rowSet, BackupOps backupOps,
+                                                     FormatFactory formatFactory,
+                                                     Map<String, Object> formatAttributes, long splitSize) {
+        SplittableInput input = null;
+        if (splitSize > 0) {
+            Input probe = formatFactory.createInput(rowSet.getBackup().getFormat(), formatAttributes);
+            probe.setRowSet(rowSet);
+            if (probe instanceof SplittableInput && ((SplittableInput) probe).isSplittable()) {
+                input = (SplittableInput) probe;
+            }
+        }
+        List<ChunkRange> ranges = newArrayList();
+        for (Chunk chunk : rowSet.getChunks()) {
+            long length = chunk.getSize(backupOps);
+            long start = 0;
+            // compressed chunks can't be read from an arbitrary offset
+            if (input != null && chunk.getCodec() == null) {
+                for (long offset = splitSize; offset < length; offset += splitSize) {
+                    // boundaries are kept ascending, so that the ranges never overlap
+                    long end = max(sync(input, backupOps, chunk, offset, length), start);
+                    if (end > start) {
+                        ranges.add(new ChunkRange(chunk, start, end, length));
+                        start = end;
+                    }
+                }
+            }
+            if (start < length || start == 0) {
+                ranges.add(new ChunkRange(chunk, start, length, length));
+            }
+        }
+        return ranges;
+    }
+
+    protected static long sync(SplittableInput input, BackupOps backupOps, Chunk chunk, long offset, long length) {
+        InputStream inputStream = backupOps.openInput(chunk.getName());
+        try {
+            skipFully(inputStream, offset);
+            long sync = input.sync(inputStream, offset);
+            return sync < 0 ? length : sync;
+        } catch (IOException exception) {
+            throw new InputException(exception);
+        } finally {
+            closeQuietly(inputStream);
+        }
+    }
+
     public static RowReader newSynchronizedRowReader(RowReader rowReader) {
         return new SynchronizedRowReader(rowReader);
     }
@@ -57,6 +184,22 @@ public class RowReaders {
         return new SynchronizedRowReader(rowReader, mutex);
     }
 
+    /**
+     * Creates row reader decoding rows of the given reader ahead in a forked task, while the caller consumes the rows
+     * decoded before, e.g. binds & executes them on the target connection
+     *
+     * @param rowReader row reader to decode rows with
+     * @param batches   max number of batches decoded ahead of the caller
+     * @return read ahead row reader
+     */
+    public static RowReader newReadAheadRowReader(RowReader rowReader, int batches) {
+        return new ReadAheadRowReader(rowReader, batches, READ_AHEAD_BATCH_SIZE);
+    }
+
+    public static RowReader newReadAheadRowReader(RowReader rowReader, int batches, int batchSize) {
+        return new ReadAheadRowReader(rowReader, batches, batchSize);
+    }
+
     static class SequentialRowReader implements RowReader {
 
         private final RowSet rowSet;
@@ -81,9 +224,19 @@ public class RowReaders {
 
         @Override
         public Row readRow() {
-            initChunk();
-            initInput();
-            initRowValues();
+            return readRow(null);
+        }
+
+        @Override
+        public Row readRow(Row reuse) {
+            do {
+                initChunk();
+                if (chunk == null) {
+                    return null;
+                }
+                initInput();
+                initRowValues(reuse);
+            } while (row == null);
             return row;
         }
 
@@ -96,30 +249,91 @@ public class RowReaders {
         }
 
         protected void initChunk() {
+            if (chunk == null) {
+                chunk = nextChunk();
+            }
+        }
+
+        protected Chunk nextChunk() {
             if (chunks == null) {
                 chunks = rowSet.getChunks().iterator();
             }
-            if (chunks.hasNext() && chunk == null) {
-                chunk = chunks.next();
-            }
+            return chunks.hasNext() ? chunks.next() : null;
         }
 
         protected void initInput() {
             if (chunk != null && input == null) {
                 input = formatFactory.createInput(rowSet.getBackup().getFormat(), formatAttributes);
-                input.setInputStream(backupOps.openInput(chunk.getName()));
                 input.setRowSet(rowSet);
+                openInput(input, chunk);
                 input.init();
                 input.readStart();
                 number = 0;
             }
         }
 
-        protected void initRowValues() {
+        protected void openInput(Input input, Chunk chunk) {
+            input.setInputStream(openInputStream(chunk));
+        }
+
+        /**
+         * Opens chunk stream, decompressing it with the codec recorded for the chunk in the backup catalog
+         */
+        protected InputStream openInputStream(Chunk chunk) {
+            InputStream inputStream = isMapped() ? openMappedInputStream(chunk) : backupOps.openInput(chunk.getName());
+            if (chunk.getCodec() != null) {
+                try {
+                    inputStream = formatFactory.createCodec(chunk.getCodec()).decode(inputStream);
+                } catch (IOException exception) {
+                    closeQuietly(inputStream);
+                    throw new InputException(exception);
+                }
+            }
+            return inputStream;
+        }
+
+        /**
+         * Memory maps the chunk file, so that the input reads the bytes straight from the page cache
+         */
+        protected InputStream openMappedInputStream(Chunk chunk) {
+            FileChannel channel = backupOps.openChannel(chunk.getName());
+            try {
+                return new MappedInputStream(channel);
+            } catch (IOException exception) {
+                closeQuietly(channel);
+                throw new InputException(exception);
+            }
+        }
+
+        protected boolean isMapped() {
+            Object mapped = formatAttributes != null ? formatAttributes.get(ATTRIBUTE_MAPPED) : null;
+            return mapped != null && parseBoolean(mapped.toString());
+        }
+
+        /**
+         * Returns byte offset the numbers of the rows read are relative to
+         */
+        protected long getOffset() {
+            return 0;
+        }
+
+        protected BackupOps getBackupOps() {
+            return backupOps;
+        }
+
+        /**
+         * Returns values of the row to reuse, an empty array is returned for a new row, so that the input allocates
+         * the mutable holders once
+         */
+        protected Value[] getValues(Row row) {
+            return row.getValues() != null ? row.getValues() : NO_VALUES;
+        }
+
+        protected void initRowValues(Row reuse) {
             Value[] values = null;
             if (input != null) {
                 try {
-                    values = input.readValues();
+                    values = input.readValues(reuse != null ? getValues(reuse) : null);
                 } finally {
                     if (values == null) {
                         input.readEnd();
@@ -129,7 +343,109 @@ public class RowReaders {
                     }
                 }
             }
-            row = values != null ? new Row(chunk, values, number++) : null;
+            if (values == null) {
+                row = null;
+            } else if (reuse != null) {
+                reuse.setChunk(chunk);
+                reuse.setValues(values);
+                reuse.setNumber(number++);
+                reuse.setOffset(getOffset());
+                row = reuse;
+            } else {
+                row = new Row(chunk, values, number++);
+                row.setOffset(getOffset());
+            }
+        }
+    }
+
+    /**
+     * Reads rows from the chunk ranges polled from the queue shared with other chunk row readers, no locking is done
+     * per row
+     */
+    static class ChunkRowReader extends SequentialRowReader {
+
+        private final Queue<ChunkRange> queue;
+        private ChunkRange range;
+
+        ChunkRowReader(Queue<ChunkRange> queue, RowSet rowSet, BackupOps backupOps,
+                       FormatFactory formatFactory, Map<String, Object> formatAttributes) {
+            super(rowSet, backupOps, formatFactory, formatAttributes);
+            this.queue = queue;
+        }
+
+        @Override
+        protected Chunk nextChunk() {
+            range = queue.poll();
+            return range != null ? range.getChunk() : null;
+        }
+
+        @Override
+        protected long getOffset() {
+            return range.isWhole() ? 0 : range.getStart();
+        }
+
+        @Override
+        protected void openInput(Input input, Chunk chunk) {
+            if (range.isWhole()) {
+                super.openInput(input, chunk);
+            } else if (isMapped()) {
+                FileChannel channel = getBackupOps().openChannel(chunk.getName());
+                ((SplittableInput) input).setInputStream(
+                        new MappedInputStream(channel, range.getStart(), range.getStart() + range.getSize()),
+                        range.getStart(), range.getEnd(), range.getLength());
+            } else {
+                InputStream inputStream = getBackupOps().openInput(chunk.getName());
+                try {
+                    skipFully(inputStream, range.getStart());
+                } catch (IOException exception) {
+                    closeQuietly(inputStream);
+                    throw new InputException(exception);
+                }
+                ((SplittableInput) input).setInputStream(new BoundedInputStream(inputStream, range.getSize()),
+                        range.getStart(), range.getEnd(), range.getLength());
+            }
+        }
+    }
+
+    /**
+     * Byte range of a chunk starting and ending at row boundaries
+     */
+    static class ChunkRange {
+
+        private final Chunk chunk;
+        private final long start;
+        private final long end;
+        private final long length;
+
+        ChunkRange(Chunk chunk, long start, long end, long length) {
+            this.chunk = chunk;
+            this.start = start;
+            this.end = end;
+            this.length = length;
+        }
+
+        public Chunk getChunk() {
+            return chunk;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public long getSize() {
+            return end - start;
+        }
+
+        public boolean isWhole() {
+            return start == 0 && end == length;
         }
     }
 
@@ -155,6 +471,13 @@ public class RowReaders {
             }
         }
 
+        @Override
+        public Row readRow(Row row) {
+            synchronized (mutex) {
+                return rowReader.readRow(row);
+            }
+        }
+
         @Override
         public void close() {
             synchronized (mutex) {
@@ -162,4 +485,182 @@ public class RowReaders {
             }
         }
     }
+
+    /**
+     * Decodes rows with the underlying reader in a forked task and hands them over in batches through a bounded queue,
+     * so that memory stays predictable. Decoded rows are never reused, the underlying reader is left open to its owner.
+     */
+    static class ReadAheadRowReader implements RowReader {
+
+        private static final long POLL_TIMEOUT = 100;
+
+        private final RowReader rowReader;
+        private final int batchSize;
+        private final BlockingQueue<Row[]> batches;
+        private volatile boolean done;
+        private volatile boolean closed;
+        private volatile Throwable failure;
+        private RecursiveAction decoder;
+        private Row[] batch;
+        private int index;
+
+        ReadAheadRowReader(RowReader rowReader, int batches, int batchSize) {
+            this.rowReader = rowReader;
+            this.batchSize = batchSize;
+            this.batches = new LinkedBlockingQueue<Row[]>(batches);
+        }
+
+        @Override
+        public Row readRow() {
+            return readRow(null);
+        }
+
+        @Override
+        public Row readRow(Row row) {
+            if (decoder == null) {
+                start();
+            }
+            if (batch == null || index == batch.length) {
+                batch = take();
+                index = 0;
+            }
+            if (batch == null) {
+                return null;
+            }
+            row = batch[index];
+            batch[index++] = null;
+            return row;
+        }
+
+        protected void start() {
+            final RecursiveAction decoder = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    decode();
+                }
+            };
+            if (inForkJoinPool()) {
+                decoder.fork();
+            } else {
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        decoder.invoke();
+                    }
+                });
+                thread.setDaemon(true);
+                thread.start();
+            }
+            this.decoder = decoder;
+        }
+
+        protected void decode() {
+            try {
+                Row[] batch = new Row[batchSize];
+                int size = 0;
+                Row row;
+                while (!closed && (row = rowReader.readRow()) != null) {
+                    batch[size++] = row;
+                    if (size == batchSize) {
+                        block(new Put(batch));
+                        batch = new Row[batchSize];
+                        size = 0;
+                    }
+                }
+                if (size > 0) {
+                    block(new Put(copyOf(batch, size)));
+                }
+            } catch (Throwable failure) {
+                this.failure = failure;
+            } finally {
+                done = true;
+            }
+        }
+
+        protected Row[] take() {
+            Take take = new Take();
+            block(take);
+            Throwable failure = this.failure;
+            if (take.batch == null && failure != null) {
+                if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                } else if (failure instanceof Error) {
+                    throw (Error) failure;
+                } else {
+                    throw new InputException(failure);
+                }
+            }
+            return take.batch;
+        }
+
+        protected void block(ForkJoinPool.ManagedBlocker blocker) {
+            try {
+                ForkJoinPool.managedBlock(blocker);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new InputException(exception);
+            }
+        }
+
+        /**
+         * Stops decoding and waits for the decoder to release the underlying reader
+         */
+        @Override
+        public void close() {
+            closed = true;
+            batches.clear();
+            if (decoder != null) {
+                decoder.join();
+            }
+            batch = null;
+        }
+
+        class Put implements ForkJoinPool.ManagedBlocker {
+
+            private final Row[] batch;
+            private boolean done;
+
+            public Put(Row[] batch) {
+                this.batch = batch;
+            }
+
+            @Override
+            public boolean block() throws InterruptedException {
+                while (!isReleasable()) {
+                    done = batches.offer(batch, POLL_TIMEOUT, MILLISECONDS);
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return done || closed || (done = batches.offer(batch));
+            }
+        }
+
+        class Take implements ForkJoinPool.ManagedBlocker {
+
+            private Row[] batch;
+            private boolean end;
+
+            @Override
+            public boolean block() throws InterruptedException {
+                while (!isReleasable()) {
+                    batch = batches.poll(POLL_TIMEOUT, MILLISECONDS);
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                if (batch != null || end || closed) {
+                    return true;
+                }
+                // the decoder puts the last batch before it is done, so a queue found empty afterwards is drained
+                boolean done = ReadAheadRowReader.this.done;
+                batch = batches.poll();
+                return batch != null || (end = done);
+            }
+        }
+    }
 }
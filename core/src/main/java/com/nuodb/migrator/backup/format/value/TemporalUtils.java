@@ -0,0 +1,338 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+/**
+ * Parses and formats timestamp, date, time & year values in a single pass over the characters. Parse methods
+ * classify the value by its shape and return null if the value has a different shape, so that no exceptions are
+ * thrown on the load path. Accepted shapes are the ones of {@link Timestamp#valueOf(String)}, {@link
+ * Date#valueOf(String)} and {@link Time#valueOf(String)}, the resulting values are constructed the same way using
+ * the default time zone. All methods are thread safe.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("deprecation")
+public class TemporalUtils {
+
+    private static final int MAX_MONTH = 12;
+    private static final int MAX_DAY = 31;
+    private static final int MAX_YEAR_LENGTH = 9;
+    private static final int MAX_HOUR_LENGTH = 6;
+    private static final int NANOS_LENGTH = 9;
+    private static final int NO_DATE = -1;
+
+    private TemporalUtils() {
+    }
+
+    /**
+     * Parses yyyy-[m]m-[d]d hh:mm:ss[.f...] timestamp, leading & trailing whitespaces are ignored
+     *
+     * @param value to parse
+     * @return timestamp or null if the value is not a timestamp
+     */
+    public static Timestamp parseTimestamp(String value) {
+        if (value == null) {
+            return null;
+        }
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (start < end && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int space = value.indexOf(' ', start);
+        if (space <= start || space >= end) {
+            return null;
+        }
+        int date = parseDate(value, start, space);
+        if (date == NO_DATE) {
+            return null;
+        }
+        int firstColon = indexOf(value, ':', space + 1, end);
+        int secondColon = indexOf(value, ':', firstColon + 1, end);
+        if (firstColon < 0 || secondColon < 0) {
+            return null;
+        }
+        int period = indexOf(value, '.', secondColon + 1, end);
+        int hour = parseDigits(value, space + 1, firstColon, 2);
+        int minute = parseDigits(value, firstColon + 1, secondColon, 2);
+        int second = parseDigits(value, secondColon + 1, period < 0 ? end : period, 2);
+        int nanos = period < 0 ? 0 : parseFraction(value, period + 1, end, NANOS_LENGTH);
+        if (hour < 0 || minute < 0 || second < 0 || nanos < 0) {
+            return null;
+        }
+        return new Timestamp(getYear(date) - 1900, getMonth(date) - 1, getDay(date), hour, minute, second, nanos);
+    }
+
+    /**
+     * Parses yyyy-[m]m-[d]d date
+     *
+     * @param value to parse
+     * @return date or null if the value is not a date
+     */
+    public static Date parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        int date = parseDate(value, 0, value.length());
+        return date != NO_DATE ? new Date(getYear(date) - 1900, getMonth(date) - 1, getDay(date)) : null;
+    }
+
+    /**
+     * Parses [h]h:[m]m:[s]s[.f...] time, fraction of a second is truncated to milliseconds. Hours out of the time of
+     * day range and negative times, such as MySQL TIME '838:59:59' or '-01:30:00', are parsed as durations from the
+     * midnight, see {@link #parseDuration(String, int, int, int, int)}
+     *
+     * @param value to parse
+     * @return time or null if the value is not a time
+     */
+    public static Time parseTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        int end = value.length();
+        int firstColon = value.indexOf(':');
+        int secondColon = firstColon < 0 ? -1 : value.indexOf(':', firstColon + 1);
+        if (secondColon < 0) {
+            return null;
+        }
+        int period = value.indexOf('.', secondColon + 1);
+        int hour = parseDigits(value, 0, firstColon, 2);
+        int minute = parseDigits(value, firstColon + 1, secondColon, 2);
+        int second = parseDigits(value, secondColon + 1, period < 0 ? end : period, 2);
+        int nanos = period < 0 ? 0 : parseFraction(value, period + 1, end, NANOS_LENGTH);
+        if (minute < 0 || second < 0 || nanos < 0) {
+            return null;
+        }
+        if (hour < 0) {
+            return parseDuration(value, firstColon, minute, second, nanos);
+        }
+        Time time = new Time(hour, minute, second);
+        if (nanos != 0) {
+            time.setTime(time.getTime() + nanos / 1000000);
+        }
+        return time;
+    }
+
+    /**
+     * Lenient fallback for times with more than 2 digits of hours or with a leading minus sign, which {@link
+     * Time#valueOf(String)} accepted as well. The duration is added to the midnight, while a negative duration is
+     * subtracted as a whole, i.e. -01:30:00 is an hour and a half before the midnight.
+     */
+    private static Time parseDuration(String value, int firstColon, int minute, int second, int nanos) {
+        boolean negative = firstColon > 0 && value.charAt(0) == '-';
+        int hour = parseDigits(value, negative ? 1 : 0, firstColon, MAX_HOUR_LENGTH);
+        if (hour < 0) {
+            return null;
+        }
+        long millis = ((hour * 60L + minute) * 60L + second) * 1000L + nanos / 1000000;
+        return new Time(new Time(0, 0, 0).getTime() + (negative ? -millis : millis));
+    }
+
+    /**
+     * Parses year, which is a sequence of digits
+     *
+     * @param value to parse
+     * @return first day of the year or null if the value is not a year
+     */
+    public static Date parseYear(String value) {
+        if (value == null) {
+            return null;
+        }
+        int year = parseDigits(value, 0, value.length(), MAX_YEAR_LENGTH);
+        return year >= 0 ? new Date(year - 1900, 0, 1) : null;
+    }
+
+    /**
+     * Formats timestamp exactly as {@link Timestamp#toString()} does
+     *
+     * @param timestamp to format
+     * @return timestamp in yyyy-mm-dd hh:mm:ss.fffffffff format with trailing zeros of the nanos removed
+     */
+    public static String formatTimestamp(Timestamp timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+        int year = timestamp.getYear() + 1900;
+        if (year < 1000 || year > 9999) {
+            return timestamp.toString();
+        }
+        char[] buffer = new char[29];
+        int length = appendDigits(buffer, 0, year, 4);
+        buffer[length++] = '-';
+        length = appendDigits(buffer, length, timestamp.getMonth() + 1, 2);
+        buffer[length++] = '-';
+        length = appendDigits(buffer, length, timestamp.getDate(), 2);
+        buffer[length++] = ' ';
+        length = appendTime(buffer, length, timestamp.getHours(), timestamp.getMinutes(), timestamp.getSeconds(),
+                timestamp.getNanos());
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * Formats time part of the timestamp
+     *
+     * @param timestamp to format
+     * @return time in hh:mm:ss[.f...] format, fraction is omitted if nanos are zero
+     */
+    public static String formatTime(Timestamp timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+        int nanos = timestamp.getNanos();
+        char[] buffer = new char[18];
+        int length = appendTime(buffer, 0, timestamp.getHours(), timestamp.getMinutes(), timestamp.getSeconds(),
+                nanos);
+        return new String(buffer, 0, nanos != 0 ? length : 8);
+    }
+
+    /**
+     * Formats year of the date padded with zeros to 4 digits
+     *
+     * @param date to format
+     * @return year of the date
+     */
+    public static String formatYear(java.util.Date date) {
+        if (date == null) {
+            return null;
+        }
+        int year = date.getYear() + 1900;
+        if (year < 1 || year > 9999) {
+            return Integer.toString(year);
+        }
+        char[] buffer = new char[4];
+        return new String(buffer, 0, appendDigits(buffer, 0, year, 4));
+    }
+
+    private static int appendTime(char[] buffer, int offset, int hour, int minute, int second, int nanos) {
+        offset = appendDigits(buffer, offset, hour, 2);
+        buffer[offset++] = ':';
+        offset = appendDigits(buffer, offset, minute, 2);
+        buffer[offset++] = ':';
+        offset = appendDigits(buffer, offset, second, 2);
+        buffer[offset++] = '.';
+        if (nanos == 0) {
+            buffer[offset++] = '0';
+        } else {
+            int length = NANOS_LENGTH;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                length--;
+            }
+            offset = appendDigits(buffer, offset, nanos, length);
+        }
+        return offset;
+    }
+
+    private static int appendDigits(char[] buffer, int offset, int value, int length) {
+        for (int index = offset + length - 1; index >= offset; index--) {
+            buffer[index] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + length;
+    }
+
+    /**
+     * Parses yyyy-[m]m-[d]d date between the given indexes into year * 10000 + month * 100 + day
+     */
+    private static int parseDate(String value, int start, int end) {
+        int firstDash = indexOf(value, '-', start, end);
+        int secondDash = firstDash < 0 ? -1 : indexOf(value, '-', firstDash + 1, end);
+        if (secondDash < 0 || firstDash - start != 4) {
+            return NO_DATE;
+        }
+        int year = parseDigits(value, start, firstDash, 4);
+        int month = parseDigits(value, firstDash + 1, secondDash, 2);
+        int day = parseDigits(value, secondDash + 1, end, 2);
+        if (year < 0 || month < 1 || month > MAX_MONTH || day < 1 || day > MAX_DAY) {
+            return NO_DATE;
+        }
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static int getYear(int date) {
+        return date / 10000;
+    }
+
+    private static int getMonth(int date) {
+        return date / 100 % 100;
+    }
+
+    private static int getDay(int date) {
+        return date % 100;
+    }
+
+    /**
+     * Parses 1 to the max length digits between the given indexes
+     *
+     * @return parsed number or -1 if there are no digits, too many digits or a non digit character
+     */
+    private static int parseDigits(String value, int start, int end, int maxLength) {
+        int length = end - start;
+        if (length < 1 || length > maxLength) {
+            return -1;
+        }
+        int number = 0;
+        for (int index = start; index < end; index++) {
+            char digit = value.charAt(index);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            number = number * 10 + (digit - '0');
+        }
+        return number;
+    }
+
+    /**
+     * Parses 1 to the max length digits of a fraction padding it with zeros to the max length
+     */
+    private static int parseFraction(String value, int start, int end, int maxLength) {
+        int fraction = parseDigits(value, start, end, maxLength);
+        if (fraction >= 0) {
+            for (int length = end - start; length < maxLength; length++) {
+                fraction *= 10;
+            }
+        }
+        return fraction;
+    }
+
+    private static int indexOf(String value, char ch, int start, int end) {
+        for (int index = start; index < end; index++) {
+            if (value.charAt(index) == ch) {
+                return index;
+            }
+        }
+        return -1;
+    }
+}
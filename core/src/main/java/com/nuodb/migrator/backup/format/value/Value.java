@@ -28,6 +28,8 @@
 package com.nuodb.migrator.backup.format.value;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
 
 /**
  * @author Sergey Bushik
@@ -40,5 +42,20 @@ public interface Value extends Serializable {
 
     byte[] asBytes();
 
+    /**
+     * Returns value as a primitive long, typed values are returned as is, while string values are parsed
+     *
+     * @return long value
+     */
+    long asLong();
+
+    double asDouble();
+
+    BigDecimal asDecimal();
+
+    boolean asBoolean();
+
+    Timestamp asTimestamp();
+
     ValueType getValueType();
 }
@@ -0,0 +1,674 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.jdbc.dialect.NuoDBBigIntValue;
+import com.nuodb.migrator.jdbc.dialect.NuoDBIntegerValue;
+import com.nuodb.migrator.jdbc.type.JdbcTypeValue;
+import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
+import com.nuodb.migrator.jdbc.type.JdbcValueGetter;
+import com.nuodb.migrator.jdbc.type.JdbcValueSetter;
+import com.nuodb.migrator.jdbc.type.SimpleJdbcValueAccess;
+import com.nuodb.migrator.jdbc.type.SimpleJdbcValueGetter;
+import com.nuodb.migrator.jdbc.type.SimpleJdbcValueSetter;
+import com.nuodb.migrator.jdbc.type.jdbc2.*;
+import com.nuodb.migrator.jdbc.type.jdbc3.JdbcBooleanValue;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.primitives.Ints.checkedCast;
+import static com.nuodb.migrator.backup.format.value.ValueType.DECIMAL;
+import static com.nuodb.migrator.backup.format.value.ValueType.LONG;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
+import static java.lang.String.format;
+
+/**
+ * Creates value binders. Columns formatted with {@link JdbcValueFormat} (or with NuoDB integer formats) and accessed
+ * through the standard jdbc type values are bound with the direct result set getter or prepared statement setter
+ * calls, which convert values exactly as the format & the jdbc type value do. Any other column is bound through its
+ * value format & jdbc value access. Compiled binders switch the column to its value format once a value can't be
+ * converted, so that conversion errors are reported the same way, any other error is rethrown straight away.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class ValueBinders {
+
+    /**
+     * SQL states of the type conversion failures: restricted data type attribute violation, numeric value out of range,
+     * error in assignment, invalid datetime format, datetime field overflow, invalid character value for cast & MySQL
+     * illegal argument
+     */
+    private static final Set<String> CONVERSION_SQL_STATES = newHashSet(
+            "07006", "22003", "22005", "22007", "22008", "22018", "S1009");
+
+    private ValueBinders() {
+    }
+
+    /**
+     * Checks if value of a compiled binder can't be converted, so that the value format should convert it instead
+     *
+     * @param exception thrown by a compiled binder
+     * @return true if exception is a type conversion failure
+     */
+    static boolean isConversionError(Exception exception) {
+        if (exception instanceof SQLException) {
+            return exception instanceof SQLFeatureNotSupportedException ||
+                    CONVERSION_SQL_STATES.contains(((SQLException) exception).getSQLState());
+        } else {
+            return exception instanceof IllegalArgumentException || exception instanceof ClassCastException ||
+                    exception instanceof ArithmeticException || exception instanceof UnsupportedOperationException;
+        }
+    }
+
+    public static ValueBinder newValueBinder(ValueHandle valueHandle) {
+        return new FormatValueBinder(valueHandle.getValueFormat(), valueHandle.getJdbcValueAccess(),
+                valueHandle.getJdbcValueAccessOptions());
+    }
+
+    /**
+     * Compiles binder to get value of the column from the result set
+     *
+     * @param valueHandle value handle of the column
+     * @param resultSet   result set to get values from
+     * @return compiled binder or value format binder if the column can't be compiled
+     */
+    public static ValueBinder newValueBinder(ValueHandle valueHandle, ResultSet resultSet) {
+        ValueBinder fallback = newValueBinder(valueHandle);
+        JdbcValueAccess jdbcValueAccess = valueHandle.getJdbcValueAccess();
+        JdbcTypeValue jdbcTypeValue = null;
+        if (jdbcValueAccess instanceof SimpleJdbcValueAccess) {
+            JdbcValueGetter jdbcValueGetter = ((SimpleJdbcValueAccess) jdbcValueAccess).getJdbcValueGetter();
+            if (jdbcValueGetter != null && jdbcValueGetter.getClass() == SimpleJdbcValueGetter.class) {
+                jdbcTypeValue = ((SimpleJdbcValueGetter) jdbcValueGetter).getJdbcTypeValue();
+            }
+        }
+        if (jdbcTypeValue == null) {
+            return fallback;
+        }
+        int index = jdbcValueAccess.getIndex();
+        Class valueFormatClass = valueHandle.getValueFormat().getClass();
+        Class jdbcTypeValueClass = jdbcTypeValue.getClass();
+        ValueBinder valueBinder = null;
+        if (valueFormatClass == JdbcValueFormat.class) {
+            switch (jdbcValueAccess.getField().getTypeCode()) {
+                case Types.BIT:
+                case Types.BOOLEAN:
+                    if (jdbcTypeValueClass == JdbcBitValue.class || jdbcTypeValueClass == JdbcBooleanValue.class) {
+                        valueBinder = new BooleanGetter(resultSet, index, fallback);
+                    }
+                    break;
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                    if (jdbcTypeValueClass == JdbcTinyIntValue.class || jdbcTypeValueClass == JdbcSmallIntValue.class) {
+                        valueBinder = new ShortGetter(resultSet, index, fallback);
+                    }
+                    break;
+                case Types.INTEGER:
+                    if (jdbcTypeValueClass == JdbcIntegerValue.class) {
+                        valueBinder = new IntGetter(resultSet, index, fallback);
+                    } else if (jdbcTypeValueClass == NuoDBIntegerValue.class) {
+                        valueBinder = new DecimalGetter(resultSet, index, fallback);
+                    }
+                    break;
+                case Types.BIGINT:
+                    if (jdbcTypeValueClass == JdbcBigIntValue.class) {
+                        valueBinder = new LongGetter(resultSet, index, fallback);
+                    } else if (jdbcTypeValueClass == NuoDBBigIntValue.class) {
+                        valueBinder = new DecimalGetter(resultSet, index, fallback);
+                    }
+                    break;
+                case Types.FLOAT:
+                case Types.REAL:
+                    if (jdbcTypeValueClass == JdbcFloatValue.class || jdbcTypeValueClass == JdbcRealValue.class) {
+                        valueBinder = new FloatGetter(resultSet, index, fallback);
+                    }
+                    break;
+                case Types.DOUBLE:
+                    if (jdbcTypeValueClass == JdbcDoubleValue.class) {
+                        valueBinder = new DoubleGetter(resultSet, index, fallback);
+                    }
+                    break;
+                case Types.NUMERIC:
+                case Types.DECIMAL:
+                    if (jdbcTypeValueClass == JdbcNumericValue.class || jdbcTypeValueClass == JdbcDecimalValue.class) {
+                        valueBinder = new DecimalGetter(resultSet, index, fallback);
+                    }
+                    break;
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.LONGVARCHAR:
+                    if (jdbcTypeValueClass == JdbcCharValue.class || jdbcTypeValueClass == JdbcVarCharValue.class ||
+                            jdbcTypeValueClass == JdbcLongVarCharValue.class) {
+                        valueBinder = new StringGetter(resultSet, index, fallback);
+                    }
+                    break;
+                case Types.BINARY:
+                case Types.VARBINARY:
+                case Types.LONGVARBINARY:
+                    if (jdbcTypeValueClass == JdbcBinaryValue.class || jdbcTypeValueClass == JdbcVarBinaryValue.class ||
+                            jdbcTypeValueClass == JdbcLongVarBinaryValue.class) {
+                        valueBinder = new BytesGetter(resultSet, index, fallback);
+                    }
+                    break;
+            }
+        } else if (isNuoDBDecimal(valueFormatClass, jdbcTypeValueClass)) {
+            valueBinder = new DecimalGetter(resultSet, index, fallback);
+        }
+        return valueBinder != null ? valueBinder : fallback;
+    }
+
+    /**
+     * Compiles binder to set value of the statement parameter
+     *
+     * @param valueHandle value handle of the column
+     * @param statement   statement to set parameters of
+     * @return compiled binder or value format binder if the column can't be compiled
+     */
+    public static ValueBinder newValueBinder(ValueHandle valueHandle, PreparedStatement statement) {
+        ValueBinder fallback = newValueBinder(valueHandle);
+        JdbcValueAccess jdbcValueAccess = valueHandle.getJdbcValueAccess();
+        JdbcTypeValue jdbcTypeValue = null;
+        if (jdbcValueAccess instanceof SimpleJdbcValueAccess) {
+            JdbcValueSetter jdbcValueSetter = ((SimpleJdbcValueAccess) jdbcValueAccess).getJdbcValueSetter();
+            if (jdbcValueSetter != null && jdbcValueSetter.getClass() == SimpleJdbcValueSetter.class) {
+                jdbcTypeValue = ((SimpleJdbcValueSetter) jdbcValueSetter).getJdbcTypeValue();
+            }
+        }
+        if (jdbcTypeValue == null) {
+            return fallback;
+        }
+        int index = jdbcValueAccess.getIndex();
+        int nullTypeCode = jdbcTypeValue.getJdbcTypeDesc().getTypeCode();
+        Class valueFormatClass = valueHandle.getValueFormat().getClass();
+        Class jdbcTypeValueClass = jdbcTypeValue.getClass();
+        ValueBinder valueBinder = null;
+        if (valueFormatClass == JdbcValueFormat.class) {
+            switch (jdbcValueAccess.getField().getTypeCode()) {
+                case Types.BIT:
+                case Types.BOOLEAN:
+                    if (jdbcTypeValueClass == JdbcBitValue.class || jdbcTypeValueClass == JdbcBooleanValue.class) {
+                        valueBinder = new BooleanSetter(statement, index, nullTypeCode, fallback);
+                    }
+                    break;
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                    if (jdbcTypeValueClass == JdbcTinyIntValue.class || jdbcTypeValueClass == JdbcSmallIntValue.class) {
+                        valueBinder = new ShortSetter(statement, index, nullTypeCode, fallback);
+                    }
+                    break;
+                case Types.INTEGER:
+                    if (jdbcTypeValueClass == JdbcIntegerValue.class) {
+                        valueBinder = new IntSetter(statement, index, nullTypeCode, fallback);
+                    }
+                    break;
+                case Types.BIGINT:
+                    if (jdbcTypeValueClass == JdbcBigIntValue.class) {
+                        valueBinder = new LongSetter(statement, index, nullTypeCode, fallback);
+                    }
+                    break;
+                case Types.FLOAT:
+                case Types.REAL:
+                    if (jdbcTypeValueClass == JdbcFloatValue.class || jdbcTypeValueClass == JdbcRealValue.class) {
+                        valueBinder = new FloatSetter(statement, index, nullTypeCode, fallback);
+                    }
+                    break;
+                case Types.DOUBLE:
+                    if (jdbcTypeValueClass == JdbcDoubleValue.class) {
+                        valueBinder = new DoubleSetter(statement, index, nullTypeCode, fallback);
+                    }
+                    break;
+                case Types.NUMERIC:
+                case Types.DECIMAL:
+                    if (jdbcTypeValueClass == JdbcNumericValue.class || jdbcTypeValueClass == JdbcDecimalValue.class) {
+                        valueBinder = new DecimalSetter(statement, index, nullTypeCode, fallback);
+                    }
+                    break;
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.LONGVARCHAR:
+                    if (jdbcTypeValueClass == JdbcCharValue.class || jdbcTypeValueClass == JdbcVarCharValue.class ||
+                            jdbcTypeValueClass == JdbcLongVarCharValue.class) {
+                        valueBinder = new StringSetter(statement, index, nullTypeCode, fallback);
+                    }
+                    break;
+            }
+        } else if (isNuoDBDecimal(valueFormatClass, jdbcTypeValueClass)) {
+            valueBinder = new NuoDBDecimalSetter(statement, index, nullTypeCode, fallback);
+        }
+        return valueBinder != null ? valueBinder : fallback;
+    }
+
+    protected static boolean isNuoDBDecimal(Class valueFormatClass, Class jdbcTypeValueClass) {
+        return (valueFormatClass == NuoDBBigIntValueFormat.class && jdbcTypeValueClass == NuoDBBigIntValue.class) ||
+                (valueFormatClass == NuoDBIntegerValueFormat.class && jdbcTypeValueClass == NuoDBIntegerValue.class);
+    }
+
+    static class FormatValueBinder implements ValueBinder {
+
+        private final ValueFormat valueFormat;
+        private final JdbcValueAccess jdbcValueAccess;
+        private final Map<String, Object> jdbcValueAccessOptions;
+
+        public FormatValueBinder(ValueFormat valueFormat, JdbcValueAccess jdbcValueAccess,
+                                 Map<String, Object> jdbcValueAccessOptions) {
+            this.valueFormat = valueFormat;
+            this.jdbcValueAccess = jdbcValueAccess;
+            this.jdbcValueAccessOptions = jdbcValueAccessOptions;
+        }
+
+        @Override
+        public Value getValue() {
+            return valueFormat.getValue(jdbcValueAccess, jdbcValueAccessOptions);
+        }
+
+        @Override
+        public void setValue(Value value) {
+            valueFormat.setValue(value, jdbcValueAccess, jdbcValueAccessOptions);
+        }
+    }
+
+    static abstract class GetterBase implements ValueBinder {
+
+        protected final ResultSet resultSet;
+        protected final int index;
+        private final ValueBinder fallback;
+        private boolean formatted;
+
+        protected GetterBase(ResultSet resultSet, int index, ValueBinder fallback) {
+            this.resultSet = resultSet;
+            this.index = index;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Value getValue() {
+            if (formatted) {
+                return fallback.getValue();
+            }
+            try {
+                return doGetValue();
+            } catch (SQLException exception) {
+                return onGetValueError(exception);
+            } catch (RuntimeException exception) {
+                return onGetValueError(exception);
+            }
+        }
+
+        protected Value onGetValueError(Exception exception) {
+            if (!isConversionError(exception)) {
+                throw new ValueFormatException(format("Can't get column %d value", index), exception);
+            }
+            formatted = true;
+            return fallback.getValue();
+        }
+
+        protected abstract Value doGetValue() throws SQLException;
+
+        @Override
+        public void setValue(Value value) {
+            fallback.setValue(value);
+        }
+    }
+
+    static final class BooleanGetter extends GetterBase {
+
+        public BooleanGetter(ResultSet resultSet, int index, ValueBinder fallback) {
+            super(resultSet, index, fallback);
+        }
+
+        @Override
+        protected Value doGetValue() throws SQLException {
+            boolean value = resultSet.getBoolean(index);
+            return resultSet.wasNull() ? STRING_NULL : bool(value);
+        }
+    }
+
+    static final class ShortGetter extends GetterBase {
+
+        public ShortGetter(ResultSet resultSet, int index, ValueBinder fallback) {
+            super(resultSet, index, fallback);
+        }
+
+        @Override
+        protected Value doGetValue() throws SQLException {
+            short value = resultSet.getShort(index);
+            return resultSet.wasNull() ? STRING_NULL : longValue(value);
+        }
+    }
+
+    static final class IntGetter extends GetterBase {
+
+        public IntGetter(ResultSet resultSet, int index, ValueBinder fallback) {
+            super(resultSet, index, fallback);
+        }
+
+        @Override
+        protected Value doGetValue() throws SQLException {
+            int value = resultSet.getInt(index);
+            return resultSet.wasNull() ? STRING_NULL : longValue(value);
+        }
+    }
+
+    static final class LongGetter extends GetterBase {
+
+        public LongGetter(ResultSet resultSet, int index, ValueBinder fallback) {
+            super(resultSet, index, fallback);
+        }
+
+        @Override
+        protected Value doGetValue() throws SQLException {
+            long value = resultSet.getLong(index);
+            return resultSet.wasNull() ? STRING_NULL : longValue(value);
+        }
+    }
+
+    /**
+     * Float values are not native value types and are written as strings
+     */
+    static final class FloatGetter extends GetterBase {
+
+        public FloatGetter(ResultSet resultSet, int index, ValueBinder fallback) {
+            super(resultSet, index, fallback);
+        }
+
+        @Override
+        protected Value doGetValue() throws SQLException {
+            float value = resultSet.getFloat(index);
+            return resultSet.wasNull() ? STRING_NULL : string(Float.toString(value));
+        }
+    }
+
+    static final class DoubleGetter extends GetterBase {
+
+        public DoubleGetter(ResultSet resultSet, int index, ValueBinder fallback) {
+            super(resultSet, index, fallback);
+        }
+
+        @Override
+        protected Value doGetValue() throws SQLException {
+            double value = resultSet.getDouble(index);
+            return resultSet.wasNull() ? STRING_NULL : doubleValue(value);
+        }
+    }
+
+    static final class DecimalGetter extends GetterBase {
+
+        public DecimalGetter(ResultSet resultSet, int index, ValueBinder fallback) {
+            super(resultSet, index, fallback);
+        }
+
+        @Override
+        protected Value doGetValue() throws SQLException {
+            return decimal(resultSet.getBigDecimal(index));
+        }
+    }
+
+    static final class StringGetter extends GetterBase {
+
+        public StringGetter(ResultSet resultSet, int index, ValueBinder fallback) {
+            super(resultSet, index, fallback);
+        }
+
+        @Override
+        protected Value doGetValue() throws SQLException {
+            return string(resultSet.getString(index));
+        }
+    }
+
+    static final class BytesGetter extends GetterBase {
+
+        public BytesGetter(ResultSet resultSet, int index, ValueBinder fallback) {
+            super(resultSet, index, fallback);
+        }
+
+        @Override
+        protected Value doGetValue() throws SQLException {
+            return binary(resultSet.getBytes(index));
+        }
+    }
+
+    static abstract class SetterBase implements ValueBinder {
+
+        protected final PreparedStatement statement;
+        protected final int index;
+        protected final int nullTypeCode;
+        private final ValueBinder fallback;
+        private boolean formatted;
+
+        protected SetterBase(PreparedStatement statement, int index, int nullTypeCode, ValueBinder fallback) {
+            this.statement = statement;
+            this.index = index;
+            this.nullTypeCode = nullTypeCode;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Value getValue() {
+            return fallback.getValue();
+        }
+
+        @Override
+        public void setValue(Value value) {
+            if (formatted) {
+                fallback.setValue(value);
+                return;
+            }
+            try {
+                if (!doSetValue(value)) {
+                    fallback.setValue(value);
+                }
+            } catch (SQLException exception) {
+                onSetValueError(value, exception);
+            } catch (RuntimeException exception) {
+                onSetValueError(value, exception);
+            }
+        }
+
+        protected void onSetValueError(Value value, Exception exception) {
+            if (!isConversionError(exception)) {
+                throw new ValueFormatException(format("Can't set column %d value", index), exception);
+            }
+            formatted = true;
+            fallback.setValue(value);
+        }
+
+        /**
+         * Sets value of the parameter
+         *
+         * @param value to set
+         * @return false to delegate to the value format
+         * @throws SQLException if parameter can't be set
+         */
+        protected abstract boolean doSetValue(Value value) throws SQLException;
+    }
+
+    /**
+     * Numeric & boolean parameters are set to null if the value is null or an empty string
+     */
+    static abstract class NumericSetterBase extends SetterBase {
+
+        protected NumericSetterBase(PreparedStatement statement, int index, int nullTypeCode,
+                                    ValueBinder fallback) {
+            super(statement, index, nullTypeCode, fallback);
+        }
+
+        @Override
+        protected boolean doSetValue(Value value) throws SQLException {
+            if (isEmpty(value)) {
+                statement.setNull(index, nullTypeCode);
+            } else {
+                setNullSafeValue(value);
+            }
+            return true;
+        }
+
+        protected abstract void setNullSafeValue(Value value) throws SQLException;
+    }
+
+    static final class BooleanSetter extends NumericSetterBase {
+
+        public BooleanSetter(PreparedStatement statement, int index, int nullTypeCode, ValueBinder fallback) {
+            super(statement, index, nullTypeCode, fallback);
+        }
+
+        @Override
+        protected void setNullSafeValue(Value value) throws SQLException {
+            statement.setBoolean(index, value.asBoolean());
+        }
+    }
+
+    static final class ShortSetter extends NumericSetterBase {
+
+        public ShortSetter(PreparedStatement statement, int index, int nullTypeCode, ValueBinder fallback) {
+            super(statement, index, nullTypeCode, fallback);
+        }
+
+        @Override
+        protected void setNullSafeValue(Value value) throws SQLException {
+            long longValue = value.asLong();
+            if ((short) longValue != longValue) {
+                throw new NumberFormatException(format("Value %d is out of short range", longValue));
+            }
+            statement.setShort(index, (short) longValue);
+        }
+    }
+
+    static final class IntSetter extends NumericSetterBase {
+
+        public IntSetter(PreparedStatement statement, int index, int nullTypeCode, ValueBinder fallback) {
+            super(statement, index, nullTypeCode, fallback);
+        }
+
+        @Override
+        protected void setNullSafeValue(Value value) throws SQLException {
+            statement.setInt(index, checkedCast(value.asLong()));
+        }
+    }
+
+    static final class LongSetter extends NumericSetterBase {
+
+        public LongSetter(PreparedStatement statement, int index, int nullTypeCode, ValueBinder fallback) {
+            super(statement, index, nullTypeCode, fallback);
+        }
+
+        @Override
+        protected void setNullSafeValue(Value value) throws SQLException {
+            statement.setLong(index, value.asLong());
+        }
+    }
+
+    static final class FloatSetter extends NumericSetterBase {
+
+        public FloatSetter(PreparedStatement statement, int index, int nullTypeCode, ValueBinder fallback) {
+            super(statement, index, nullTypeCode, fallback);
+        }
+
+        @Override
+        protected void setNullSafeValue(Value value) throws SQLException {
+            statement.setFloat(index, value.getValueType() == STRING ?
+                    Float.parseFloat(value.asString()) : (float) value.asDouble());
+        }
+    }
+
+    static final class DoubleSetter extends NumericSetterBase {
+
+        public DoubleSetter(PreparedStatement statement, int index, int nullTypeCode, ValueBinder fallback) {
+            super(statement, index, nullTypeCode, fallback);
+        }
+
+        @Override
+        protected void setNullSafeValue(Value value) throws SQLException {
+            statement.setDouble(index, value.asDouble());
+        }
+    }
+
+    static final class DecimalSetter extends NumericSetterBase {
+
+        public DecimalSetter(PreparedStatement statement, int index, int nullTypeCode, ValueBinder fallback) {
+            super(statement, index, nullTypeCode, fallback);
+        }
+
+        @Override
+        protected void setNullSafeValue(Value value) throws SQLException {
+            statement.setBigDecimal(index, value.asDecimal());
+        }
+    }
+
+    static final class StringSetter extends SetterBase {
+
+        public StringSetter(PreparedStatement statement, int index, int nullTypeCode, ValueBinder fallback) {
+            super(statement, index, nullTypeCode, fallback);
+        }
+
+        @Override
+        protected boolean doSetValue(Value value) throws SQLException {
+            String string = value.asString();
+            if (string == null) {
+                statement.setNull(index, nullTypeCode);
+            } else {
+                statement.setString(index, string);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Sets typed long & decimal values of NuoDB integer columns, string values are parsed by the value format
+     */
+    static final class NuoDBDecimalSetter extends SetterBase {
+
+        public NuoDBDecimalSetter(PreparedStatement statement, int index, int nullTypeCode, ValueBinder fallback) {
+            super(statement, index, nullTypeCode, fallback);
+        }
+
+        @Override
+        protected boolean doSetValue(Value value) throws SQLException {
+            ValueType valueType = value.getValueType();
+            if (valueType == LONG || valueType == DECIMAL) {
+                BigDecimal decimal = value.asDecimal();
+                if (decimal == null) {
+                    statement.setNull(index, nullTypeCode);
+                } else {
+                    statement.setBigDecimal(index, decimal);
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -67,6 +67,11 @@ public abstract class ValueHandleListBuilder {
                 return getDialect().getJdbcValueAccessProvider().getJdbcValueGetter(
                         connection, resultSet, column++, valueHandle);
             }
+
+            @Override
+            protected ValueBinder buildValueBinder(ValueHandle valueHandle) {
+                return ValueBinders.newValueBinder(valueHandle, resultSet);
+            }
         };
     }
 
@@ -79,6 +84,11 @@ public abstract class ValueHandleListBuilder {
                 return getDialect().getJdbcValueAccessProvider().getJdbcValueGetter(
                         connection, statement, column++, valueHandle);
             }
+
+            @Override
+            protected ValueBinder buildValueBinder(ValueHandle valueHandle) {
+                return ValueBinders.newValueBinder(valueHandle, statement);
+            }
         };
     }
 
@@ -110,6 +120,7 @@ public abstract class ValueHandleListBuilder {
         initValueType(valueHandle);
         initJdbcValueAccess(valueHandle);
         initJdbcValueAccessOptions(valueHandle);
+        initValueBinder(valueHandle);
     }
 
     protected void initValueFormat(ValueHandle valueHandle) {
@@ -151,6 +162,21 @@ public abstract class ValueHandleListBuilder {
         return jdbcValueAccessOptions;
     }
 
+    protected void initValueBinder(ValueHandle valueHandle) {
+        valueHandle.setValueBinder(buildValueBinder(valueHandle));
+    }
+
+    /**
+     * Builds binder getting or setting value of the column, which is compiled once the value format, the jdbc value
+     * access and its options are known
+     *
+     * @param valueHandle value handle of the column
+     * @return value binder of the column
+     */
+    protected ValueBinder buildValueBinder(ValueHandle valueHandle) {
+        return ValueBinders.newValueBinder(valueHandle);
+    }
+
     public Dialect getDialect() {
         return dialect;
     }
@@ -193,6 +219,7 @@ public abstract class ValueHandleListBuilder {
         private ValueFormat valueFormat;
         private JdbcValueAccess jdbcValueAccess;
         private Map<String, Object> jdbcValueAccessOptions;
+        private ValueBinder valueBinder;
 
         public SimpleValueHandle(Field field) {
             super(field);
@@ -237,6 +264,16 @@ public abstract class ValueHandleListBuilder {
         public void setJdbcValueAccessOptions(Map<String, Object> jdbcValueAccessOptions) {
             this.jdbcValueAccessOptions = jdbcValueAccessOptions;
         }
+
+        @Override
+        public ValueBinder getValueBinder() {
+            return valueBinder;
+        }
+
+        @Override
+        public void setValueBinder(ValueBinder valueBinder) {
+            this.valueBinder = valueBinder;
+        }
     }
 
     private static class SimpleValueHandleList extends SimpleFieldList<ValueHandle> implements ValueHandleList {
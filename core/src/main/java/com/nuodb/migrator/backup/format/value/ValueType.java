@@ -30,11 +30,14 @@ package com.nuodb.migrator.backup.format.value;
 import com.nuodb.migrator.utils.EnumAlias;
 
 /**
+ * Value type of a column stored in a backup is either {@link #STRING} or {@link #BINARY}, while the other types are
+ * native types of the values carried from the source to the target without conversion to a string.
+ *
  * @author Sergey Bushik
  */
 public enum ValueType {
 
-    STRING, BINARY;
+    STRING, BINARY, LONG, DOUBLE, DECIMAL, BOOLEAN, TIMESTAMP;
 
     private static final EnumAlias<ValueType> VALUE_TYPES = new EnumAlias<ValueType>(ValueType.class);
 
@@ -27,11 +27,16 @@
  */
 package com.nuodb.migrator.backup.format.value;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.List;
 
-import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
-import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.formatTimestamp;
+import static com.nuodb.migrator.backup.format.value.ValueType.*;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Double.parseDouble;
+import static java.lang.Long.parseLong;
 
 /**
  * @author Sergey Bushik
@@ -45,11 +50,15 @@ public class ValueUtils {
         for (; offset < values.length; offset++) {
             ValueType valueType = valueTypes.get(offset);
             valueType = valueType != null ? valueType : STRING;
+            if (values[offset] instanceof MutableValue) {
+                ((MutableValue) values[offset]).setNull(valueType);
+                continue;
+            }
             switch (valueType) {
                 case BINARY:
                     values[offset] = ValueUtils.BINARY_NULL;
                     break;
-                case STRING:
+                default:
                     values[offset] = ValueUtils.STRING_NULL;
                     break;
             }
@@ -64,7 +73,166 @@ public class ValueUtils {
         return value == null ? STRING_NULL : new StringValue(value);
     }
 
-    static class BinaryValue implements Value {
+    public static Value longValue(long value) {
+        return new LongValue(value);
+    }
+
+    public static Value doubleValue(double value) {
+        return new DoubleValue(value);
+    }
+
+    public static Value decimal(BigDecimal value) {
+        return value == null ? STRING_NULL : new DecimalValue(value);
+    }
+
+    public static Value bool(boolean value) {
+        return new BooleanValue(value);
+    }
+
+    public static Value timestamp(Timestamp value) {
+        return value == null ? STRING_NULL : new TimestampValue(value);
+    }
+
+    /**
+     * Returns binary value reusing the given value if it's a mutable value holder
+     *
+     * @param reuse value to reuse, may be null
+     * @param value binary value
+     * @return reused or newly created value
+     */
+    public static Value binary(Value reuse, byte[] value) {
+        return reuse instanceof MutableValue ? ((MutableValue) reuse).setBytes(value) : binary(value);
+    }
+
+    public static Value string(Value reuse, String value) {
+        return reuse instanceof MutableValue ? ((MutableValue) reuse).setString(value) : string(value);
+    }
+
+    public static Value longValue(Value reuse, long value) {
+        return reuse instanceof MutableValue ? ((MutableValue) reuse).setLong(value) : longValue(value);
+    }
+
+    public static Value doubleValue(Value reuse, double value) {
+        return reuse instanceof MutableValue ? ((MutableValue) reuse).setDouble(value) : doubleValue(value);
+    }
+
+    public static Value bool(Value reuse, boolean value) {
+        return reuse instanceof MutableValue ? ((MutableValue) reuse).setBoolean(value) : bool(value);
+    }
+
+    public static Value decimal(Value reuse, BigDecimal value) {
+        return reuse instanceof MutableValue ? ((MutableValue) reuse).setDecimal(value) : decimal(value);
+    }
+
+    public static Value timestamp(Value reuse, Timestamp value) {
+        return reuse instanceof MutableValue ? ((MutableValue) reuse).setTimestamp(value) : timestamp(value);
+    }
+
+    public static Value nullValue(Value reuse, ValueType valueType) {
+        return reuse instanceof MutableValue ? ((MutableValue) reuse).setNull(valueType) :
+                valueType == BINARY ? BINARY_NULL : STRING_NULL;
+    }
+
+    /**
+     * Creates array of values to read a row into, the given array is reused if it has the expected length, its slots
+     * are replaced with the mutable value holders if they are not holders yet. If no array is given a new array is
+     * returned, which is filled with immutable values by the inputs.
+     *
+     * @param values array to reuse, may be null
+     * @param length number of values in a row
+     * @return array of values to read a row into
+     */
+    public static Value[] values(Value[] values, int length) {
+        if (values == null) {
+            return new Value[length];
+        }
+        if (values.length != length) {
+            values = new Value[length];
+        }
+        for (int index = 0; index < length; index++) {
+            if (!(values[index] instanceof MutableValue)) {
+                values[index] = new MutableValue();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Creates typed value from the given object if the type of the object is one of the native value types, otherwise
+     * string value of the object is returned
+     *
+     * @param value object to create value from
+     * @return typed or string value
+     */
+    public static Value value(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return longValue(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            return doubleValue((Double) value);
+        } else if (value instanceof BigDecimal) {
+            return decimal((BigDecimal) value);
+        } else if (value instanceof Boolean) {
+            return bool((Boolean) value);
+        } else if (value instanceof byte[]) {
+            return binary((byte[]) value);
+        } else {
+            return string(value != null ? value.toString() : null);
+        }
+    }
+
+    /**
+     * Checks if the value is null or is an empty string
+     *
+     * @param value to check
+     * @return true if value is null or an empty string
+     */
+    public static boolean isEmpty(Value value) {
+        return value.isNull() || (value.getValueType() == STRING && value.asString().length() == 0);
+    }
+
+    /**
+     * Converts value to the primitive types through its string representation
+     */
+    static abstract class ValueBase implements Value {
+
+        @Override
+        public byte[] asBytes() {
+            String value = asString();
+            return value != null ? value.getBytes() : null;
+        }
+
+        @Override
+        public long asLong() {
+            return parseLong(asString());
+        }
+
+        @Override
+        public double asDouble() {
+            return parseDouble(asString());
+        }
+
+        @Override
+        public BigDecimal asDecimal() {
+            return new BigDecimal(asString());
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return parseBoolean(asString());
+        }
+
+        @Override
+        public Timestamp asTimestamp() {
+            return Timestamp.valueOf(asString());
+        }
+
+        @Override
+        public boolean isNull() {
+            return false;
+        }
+    }
+
+    static class BinaryValue extends ValueBase {
 
         private final byte[] value;
 
@@ -115,7 +283,7 @@ public class ValueUtils {
         }
     }
 
-    static class StringValue implements Value {
+    static class StringValue extends ValueBase {
 
         public String value;
 
@@ -128,11 +296,6 @@ public class ValueUtils {
             return value;
         }
 
-        @Override
-        public byte[] asBytes() {
-            return value != null ? value.getBytes() : null;
-        }
-
         @Override
         public boolean isNull() {
             return value == null;
@@ -165,4 +328,311 @@ public class ValueUtils {
             return "String{'" + value + "'}";
         }
     }
+
+    static class LongValue extends ValueBase {
+
+        private final long value;
+
+        public LongValue(long value) {
+            this.value = value;
+        }
+
+        @Override
+        public String asString() {
+            return Long.toString(value);
+        }
+
+        @Override
+        public long asLong() {
+            return value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Override
+        public BigDecimal asDecimal() {
+            return BigDecimal.valueOf(value);
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value != 0;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return LONG;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            LongValue that = (LongValue) o;
+
+            if (value != that.value) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (value ^ (value >>> 32));
+        }
+
+        @Override
+        public String toString() {
+            return "Long{" + value + '}';
+        }
+    }
+
+    static class DoubleValue extends ValueBase {
+
+        private final double value;
+
+        public DoubleValue(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public String asString() {
+            return Double.toString(value);
+        }
+
+        /**
+         * Returns long value if the double value has no fractional part, otherwise throws number format exception
+         */
+        @Override
+        public long asLong() {
+            long value = (long) this.value;
+            if (value != this.value) {
+                throw new NumberFormatException("Value " + this.value + " is not a long");
+            }
+            return value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Override
+        public BigDecimal asDecimal() {
+            return BigDecimal.valueOf(value);
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value != 0;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return DOUBLE;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            DoubleValue that = (DoubleValue) o;
+
+            if (Double.compare(that.value, value) != 0) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            long bits = Double.doubleToLongBits(value);
+            return (int) (bits ^ (bits >>> 32));
+        }
+
+        @Override
+        public String toString() {
+            return "Double{" + value + '}';
+        }
+    }
+
+    static class DecimalValue extends ValueBase {
+
+        private final BigDecimal value;
+
+        public DecimalValue(BigDecimal value) {
+            this.value = value;
+        }
+
+        @Override
+        public String asString() {
+            return value.toString();
+        }
+
+        /**
+         * Returns long value if the decimal value fits into long and has no fractional part, otherwise throws
+         * arithmetic exception
+         */
+        @Override
+        public long asLong() {
+            return value.longValueExact();
+        }
+
+        @Override
+        public double asDouble() {
+            return value.doubleValue();
+        }
+
+        @Override
+        public BigDecimal asDecimal() {
+            return value;
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value.signum() != 0;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return DECIMAL;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            DecimalValue that = (DecimalValue) o;
+
+            if (!value.equals(that.value)) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "Decimal{" + value + '}';
+        }
+    }
+
+    static class BooleanValue extends ValueBase {
+
+        private final boolean value;
+
+        public BooleanValue(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public String asString() {
+            return Boolean.toString(value);
+        }
+
+        @Override
+        public long asLong() {
+            return value ? 1 : 0;
+        }
+
+        @Override
+        public double asDouble() {
+            return value ? 1 : 0;
+        }
+
+        @Override
+        public BigDecimal asDecimal() {
+            return value ? BigDecimal.ONE : BigDecimal.ZERO;
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return BOOLEAN;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            BooleanValue that = (BooleanValue) o;
+
+            if (value != that.value) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return value ? 1 : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Boolean{" + value + '}';
+        }
+    }
+
+    static class TimestampValue extends ValueBase {
+
+        private final Timestamp value;
+
+        public TimestampValue(Timestamp value) {
+            this.value = value;
+        }
+
+        @Override
+        public String asString() {
+            return formatTimestamp(value);
+        }
+
+        @Override
+        public long asLong() {
+            return value.getTime();
+        }
+
+        @Override
+        public Timestamp asTimestamp() {
+            return value;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return TIMESTAMP;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            TimestampValue that = (TimestampValue) o;
+
+            if (!value.equals(that.value)) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "Timestamp{" + value + '}';
+        }
+    }
 }
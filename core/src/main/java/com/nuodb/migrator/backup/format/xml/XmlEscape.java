@@ -28,13 +28,14 @@
 package com.nuodb.migrator.backup.format.xml;
 
 import com.google.common.collect.Maps;
-import org.apache.xerces.util.XMLChar;
 
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.xml.XmlUtils.isValid;
+
 /**
  * @author Sergey Bushik
  */
@@ -106,7 +107,7 @@ public class XmlEscape {
             char c = text.charAt(i);
             String entity = entityName(c);
             if (entity == null) {
-                if (c > 0x7F || XMLChar.isInvalid(c)) {
+                if (c > 0x7F || !isValid(c)) {
                     writer.write("&#");
                     writer.write(Integer.toString(c, 10));
                     writer.write(';');
@@ -32,30 +32,25 @@ import com.nuodb.migrator.backup.format.InputException;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueType;
 
-import javax.xml.namespace.QName;
-import javax.xml.stream.XMLStreamConstants;
-import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.BitSet;
 import java.util.List;
 
 import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
-import static com.nuodb.migrator.backup.format.utils.BitSetUtils.EMPTY;
-import static com.nuodb.migrator.backup.format.utils.BitSetUtils.fromHexString;
-import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
-import static javax.xml.XMLConstants.NULL_NS_URI;
-import static javax.xml.stream.XMLInputFactory.newInstance;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.values;
+import static java.nio.charset.Charset.forName;
 
 /**
  * @author Sergey Bushik
  */
 public class XmlInput extends InputBase implements XmlFormat {
 
-    private XMLStreamReader xmlReader;
+    private XmlRowReader rowReader;
 
     @Override
     public String getFormat() {
@@ -64,97 +59,51 @@ public class XmlInput extends InputBase implements XmlFormat {
 
     @Override
     protected void init(Reader reader) {
-        try {
-            xmlReader = newInstance().createXMLStreamReader(reader);
-        } catch (XMLStreamException exception) {
-            throw new InputException(exception);
-        }
+        rowReader = new XmlRowReader(reader);
     }
 
     @Override
     protected void init(InputStream inputStream) {
-        try {
-            xmlReader = newInstance().createXMLStreamReader(
-                    getInputStream(), (String) getAttribute(ATTRIBUTE_ENCODING, ENCODING));
-        } catch (XMLStreamException exception) {
-            throw new InputException(exception);
-        }
+        init(new InputStreamReader(getInputStream(), forName((String) getAttribute(ATTRIBUTE_ENCODING, ENCODING))));
     }
 
     @Override
     public void readStart() {
-        nextElement();
+        try {
+            rowReader.readStart();
+        } catch (IOException exception) {
+            throw new InputException(exception);
+        }
     }
 
     @Override
-    public Value[] readValues() {
-        Value[] values = null;
-        if (isNextElement(ELEMENT_ROW)) {
-            String nullsAttribute = getAttributeValue(NULL_NS_URI, ATTRIBUTE_NULLS);
-            BitSet nulls = nullsAttribute != null ? fromHexString(nullsAttribute) : EMPTY;
+    public Value[] readValues(Value[] values) {
+        try {
+            XmlRowReader rowReader = this.rowReader;
+            if (!rowReader.nextRow()) {
+                return null;
+            }
             List<ValueType> valueTypes = getValueTypes();
             int length = valueTypes.size();
-            values = new Value[length];
-            int index = 0;
-            while (index < length) {
+            values = values(values, length);
+            for (int index = 0; index < length; index++) {
                 String value = null;
                 ValueType valueType = valueTypes.get(index);
-                if (!nulls.get(index) && isNextElement(ELEMENT_COLUMN)) {
-                    try {
-                        ValueType valueLevel = VALUE_TYPES.fromAlias(
-                                getAttributeValue(NULL_NS_URI, ATTRIBUTE_VALUE_TYPE));
-                        valueType = valueLevel != null ? valueLevel : valueType;
-                        value = xmlReader.getElementText();
-                    } catch (XMLStreamException exception) {
-                        throw new InputException(exception);
-                    }
+                if (!rowReader.isNull(index) && rowReader.nextColumn()) {
+                    ValueType valueLevel = rowReader.getValueType();
+                    valueType = valueLevel != null ? valueLevel : valueType;
+                    value = rowReader.getText();
                 }
-                valueType = valueType != null ? valueType : STRING;
-                switch (valueType) {
-                    case BINARY:
-                        values[index] = binary(BASE64.decode(value));
-                        break;
-                    case STRING:
-                        values[index] = string(value);
-                        break;
+                if (valueType == BINARY) {
+                    values[index] = binary(values[index], BASE64.decode(value));
+                } else {
+                    values[index] = string(values[index], value);
                 }
-                index++;
-            }
-        }
-        return values;
-    }
-
-    protected boolean nextElement() {
-        while (xmlReader.getEventType() != XMLStreamConstants.END_DOCUMENT) {
-            try {
-                switch (xmlReader.next()) {
-                    case XMLStreamConstants.START_ELEMENT:
-                        return true;
-                }
-            } catch (XMLStreamException exception) {
-                throw new InputException(exception);
-            }
-        }
-        return false;
-    }
-
-    protected boolean isNextElement(String name) {
-        return nextElement() && isCurrentElement(name);
-    }
-
-    protected boolean isCurrentElement(String element) {
-        return xmlReader.getEventType() == XMLStreamConstants.START_ELEMENT &&
-                xmlReader.getLocalName().equals(element);
-    }
-
-    protected String getAttributeValue(String namespace, String attribute) {
-        for (int index = 0; index < xmlReader.getAttributeCount(); index++) {
-            QName name = xmlReader.getAttributeName(index);
-            if (name.getNamespaceURI().equals(namespace) && name.getLocalPart().equals(attribute)) {
-                return xmlReader.getAttributeValue(index);
             }
+            return values;
+        } catch (IOException exception) {
+            throw new InputException(exception);
         }
-        return null;
     }
 
     @Override
@@ -163,13 +112,13 @@ public class XmlInput extends InputBase implements XmlFormat {
 
     @Override
     public void close() {
-        if (xmlReader != null) {
+        if (rowReader != null) {
             try {
-                xmlReader.close();
-            } catch (XMLStreamException exception) {
+                rowReader.close();
+            } catch (IOException exception) {
                 throw new InputException(exception);
             }
-            xmlReader = null;
+            rowReader = null;
         }
     }
 }
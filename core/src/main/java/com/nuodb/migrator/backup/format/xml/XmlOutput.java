@@ -33,27 +33,21 @@ import com.nuodb.migrator.backup.format.OutputException;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueType;
 
-import javax.xml.XMLConstants;
-import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.util.BitSet;
 import java.util.Collection;
 
-import static com.google.common.collect.Iterables.get;
-import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
-import static com.nuodb.migrator.backup.format.utils.BitSetUtils.toHexString;
-import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
-import static com.nuodb.migrator.backup.format.xml.XmlUtils.isValid;
-import static javax.xml.stream.XMLOutputFactory.newInstance;
+import static java.nio.charset.Charset.forName;
 
 /**
  * @author Sergey Bushik
  */
 public class XmlOutput extends OutputBase implements XmlFormat {
 
-    private XMLStreamWriter xmlWriter;
+    private XmlRowWriter rowWriter;
+    private ValueType[] valueTypes;
 
     @Override
     public String getFormat() {
@@ -62,98 +56,64 @@ public class XmlOutput extends OutputBase implements XmlFormat {
 
     @Override
     protected void init(OutputStream outputStream) {
-        try {
-            xmlWriter = newInstance().createXMLStreamWriter(outputStream, getEncoding());
-        } catch (XMLStreamException exception) {
-            throw new OutputException(exception);
-        }
+        init(new OutputStreamWriter(outputStream, forName(getEncoding())));
     }
 
     @Override
     protected void init(Writer writer) {
-        try {
-            xmlWriter = newInstance().createXMLStreamWriter(writer);
-        } catch (XMLStreamException exception) {
-            throw new OutputException(exception);
-        }
+        rowWriter = new XmlRowWriter(writer, getEncoding());
     }
 
     @Override
     public void writeStart() {
+        Collection<Column> columns = getRowSet().getColumns();
+        valueTypes = new ValueType[columns.size()];
+        int index = 0;
+        for (Column column : columns) {
+            valueTypes[index++] = column.getValueType();
+        }
         try {
-            xmlWriter.writeStartDocument(getEncoding(), getVersion());
-            xmlWriter.setPrefix(XMLConstants.DEFAULT_NS_PREFIX, XMLConstants.NULL_NS_URI);
-            xmlWriter.writeStartElement(ELEMENT_ROWS);
-        } catch (XMLStreamException exception) {
+            rowWriter.writeStart(getEncoding(), getVersion());
+        } catch (IOException exception) {
             throw new OutputException(exception);
         }
     }
 
     @Override
-    public void writeValues(Value[] values) {
+    protected void writeRow(Value[] values) {
         try {
-            xmlWriter.writeStartElement(ELEMENT_ROW);
-            BitSet nulls = new BitSet();
-            for (int i = 0; i < values.length; i++) {
-                nulls.set(i, values[i].isNull());
-            }
-            if (!nulls.isEmpty()) {
-                xmlWriter.writeAttribute(ATTRIBUTE_NULLS, toHexString(nulls));
-            }
-            int i = 0;
-            Collection<Column> columns = getRowSet().getColumns();
-            for (Value value : values) {
-                if (!value.isNull()) {
-                    ValueType valueType = get(columns, i).getValueType();
-                    xmlWriter.writeStartElement(ELEMENT_COLUMN);
-                    String content;
-                    if (valueType == BINARY) {
-                        content = BASE64.encode(value.asBytes());
-                    } else if (!isValid(value.asString())) {
-                        xmlWriter.writeAttribute(ATTRIBUTE_VALUE_TYPE, VALUE_TYPES.toAlias(BINARY));
-                        content = BASE64.encode(value.asBytes());
-                    } else {
-                        content = value.asString();
-                    }
-                    xmlWriter.writeCharacters(content);
-                    xmlWriter.writeEndElement();
-                }
-                i++;
-            }
-            xmlWriter.writeEndElement();
-        } catch (XMLStreamException e) {
-            throw new OutputException(e);
+            rowWriter.writeRow(values, valueTypes);
+        } catch (IOException exception) {
+            throw new OutputException(exception);
         }
     }
 
     @Override
     public void writeEnd() {
         try {
-            xmlWriter.writeEndElement();
-            xmlWriter.writeEndDocument();
-            xmlWriter.flush();
-        } catch (XMLStreamException exception) {
+            rowWriter.writeEnd();
+        } catch (IOException exception) {
             throw new OutputException(exception);
         }
     }
 
     @Override
     public void close() {
-        if (xmlWriter != null) {
+        if (rowWriter != null) {
             try {
-                xmlWriter.close();
-            } catch (XMLStreamException exception) {
+                rowWriter.close();
+            } catch (IOException exception) {
                 throw new OutputException(exception);
             }
-            xmlWriter = null;
+            rowWriter = null;
         }
     }
 
     protected String getEncoding() {
-        return (String) getAttribute(ATTRIBUTE_VERSION, ENCODING);
+        return (String) getAttribute(ATTRIBUTE_ENCODING, ENCODING);
     }
 
     protected String getVersion() {
-        return (String) getAttribute(ATTRIBUTE_ENCODING, VERSION);
+        return (String) getAttribute(ATTRIBUTE_VERSION, VERSION);
     }
 }
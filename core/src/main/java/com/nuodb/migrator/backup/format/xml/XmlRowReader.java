@@ -0,0 +1,598 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.xml;
+
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import static com.nuodb.migrator.backup.format.xml.XmlFormat.*;
+import static java.lang.Character.digit;
+import static java.lang.Character.isValidCodePoint;
+import static java.lang.String.format;
+
+/**
+ * Minimal pull tokenizer of the rows written by {@link XmlRowWriter} or by a generic XML stream writer. Elements other
+ * than &lt;rs&gt;, &lt;r&gt; and &lt;c&gt; are skipped as well as comments and processing instructions, text of
+ * columns is read in runs of chars between markup, entity and character references are resolved and line breaks are
+ * normalized as an XML parser does.
+ *
+ * @author Sergey Bushik
+ */
+class XmlRowReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int EOF = -1;
+
+    private static final String CDATA = "[CDATA[";
+    private static final char[] CDATA_END = "]]>".toCharArray();
+    private static final char[] COMMENT_END = "-->".toCharArray();
+    private static final char[] PI_END = "?>".toCharArray();
+    private static final char[] DECLARATION_END = ">".toCharArray();
+
+    /**
+     * Chars ending a run of text
+     */
+    private static final boolean[] SPECIALS = new boolean['<' + 1];
+
+    static {
+        SPECIALS['<'] = true;
+        SPECIALS['&'] = true;
+        SPECIALS['\r'] = true;
+    }
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private final StringBuilder name = new StringBuilder();
+    private final StringBuilder attribute = new StringBuilder();
+    private final StringBuilder reference = new StringBuilder();
+    private final StringBuilder builder = new StringBuilder();
+    private int runStart = -1;
+    private int runEnd;
+    private boolean rows;
+    private boolean row;
+    private byte[] nulls = new byte[8];
+    private int nullsLength;
+    private ValueType valueType;
+    private String text;
+
+    public XmlRowReader(Reader reader) {
+        this(reader, BUFFER_SIZE);
+    }
+
+    public XmlRowReader(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Skips prolog and reads the start tag of the root element
+     */
+    public void readStart() throws IOException {
+        while (true) {
+            int c = skipWhitespace();
+            if (c == '\ufeff') {
+                position++;
+            } else if (c == EOF) {
+                return;
+            } else if (c != '<') {
+                throw new IOException(format("Unexpected char %c before root element", (char) c));
+            } else {
+                position++;
+                c = peek();
+                if (c == '?' || c == '!') {
+                    skipMarkup();
+                } else {
+                    readName();
+                    rows = !readAttributes();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves to the next row
+     *
+     * @return true if the next row is found, false on the end of rows
+     */
+    public boolean nextRow() throws IOException {
+        row = false;
+        while (rows) {
+            int c = skipWhitespace();
+            if (c == EOF) {
+                rows = false;
+            } else if (c != '<') {
+                position++;
+            } else {
+                position++;
+                c = peek();
+                if (c == '/') {
+                    position++;
+                    readEndTag();
+                    rows = !isName(ELEMENT_ROWS);
+                } else if (c == '?' || c == '!') {
+                    skipMarkup();
+                } else {
+                    readName();
+                    boolean found = isName(ELEMENT_ROW);
+                    nullsLength = 0;
+                    boolean empty = readAttributes();
+                    if (found) {
+                        row = !empty;
+                        return true;
+                    } else if (!empty) {
+                        skipElement();
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if value of the current row at the given index is null
+     */
+    public boolean isNull(int index) {
+        int offset = index >> 3;
+        return offset < nullsLength && (nulls[offset] & (1 << (index & 7))) != 0;
+    }
+
+    /**
+     * Moves to the next column of the current row and reads its text
+     *
+     * @return true if the next column is found, false on the end of the row
+     */
+    public boolean nextColumn() throws IOException {
+        text = null;
+        valueType = null;
+        while (row) {
+            int c = skipWhitespace();
+            if (c == EOF) {
+                throw new IOException("Unexpected end of row");
+            } else if (c != '<') {
+                position++;
+            } else {
+                position++;
+                c = peek();
+                if (c == '/') {
+                    position++;
+                    readEndTag();
+                    row = !isName(ELEMENT_ROW);
+                } else if (c == '?' || c == '!') {
+                    skipMarkup();
+                } else {
+                    readName();
+                    boolean found = isName(ELEMENT_COLUMN);
+                    boolean empty = readAttributes();
+                    if (found) {
+                        text = empty ? "" : readText();
+                        return true;
+                    } else if (!empty) {
+                        skipElement();
+                    }
+                    valueType = null;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Value type of the current column if it's overridden with an attribute
+     */
+    public ValueType getValueType() {
+        return valueType;
+    }
+
+    /**
+     * Text of the current column
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Reads attributes of a start tag, keeping nulls and value type
+     *
+     * @return true if the element is empty
+     */
+    protected boolean readAttributes() throws IOException {
+        while (true) {
+            int c = skipWhitespace();
+            if (c == '>') {
+                position++;
+                return false;
+            } else if (c == '/') {
+                position++;
+                expect('>');
+                return true;
+            } else if (c == EOF) {
+                throw new IOException("Unexpected end of start tag");
+            }
+            readName();
+            skipWhitespace();
+            expect('=');
+            skipWhitespace();
+            int quote = read();
+            if (quote != '"' && quote != '\'') {
+                throw new IOException(format("Attribute %s value is not quoted", name));
+            }
+            attribute.setLength(0);
+            while ((c = read()) != quote) {
+                if (c == EOF) {
+                    throw new IOException(format("Unexpected end of attribute %s value", name));
+                }
+                attribute.appendCodePoint(c == '&' ? readReference() : c);
+            }
+            if (isName(ATTRIBUTE_NULLS)) {
+                readNulls(attribute);
+            } else if (isName(ATTRIBUTE_VALUE_TYPE)) {
+                valueType = VALUE_TYPES.fromAlias(attribute.toString());
+            }
+        }
+    }
+
+    /**
+     * Decodes hex encoded bit set of nulls
+     */
+    protected void readNulls(CharSequence value) throws IOException {
+        int length = value.length();
+        if (length % 2 != 0) {
+            throw new IOException(format("Invalid nulls %s", value));
+        }
+        nullsLength = length >> 1;
+        if (nulls.length < nullsLength) {
+            nulls = new byte[nullsLength];
+        }
+        for (int i = 0; i < nullsLength; i++) {
+            int high = digit(value.charAt(i << 1), 16);
+            int low = digit(value.charAt((i << 1) + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IOException(format("Invalid nulls %s", value));
+            }
+            nulls[i] = (byte) ((high << 4) | low);
+        }
+    }
+
+    /**
+     * Reads text of an element up to its end tag
+     */
+    protected String readText() throws IOException {
+        builder.setLength(0);
+        runStart = -1;
+        while (true) {
+            int c = read();
+            switch (c) {
+                case EOF:
+                    throw new IOException("Unexpected end of column");
+                case '<':
+                    c = peek();
+                    if (c == '/') {
+                        position++;
+                        readEndTag();
+                        return getValue();
+                    } else if (c == '!') {
+                        position++;
+                        if (peek() == '[') {
+                            readCData();
+                        } else {
+                            expect('-');
+                            expect('-');
+                            skipUntil(COMMENT_END);
+                        }
+                    } else if (c == '?') {
+                        skipMarkup();
+                    } else {
+                        throw new IOException("Unexpected element in column");
+                    }
+                    break;
+                case '&':
+                    appendCodePoint(readReference());
+                    break;
+                case '\r':
+                    appendCodePoint('\n');
+                    if (peek() == '\n') {
+                        position++;
+                    }
+                    break;
+                default:
+                    readRun();
+            }
+        }
+    }
+
+    /**
+     * Consumes the run of chars up to the next markup, reference or line break or the end of the buffer, the run is
+     * referenced in the buffer and copied only if the text continues after it
+     */
+    private void readRun() {
+        char[] buffer = this.buffer;
+        boolean[] specials = SPECIALS;
+        int length = specials.length;
+        int start = position - 1;
+        int end = position;
+        int limit = this.limit;
+        while (end < limit) {
+            char c = buffer[end];
+            if (c < length && specials[c]) {
+                break;
+            }
+            end++;
+        }
+        if (runStart < 0 && builder.length() == 0) {
+            runStart = start;
+            runEnd = end;
+        } else {
+            appendRun();
+            builder.append(buffer, start, end - start);
+        }
+        position = end;
+    }
+
+    private void readCData() throws IOException {
+        for (int i = 0; i < CDATA.length(); i++) {
+            expect(CDATA.charAt(i));
+        }
+        int matched = 0;
+        while (matched < CDATA_END.length) {
+            int c = read();
+            if (c == EOF) {
+                throw new IOException("Unexpected end of CDATA section");
+            }
+            matched = match(CDATA_END, matched, c);
+            if (c == '\r') {
+                if (peek() == '\n') {
+                    position++;
+                }
+                c = '\n';
+            }
+            appendCodePoint(c);
+        }
+        builder.setLength(builder.length() - CDATA_END.length);
+    }
+
+    /**
+     * Reads entity or character reference, the ampersand is already read
+     */
+    private int readReference() throws IOException {
+        StringBuilder reference = this.reference;
+        reference.setLength(0);
+        int c;
+        while ((c = read()) != ';') {
+            if (c == EOF || reference.length() > 8) {
+                throw new IOException(format("Invalid reference &%s", reference));
+            }
+            reference.append((char) c);
+        }
+        if (reference.length() > 1 && reference.charAt(0) == '#') {
+            int codePoint;
+            try {
+                codePoint = reference.charAt(1) == 'x' ?
+                        Integer.parseInt(reference.substring(2), 16) : Integer.parseInt(reference.substring(1));
+            } catch (NumberFormatException exception) {
+                codePoint = -1;
+            }
+            if (!isValidCodePoint(codePoint)) {
+                throw new IOException(format("Invalid character reference &%s;", reference));
+            }
+            return codePoint;
+        } else if (equals(reference, "lt")) {
+            return '<';
+        } else if (equals(reference, "gt")) {
+            return '>';
+        } else if (equals(reference, "amp")) {
+            return '&';
+        } else if (equals(reference, "quot")) {
+            return '"';
+        } else if (equals(reference, "apos")) {
+            return '\'';
+        } else {
+            throw new IOException(format("Unknown entity &%s;", reference));
+        }
+    }
+
+    /**
+     * Skips element content up to the matching end tag, the start tag is already read
+     */
+    private void skipElement() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            if (c == EOF) {
+                throw new IOException("Unexpected end of element");
+            } else if (c == '<') {
+                c = peek();
+                if (c == '/') {
+                    position++;
+                    readEndTag();
+                    depth--;
+                } else if (c == '?' || c == '!') {
+                    skipMarkup();
+                } else {
+                    readName();
+                    if (!readAttributes()) {
+                        depth++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Skips processing instruction, comment, CDATA section or declaration, the opening angle bracket is already read
+     */
+    private void skipMarkup() throws IOException {
+        if (read() == '?') {
+            skipUntil(PI_END);
+        } else if (peek() == '-') {
+            expect('-');
+            expect('-');
+            skipUntil(COMMENT_END);
+        } else if (peek() == '[') {
+            skipUntil(CDATA_END);
+        } else {
+            skipUntil(DECLARATION_END);
+        }
+    }
+
+    private void skipUntil(char[] end) throws IOException {
+        int matched = 0;
+        while (matched < end.length) {
+            int c = read();
+            if (c == EOF) {
+                throw new IOException(format("Unexpected end of input, expected %s", new String(end)));
+            }
+            matched = match(end, matched, c);
+        }
+    }
+
+    /**
+     * Matches next char against the end sequence, the end sequences repeat their first char only, i.e. "]]>", so the
+     * number of matched chars is kept on a repeated first char, as in "]]]>"
+     */
+    private static int match(char[] end, int matched, int c) {
+        if (c == end[matched]) {
+            return matched + 1;
+        } else if (c == end[0]) {
+            return end.length > 1 && end[1] == end[0] ? matched : 1;
+        } else {
+            return 0;
+        }
+    }
+
+    private void readEndTag() throws IOException {
+        readName();
+        skipWhitespace();
+        expect('>');
+    }
+
+    private void readName() throws IOException {
+        name.setLength(0);
+        while (true) {
+            int c = peek();
+            if (c == EOF || c == '>' || c == '/' || c == '=' || isWhitespace(c)) {
+                break;
+            }
+            name.append((char) c);
+            position++;
+        }
+    }
+
+    private boolean isName(String value) {
+        return equals(name, value);
+    }
+
+    private static boolean equals(CharSequence sequence, String value) {
+        int length = value.length();
+        if (sequence.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (sequence.charAt(i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void appendRun() {
+        if (runStart >= 0) {
+            builder.append(buffer, runStart, runEnd - runStart);
+            runStart = -1;
+        }
+    }
+
+    private void appendCodePoint(int c) {
+        appendRun();
+        builder.appendCodePoint(c);
+    }
+
+    private String getValue() {
+        if (runStart >= 0) {
+            return new String(buffer, runStart, runEnd - runStart);
+        } else {
+            return builder.length() == 0 ? "" : builder.toString();
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = read();
+        if (c != expected) {
+            throw new IOException(c == EOF ? format("Unexpected end of input, expected %c", expected) :
+                    format("Unexpected char %c, expected %c", (char) c, expected));
+        }
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        while (isWhitespace(c = peek())) {
+            position++;
+        }
+        return c;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r';
+    }
+
+    private int read() throws IOException {
+        if (position >= limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position >= limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Refills the buffer, copying the pending run of the current text out of it first
+     */
+    private boolean fill() throws IOException {
+        appendRun();
+        int count = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = count > 0 ? count : 0;
+        return count > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
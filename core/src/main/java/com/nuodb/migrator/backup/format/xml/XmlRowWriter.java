@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.xml;
+
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.xml.XmlFormat.*;
+import static com.nuodb.migrator.backup.format.xml.XmlUtils.INVALID;
+import static com.nuodb.migrator.backup.format.xml.XmlUtils.TEXT;
+import static com.nuodb.migrator.backup.format.xml.XmlUtils.getType;
+import static java.lang.Math.max;
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+import static java.util.regex.Pattern.compile;
+
+/**
+ * Writes rows of the fixed grammar &lt;rs&gt;&lt;r ns="nulls"&gt;&lt;c&gt;value&lt;/c&gt;...&lt;/r&gt;...&lt;/rs&gt;
+ * straight to a char buffer, which is written out once per row. Chars are classified with the lookup table of {@link
+ * XmlUtils}, string values with chars not allowed in XML are written as base64 encoded binary values.
+ *
+ * @author Sergey Bushik
+ */
+class XmlRowWriter implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final Writer writer;
+    /**
+     * Chars above are written as character references, as they may be not encodable in non unicode encodings
+     */
+    private final char maxChar;
+    private char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+
+    public XmlRowWriter(Writer writer, String encoding) {
+        this.writer = writer;
+        this.maxChar = compile("UTF-.*", CASE_INSENSITIVE).matcher(encoding).matches() ? '\uffff' : 0x7F;
+    }
+
+    public void writeStart(String encoding, String version) throws IOException {
+        append("<?xml version=\"");
+        append(version);
+        append("\" encoding=\"");
+        append(encoding);
+        append("\"?><");
+        append(ELEMENT_ROWS);
+        append('>');
+        write();
+    }
+
+    public void writeRow(Value[] values, ValueType[] valueTypes) throws IOException {
+        append('<');
+        append(ELEMENT_ROW);
+        writeNulls(values);
+        append('>');
+        for (int i = 0; i < values.length; i++) {
+            Value value = values[i];
+            if (value.isNull()) {
+                continue;
+            }
+            int start = position;
+            writeStartColumn(null);
+            if (valueTypes[i] == BINARY) {
+                append(BASE64.encode(value.asBytes()));
+            } else if (!writeText(value.asString())) {
+                // rewritten as binary
+                position = start;
+                writeStartColumn(VALUE_TYPES.toAlias(BINARY));
+                append(BASE64.encode(value.asBytes()));
+            }
+            append("</");
+            append(ELEMENT_COLUMN);
+            append('>');
+        }
+        append("</");
+        append(ELEMENT_ROW);
+        append('>');
+        write();
+    }
+
+    /**
+     * Writes hex encoded bit set of nulls, the same as {@link com.nuodb.migrator.backup.format.utils.BitSetUtils}
+     * writes, where a byte holds 8 consecutive bits starting from the lowest one
+     */
+    protected void writeNulls(Value[] values) {
+        int last = -1;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].isNull()) {
+                last = i;
+            }
+        }
+        if (last < 0) {
+            return;
+        }
+        append(' ');
+        append(ATTRIBUTE_NULLS);
+        append("=\"");
+        for (int offset = 0; offset <= last; offset += 8) {
+            int bits = 0;
+            for (int bit = 0; bit < 8 && offset + bit <= last; bit++) {
+                if (values[offset + bit].isNull()) {
+                    bits |= 1 << bit;
+                }
+            }
+            append(HEX[bits >> 4]);
+            append(HEX[bits & 0xF]);
+        }
+        append('"');
+    }
+
+    protected void writeStartColumn(String valueType) {
+        append('<');
+        append(ELEMENT_COLUMN);
+        if (valueType != null) {
+            append(' ');
+            append(ATTRIBUTE_VALUE_TYPE);
+            append("=\"");
+            append(valueType);
+            append('"');
+        }
+        append('>');
+    }
+
+    /**
+     * Writes string value, which is copied in bulk and is rewritten from the first char to escape
+     *
+     * @return false if the value has chars not allowed in XML
+     */
+    protected boolean writeText(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        char[] buffer = this.buffer;
+        int start = position;
+        value.getChars(0, length, buffer, start);
+        int index = start;
+        int end = start + length;
+        char maxChar = this.maxChar;
+        while (index < end) {
+            char c = buffer[index];
+            if (getType(c) != TEXT || c > maxChar) {
+                break;
+            }
+            index++;
+        }
+        position = index;
+        for (int i = index - start; i < length; i++) {
+            char c = value.charAt(i);
+            byte type = getType(c);
+            if (type == INVALID) {
+                return false;
+            } else if (type == TEXT && c <= maxChar) {
+                append(c);
+            } else {
+                switch (c) {
+                    case '&':
+                        append("&amp;");
+                        break;
+                    case '<':
+                        append("&lt;");
+                        break;
+                    case '>':
+                        append("&gt;");
+                        break;
+                    default:
+                        append("&#");
+                        append(Integer.toString(c));
+                        append(';');
+                }
+            }
+        }
+        return true;
+    }
+
+    private void append(char c) {
+        ensureCapacity(1);
+        buffer[position++] = c;
+    }
+
+    private void append(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        value.getChars(0, length, buffer, position);
+        position += length;
+    }
+
+    private void ensureCapacity(int length) {
+        int capacity = position + length;
+        if (capacity > buffer.length) {
+            char[] buffer = new char[max(capacity, this.buffer.length << 1)];
+            System.arraycopy(this.buffer, 0, buffer, 0, position);
+            this.buffer = buffer;
+        }
+    }
+
+    private void write() throws IOException {
+        writer.write(buffer, 0, position);
+        position = 0;
+    }
+
+    public void writeEnd() throws IOException {
+        append("</");
+        append(ELEMENT_ROWS);
+        append('>');
+        write();
+        flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
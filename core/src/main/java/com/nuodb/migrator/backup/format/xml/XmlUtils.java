@@ -32,11 +32,50 @@ package com.nuodb.migrator.backup.format.xml;
  */
 public class XmlUtils {
 
+    /**
+     * Char, which is written to a text content as is
+     */
+    public static final byte TEXT = 0;
+    /**
+     * Valid char, which is written to a text content as a reference: &amp;, &lt; and &gt; are markup, while \r would be
+     * normalized to \n by a parser
+     */
+    public static final byte MARKUP = 1;
+    /**
+     * Char, which is not allowed in XML 1.0 documents
+     */
+    public static final byte INVALID = 2;
+
+    private static final byte[] CHARS = new byte[0x10000];
+
+    static {
+        for (int c = 0; c < CHARS.length; c++) {
+            byte type;
+            if (!((c == 0x9) || (c == 0xA) || (c == 0xD) ||
+                    ((c >= 0x20) && (c <= 0xD7FF)) ||
+                    ((c >= 0xE000) && (c <= 0xFFFD)))) {
+                type = INVALID;
+            } else if (c == '&' || c == '<' || c == '>' || c == '\r') {
+                type = MARKUP;
+            } else {
+                type = TEXT;
+            }
+            CHARS[c] = type;
+        }
+    }
+
+    /**
+     * Looks up char type in a precomputed table
+     *
+     * @param value char
+     * @return {@link #TEXT}, {@link #MARKUP} or {@link #INVALID}
+     */
+    public static byte getType(char value) {
+        return CHARS[value];
+    }
+
     public static boolean isValid(char value) {
-        return (value == 0x9) || (value == 0xA) || (value == 0xD) ||
-                ((value >= 0x20) && (value <= 0xD7FF)) ||
-                ((value >= 0xE000) && (value <= 0xFFFD)) ||
-                ((value >= 0x10000) && (value <= 0x10FFFF));
+        return CHARS[value] != INVALID;
     }
 
     public static boolean isValid(String value) {
@@ -45,7 +84,7 @@ public class XmlUtils {
         }
         final int length = value.length();
         for (int i = 0; i < length; i++) {
-            if (!isValid(value.charAt(i))) {
+            if (CHARS[value.charAt(i)] == INVALID) {
                 return false;
             }
         }
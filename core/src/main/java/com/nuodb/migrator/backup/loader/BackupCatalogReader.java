@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.MigratorException;
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.BackupReadListener;
+import com.nuodb.migrator.backup.RowSet;
+import org.slf4j.Logger;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Reads backup catalog in a background thread & hands row sets over to the loader as they are parsed, so that data
+ * load starts once the database element & the first row set are read rather than after the whole catalog. Parsed row
+ * sets are queued up to the given capacity, so the parser never runs far ahead of the loader.
+ *
+ * @author Sergey Bushik
+ */
+public class BackupCatalogReader implements BackupReadListener, Runnable, Closeable {
+
+    public static final int CAPACITY = 1024;
+
+    private static final RowSet END = new RowSet();
+
+    private final transient Logger logger = getLogger(getClass());
+    private final BackupOps backupOps;
+    private final Map context;
+    private final CountDownLatch database = new CountDownLatch(1);
+    private final BlockingQueue<RowSet> rowSets;
+    private volatile Backup backup;
+    private volatile Throwable failure;
+    private Thread thread;
+
+    public BackupCatalogReader(BackupOps backupOps, Map context) {
+        this(backupOps, context, CAPACITY);
+    }
+
+    public BackupCatalogReader(BackupOps backupOps, Map context, int capacity) {
+        this.backupOps = backupOps;
+        this.context = context;
+        this.rowSets = new ArrayBlockingQueue<RowSet>(capacity);
+    }
+
+    public void start() {
+        thread = new Thread(this, getClass().getSimpleName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        try {
+            Backup backup = backupOps.read(context, this);
+            if (this.backup == null) {
+                this.backup = backup;
+            }
+        } catch (Throwable failure) {
+            this.failure = failure;
+        } finally {
+            database.countDown();
+            try {
+                rowSets.put(END);
+            } catch (InterruptedException exception) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Backup catalog reader interrupted", exception);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onDatabase(Backup backup) {
+        this.backup = backup;
+        database.countDown();
+    }
+
+    /**
+     * Blocks parsing while the queue is full
+     */
+    @Override
+    public void onRowSet(Backup backup, RowSet rowSet) {
+        onDatabase(backup);
+        try {
+            rowSets.put(rowSet);
+        } catch (InterruptedException exception) {
+            throw new BackupLoaderException("Backup catalog reading interrupted", exception);
+        }
+    }
+
+    /**
+     * Waits until the database element is read
+     *
+     * @return backup with database & without row sets
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Backup getBackup() throws InterruptedException {
+        database.await();
+        if (backup == null) {
+            throw getFailure();
+        }
+        return backup;
+    }
+
+    /**
+     * Waits for the next row set in the order of the catalog
+     *
+     * @return next row set or null if the whole catalog is read
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public RowSet readRowSet() throws InterruptedException {
+        RowSet rowSet = rowSets.take();
+        if (rowSet == END) {
+            rowSets.put(END);
+            if (failure != null) {
+                throw getFailure();
+            }
+            return null;
+        }
+        return rowSet;
+    }
+
+    protected MigratorException getFailure() {
+        return failure instanceof MigratorException ?
+                (MigratorException) failure : new BackupLoaderException(failure);
+    }
+
+    @Override
+    public void close() {
+        if (thread != null && thread.isAlive()) {
+            thread.interrupt();
+        }
+    }
+}
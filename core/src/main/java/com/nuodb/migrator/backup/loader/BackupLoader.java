@@ -32,6 +32,7 @@ import com.google.common.base.Predicate;
 import com.nuodb.migrator.MigratorException;
 import com.nuodb.migrator.backup.Backup;
 import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.Column;
 import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.backup.TableRowSet;
@@ -80,8 +81,11 @@ import com.nuodb.migrator.spec.MigrationMode;
 import com.nuodb.migrator.utils.PrioritySet;
 import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
 import com.nuodb.migrator.utils.concurrent.ForkJoinTask;
+import com.nuodb.migrator.utils.metrics.Metrics;
 import org.slf4j.Logger;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Map;
@@ -105,6 +109,7 @@ import static com.nuodb.migrator.jdbc.type.JdbcTypeOptions.newOptions;
 import static com.nuodb.migrator.utils.Collections.*;
 import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
+import static org.apache.commons.io.FilenameUtils.getBaseName;
 import static org.apache.commons.lang3.StringUtils.join;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -116,11 +121,13 @@ public class BackupLoader {
 
     public static final Collection<MigrationMode> MIGRATION_MODES = newHashSet(MigrationMode.values());
     public static final int THREADS = getRuntime().availableProcessors();
+    public static final String METRICS = "load";
 
     protected final transient Logger logger = getLogger(getClass());
 
     private CommitStrategy commitStrategy;
     private Database database;
+    private boolean catalogStreaming;
     private DialectResolver dialectResolver;
     private ExecutorService executorService;
     private FormatFactory formatFactory;
@@ -132,8 +139,14 @@ public class BackupLoader {
     private IdentifierNormalizer identifierNormalizer;
     private InsertTypeFactory insertTypeFactory;
     private InspectionManager inspectionManager;
+    private boolean journal;
+    private String journalFile;
     private Parallelizer parallelizer = new TableLevelParallelizer();
+    private int readAhead;
+    private boolean resume;
     private MetaDataSpec metaDataSpec;
+    private Metrics metrics;
+    private boolean rowEvents;
     private Collection<MigrationMode> migrationModes = MIGRATION_MODES;
     private PrioritySet<NamingStrategy> namingStrategies;
     private RowSetMapper rowSetMapper = new SimpleRowSetMapper();
@@ -161,7 +174,7 @@ public class BackupLoader {
         return backupOps;
     }
 
-    protected Backup load(BackupOps backupOps, Map context) throws Exception {
+    public Backup load(BackupOps backupOps, Map context) throws Exception {
         return load(createBackupLoaderManager(backupOps, context));
     }
 
@@ -172,7 +185,13 @@ public class BackupLoader {
 
     protected BackupLoaderContext createBackupLoaderContext(BackupOps backupOps, Map context) throws Exception {
         BackupLoaderContext backupLoaderContext = new SimpleBackupLoaderContext();
-        backupLoaderContext.setBackup(backupOps.read(context));
+        if (isCatalogStreaming()) {
+            BackupCatalogReader backupCatalogReader = createBackupCatalogReader(backupOps, context);
+            backupLoaderContext.setBackupCatalogReader(backupCatalogReader);
+            backupLoaderContext.setBackup(backupCatalogReader.getBackup());
+        } else {
+            backupLoaderContext.setBackup(backupOps.read(context));
+        }
         backupLoaderContext.setBackupOps(backupOps);
         backupLoaderContext.setBackupOpsContext(context);
         backupLoaderContext.setCommitStrategy(getCommitStrategy());
@@ -185,6 +204,10 @@ public class BackupLoader {
         backupLoaderContext.setInsertTypeFactory(getInsertTypeFactory());
         backupLoaderContext.setMigrationModes(getMigrationModes());
         backupLoaderContext.setParallelizer(getParallelizer());
+        backupLoaderContext.setReadAhead(getReadAhead());
+        backupLoaderContext.setLoadJournal(createLoadJournal(backupOps));
+        backupLoaderContext.setMetrics(getMetrics() != null ? getMetrics() : new Metrics(METRICS));
+        backupLoaderContext.setRowEvents(isRowEvents());
         backupLoaderContext.setRowSetMapper(getRowSetMapper());
         backupLoaderContext.setSourceTables(getSourceTables(backupLoaderContext));
         backupLoaderContext.setTimeZone(getTimeZone());
@@ -197,6 +220,41 @@ public class BackupLoader {
         return backupLoaderContext;
     }
 
+    /**
+     * Starts reading backup catalog in the background, row sets are loaded as they are parsed
+     *
+     * @param backupOps backup ops of the loaded backup
+     * @param context   read context
+     * @return started catalog reader
+     */
+    protected BackupCatalogReader createBackupCatalogReader(BackupOps backupOps, Map context) {
+        BackupCatalogReader backupCatalogReader = new BackupCatalogReader(backupOps, context);
+        backupCatalogReader.start();
+        return backupCatalogReader;
+    }
+
+    /**
+     * Opens journal of the committed rows in the configured journal file or next to the backup catalog, on resume the
+     * journal is read and appended
+     *
+     * @param backupOps backup ops of the loaded backup
+     * @return opened load journal or null if journaling is disabled
+     */
+    protected LoadJournal createLoadJournal(BackupOps backupOps) {
+        if (!isJournal()) {
+            return null;
+        }
+        String journalFile = getJournalFile();
+        LoadJournal loadJournal = new LoadJournal(journalFile != null ? new File(journalFile) :
+                new File(backupOps.getDir(), getBaseName(backupOps.getFile()) + "." + LoadJournal.EXTENSION));
+        try {
+            loadJournal.open(isResume());
+        } catch (IOException exception) {
+            throw new BackupLoaderException("Error opening load journal", exception);
+        }
+        return loadJournal;
+    }
+
     /**
      * Returns a filtered list of source tables to load depending on the requested source table names and their patterns
      * or all source tables if filter is not provided.
@@ -272,8 +330,8 @@ public class BackupLoader {
 
     protected Database openDatabase(Session session) throws SQLException {
         InspectionScope inspectionScope = new TableInspectionScope(null, null, getTableTypes());
-        return getInspectionManager().inspect(session.getConnection(), inspectionScope,
-                DATABASE, CATALOG, SCHEMA, TABLE, COLUMN).getObject(DATABASE);
+        return getInspectionManager().inspect(session.getConnection(), getTargetSessionFactory(),
+                getInspectionThreads(), inspectionScope, DATABASE, CATALOG, SCHEMA, TABLE, COLUMN).getObject(DATABASE);
     }
 
     protected ValueFormatRegistry createValueFormatRegistry(Session session) throws Exception {
@@ -348,7 +406,8 @@ public class BackupLoader {
 
     protected Backup load(BackupLoaderManager backupLoaderManager) throws Exception {
         try {
-            if (backupLoaderManager.isLoadSchema()) {
+            // schema is loaded by the failed run, which is resumed
+            if (backupLoaderManager.isLoadSchema() && !isResume(backupLoaderManager.getBackupLoaderContext())) {
                 loadSchema(backupLoaderManager);
             }
             if (backupLoaderManager.isLoadData()) {
@@ -409,8 +468,83 @@ public class BackupLoader {
         Database database = getDatabase();
         backupLoaderContext.setDatabase(database != null ? database :
                 openDatabase(backupLoaderContext.getTargetSession()));
-        initLoadTables(backupLoaderContext);
-        executeWork(new LoadTablesWork(backupLoaderManager), backupLoaderManager);
+        BackupCatalogReader backupCatalogReader = backupLoaderContext.getBackupCatalogReader();
+        if (backupCatalogReader != null) {
+            loadData(backupLoaderManager, backupCatalogReader);
+        } else {
+            if (isResume(backupLoaderContext)) {
+                skipCommittedChunks(backupLoaderContext);
+            }
+            initLoadTables(backupLoaderContext);
+            executeWork(new LoadTablesWork(backupLoaderManager), backupLoaderManager);
+        }
+    }
+
+    /**
+     * Starts loading of every row set once it's read from the catalog. Returns when the whole catalog is read, so
+     * that the load tables are complete for the constraints loading.
+     *
+     * @param backupLoaderManager to manage this load
+     * @param backupCatalogReader reader of the catalog row sets
+     * @throws Exception if catalog reading caused error
+     */
+    protected void loadData(BackupLoaderManager backupLoaderManager,
+                            BackupCatalogReader backupCatalogReader) throws Exception {
+        BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
+        Backup backup = backupLoaderContext.getBackup();
+        LoadTables loadTables = new LoadTables();
+        backupLoaderContext.setLoadTables(loadTables);
+        LoadTablesWork loadTablesWork = new LoadTablesWork(backupLoaderManager, true);
+        executeWork(loadTablesWork, backupLoaderManager);
+        try {
+            RowSet rowSet;
+            while ((rowSet = backupCatalogReader.readRowSet()) != null) {
+                backup.addRowSet(rowSet);
+                if (isResume(backupLoaderContext)) {
+                    skipCommittedChunks(rowSet, backupLoaderContext);
+                }
+                LoadTable loadTable = createLoadTable(rowSet, backupLoaderContext);
+                if (loadTable != null) {
+                    loadTables.addLoadTable(loadTable);
+                    initLoadTable(loadTable, backupLoaderContext);
+                    loadTablesWork.addLoadTable(loadTable);
+                }
+            }
+        } finally {
+            loadTablesWork.addLoadTablesDone();
+        }
+    }
+
+    protected boolean isResume(BackupLoaderContext backupLoaderContext) {
+        LoadJournal loadJournal = backupLoaderContext.getLoadJournal();
+        return loadJournal != null && loadJournal.isResume();
+    }
+
+    /**
+     * Excludes chunks committed by the failed run from loading, committed rows of partially loaded chunks are skipped
+     * by the loading threads
+     *
+     * @param backupLoaderContext backup loader context
+     */
+    protected void skipCommittedChunks(BackupLoaderContext backupLoaderContext) {
+        for (RowSet rowSet : backupLoaderContext.getBackup().getRowSets()) {
+            skipCommittedChunks(rowSet, backupLoaderContext);
+        }
+    }
+
+    protected void skipCommittedChunks(RowSet rowSet, BackupLoaderContext backupLoaderContext) {
+        LoadJournal loadJournal = backupLoaderContext.getLoadJournal();
+        Collection<Chunk> chunks = newArrayList();
+        for (Chunk chunk : rowSet.getChunks()) {
+            if (loadJournal.isCommitted(chunk)) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug(format("Skipping committed %s chunk", chunk.getName()));
+                }
+            } else {
+                chunks.add(chunk);
+            }
+        }
+        rowSet.setChunks(chunks);
     }
 
     /**
@@ -525,40 +659,57 @@ public class BackupLoader {
         LoadTables loadTables = createLoadTables(backupLoaderContext);
         backupLoaderContext.setLoadTables(loadTables);
         for (LoadTable loadTable : loadTables) {
-            loadTable.setThreads(backupLoaderContext.getParallelizer().
-                    getThreads(loadTable, backupLoaderContext));
+            initLoadTable(loadTable, backupLoaderContext);
         }
     }
 
+    protected void initLoadTable(LoadTable loadTable, BackupLoaderContext backupLoaderContext) {
+        loadTable.setThreads(backupLoaderContext.getParallelizer().
+                getThreads(loadTable, backupLoaderContext));
+    }
+
     protected LoadTables createLoadTables(BackupLoaderContext backupLoaderContext) {
         LoadTables loadTables = new LoadTables();
-        Collection<Table> sourceTables = backupLoaderContext.getSourceTables();
-        Backup backup = backupLoaderContext.getBackup();
-        Database database = backup.getDatabase();
-        for (RowSet rowSet : backup.getRowSets()) {
-            if (isEmpty(rowSet.getChunks())) {
-                continue;
-            }
-            TableRowSet tableRowSet = rowSet instanceof TableRowSet ? (TableRowSet) rowSet : null;
-            Catalog sourceCatalog = database.hasCatalog(tableRowSet.getCatalog()) ?
-                    database.getCatalog(tableRowSet.getCatalog()) : null;
-            Schema sourceSchema = sourceCatalog != null && sourceCatalog.hasSchema(tableRowSet.getSchema()) ?
-                    sourceCatalog.getSchema(tableRowSet.getSchema()) : null;
-            Table sourceTable = sourceSchema != null && sourceSchema.hasTable(tableRowSet.getTable()) ?
-                    sourceSchema.getTable(tableRowSet.getTable()) : null;
-            if (!isEmpty(sourceTables) && (sourceTable == null || !sourceTables.contains(sourceTable))) {
-                continue;
-            }
-            Table targetTable = backupLoaderContext.getRowSetMapper().mapRowSet(rowSet, backupLoaderContext);
-            if (targetTable == null) {
-                continue;
+        for (RowSet rowSet : backupLoaderContext.getBackup().getRowSets()) {
+            LoadTable loadTable = createLoadTable(rowSet, backupLoaderContext);
+            if (loadTable != null) {
+                loadTables.addLoadTable(loadTable);
             }
-            Query query = createQuery(rowSet, targetTable, backupLoaderContext);
-            loadTables.addLoadTable(new LoadTable(rowSet, targetTable, query));
         }
         return loadTables;
     }
 
+    /**
+     * Creates load table for a row set with chunks, which is mapped to a target table
+     *
+     * @param rowSet              row set to load
+     * @param backupLoaderContext evaluation context
+     * @return load table or null if the row set is not loaded
+     */
+    protected LoadTable createLoadTable(RowSet rowSet, BackupLoaderContext backupLoaderContext) {
+        if (isEmpty(rowSet.getChunks())) {
+            return null;
+        }
+        Collection<Table> sourceTables = backupLoaderContext.getSourceTables();
+        Database database = backupLoaderContext.getBackup().getDatabase();
+        TableRowSet tableRowSet = rowSet instanceof TableRowSet ? (TableRowSet) rowSet : null;
+        Catalog sourceCatalog = database.hasCatalog(tableRowSet.getCatalog()) ?
+                database.getCatalog(tableRowSet.getCatalog()) : null;
+        Schema sourceSchema = sourceCatalog != null && sourceCatalog.hasSchema(tableRowSet.getSchema()) ?
+                sourceCatalog.getSchema(tableRowSet.getSchema()) : null;
+        Table sourceTable = sourceSchema != null && sourceSchema.hasTable(tableRowSet.getTable()) ?
+                sourceSchema.getTable(tableRowSet.getTable()) : null;
+        if (!isEmpty(sourceTables) && (sourceTable == null || !sourceTables.contains(sourceTable))) {
+            return null;
+        }
+        Table targetTable = backupLoaderContext.getRowSetMapper().mapRowSet(rowSet, backupLoaderContext);
+        if (targetTable == null) {
+            return null;
+        }
+        Query query = createQuery(rowSet, targetTable, backupLoaderContext);
+        return new LoadTable(rowSet, targetTable, query);
+    }
+
     protected void executeWork(final Work work, final BackupLoaderManager backupLoaderManager) {
         final BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
         ForkJoinPool executor = (ForkJoinPool) backupLoaderContext.getExecutorService();
@@ -625,6 +776,12 @@ public class BackupLoader {
         return metaDataSpec != null ? metaDataSpec.getTableTypes() : null;
     }
 
+    protected int getInspectionThreads() {
+        final MetaDataSpec metaDataSpec = getMetaDataSpec();
+        Integer inspectionThreads = metaDataSpec != null ? metaDataSpec.getInspectionThreads() : null;
+        return inspectionThreads != null ? inspectionThreads : 1;
+    }
+
     public CommitStrategy getCommitStrategy() {
         return commitStrategy;
     }
@@ -737,6 +894,98 @@ public class BackupLoader {
         this.parallelizer = parallelizer;
     }
 
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets registry of rows, bytes & batches loaded per table, thread & chunk, a private registry is created if none
+     *
+     * @param metrics metrics registry updated by load works
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public boolean isRowEvents() {
+        return rowEvents;
+    }
+
+    /**
+     * Enables {@link BackupLoaderListener#onLoadRow} event for each loaded row, which is off by default as it costs an event per row
+     *
+     * @param rowEvents true to notify listeners on each row
+     */
+    public void setRowEvents(boolean rowEvents) {
+        this.rowEvents = rowEvents;
+    }
+
+    public int getReadAhead() {
+        return readAhead;
+    }
+
+    /**
+     * Sets number of row batches decoded ahead by each loading thread, while the thread executes a batch on the target
+     * connection, 0 disables read ahead
+     *
+     * @param readAhead max number of row batches decoded ahead
+     */
+    public void setReadAhead(int readAhead) {
+        this.readAhead = readAhead;
+    }
+
+    public boolean isCatalogStreaming() {
+        return catalogStreaming;
+    }
+
+    /**
+     * Streams backup catalog, so that row sets are loaded as they are read instead of after the whole catalog
+     *
+     * @param catalogStreaming true to load row sets as the catalog is read
+     */
+    public void setCatalogStreaming(boolean catalogStreaming) {
+        this.catalogStreaming = catalogStreaming;
+    }
+
+    public boolean isJournal() {
+        return journal;
+    }
+
+    /**
+     * Enables journal of the committed rows, which is required to resume failed load
+     *
+     * @param journal true to journal committed rows
+     */
+    public void setJournal(boolean journal) {
+        this.journal = journal;
+    }
+
+    public String getJournalFile() {
+        return journalFile;
+    }
+
+    /**
+     * Sets location of the load journal, which is written next to the backup catalog by default
+     *
+     * @param journalFile journal file path or null for default location
+     */
+    public void setJournalFile(String journalFile) {
+        this.journalFile = journalFile;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * Resumes failed load skipping the chunks & rows recorded as committed in the load journal
+     *
+     * @param resume true to resume failed load
+     */
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
     public void addListener(BackupLoaderListener listener) {
         listeners.add(listener);
     }
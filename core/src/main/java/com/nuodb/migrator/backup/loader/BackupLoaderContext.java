@@ -40,6 +40,7 @@ import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.spec.ConnectionSpec;
 import com.nuodb.migrator.spec.MigrationMode;
+import com.nuodb.migrator.utils.metrics.Metrics;
 
 import java.util.Collection;
 import java.util.Map;
@@ -91,6 +92,26 @@ public interface BackupLoaderContext {
 
     void setParallelizer(Parallelizer parallelizer);
 
+    int getReadAhead();
+
+    void setReadAhead(int readAhead);
+
+    BackupCatalogReader getBackupCatalogReader();
+
+    void setBackupCatalogReader(BackupCatalogReader backupCatalogReader);
+
+    LoadJournal getLoadJournal();
+
+    void setLoadJournal(LoadJournal loadJournal);
+
+    Metrics getMetrics();
+
+    void setMetrics(Metrics metrics);
+
+    boolean isRowEvents();
+
+    void setRowEvents(boolean rowEvents);
+
     InsertTypeFactory getInsertTypeFactory();
 
     void setInsertTypeFactory(InsertTypeFactory insertTypeFactory);
@@ -36,6 +36,11 @@ public interface BackupLoaderListener extends WorkListener {
 
     void onLoadStart(LoadChunkEvent event);
 
+    /**
+     * Triggered for each loaded row if row events are enabled with {@link BackupLoader#setRowEvents(boolean)}
+     *
+     * @param event containing details about loaded row
+     */
     void onLoadRow(LoadRowEvent event);
 
     void onLoadEnd(LoadChunkEvent event);
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.format.value.RowReader;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static com.nuodb.migrator.backup.format.value.RowReaders.newChunkRowReaders;
+import static java.lang.Long.parseLong;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Forking on chunk level, where each worker thread takes the next whole chunk of the row set and decodes it on its
+ * own, so there is no contention between worker threads per row. The number of workers is computed as for the row
+ * level parallelization and is bounded by the number of chunks in the row set. When there are more workers than chunks
+ * the chunks larger than the split size are divided into byte ranges, given the format's input is splittable, so that
+ * a row set written to a single large chunk is loaded by several workers. Notice chunk level parallelization reorders
+ * the rows in the loaded table.
+ *
+ * @author Sergey Bushik
+ */
+public class ChunkLevelParallelizer extends RowLevelParallelizer {
+
+    public static final String ATTRIBUTE_SPLIT_SIZE = "split.size";
+    public static final long SPLIT_SIZE = 64L * 1024 * 1024;
+
+    private long splitSize = SPLIT_SIZE;
+
+    @Override
+    public void setAttributes(Map<String, Object> attributes) {
+        super.setAttributes(attributes);
+        Object splitSizeValue = attributes.get(ATTRIBUTE_SPLIT_SIZE);
+        if (splitSizeValue instanceof String && !isEmpty((String) splitSizeValue)) {
+            setSplitSize(parseLong((String) splitSizeValue));
+        }
+    }
+
+    @Override
+    public int getThreads(LoadTable loadTable, BackupLoaderContext backupLoaderContext) {
+        long splits = getSplits(loadTable, backupLoaderContext);
+        return (int) max(min(super.getThreads(loadTable, backupLoaderContext), splits), 1);
+    }
+
+    /**
+     * Estimates the max number of chunk ranges the row set can be read in parallel
+     */
+    protected long getSplits(LoadTable loadTable, BackupLoaderContext backupLoaderContext) {
+        BackupOps backupOps = backupLoaderContext.getBackupOps();
+        long splits = 0;
+        for (Chunk chunk : loadTable.getRowSet().getChunks()) {
+            long size = chunk.getSize(backupOps);
+            splits += splitSize > 0 ? max((size + splitSize - 1) / splitSize, 1) : 1;
+        }
+        return splits;
+    }
+
+    @Override
+    public Collection<RowReader> createRowReaders(LoadTable loadTable, BackupLoaderContext backupLoaderContext) {
+        int threads = max(loadTable.getThreads(), 1);
+        int chunks = loadTable.getRowSet().getChunks().size();
+        return newChunkRowReaders(loadTable.getRowSet(), backupLoaderContext.getBackupOps(),
+                backupLoaderContext.getFormatFactory(), backupLoaderContext.getFormatAttributes(),
+                threads, threads > chunks ? splitSize : 0);
+    }
+
+    public long getSplitSize() {
+        return splitSize;
+    }
+
+    public void setSplitSize(long splitSize) {
+        this.splitSize = splitSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+
+        ChunkLevelParallelizer that = (ChunkLevelParallelizer) o;
+
+        if (splitSize != that.splitSize) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (int) (splitSize ^ (splitSize >>> 32));
+        return result;
+    }
+}
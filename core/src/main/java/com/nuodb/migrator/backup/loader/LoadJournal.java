@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.format.value.Row;
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static java.lang.Long.parseLong;
+import static org.apache.commons.lang3.math.NumberUtils.isDigits;
+import static java.lang.String.format;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Sidecar journal of the rows committed to the target database. Each commit appends the runs of the committed row
+ * numbers per chunk, so that a failed load is resumed skipping the committed chunks & rows. Rows of the chunk ranges
+ * split by the chunk level parallelizer are journaled relative to the range offset, so such loads should be resumed
+ * with the same split size. The journal is appended after the transaction commits, so at most the last batch of each
+ * thread is loaded again if the process dies between the commit and the journal write.
+ *
+ * @author Sergey Bushik
+ */
+public class LoadJournal implements Closeable {
+
+    public static final String EXTENSION = "journal";
+
+    private static final char SEPARATOR = '\t';
+    private static final char RANGE_SEPARATOR = '@';
+    private static final String ENCODING = "UTF-8";
+
+    private final transient Logger logger = getLogger(getClass());
+
+    private final File file;
+    private final Map<String, TreeMap<Long, Long>> committed = newHashMap();
+    private final Map<String, Set<String>> chunkKeys = newHashMap();
+    private boolean resume;
+    private Writer writer;
+
+    public LoadJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens journal for appending, previously committed rows are read from the journal on resume, otherwise the
+     * journal is truncated
+     *
+     * @param resume true to resume failed load
+     * @throws IOException if journal can't be read or opened
+     */
+    public synchronized void open(boolean resume) throws IOException {
+        this.resume = resume;
+        boolean torn = false;
+        if (resume && file.exists()) {
+            torn = read();
+        }
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, resume), ENCODING));
+        if (torn) {
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Reads committed rows from the journal
+     *
+     * @return true if the last line of the journal is not terminated
+     * @throws IOException if journal can't be read
+     */
+    protected boolean read() throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), ENCODING));
+        try {
+            String line;
+            String last = null;
+            while ((line = reader.readLine()) != null) {
+                last = line;
+                int end = line.lastIndexOf(SEPARATOR);
+                int start = end > 0 ? line.lastIndexOf(SEPARATOR, end - 1) : -1;
+                if (start <= 0) {
+                    // torn line of the interrupted write
+                    continue;
+                }
+                try {
+                    add(line.substring(0, start), parseLong(line.substring(start + 1, end)),
+                            parseLong(line.substring(end + 1)));
+                } catch (NumberFormatException exception) {
+                    if (logger.isWarnEnabled()) {
+                        logger.warn(format("Skipping malformed journal line %s", line));
+                    }
+                }
+            }
+            return last != null && !last.isEmpty() && !isTerminated();
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    protected boolean isTerminated() throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            input.seek(input.length() - 1);
+            return input.read() == '\n';
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    /**
+     * Records committed rows of the batch & clears the batch
+     *
+     * @param batch rows committed by the transaction
+     * @throws IOException if journal can't be written
+     */
+    public synchronized void commit(Batch batch) throws IOException {
+        if (batch.runs.isEmpty()) {
+            return;
+        }
+        for (Run run : batch.runs) {
+            String key = getKey(run.chunk, run.offset);
+            add(key, run.start, run.end);
+            writer.write(key);
+            writer.write(SEPARATOR);
+            writer.write(Long.toString(run.start));
+            writer.write(SEPARATOR);
+            writer.write(Long.toString(run.end));
+            writer.write('\n');
+        }
+        writer.flush();
+        batch.clear();
+    }
+
+    /**
+     * Merges run of committed rows [start, end) into the committed runs of the key
+     */
+    protected void add(String key, long start, long end) {
+        TreeMap<Long, Long> runs = committed.get(key);
+        if (runs == null) {
+            committed.put(key, runs = new TreeMap<Long, Long>());
+            String chunkName = getChunkName(key);
+            Set<String> keys = chunkKeys.get(chunkName);
+            if (keys == null) {
+                chunkKeys.put(chunkName, keys = newHashSet());
+            }
+            keys.add(key);
+        }
+        Map.Entry<Long, Long> floor = runs.floorEntry(start);
+        if (floor != null && floor.getValue() >= start) {
+            start = floor.getKey();
+            end = Math.max(end, floor.getValue());
+        }
+        Map.Entry<Long, Long> next;
+        while ((next = runs.ceilingEntry(start)) != null && next.getKey() <= end) {
+            end = Math.max(end, next.getValue());
+            runs.remove(next.getKey());
+        }
+        runs.put(start, end);
+    }
+
+    public synchronized boolean isCommitted(Row row) {
+        TreeMap<Long, Long> runs = committed.get(getKey(row.getChunk(), row.getOffset()));
+        if (runs == null) {
+            return false;
+        }
+        Map.Entry<Long, Long> floor = runs.floorEntry(row.getNumber());
+        return floor != null && floor.getValue() > row.getNumber();
+    }
+
+    /**
+     * Checks if all rows of the chunk are committed, either as a whole or as ranges. Each committed range is a single
+     * run of rows starting at the range offset, the runs of all ranges should add up to the chunk row count.
+     */
+    public synchronized boolean isCommitted(Chunk chunk) {
+        Set<String> keys = chunkKeys.get(chunk.getName());
+        if (keys == null) {
+            return false;
+        }
+        long rowCount = 0;
+        for (String key : keys) {
+            TreeMap<Long, Long> runs = committed.get(key);
+            if (runs.size() != 1 || runs.firstKey() != 0) {
+                return false;
+            }
+            rowCount += runs.firstEntry().getValue();
+        }
+        return rowCount >= chunk.getRowCount();
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    protected static String getKey(Chunk chunk, long offset) {
+        return offset == 0 ? chunk.getName() : chunk.getName() + RANGE_SEPARATOR + offset;
+    }
+
+    protected static String getChunkName(String key) {
+        int index = key.lastIndexOf(RANGE_SEPARATOR);
+        return index > 0 && index < key.length() - 1 && isDigits(key.substring(index + 1)) ?
+                key.substring(0, index) : key;
+    }
+
+    /**
+     * Runs of the consecutive rows executed by a loading thread since its last commit
+     */
+    public static class Batch {
+
+        private final List<Run> runs = newArrayList();
+        private Run run;
+
+        public void add(Row row) {
+            long number = row.getNumber();
+            if (run != null && run.end == number && run.chunk == row.getChunk() && run.offset == row.getOffset()) {
+                run.end++;
+            } else {
+                runs.add(run = new Run(row.getChunk(), row.getOffset(), number));
+            }
+        }
+
+        public void clear() {
+            runs.clear();
+            run = null;
+        }
+    }
+
+    static class Run {
+
+        private final Chunk chunk;
+        private final long offset;
+        private final long start;
+        private long end;
+
+        Run(Chunk chunk, long offset, long start) {
+            this.chunk = chunk;
+            this.offset = offset;
+            this.start = start;
+            this.end = start + 1;
+        }
+    }
+}
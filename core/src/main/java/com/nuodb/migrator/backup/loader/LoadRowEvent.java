@@ -50,6 +50,11 @@ public class LoadRowEvent extends WorkEvent {
         return loadTable;
     }
 
+    /**
+     * Returns loaded row, which is reused by the loader for the next row, so it's valid only during the event
+     *
+     * @return loaded row
+     */
     public Row getRow() {
         return row;
     }
@@ -28,7 +28,10 @@
 package com.nuodb.migrator.backup.loader;
 
 import com.google.common.base.Function;
+import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.format.lob.LobInput;
+import com.nuodb.migrator.backup.format.lob.LobValueSetter;
 import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.backup.format.value.RowReader;
 import com.nuodb.migrator.backup.format.value.Value;
@@ -37,16 +40,22 @@ import com.nuodb.migrator.backup.format.value.ValueHandleList;
 import com.nuodb.migrator.backup.format.value.ValueHandleListBuilder;
 import com.nuodb.migrator.jdbc.commit.BatchCommitStrategy;
 import com.nuodb.migrator.jdbc.commit.CommitExecutor;
+import com.nuodb.migrator.jdbc.commit.CommitListener;
 import com.nuodb.migrator.jdbc.commit.CommitStrategy;
 import com.nuodb.migrator.jdbc.model.Field;
 import com.nuodb.migrator.jdbc.session.WorkForkJoinTaskBase;
+import com.nuodb.migrator.utils.metrics.Metric;
+import com.nuodb.migrator.utils.metrics.Metrics;
 import org.slf4j.Logger;
 
+import java.io.IOException;
 import java.sql.PreparedStatement;
+import java.util.Iterator;
 
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.BackupMessages.LOAD_TABLE_FORK_WORK;
+import static com.nuodb.migrator.backup.format.value.RowReaders.newReadAheadRowReader;
 import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
@@ -64,12 +73,21 @@ public class LoadTableForkWork extends WorkForkJoinTaskBase {
 
     private LoadTable loadTable;
     private RowReader rowReader;
+    private RowReader readAheadRowReader;
     private int thread;
     private BackupLoaderManager backupLoaderManager;
     private BackupLoaderContext backupLoaderContext;
     private PreparedStatement statement;
     private CommitExecutor commitExecutor;
     private ValueHandleList valueHandleList;
+    private LobInput lobInput;
+    private LoadJournal loadJournal;
+    private LoadJournal.Batch loadJournalBatch;
+    private Metrics metrics;
+    private Metric tableMetric;
+    private Metric threadMetric;
+    private Metric chunkMetric;
+    private Chunk chunk;
 
     public LoadTableForkWork(LoadTable loadTable, RowReader rowReader, int thread,
                              BackupLoaderManager backupLoaderManager) {
@@ -92,26 +110,104 @@ public class LoadTableForkWork extends WorkForkJoinTaskBase {
         CommitStrategy commitStrategy = backupLoaderContext.getCommitStrategy() != null ?
                 backupLoaderContext.getCommitStrategy() : new BatchCommitStrategy();
         commitExecutor = commitStrategy.createCommitExecutor(statement, loadTable.getQuery());
+        loadJournal = backupLoaderContext.getLoadJournal();
+        if (loadJournal != null) {
+            loadJournalBatch = new LoadJournal.Batch();
+        }
+        metrics = backupLoaderContext.getMetrics();
+        if (metrics != null) {
+            tableMetric = metrics.getTable(loadTable.getRowSet().getName());
+        }
+        if (loadJournal != null || metrics != null) {
+            commitExecutor.setCommitListener(new CommitListener() {
+                @Override
+                public void onCommit(CommitExecutor commitExecutor, long nanos) {
+                    if (metrics != null) {
+                        addBatch(nanos);
+                    }
+                    if (loadJournal != null) {
+                        try {
+                            loadJournal.commit(loadJournalBatch);
+                        } catch (IOException exception) {
+                            throw new BackupLoaderException("Error writing load journal", exception);
+                        }
+                    }
+                }
+            });
+        }
+        if (backupLoaderContext.getReadAhead() > 0) {
+            // next rows are decoded while the current batch is executed on the target
+            readAheadRowReader = newReadAheadRowReader(rowReader, backupLoaderContext.getReadAhead());
+        }
     }
 
     @Override
     public void execute() throws Exception {
-        Row row;
-        while ((row = rowReader.readRow()) != null && backupLoaderManager.canExecute(this)) {
+        RowReader rowReader = readAheadRowReader != null ? readAheadRowReader : this.rowReader;
+        Row row = new Row();
+        boolean resume = loadJournal != null && loadJournal.isResume();
+        if (metrics != null) {
+            threadMetric = metrics.getThread();
+        }
+        while ((row = rowReader.readRow(row)) != null && backupLoaderManager.canExecute(this)) {
+            if (resume && loadJournal.isCommitted(row)) {
+                continue;
+            }
             backupLoaderManager.beforeLoadRow(this, loadTable, row);
             int index = 0;
             Value[] values = row.getValues();
             initValueHandleList();
+            if (lobInput != null) {
+                lobInput.setChunk(row.getChunk());
+            }
             for (ValueHandle valueHandle : valueHandleList) {
-                valueHandle.getValueFormat().setValue(values[index++],
-                        valueHandle.getJdbcValueAccess(), valueHandle.getJdbcValueAccessOptions());
+                valueHandle.getValueBinder().setValue(values[index++]);
+            }
+            if (loadJournalBatch != null) {
+                // added before execution, as the executor may commit the row right away
+                loadJournalBatch.add(row);
             }
             commitExecutor.execute();
+            if (metrics != null) {
+                addRow(row);
+            }
             backupLoaderManager.afterLoadRow(this, loadTable, row);
         }
         commitExecutor.finish();
     }
 
+    /**
+     * Counts loaded row in table, thread & chunk metrics. Chunk bytes are counted once, when the first row of a chunk
+     * or of its first range is loaded.
+     */
+    protected void addRow(Row row) {
+        if (row.getChunk() != chunk) {
+            chunk = row.getChunk();
+            chunkMetric = chunk != null ? metrics.getChunk(chunk.getName()) : null;
+        }
+        tableMetric.addRows(1);
+        threadMetric.addRows(1);
+        if (chunkMetric != null) {
+            chunkMetric.addRows(1);
+            if (row.getNumber() == 0 && row.getOffset() == 0) {
+                Long size = chunk.getSize(backupLoaderContext.getBackupOps());
+                if (size != null) {
+                    tableMetric.addBytes(size);
+                    threadMetric.addBytes(size);
+                    chunkMetric.addBytes(size);
+                }
+            }
+        }
+    }
+
+    protected void addBatch(long nanos) {
+        tableMetric.addBatch(nanos);
+        threadMetric.addBatch(nanos);
+        if (chunkMetric != null) {
+            chunkMetric.addBatch(nanos);
+        }
+    }
+
     protected void initValueHandleList() {
         if (valueHandleList == null) {
             ValueHandleListBuilder builder = newBuilder(getSession().getConnection(), statement);
@@ -126,13 +222,35 @@ public class LoadTableForkWork extends WorkForkJoinTaskBase {
             builder.withTimeZone(backupLoaderContext.getTimeZone());
             builder.withValueFormatRegistry(backupLoaderContext.getValueFormatRegistry());
             valueHandleList = builder.build();
+            initLobValueBinders();
+        }
+    }
+
+    /**
+     * Large objects streamed to LOB files on dump are bound as streams over the LOB file of the chunk of a row
+     */
+    protected void initLobValueBinders() {
+        Iterator<Column> columns = loadTable.getRowSet().getColumns().iterator();
+        for (ValueHandle valueHandle : valueHandleList) {
+            if (columns.next().isLob()) {
+                if (lobInput == null) {
+                    lobInput = new LobInput(backupLoaderContext.getBackupOps());
+                }
+                valueHandle.setValueBinder(new LobValueSetter(valueHandle, statement, lobInput));
+            }
         }
     }
 
     @Override
     public void close() throws Exception {
         super.close();
+        if (readAheadRowReader != null) {
+            readAheadRowReader.close();
+        }
         closeQuietly(statement);
+        if (lobInput != null) {
+            lobInput.close();
+        }
     }
 
     public int getThread() {
@@ -35,8 +35,6 @@ import java.util.Collection;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.BackupMessages.LOAD_TABLE_WORK;
-import static com.nuodb.migrator.backup.format.value.RowReaders.newSequentialRowReader;
-import static com.nuodb.migrator.backup.format.value.RowReaders.newSynchronizedRowReader;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -53,7 +51,7 @@ public class LoadTableWork extends WorkForkJoinTaskBase {
 
     private LoadTable loadTable;
     private BackupLoaderManager backupLoaderManager;
-    private RowReader rowReader;
+    private Collection<RowReader> rowReaders;
 
     public LoadTableWork(LoadTable loadTable, BackupLoaderManager backupLoaderManager) {
         super(backupLoaderManager, backupLoaderManager.getBackupLoaderContext().getTargetSession());
@@ -69,22 +67,16 @@ public class LoadTableWork extends WorkForkJoinTaskBase {
     @Override
     protected void init() throws Exception {
         BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
-        RowReader rowReader = newSequentialRowReader(
-                loadTable.getRowSet(), backupLoaderContext.getBackupOps(),
-                backupLoaderContext.getFormatFactory(), backupLoaderContext.getFormatAttributes());
-        int threads = loadTable.getThreads();
-        if (threads > 1) {
-            rowReader = newSynchronizedRowReader(rowReader);
-        }
-        this.rowReader = rowReader;
+        rowReaders = backupLoaderContext.getParallelizer().createRowReaders(loadTable, backupLoaderContext);
     }
 
     @Override
     public void execute() throws Exception {
         Collection<LoadTableForkWork> loadTableForkWorks = newArrayList();
-        for (int thread = 0; thread < loadTable.getThreads(); thread++) {
+        int thread = 0;
+        for (RowReader rowReader : rowReaders) {
             LoadTableForkWork loadTableForkWork = new LoadTableForkWork(
-                    loadTable, rowReader, thread, backupLoaderManager);
+                    loadTable, rowReader, thread++, backupLoaderManager);
             loadTableForkWork.fork();
             loadTableForkWorks.add(loadTableForkWork);
         }
@@ -96,7 +88,11 @@ public class LoadTableWork extends WorkForkJoinTaskBase {
     @Override
     public void close() throws Exception {
         super.close();
-        closeQuietly(rowReader);
+        if (rowReaders != null) {
+            for (RowReader rowReader : rowReaders) {
+                closeQuietly(rowReader);
+            }
+        }
     }
 
     public LoadTable getLoadTable() {
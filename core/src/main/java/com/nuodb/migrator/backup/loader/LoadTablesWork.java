@@ -28,9 +28,11 @@
 package com.nuodb.migrator.backup.loader;
 
 import com.nuodb.migrator.jdbc.session.WorkRunnableBase;
-import com.nuodb.migrator.utils.concurrent.ForkJoinTask;
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
 
 import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.BackupMessages.LOAD_TABLES_WORK;
@@ -41,11 +43,35 @@ import static com.nuodb.migrator.context.ContextUtils.getMessage;
  */
 public class LoadTablesWork extends WorkRunnableBase {
 
+    private static final LoadTable END = new LoadTable(null, null, null);
+
     private BackupLoaderManager backupLoaderManager;
+    private BlockingQueue<LoadTable> loadTables;
 
     public LoadTablesWork(BackupLoaderManager backupLoaderManager) {
+        this(backupLoaderManager, false);
+    }
+
+    /**
+     * @param backupLoaderManager manager of this load
+     * @param streaming           if true load tables are added one by one while the work is executed, otherwise load
+     *                            tables of the backup loader context are loaded
+     */
+    public LoadTablesWork(BackupLoaderManager backupLoaderManager, boolean streaming) {
         super(backupLoaderManager, backupLoaderManager.getBackupLoaderContext().getTargetSession());
         this.backupLoaderManager = backupLoaderManager;
+        this.loadTables = streaming ? new LinkedBlockingQueue<LoadTable>() : null;
+    }
+
+    public void addLoadTable(LoadTable loadTable) {
+        loadTables.add(loadTable);
+    }
+
+    /**
+     * Signals that all load tables are added
+     */
+    public void addLoadTablesDone() {
+        loadTables.add(END);
     }
 
     @Override
@@ -55,16 +81,48 @@ public class LoadTablesWork extends WorkRunnableBase {
 
     @Override
     public void execute() throws Exception {
-        LoadTables loadTables = backupLoaderManager.getBackupLoaderContext().getLoadTables();
         Collection<LoadTableWork> loadTableWorks = newArrayList();
-        for (LoadTable loadTable : loadTables) {
-            LoadTableWork loadTableWork = new LoadTableWork(loadTable, backupLoaderManager);
-            loadTableWork.fork();
-            loadTableWorks.add(loadTableWork);
+        if (loadTables == null) {
+            for (LoadTable loadTable : backupLoaderManager.getBackupLoaderContext().getLoadTables()) {
+                loadTableWorks.add(fork(loadTable));
+            }
+        } else {
+            LoadTable loadTable;
+            while ((loadTable = takeLoadTable()) != END) {
+                loadTableWorks.add(fork(loadTable));
+            }
         }
         for (LoadTableWork loadTableWork : loadTableWorks) {
             loadTableWork.join();
         }
         backupLoaderManager.loadDataDone();
     }
+
+    protected LoadTableWork fork(LoadTable loadTable) {
+        LoadTableWork loadTableWork = new LoadTableWork(loadTable, backupLoaderManager);
+        loadTableWork.fork();
+        return loadTableWork;
+    }
+
+    /**
+     * Waits for the next added load table, letting the pool compensate the blocked worker thread
+     */
+    protected LoadTable takeLoadTable() throws InterruptedException {
+        final LoadTable[] loadTable = new LoadTable[1];
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() throws InterruptedException {
+                if (loadTable[0] == null) {
+                    loadTable[0] = loadTables.take();
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return loadTable[0] != null || (loadTable[0] = loadTables.poll()) != null;
+            }
+        });
+        return loadTable[0];
+    }
 }
@@ -27,6 +27,9 @@
  */
 package com.nuodb.migrator.backup.loader;
 
+import com.nuodb.migrator.backup.format.value.RowReader;
+
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -51,4 +54,14 @@ public interface Parallelizer {
      * @return number of threads
      */
     int getThreads(LoadTable loadTable, BackupLoaderContext backupLoaderContext);
+
+    /**
+     * Creates row readers for the worker threads of this table, one reader per worker thread, the same reader instance
+     * may be returned for several threads if it's safe for concurrent use
+     *
+     * @param loadTable           table to load
+     * @param backupLoaderContext backup loader context
+     * @return row readers for each of the worker threads
+     */
+    Collection<RowReader> createRowReaders(LoadTable loadTable, BackupLoaderContext backupLoaderContext);
 }
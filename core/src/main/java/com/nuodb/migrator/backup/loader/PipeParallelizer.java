@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.pipe.PipeRowReader;
+import com.nuodb.migrator.backup.format.pipe.RowPipe;
+import com.nuodb.migrator.backup.format.pipe.RowPipes;
+import com.nuodb.migrator.backup.format.value.RowReader;
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static com.google.common.collect.Iterables.getFirst;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.pipe.PipeFormat.ATTRIBUTE_ROW_PIPES;
+import static java.lang.Integer.parseInt;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Forks loading of a piped table into several worker threads, each reading whole batches of rows from the table pipe on
+ * its own. The pool threads are evenly shared by the loaded tables and capped with max.threads.per.table attribute.
+ * Notice forking with more than 1 thread per table reorders the rows in the target table.
+ *
+ * @author Sergey Bushik
+ */
+public class PipeParallelizer implements Parallelizer {
+
+    public static final String ATTRIBUTE_MAX_THREADS_PER_TABLE = "max.threads.per.table";
+    public static final int MAX_THREADS_PER_TABLE = 0;
+
+    private int maxThreadsPerTable = MAX_THREADS_PER_TABLE;
+
+    @Override
+    public void setAttributes(Map<String, Object> attributes) {
+        Object maxThreadsPerTableValue = attributes.get(ATTRIBUTE_MAX_THREADS_PER_TABLE);
+        if (maxThreadsPerTableValue instanceof String && !isEmpty((String) maxThreadsPerTableValue)) {
+            setMaxThreadsPerTable(parseInt((String) maxThreadsPerTableValue));
+        }
+    }
+
+    @Override
+    public int getThreads(LoadTable loadTable, BackupLoaderContext backupLoaderContext) {
+        int threads = getThreads(backupLoaderContext);
+        int loadTables = max(backupLoaderContext.getLoadTables().getLoadTables().size(), 1);
+        int threadsPerTable = max(threads / loadTables, 1);
+        int maxThreadsPerTable = getMaxThreadsPerTable();
+        return maxThreadsPerTable != 0 ? min(threadsPerTable, maxThreadsPerTable) : threadsPerTable;
+    }
+
+    @Override
+    public Collection<RowReader> createRowReaders(LoadTable loadTable, BackupLoaderContext backupLoaderContext) {
+        RowPipes rowPipes = (RowPipes) backupLoaderContext.getFormatAttributes().get(ATTRIBUTE_ROW_PIPES);
+        RowSet rowSet = loadTable.getRowSet();
+        RowPipe rowPipe = rowPipes.getRowPipe(rowSet.getName());
+        Chunk chunk = getFirst(rowSet.getChunks(), null);
+        Collection<RowReader> rowReaders = newArrayList();
+        for (int thread = 0, threads = max(loadTable.getThreads(), 1); thread < threads; thread++) {
+            rowReaders.add(new PipeRowReader(rowPipe, chunk));
+        }
+        return rowReaders;
+    }
+
+    protected int getThreads(BackupLoaderContext backupLoaderContext) {
+        ForkJoinPool forkJoinPool = (ForkJoinPool) backupLoaderContext.getExecutorService();
+        return forkJoinPool.getParallelism();
+    }
+
+    public int getMaxThreadsPerTable() {
+        return maxThreadsPerTable;
+    }
+
+    public void setMaxThreadsPerTable(int maxThreadsPerTable) {
+        this.maxThreadsPerTable = maxThreadsPerTable;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PipeParallelizer that = (PipeParallelizer) o;
+
+        if (maxThreadsPerTable != that.maxThreadsPerTable) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return maxThreadsPerTable;
+    }
+}
@@ -29,13 +29,18 @@ package com.nuodb.migrator.backup.loader;
 
 import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.RowReader;
 import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.value.RowReaders.newSequentialRowReader;
+import static com.nuodb.migrator.backup.format.value.RowReaders.newSynchronizedRowReader;
 import static java.lang.Long.parseLong;
 import static java.lang.Math.*;
+import static java.util.Collections.nCopies;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 /**
@@ -82,6 +87,20 @@ public class RowLevelParallelizer implements Parallelizer {
                 minThreadsPerRowSet), maxThreadsPerRowSet);
     }
 
+    /**
+     * Creates a single row reader synchronized on row level, which is shared by all worker threads
+     */
+    @Override
+    public Collection<RowReader> createRowReaders(LoadTable loadTable, BackupLoaderContext backupLoaderContext) {
+        RowReader rowReader = newSequentialRowReader(loadTable.getRowSet(), backupLoaderContext.getBackupOps(),
+                backupLoaderContext.getFormatFactory(), backupLoaderContext.getFormatAttributes());
+        int threads = loadTable.getThreads();
+        if (threads > 1) {
+            rowReader = newSynchronizedRowReader(rowReader);
+        }
+        return nCopies(max(threads, 1), rowReader);
+    }
+
     protected int getThreads(BackupLoaderContext backupLoaderContext) {
         ForkJoinPool forkJoinPool = (ForkJoinPool) backupLoaderContext.getExecutorService();
         return forkJoinPool.getParallelism();
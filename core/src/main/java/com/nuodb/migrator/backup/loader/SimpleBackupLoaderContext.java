@@ -40,6 +40,7 @@ import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.spec.ConnectionSpec;
 import com.nuodb.migrator.spec.MigrationMode;
+import com.nuodb.migrator.utils.metrics.Metrics;
 import org.slf4j.Logger;
 
 import java.util.Collection;
@@ -69,8 +70,13 @@ public class SimpleBackupLoaderContext implements BackupLoaderContext {
     private Map<String,Object> formatAttributes;
     private InsertTypeFactory insertTypeFactory;
     private LoadConstraints loadConstraints;
+    private BackupCatalogReader backupCatalogReader;
+    private LoadJournal loadJournal;
+    private Metrics metrics;
+    private boolean rowEvents;
     private LoadTables loadTables;
     private Parallelizer parallelizer;
+    private int readAhead;
     private Collection<MigrationMode> migrationModes;
     private RowSetMapper rowSetMapper;
     private ConnectionSpec sourceSpec;
@@ -185,6 +191,56 @@ public class SimpleBackupLoaderContext implements BackupLoaderContext {
         this.parallelizer = parallelizer;
     }
 
+    @Override
+    public int getReadAhead() {
+        return readAhead;
+    }
+
+    @Override
+    public void setReadAhead(int readAhead) {
+        this.readAhead = readAhead;
+    }
+
+    @Override
+    public BackupCatalogReader getBackupCatalogReader() {
+        return backupCatalogReader;
+    }
+
+    @Override
+    public void setBackupCatalogReader(BackupCatalogReader backupCatalogReader) {
+        this.backupCatalogReader = backupCatalogReader;
+    }
+
+    @Override
+    public LoadJournal getLoadJournal() {
+        return loadJournal;
+    }
+
+    @Override
+    public void setLoadJournal(LoadJournal loadJournal) {
+        this.loadJournal = loadJournal;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean isRowEvents() {
+        return rowEvents;
+    }
+
+    @Override
+    public void setRowEvents(boolean rowEvents) {
+        this.rowEvents = rowEvents;
+    }
+
     @Override
     public InsertTypeFactory getInsertTypeFactory() {
         return insertTypeFactory;
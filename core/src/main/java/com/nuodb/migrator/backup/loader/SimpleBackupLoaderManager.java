@@ -31,6 +31,7 @@ import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.jdbc.session.SimpleWorkManager;
 import com.nuodb.migrator.jdbc.session.Work;
+import org.apache.commons.io.IOUtils;
 
 import java.util.concurrent.ExecutorService;
 
@@ -86,7 +87,9 @@ public class SimpleBackupLoaderManager extends SimpleWorkManager<BackupLoaderLis
                 onEndChunk(new LoadChunkEvent(work, loadTable, row.getChunk()));
             }
         }
-        onLoadRow(new LoadRowEvent(work, loadTable, row));
+        if (backupLoaderContext.isRowEvents() && hasListeners()) {
+            onLoadRow(new LoadRowEvent(work, loadTable, row));
+        }
     }
 
     protected void onEndChunk(LoadChunkEvent loadChunkEvent) {
@@ -171,6 +174,8 @@ public class SimpleBackupLoaderManager extends SimpleWorkManager<BackupLoaderLis
             closeQuietly(backupLoaderContext.getSourceSession());
             closeQuietly(backupLoaderContext.getTargetSession());
             closeQuietly(backupLoaderContext.getScriptExporter());
+            IOUtils.closeQuietly(backupLoaderContext.getLoadJournal());
+            IOUtils.closeQuietly(backupLoaderContext.getBackupCatalogReader());
         }
         super.close();
     }
@@ -27,10 +27,15 @@
  */
 package com.nuodb.migrator.backup.loader;
 
+import com.nuodb.migrator.backup.format.value.RowReader;
 import com.nuodb.migrator.utils.ObjectUtils;
 
+import java.util.Collection;
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.value.RowReaders.newSequentialRowReader;
+import static java.util.Collections.singleton;
+
 /**
  * Forking on table level, which means that one thread per table is used
  *
@@ -50,6 +55,12 @@ public class TableLevelParallelizer implements Parallelizer {
         return 1;
     }
 
+    @Override
+    public Collection<RowReader> createRowReaders(LoadTable loadTable, BackupLoaderContext backupLoaderContext) {
+        return singleton(newSequentialRowReader(loadTable.getRowSet(), backupLoaderContext.getBackupOps(),
+                backupLoaderContext.getFormatFactory(), backupLoaderContext.getFormatAttributes()));
+    }
+
     @Override
     public String toString() {
         return ObjectUtils.toString(this);
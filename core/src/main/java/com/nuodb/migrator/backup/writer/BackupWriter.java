@@ -53,12 +53,14 @@ import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.jdbc.session.Work;
 import com.nuodb.migrator.jdbc.split.QuerySplitter;
+import com.nuodb.migrator.jdbc.split.RowCountStrategy;
 import com.nuodb.migrator.spec.ConnectionSpec;
 import com.nuodb.migrator.spec.MetaDataSpec;
 import com.nuodb.migrator.spec.MigrationMode;
 import com.nuodb.migrator.spec.QuerySpec;
 import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
 import com.nuodb.migrator.utils.concurrent.ForkJoinTask;
+import com.nuodb.migrator.utils.metrics.Metrics;
 import org.slf4j.Logger;
 
 import java.util.Collection;
@@ -73,7 +75,6 @@ import static com.nuodb.migrator.backup.XmlMetaDataHandlerBase.INSPECTION_SCOPE;
 import static com.nuodb.migrator.backup.XmlMetaDataHandlerBase.META_DATA_SPEC;
 import static com.nuodb.migrator.context.ContextUtils.createService;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
-import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
 import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.DATABASE;
 import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
@@ -95,10 +96,12 @@ public class BackupWriter {
     public static final String FORMAT = CsvFormat.TYPE;
     public static final int THREADS = getRuntime().availableProcessors();
     public static final Collection<MigrationMode> MIGRATION_MODES = newHashSet(MigrationMode.values());
+    public static final String METRICS = "dump";
 
     protected final transient Logger logger = getLogger(getClass());
 
     private Collection<BackupWriterListener> listeners = newArrayList();
+    private boolean catalogStreaming;
     private Database database;
     private ExecutorService executorService;
     private InspectionManager inspectionManager;
@@ -106,6 +109,8 @@ public class BackupWriter {
     private Map<String, Object> formatAttributes = newHashMap();
     private FormatFactory formatFactory;
     private MetaDataSpec metaDataSpec;
+    private Metrics metrics;
+    private boolean rowEvents;
     private Collection<MigrationMode> migrationModes = MIGRATION_MODES;
     private QueryLimit queryLimit;
     private Collection<QuerySpec> querySpecs;
@@ -212,7 +217,7 @@ public class BackupWriter {
         return write(createBackupOps(path), context);
     }
 
-    protected Backup write(BackupOps backupOps, Map context) throws Exception {
+    public Backup write(BackupOps backupOps, Map context) throws Exception {
         return write(createBackupWriterManager((BackupOps) backupOps, (Map) context));
     }
 
@@ -227,6 +232,8 @@ public class BackupWriter {
         backupWriterContext.setBackup(createBackup());
         backupWriterContext.setBackupOps(backupOps);
         backupWriterContext.setBackupOpsContext(context);
+        // checkpoints are written with the same context as the final catalog
+        backupWriterContext.setBackupOpsContext(createBackupOpsContext(backupWriterContext));
 
         ExecutorService executorService = getExecutorService();
         backupWriterContext.setExecutorService(executorService == null ? createExecutorService() : executorService);
@@ -234,6 +241,8 @@ public class BackupWriter {
         backupWriterContext.setFormatAttributes(getFormatAttributes());
         backupWriterContext.setFormatFactory(getFormatFactory());
         backupWriterContext.setMigrationModes(getMigrationModes());
+        backupWriterContext.setMetrics(getMetrics() != null ? getMetrics() : new Metrics(METRICS));
+        backupWriterContext.setRowEvents(isRowEvents());
         backupWriterContext.setThreads(getThreads());
         backupWriterContext.setTimeZone(getTimeZone());
         openSourceSession(backupWriterContext);
@@ -296,12 +305,16 @@ public class BackupWriter {
 
     protected Database openDatabase(BackupWriterContext backupWriterContext) throws Exception {
         Session session = backupWriterContext.getSourceSession();
-        return getInspectionManager().inspect(session.getConnection(), getInspectionScope(),
+        return getInspectionManager().inspect(session.getConnection(),
+                backupWriterContext.getSourceSessionFactory(), getInspectionThreads(), getInspectionScope(),
                 getObjectTypes().toArray(new MetaDataType[0])).getObject(DATABASE);
     }
 
     protected Backup write(BackupWriterManager backupWriterManager) throws Exception {
         try {
+            if (isCatalogStreaming()) {
+                openBackupAppender(backupWriterManager);
+            }
             if (backupWriterManager.isWriteData()) {
                 writeData(backupWriterManager);
             }
@@ -331,14 +344,36 @@ public class BackupWriter {
         backupWriterManager.writeSchemaDone();
     }
 
+    /**
+     * Writes backup attributes & database to the catalog up front, row sets are appended as their queries complete
+     * and the catalog is finished when the backup writer manager is closed
+     *
+     * @param backupWriterManager to manage this dump
+     */
+    protected void openBackupAppender(BackupWriterManager backupWriterManager) {
+        BackupWriterContext backupWriterContext = backupWriterManager.getBackupWriterContext();
+        Backup backup = backupWriterContext.getBackup();
+        if (backupWriterManager.isWriteSchema()) {
+            backup.setDatabase(backupWriterContext.getDatabase());
+        }
+        backupWriterContext.setBackupAppender(backupWriterContext.getBackupOps().openAppender(
+                backup, createBackupOpsContext(backupWriterContext)));
+    }
+
     protected Backup writeBackup(BackupWriterManager backupWriterManager) throws Exception {
         BackupWriterContext backupWriterContext = backupWriterManager.getBackupWriterContext();
         Backup backup = backupWriterContext.getBackup();
+        if (backupWriterContext.getBackupAppender() == null) {
+            backupWriterContext.getBackupOps().write(backup, createBackupOpsContext(backupWriterContext));
+        }
+        return backup;
+    }
+
+    protected Map createBackupOpsContext(BackupWriterContext backupWriterContext) {
         Map backupOpsContext = newHashMap(backupWriterContext.getBackupOpsContext());
         backupOpsContext.put(META_DATA_SPEC, getMetaDataSpec());
         backupOpsContext.put(INSPECTION_SCOPE, getInspectionScope());
-        backupWriterContext.getBackupOps().write(backup, backupOpsContext);
-        return backup;
+        return backupOpsContext;
     }
 
     protected void executeWork(final Work work, final BackupWriterManager backupWriterManager) {
@@ -364,7 +399,7 @@ public class BackupWriter {
         Database database = backupWriterContext.getDatabase();
         MetaDataFilter tableFilter = getMetaDataFilter(MetaDataType.TABLE);
         for (Table table : database.getTables()) {
-            if (tableFilter == null || tableFilter.supports(table)) {
+            if (tableFilter == null || tableFilter.accepts(table)) {
                 WriteQuery writeQuery = createWriteQuery(table, table.getColumns(), null, getQueryLimit());
                 writeQueries.add(writeQuery);
             }
@@ -398,15 +433,37 @@ public class BackupWriter {
         QuerySplitter querySplitter;
         Query query = newQuery(table, columns, filter);
         Dialect dialect = table.getDatabase().getDialect();
-        if (queryLimit != null && supportsLimitSplitter(dialect, table, filter)) {
-            querySplitter = newLimitSplitter(dialect, newCachingStrategy(newHandlerStrategy(
-                    dialect.createRowCountHandler(table, null, filter, EXACT))), query, queryLimit);
+        if (queryLimit != null && supportsRangeSplitter(dialect, table, filter)) {
+            querySplitter = newRangeSplitter(dialect, createRowCountStrategy(dialect, table, filter),
+                    table, columns, filter, query, queryLimit);
+        } else if (queryLimit != null && supportsRowIdSplitter(dialect, table, filter)) {
+            RowCountStrategy rowCountStrategy = createRowCountStrategy(dialect, table, filter);
+            querySplitter = newRowIdSplitter(dialect, rowCountStrategy,
+                    createFallbackSplitter(dialect, rowCountStrategy, table, filter, query, queryLimit),
+                    table, columns, filter, query, queryLimit);
+        } else if (queryLimit != null && supportsLimitSplitter(dialect, table, filter)) {
+            querySplitter = newLimitSplitter(dialect, createRowCountStrategy(dialect, table, filter),
+                    query, queryLimit);
         } else {
             querySplitter = newNoLimitSplitter(query);
         }
         return querySplitter;
     }
 
+    /**
+     * Creates splitter used for row locator ranges tables if storage layout turns out to be inaccessible
+     */
+    protected QuerySplitter createFallbackSplitter(Dialect dialect, RowCountStrategy rowCountStrategy, Table table,
+                                                String filter, Query query, QueryLimit queryLimit) {
+        return supportsLimitSplitter(dialect, table, filter) ?
+                newLimitSplitter(dialect, rowCountStrategy, query, queryLimit) : newNoLimitSplitter(query);
+    }
+
+    protected RowCountStrategy createRowCountStrategy(Dialect dialect, Table table, String filter) {
+        return newCachingStrategy(newHandlerStrategy(dialect.createRowCountHandler(table, null, filter,
+                getRowCountType(dialect, table, filter))));
+    }
+
     protected Collection<MetaDataType> getObjectTypes() {
         final MetaDataSpec metaDataSpec = getMetaDataSpec();
         return metaDataSpec != null ? metaDataSpec.getObjectTypes() : null;
@@ -417,6 +474,12 @@ public class BackupWriter {
         return metaDataSpec != null ? metaDataSpec.getTableTypes() : null;
     }
 
+    protected int getInspectionThreads() {
+        final MetaDataSpec metaDataSpec = getMetaDataSpec();
+        Integer inspectionThreads = metaDataSpec != null ? metaDataSpec.getInspectionThreads() : null;
+        return inspectionThreads != null ? inspectionThreads : 1;
+    }
+
     protected MetaDataFilter getMetaDataFilter(MetaDataType objectType) {
         final MetaDataSpec metaDataSpec = getMetaDataSpec();
         return metaDataSpec != null ? metaDataSpec.getMetaDataFilter(objectType) : null;
@@ -534,6 +597,46 @@ public class BackupWriter {
         this.timeZone = timeZone;
     }
 
+    public boolean isCatalogStreaming() {
+        return catalogStreaming;
+    }
+
+    /**
+     * Appends row sets to the catalog as their queries complete instead of rewriting the whole catalog on every
+     * completed chunk
+     *
+     * @param catalogStreaming true to append row sets incrementally
+     */
+    public void setCatalogStreaming(boolean catalogStreaming) {
+        this.catalogStreaming = catalogStreaming;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets registry of rows & bytes dumped per table, thread & chunk, a private registry is created if none
+     *
+     * @param metrics metrics registry updated by write works
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public boolean isRowEvents() {
+        return rowEvents;
+    }
+
+    /**
+     * Enables {@link BackupWriterListener#onWriteRow} event for each dumped row, which is off by default as it costs an event per row
+     *
+     * @param rowEvents true to notify listeners on each row
+     */
+    public void setRowEvents(boolean rowEvents) {
+        this.rowEvents = rowEvents;
+    }
+
     public Integer getThreads() {
         return threads;
     }
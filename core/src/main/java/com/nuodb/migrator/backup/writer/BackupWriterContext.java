@@ -28,6 +28,7 @@
 package com.nuodb.migrator.backup.writer;
 
 import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupAppender;
 import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
@@ -35,6 +36,7 @@ import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.spec.MigrationMode;
+import com.nuodb.migrator.utils.metrics.Metrics;
 
 import java.util.Collection;
 import java.util.Map;
@@ -60,6 +62,10 @@ public interface BackupWriterContext {
 
     Map getBackupOpsContext();
 
+    BackupAppender getBackupAppender();
+
+    void setBackupAppender(BackupAppender backupAppender);
+
     void setBackupOpsContext(Map backupOpsContext);
 
     Database getDatabase();
@@ -109,4 +115,12 @@ public interface BackupWriterContext {
     Collection<WriteQuery> getWriteQueries();
 
     void setWriteQueries(Collection<WriteQuery> exportQueries);
+
+    Metrics getMetrics();
+
+    void setMetrics(Metrics metrics);
+
+    boolean isRowEvents();
+
+    void setRowEvents(boolean rowEvents);
 }
\ No newline at end of file
@@ -42,7 +42,7 @@ public interface BackupWriterListener extends WorkListener {
     void onWriteStart(WriteChunkEvent event);
 
     /**
-     * Triggered for each exported row
+     * Triggered for each exported row if row events are enabled with {@link BackupWriter#setRowEvents(boolean)}
      *
      * @param event containing details about row set and chunk written
      */
@@ -28,6 +28,7 @@
 package com.nuodb.migrator.backup.writer;
 
 import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupAppender;
 import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
@@ -35,6 +36,7 @@ import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.spec.MigrationMode;
+import com.nuodb.migrator.utils.metrics.Metrics;
 import org.slf4j.Logger;
 
 import java.util.Collection;
@@ -57,6 +59,7 @@ public class SimpleBackupWriterContext implements BackupWriterContext {
     private Backup backup;
     private BackupOps backupOps;
     private Map backupOpsContext;
+    private BackupAppender backupAppender;
     private Database database;
     private ExecutorService executorService;
     private String format;
@@ -69,6 +72,8 @@ public class SimpleBackupWriterContext implements BackupWriterContext {
     private int threads;
     private ValueFormatRegistry valueFormatRegistry;
     private Collection<WriteQuery> writeQueries;
+    private Metrics metrics;
+    private boolean rowEvents;
 
     @Override
     public boolean isWriteData() {
@@ -110,6 +115,16 @@ public class SimpleBackupWriterContext implements BackupWriterContext {
         this.backupOpsContext = backupOpsContext;
     }
 
+    @Override
+    public BackupAppender getBackupAppender() {
+        return backupAppender;
+    }
+
+    @Override
+    public void setBackupAppender(BackupAppender backupAppender) {
+        this.backupAppender = backupAppender;
+    }
+
     @Override
     public Database getDatabase() {
         return database;
@@ -228,4 +243,24 @@ public class SimpleBackupWriterContext implements BackupWriterContext {
     public void setWriteQueries(Collection<WriteQuery> writeQueries) {
         this.writeQueries = writeQueries;
     }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean isRowEvents() {
+        return rowEvents;
+    }
+
+    @Override
+    public void setRowEvents(boolean rowEvents) {
+        this.rowEvents = rowEvents;
+    }
 }
@@ -29,8 +29,11 @@ package com.nuodb.migrator.backup.writer;
 
 import com.google.common.base.Supplier;
 import com.google.common.collect.Maps;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.primitives.Ints;
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupAppender;
 import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.backup.format.value.Row;
@@ -41,6 +44,8 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Multimaps.newSetMultimap;
@@ -48,6 +53,7 @@ import static com.google.common.collect.Multimaps.synchronizedSetMultimap;
 import static com.google.common.collect.Sets.newTreeSet;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
 import static java.lang.Long.MAX_VALUE;
+import static java.lang.System.currentTimeMillis;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -57,9 +63,21 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterListener>
         implements BackupWriterManager {
 
+    /**
+     * Default minimal interval between backup catalog checkpoints in milliseconds
+     */
+    public static final long CHECKPOINT_INTERVAL = 10000;
+
     private BackupWriterSync backupWriterSync;
     private BackupWriterContext backupWriterContext;
     private Multimap<WriteQuery, WriteQueryWork> writeQueries;
+    private Multimap<WriteQuery, WriteQueryWork> writtenQueries =
+            synchronizedSetMultimap(HashMultimap.<WriteQuery, WriteQueryWork>create());
+    private final Lock checkpointLock = new ReentrantLock();
+    private long checkpointInterval = CHECKPOINT_INTERVAL;
+    private volatile long checkpointTime = currentTimeMillis();
+    private volatile boolean checkpointPending;
+    private volatile boolean writeFailed;
 
     public SimpleBackupWriterManager() {
         this.writeQueries = synchronizedSetMultimap(newSetMultimap(
@@ -106,7 +124,7 @@ public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterLis
 
     @Override
     public void writeRow(Work work, WriteQuery writeQuery, Row row) {
-        if (hasListeners()) {
+        if (backupWriterContext.isRowEvents() && hasListeners()) {
             onWriteRow(new WriteRowEvent(work, writeQuery, row));
         }
     }
@@ -119,6 +137,7 @@ public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterLis
 
     @Override
     public void writeEnd(Work work, WriteQuery writeQuery, Chunk chunk) {
+        writeCheckpoint(writeQuery, chunk);
         if (hasListeners()) {
             onWriteEnd(new WriteChunkEvent(work, writeQuery, chunk));
         }
@@ -134,12 +153,93 @@ public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterLis
                 chunks.addAll(writeQueryWork.getChunks());
             }
             rowSet.setChunks(chunks);
+            writtenQueries.put(writeQuery, (WriteQueryWork) work);
+            BackupAppender backupAppender = backupWriterContext.getBackupAppender();
+            if (backupAppender != null && isWritten(writeQuery)) {
+                backupAppender.appendRowSet(rowSet);
+            }
         }
         if (hasListeners()) {
             onWriteEnd(new WriteChunkEvent(work, writeQuery));
         }
     }
 
+    /**
+     * Query is written once works of all its splits are ended, which is known when the last split is ended
+     *
+     * @param writeQuery write query to check
+     * @return true if all query splits are written
+     */
+    protected boolean isWritten(WriteQuery writeQuery) {
+        synchronized (writtenQueries) {
+            Collection<WriteQueryWork> writeQueryWorks = writtenQueries.get(writeQuery);
+            for (WriteQueryWork writeQueryWork : writeQueryWorks) {
+                if (!writeQueryWork.isHasNextQuerySplit()) {
+                    return writeQueryWorks.size() == writeQueryWork.getQuerySplit().getSplitIndex() + 1;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Lists the completed chunk in the row set & rewrites the backup catalog at most once per checkpoint interval, so
+     * that the chunks written before a failure are recorded in the catalog. The chunks are listed in the order of the
+     * query splits once the whole query is written. Catalog is not rewritten if it's appended with row sets
+     * incrementally.
+     *
+     * @param writeQuery query the chunk is written for
+     * @param chunk      completed chunk
+     */
+    protected void writeCheckpoint(WriteQuery writeQuery, Chunk chunk) {
+        RowSet rowSet = writeQuery.getRowSet();
+        synchronized (rowSet) {
+            if (!rowSet.getChunks().contains(chunk)) {
+                Collection<Chunk> chunks = newArrayList(rowSet.getChunks());
+                chunks.add(chunk);
+                rowSet.setChunks(chunks);
+            }
+        }
+        if (backupWriterContext.getBackupAppender() != null) {
+            return;
+        }
+        checkpointPending = true;
+        if (currentTimeMillis() - checkpointTime >= checkpointInterval) {
+            writeCheckpoint(false);
+        }
+    }
+
+    /**
+     * Rewrites the backup catalog with the chunks completed so far. Writer threads don't wait for a checkpoint, which
+     * is already written by another thread, unless forced.
+     *
+     * @param force true to wait for the concurrent checkpoint
+     */
+    protected void writeCheckpoint(boolean force) {
+        if (force) {
+            checkpointLock.lock();
+        } else if (!checkpointLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!checkpointPending) {
+                return;
+            }
+            checkpointPending = false;
+            Backup backup = backupWriterContext.getBackup();
+            synchronized (backup) {
+                // database is set once data is written unless catalog is streamed, checkpoint lists it in advance
+                if (backup.getDatabase() == null && isWriteSchema()) {
+                    backup.setDatabase(backupWriterContext.getDatabase());
+                }
+                backupWriterContext.getBackupOps().write(backup, backupWriterContext.getBackupOpsContext());
+            }
+            checkpointTime = currentTimeMillis();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
     protected void onWriteEnd(WriteChunkEvent event) {
         for (BackupWriterListener listener : getListeners()) {
             listener.onWriteEnd(event);
@@ -167,6 +267,7 @@ public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterLis
 
     @Override
     public void writeFailed() {
+        writeFailed = true;
         backupWriterSync.writeFailed();
     }
 
@@ -180,6 +281,19 @@ public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterLis
         backupWriterSync.writeSchemaDone();
     }
 
+    public long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Sets minimal interval between backup catalog checkpoints, catalog is rewritten after every chunk if zero
+     *
+     * @param checkpointInterval interval in milliseconds
+     */
+    public void setCheckpointInterval(long checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
     @Override
     public BackupWriterContext getBackupWriterContext() {
         return backupWriterContext;
@@ -208,6 +322,15 @@ public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterLis
                 }
             }
             closeQuietly(backupWriterContext.getSourceSession());
+            // records chunks completed after the last checkpoint, catalog is written by the backup writer otherwise
+            if (writeFailed && backupWriterContext.getBackupAppender() == null) {
+                writeCheckpoint(true);
+            }
+            // finishes the catalog with the row sets written so far, after a failure as well
+            BackupAppender backupAppender = backupWriterContext.getBackupAppender();
+            if (backupAppender != null) {
+                backupAppender.close();
+            }
         }
         super.close();
     }
@@ -32,6 +32,10 @@ import com.nuodb.migrator.backup.Column;
 import com.nuodb.migrator.backup.QueryRowSet;
 import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.backup.format.Output;
+import com.nuodb.migrator.backup.format.codec.Codec;
+import com.nuodb.migrator.backup.format.lob.LobOutput;
+import com.nuodb.migrator.backup.format.lob.LobValueGetter;
+import com.nuodb.migrator.backup.format.pipe.PipeFormat;
 import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueHandle;
@@ -44,8 +48,11 @@ import com.nuodb.migrator.jdbc.query.StatementCallback;
 import com.nuodb.migrator.jdbc.session.WorkForkJoinTaskBase;
 import com.nuodb.migrator.jdbc.split.QuerySplit;
 import com.nuodb.migrator.utils.ObjectUtils;
+import com.nuodb.migrator.utils.metrics.Metric;
+import com.nuodb.migrator.utils.metrics.Metrics;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.OutputStream;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -55,6 +62,9 @@ import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.indexOf;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.BackupMessages.WRITE_QUERY_WORK;
+import static com.nuodb.migrator.backup.format.Output.ATTRIBUTE_CODEC;
+import static com.nuodb.migrator.backup.format.Output.ATTRIBUTE_LOB_STREAMING;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
 import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
@@ -62,6 +72,11 @@ import static com.nuodb.migrator.jdbc.model.FieldFactory.newFieldList;
 import static com.nuodb.migrator.utils.Collections.isEmpty;
 import static com.nuodb.migrator.utils.Predicates.equalTo;
 import static com.nuodb.migrator.utils.Predicates.instanceOf;
+import static java.lang.Boolean.parseBoolean;
+import static java.sql.Types.BLOB;
+import static java.sql.Types.CLOB;
+import static java.sql.Types.NCLOB;
+import static java.sql.Types.SQLXML;
 import static java.util.Arrays.asList;
 import static org.apache.commons.lang3.StringUtils.lowerCase;
 
@@ -74,6 +89,7 @@ import static org.apache.commons.lang3.StringUtils.lowerCase;
 public class WriteQueryWork extends WorkForkJoinTaskBase {
 
     private static final String QUERY = "query";
+    private static final String LOB = "lob";
 
     private final BackupWriterManager backupWriterManager;
     private final WriteQuery writeQuery;
@@ -82,9 +98,14 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
 
     private ResultSet resultSet;
     private Output output;
+    private Codec codec;
+    private LobOutput lobOutput;
     private Collection<Chunk> chunks;
     private BackupWriterContext backupWriterContext;
     private ValueHandleList valueHandleList;
+    private Metric tableMetric;
+    private Metric threadMetric;
+    private Metric chunkMetric;
 
     public WriteQueryWork(WriteQuery writeQuery, QuerySplit querySplit,
                           boolean hasNextQuerySplit, BackupWriterManager backupWriterManager) {
@@ -121,21 +142,61 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
                 withTimeZone(backupWriterContext.getTimeZone()).
                 withValueFormatRegistry(backupWriterContext.getValueFormatRegistry()).build();
 
+        output = backupWriterContext.getFormatFactory().createOutput(
+                backupWriterContext.getFormat(), backupWriterContext.getFormatAttributes());
+        if (isLobStreaming()) {
+            lobOutput = new LobOutput();
+        }
+
         RowSet rowSet = writeQuery.getRowSet();
-        if (isEmpty(rowSet.getColumns())) {
-            Collection<Column> columns = newArrayList();
-            for (ValueHandle valueHandle : valueHandleList) {
-                columns.add(new Column(valueHandle.getName(), valueHandle.getValueType()));
+        boolean columns = isEmpty(rowSet.getColumns());
+        Collection<Column> rowSetColumns = newArrayList();
+        for (ValueHandle valueHandle : valueHandleList) {
+            boolean lob = lobOutput != null && isLob(valueHandle);
+            if (lob) {
+                valueHandle.setValueBinder(new LobValueGetter(valueHandle, lobOutput, dialect.getJdbcTypeRegistry()));
             }
-            rowSet.setColumns(columns);
+            if (columns) {
+                Column column = new Column(valueHandle.getName(), lob ? STRING : valueHandle.getValueType());
+                column.setLob(lob);
+                rowSetColumns.add(column);
+            }
+        }
+        if (columns) {
+            rowSet.setColumns(rowSetColumns);
         }
         rowSet.setName(getRowSetName());
-
-        output = backupWriterContext.getFormatFactory().createOutput(
-                backupWriterContext.getFormat(), backupWriterContext.getFormatAttributes());
         output.setRowSet(rowSet);
 
+        String codec = (String) output.getAttribute(ATTRIBUTE_CODEC);
+        if (!StringUtils.isEmpty(codec)) {
+            this.codec = backupWriterContext.getFormatFactory().createCodec(codec);
+        }
         chunks = newArrayList();
+        Metrics metrics = backupWriterContext.getMetrics();
+        if (metrics != null) {
+            tableMetric = metrics.getTable(rowSet.getName());
+        }
+    }
+
+    /**
+     * Large objects are streamed to LOB files if enabled, except for piped migrations, where chunks are not stored
+     */
+    protected boolean isLobStreaming() {
+        return parseBoolean((String) output.getAttribute(ATTRIBUTE_LOB_STREAMING)) &&
+                !StringUtils.equals(backupWriterContext.getFormat(), PipeFormat.TYPE);
+    }
+
+    protected boolean isLob(ValueHandle valueHandle) {
+        switch (valueHandle.getTypeCode()) {
+            case BLOB:
+            case CLOB:
+            case NCLOB:
+            case SQLXML:
+                return true;
+            default:
+                return false;
+        }
     }
 
     @Override
@@ -146,6 +207,10 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
         Chunk chunk = null;
         long number = 0;
         Value[] values = new Value[valueHandleList.size()];
+        if (tableMetric != null) {
+            threadMetric = backupWriterContext.getMetrics().getThread();
+        }
+        boolean rowEvents = backupWriterContext.isRowEvents();
         while (backupWriterManager.canExecute(this) && resultSet.next()) {
             if (chunk == null) {
                 writeStart(chunk = addChunk());
@@ -154,15 +219,20 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
                 writeEnd(chunk);
                 writeStart(chunk = addChunk());
             }
-            Row row = new Row(chunk, values, number);
             int index = 0;
             for (ValueHandle valueHandle : valueHandleList) {
-                values[index++] = valueHandle.getValueFormat().getValue(
-                        valueHandle.getJdbcValueAccess(), valueHandle.getJdbcValueAccessOptions());
+                values[index++] = valueHandle.getValueBinder().getValue();
             }
             output.writeValues(values);
             chunk.incrementRowCount();
-            backupWriterManager.writeRow(this, writeQuery, row);
+            if (tableMetric != null) {
+                tableMetric.addRows(1);
+                threadMetric.addRows(1);
+                chunkMetric.addRows(1);
+            }
+            if (rowEvents) {
+                backupWriterManager.writeRow(this, writeQuery, new Row(chunk, values, number));
+            }
         }
         if (chunk != null) {
             writeEnd(chunk);
@@ -174,21 +244,57 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
     public void close() throws Exception {
         super.close();
         closeQuietly(resultSet);
+        if (lobOutput != null) {
+            lobOutput.close();
+        }
     }
 
+    /**
+     * Opens chunk output, compressing it with the codec if one is configured. Chunks are written by separate works, so
+     * that independent chunks are compressed in parallel.
+     */
     protected void writeStart(Chunk chunk) throws Exception {
-        output.setOutputStream(backupWriterContext.getBackupOps().openOutput(chunk.getName()));
+        OutputStream outputStream = backupWriterContext.getBackupOps().openOutput(chunk.getName());
+        output.setOutputStream(codec != null ? codec.encode(outputStream) : outputStream);
         output.init();
         output.writeStart();
+        if (lobOutput != null) {
+            lobOutput.open(backupWriterContext.getBackupOps().openOutput(chunk.getLob()));
+        }
+        if (tableMetric != null) {
+            chunkMetric = backupWriterContext.getMetrics().getChunk(chunk.getName());
+        }
         backupWriterManager.writeStart(this, writeQuery, chunk);
     }
 
     protected void writeEnd(Chunk chunk) throws Exception {
         output.writeEnd();
         output.close();
+        if (lobOutput != null) {
+            lobOutput.close();
+        }
+        if (tableMetric != null) {
+            addBytes(chunk);
+        }
         backupWriterManager.writeEnd(this, writeQuery, chunk);
     }
 
+    /**
+     * Counts bytes of the written chunk file and its LOB file, piped chunks have no length and are not counted
+     */
+    protected void addBytes(Chunk chunk) {
+        Long size = backupWriterContext.getBackupOps().getLength(chunk.getName());
+        if (size != null && chunk.getLob() != null) {
+            Long lobSize = backupWriterContext.getBackupOps().getLength(chunk.getLob());
+            size += lobSize != null ? lobSize : 0;
+        }
+        if (size != null) {
+            tableMetric.addBytes(size);
+            threadMetric.addBytes(size);
+            chunkMetric.addBytes(size);
+        }
+    }
+
     protected Chunk addChunk() {
         Chunk chunk = createChunk(chunks.size());
         chunks.add(chunk);
@@ -198,10 +304,30 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
     protected Chunk createChunk(int chunkIndex) {
         Chunk chunk = new Chunk();
         chunk.setName(getChunkName(chunkIndex));
+        chunk.setCodec(codec != null ? backupWriterContext.getFormatFactory().getCodecName(codec) : null);
+        chunk.setLob(lobOutput != null ? getLobName(chunkIndex) : null);
         return chunk;
     }
 
     protected String getChunkName(int chunkIndex) {
+        Collection names = getNames(chunkIndex);
+        names.add(backupWriterContext.getFormat());
+        if (codec != null) {
+            names.add(codec.getExtension());
+        }
+        return lowerCase(StringUtils.join(names, "."));
+    }
+
+    /**
+     * LOB file is named after the chunk and is not compressed, so that large objects are read by offsets
+     */
+    protected String getLobName(int chunkIndex) {
+        Collection names = getNames(chunkIndex);
+        names.add(LOB);
+        return lowerCase(StringUtils.join(names, "."));
+    }
+
+    protected Collection getNames(int chunkIndex) {
         Collection names = newArrayList(getRowSetName());
         int splitIndex = getQuerySplit().getSplitIndex();
         if (splitIndex != 0 || isHasNextQuerySplit()) {
@@ -210,8 +336,7 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
         if (chunkIndex > 0) {
             names.add(chunkIndex + 1);
         }
-        names.add(backupWriterContext.getFormat());
-        return lowerCase(StringUtils.join(names, "."));
+        return names;
     }
 
     protected String getRowSetName() {
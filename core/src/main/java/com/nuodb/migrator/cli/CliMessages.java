@@ -91,6 +91,8 @@ public interface CliMessages {
     final String TABLE_EXCLUDE_OPTION_DESCRIPTION = "com.nuodb.migrator.table.exclude.option.description";
     final String TABLE_TYPE_OPTION_DESCRIPTION = "com.nuodb.migrator.table.type.option.description";
     final String TABLE_TYPE_ARGUMENT_NAME = "com.nuodb.migrator.table.type.argument.name";
+    final String INSPECTION_THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.inspection.threads.option.description";
+    final String INSPECTION_THREADS_ARGUMENT_NAME = "com.nuodb.migrator.inspection.threads.argument.name";
     final String TABLE_ARGUMENT_NAME = "com.nuodb.migrator.table.argument.name";
     final String TABLE_EXCLUDE_ARGUMENT_NAME = "com.nuodb.migrator.table.exclude.argument.name";
 
@@ -105,6 +107,17 @@ public interface CliMessages {
     final String PARALLELIZER_ARGUMENT_NAME = "com.nuodb.migrator.parallelizer.argument.name";
     final String PARALLELIZER_ATTRIBUTES_OPTION_DESCRIPTION = "com.nuodb.migrator.parallelizer.attributes.option.description";
     final String PARALLELIZER_ATTRIBUTES_ARGUMENT_NAME = "com.nuodb.migrator.parallelizer.attributes.argument.name";
+    final String READ_AHEAD_OPTION_DESCRIPTION = "com.nuodb.migrator.read.ahead.option.description";
+    final String READ_AHEAD_ARGUMENT_NAME = "com.nuodb.migrator.read.ahead.argument.name";
+    final String RESUME_OPTION_DESCRIPTION = "com.nuodb.migrator.resume.option.description";
+    final String JOURNAL_OPTION_DESCRIPTION = "com.nuodb.migrator.journal.option.description";
+    final String JOURNAL_FILE_OPTION_DESCRIPTION = "com.nuodb.migrator.journal.file.option.description";
+    final String JOURNAL_FILE_ARGUMENT_NAME = "com.nuodb.migrator.journal.file.argument.name";
+    final String CATALOG_STREAMING_OPTION_DESCRIPTION = "com.nuodb.migrator.catalog.streaming.option.description";
+    final String METRICS_INTERVAL_OPTION_DESCRIPTION = "com.nuodb.migrator.metrics.interval.option.description";
+    final String METRICS_INTERVAL_ARGUMENT_NAME = "com.nuodb.migrator.metrics.interval.argument.name";
+    final String METRICS_FILE_OPTION_DESCRIPTION = "com.nuodb.migrator.metrics.file.option.description";
+    final String METRICS_FILE_ARGUMENT_NAME = "com.nuodb.migrator.metrics.file.argument.name";
 
     final String QUERY_LIMIT_OPTION_DESCRIPTION = "com.nuodb.migrator.query.limit.option.description";
     final String QUERY_LIMIT_ARGUMENT_NAME = "com.nuodb.migrator.query.limit.argument.name";
@@ -175,4 +188,11 @@ public interface CliMessages {
     final String INSERT_TYPE_GROUP_NAME = "com.nuodb.migrator.insert.type.group.name";
     final String TABLE_REPLACE_OPTION_DESCRIPTION = "com.nuodb.migrator.table.replace.option.description";
     final String TABLE_INSERT_OPTION_DESCRIPTION = "com.nuodb.migrator.table.insert.option.description";
+
+    final String MIGRATE_GROUP_NAME = "com.nuodb.migrator.migrate.group.name";
+    final String PIPE_GROUP_NAME = "com.nuodb.migrator.pipe.group.name";
+    final String PIPE_BATCH_SIZE_OPTION_DESCRIPTION = "com.nuodb.migrator.pipe.batch.size.option.description";
+    final String PIPE_BATCH_SIZE_ARGUMENT_NAME = "com.nuodb.migrator.pipe.batch.size.argument.name";
+    final String PIPE_QUEUE_SIZE_OPTION_DESCRIPTION = "com.nuodb.migrator.pipe.queue.size.option.description";
+    final String PIPE_QUEUE_SIZE_ARGUMENT_NAME = "com.nuodb.migrator.pipe.queue.size.argument.name";
 }
@@ -57,6 +57,7 @@ public interface CliOptions {
     final String DUMP = "dump";
     final String LOAD = "load";
     final String SCHEMA = "schema";
+    final String MIGRATE = "migrate";
 
     final String SOURCE_DRIVER = "source.driver";
     final String SOURCE_URL = "source.url";
@@ -80,12 +81,16 @@ public interface CliOptions {
     final String TABLE = "table";
     final String TABLE_EXCLUDE = "table.exclude";
     final String TABLE_TYPE = "table.type";
+    final String INSPECTION_THREADS = "inspection.threads";
     final String TABLE_INSERT = "table.*.insert";
     final String TABLE_REPLACE = "table.*.replace";
 
     final String THREADS = "threads";
     final String THREADS_SHORT = "t";
 
+    final String METRICS_INTERVAL = "metrics.interval";
+    final String METRICS_FILE = "metrics.file";
+
     final String QUERY_LIMIT = "query.limit";
 
     final String QUERY = "query";
@@ -105,6 +110,14 @@ public interface CliOptions {
     final String PARALLELIZER = "parallelizer";
     final String PARALLELIZER_ATTRIBUTES = "parallelizer.*";
     final String PARALLELIZER_SHORT = "p";
+    final String READ_AHEAD = "read.ahead";
+    final String RESUME = "resume";
+    final String JOURNAL = "journal";
+    final String JOURNAL_FILE = "journal.file";
+    final String CATALOG_STREAMING = "catalog.streaming";
+
+    final String PIPE_BATCH_SIZE = "pipe.batch.size";
+    final String PIPE_QUEUE_SIZE = "pipe.queue.size";
 
     final String INPUT = "input.*";
     final String INPUT_PATH = "input.path";
@@ -83,6 +83,16 @@ public class CliDumpJob extends CliJob<DumpJobSpec> {
         setJobSpec(dumpJobSpec);
     }
 
+    @Override
+    protected void createExecutorGroup(GroupBuilder group) {
+        super.createExecutorGroup(group);
+
+        Option catalogStreaming = newBasicOptionBuilder().
+                withName(CATALOG_STREAMING).
+                withDescription(getMessage(CATALOG_STREAMING_OPTION_DESCRIPTION)).build();
+        group.withOption(catalogStreaming);
+    }
+
     @Override
     public void execute(Map<Object, Object> context) {
         getMigrator().execute(getJobSpec(), context);
@@ -133,7 +143,9 @@ public class CliDumpJob extends CliJob<DumpJobSpec> {
         jobSpec.setQuerySpecs(parseQueryGroup(optionSet));
         jobSpec.setTimeZone(parseTimeZoneOption(optionSet, this));
         jobSpec.setThreads(parseThreadsOption(optionSet, this));
+        jobSpec.setMetricsSpec(parseMetricsSpec(optionSet, this));
         jobSpec.setQueryLimit(parseQueryLimitOption(optionSet, this));
+        jobSpec.setCatalogStreaming(optionSet.hasOption(CATALOG_STREAMING));
     }
 
     protected Collection<QuerySpec> parseQueryGroup(OptionSet optionSet) {
@@ -166,6 +178,15 @@ public class CliDumpJob extends CliJob<DumpJobSpec> {
                 ).build();
         group.withOption(tableType);
 
+        Option inspectionThreads = newBasicOptionBuilder().
+                withName(INSPECTION_THREADS).
+                withDescription(getMessage(INSPECTION_THREADS_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(INSPECTION_THREADS_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(inspectionThreads);
+
         Option metaData = newRegexOptionBuilder().
                 withName(META_DATA).
                 withDescription(getMessage(META_DATA_OPTION_DESCRIPTION)).
@@ -186,5 +207,6 @@ public class CliDumpJob extends CliJob<DumpJobSpec> {
             jobSpec.setObjectTypes(parseObjectTypes(optionSet));
         }
         jobSpec.setTableTypes(parseTableTypes(optionSet));
+        jobSpec.setInspectionThreads(parseInspectionThreadsOption(optionSet, this));
     }
 }
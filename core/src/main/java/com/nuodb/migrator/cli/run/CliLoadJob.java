@@ -28,6 +28,7 @@
 package com.nuodb.migrator.cli.run;
 
 import com.google.common.collect.Maps;
+import com.nuodb.migrator.backup.loader.ChunkLevelParallelizer;
 import com.nuodb.migrator.backup.loader.Parallelizer;
 import com.nuodb.migrator.backup.loader.RowLevelParallelizer;
 import com.nuodb.migrator.backup.loader.TableLevelParallelizer;
@@ -45,7 +46,9 @@ import static com.nuodb.migrator.context.ContextUtils.getMessage;
 import static com.nuodb.migrator.utils.Priority.LOW;
 import static com.nuodb.migrator.utils.ReflectionUtils.newInstance;
 import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Integer.parseInt;
 import static java.lang.String.CASE_INSENSITIVE_ORDER;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 /**
  * @author Sergey Bushik
@@ -54,6 +57,7 @@ public class CliLoadJob extends CliJob<LoadJobSpec> {
 
     public static final String PARALLELIZER_TABLE_LEVEL = "table.level";
     public static final String PARALLELIZER_ROW_LEVEL = "row.level";
+    public static final String PARALLELIZER_CHUNK_LEVEL = "chunk.level";
 
     public CliLoadJob() {
         super(LOAD);
@@ -149,6 +153,39 @@ public class CliLoadJob extends CliJob<LoadJobSpec> {
                                 withOptionFormat(optionFormat).withMinimum(1).withMaximum(MAX_VALUE).build()
                 ).build();
         group.withOption(parallelizerAttributes);
+
+        Option readAhead = newBasicOptionBuilder().
+                withName(READ_AHEAD).
+                withDescription(getMessage(READ_AHEAD_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(READ_AHEAD_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(readAhead);
+
+        Option resume = newBasicOptionBuilder().
+                withName(RESUME).
+                withDescription(getMessage(RESUME_OPTION_DESCRIPTION)).build();
+        group.withOption(resume);
+
+        Option journal = newBasicOptionBuilder().
+                withName(JOURNAL).
+                withDescription(getMessage(JOURNAL_OPTION_DESCRIPTION)).build();
+        group.withOption(journal);
+
+        Option journalFile = newBasicOptionBuilder().
+                withName(JOURNAL_FILE).
+                withDescription(getMessage(JOURNAL_FILE_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(JOURNAL_FILE_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(journalFile);
+
+        Option catalogStreaming = newBasicOptionBuilder().
+                withName(CATALOG_STREAMING).
+                withDescription(getMessage(CATALOG_STREAMING_OPTION_DESCRIPTION)).build();
+        group.withOption(catalogStreaming);
     }
 
     protected void parseDataMigrationGroup(OptionSet optionSet, LoadJobSpec jobSpec) {
@@ -172,6 +209,7 @@ public class CliLoadJob extends CliJob<LoadJobSpec> {
 
     protected void parseExecutorGroup(OptionSet optionSet, LoadJobSpec jobSpec) {
         jobSpec.setThreads(parseThreadsOption(optionSet, this));
+        jobSpec.setMetricsSpec(parseMetricsSpec(optionSet, this));
         String parallelizerValue = (String) optionSet.getValue(
                 PARALLELIZER, PARALLELIZER_TABLE_LEVEL);
         Parallelizer parallelizer = createParallelizerMapping().get(parallelizerValue);
@@ -182,6 +220,12 @@ public class CliLoadJob extends CliJob<LoadJobSpec> {
                 optionSet.<String>getValues(PARALLELIZER_ATTRIBUTES),
                 optionSet.getOption(PARALLELIZER_ATTRIBUTES)));
         jobSpec.setParallelizer(parallelizer);
+        String readAheadValue = (String) optionSet.getValue(READ_AHEAD);
+        jobSpec.setReadAhead(!isEmpty(readAheadValue) ? parseInt(readAheadValue) : 0);
+        jobSpec.setResume(optionSet.hasOption(RESUME));
+        jobSpec.setJournal(optionSet.hasOption(JOURNAL) || optionSet.hasOption(JOURNAL_FILE));
+        jobSpec.setJournalFile((String) optionSet.getValue(JOURNAL_FILE));
+        jobSpec.setCatalogStreaming(optionSet.hasOption(CATALOG_STREAMING));
     }
 
 
@@ -190,6 +234,7 @@ public class CliLoadJob extends CliJob<LoadJobSpec> {
                 new TreeMap<String, Parallelizer>(CASE_INSENSITIVE_ORDER);
         parallelizerMapping.put(PARALLELIZER_TABLE_LEVEL, new TableLevelParallelizer());
         parallelizerMapping.put(PARALLELIZER_ROW_LEVEL, new RowLevelParallelizer());
+        parallelizerMapping.put(PARALLELIZER_CHUNK_LEVEL, new ChunkLevelParallelizer());
         return parallelizerMapping;
     }
 }
\ No newline at end of file
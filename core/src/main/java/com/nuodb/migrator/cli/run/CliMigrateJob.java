@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.cli.run;
+
+import com.nuodb.migrator.backup.loader.PipeParallelizer;
+import com.nuodb.migrator.cli.parse.Option;
+import com.nuodb.migrator.cli.parse.OptionSet;
+import com.nuodb.migrator.cli.parse.option.GroupBuilder;
+import com.nuodb.migrator.cli.parse.option.OptionFormat;
+import com.nuodb.migrator.jdbc.query.InsertType;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.spec.MigrateJobSpec;
+
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.pipe.RowPipes.BATCH_SIZE;
+import static com.nuodb.migrator.backup.format.pipe.RowPipes.QUEUE_SIZE;
+import static com.nuodb.migrator.context.ContextUtils.getMessage;
+import static com.nuodb.migrator.utils.Priority.LOW;
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * An implementation of {@link CliRunAdapter} which assembles migrate spec, copying schema & data from the source to
+ * the target database directly without intermediate backup files.
+ *
+ * @author Sergey Bushik
+ */
+public class CliMigrateJob extends CliJob<MigrateJobSpec> {
+
+    public CliMigrateJob() {
+        super(MIGRATE);
+    }
+
+    @Override
+    protected Option createOption() {
+        GroupBuilder group = newGroupBuilder().
+                withName(getMessage(MIGRATE_GROUP_NAME)).withRequired(true);
+        group.withOption(createSourceGroup());
+        group.withOption(createTargetGroup());
+        group.withOption(createMigrationModeGroup());
+        group.withOption(createDataMigrationGroup());
+        group.withOption(createSchemaMigrationGroup());
+        group.withOption(createExecutorGroup());
+        group.withOption(createPipeGroup());
+        return group.build();
+    }
+
+    @Override
+    protected void bind(OptionSet optionSet) {
+        MigrateJobSpec jobSpec = new MigrateJobSpec();
+        jobSpec.setSourceSpec(parseSourceGroup(optionSet, this));
+        jobSpec.setTargetSpec(parseTargetGroup(optionSet, this));
+        jobSpec.setMigrationModes(parseMigrationModeGroup(optionSet, this));
+        parseDataMigrationGroup(optionSet, jobSpec);
+        parseSchemaMigrationGroup(optionSet, jobSpec, this);
+        parseExecutorGroup(optionSet, jobSpec);
+        parsePipeGroup(optionSet, jobSpec);
+        setJobSpec(jobSpec);
+    }
+
+    @Override
+    public void execute(Map<Object, Object> context) {
+        getMigrator().execute(getJobSpec(), context);
+    }
+
+    protected Option createDataMigrationGroup() {
+        GroupBuilder group = newGroupBuilder().withName(getMessage(DATA_MIGRATION_GROUP_NAME));
+        group.withOption(createMetaDataFilterManagerGroup());
+        group.withOption(createCommitGroup());
+        group.withOption(createInsertTypeGroup());
+        group.withOption(createTimeZoneOption());
+        group.withOption(createQueryLimitOption());
+        return group.build();
+    }
+
+    protected Option createInsertTypeGroup() {
+        GroupBuilder group = newGroupBuilder().withName(getMessage(INSERT_TYPE_GROUP_NAME));
+
+        Option replace = newBasicOptionBuilder().
+                withName(REPLACE).
+                withAlias(REPLACE_SHORT, OptionFormat.SHORT).
+                withDescription(getMessage(REPLACE_OPTION_DESCRIPTION)).build();
+        group.withOption(replace);
+
+        Option replaceType = newRegexOptionBuilder().
+                withName(TABLE_REPLACE).
+                withDescription(getMessage(TABLE_REPLACE_OPTION_DESCRIPTION)).
+                withRegex(TABLE_REPLACE, 1, LOW).build();
+        group.withOption(replaceType);
+
+        Option insertType = newRegexOptionBuilder().
+                withName(TABLE_INSERT).
+                withDescription(getMessage(TABLE_INSERT_OPTION_DESCRIPTION)).
+                withRegex(TABLE_INSERT, 1, LOW).build();
+        group.withOption(insertType);
+
+        return group.build();
+    }
+
+    protected Option createQueryLimitOption() {
+        return newBasicOptionBuilder().
+                withName(QUERY_LIMIT).
+                withDescription(getMessage(QUERY_LIMIT_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(QUERY_LIMIT_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+    /**
+     * Rows are always handed over to the target through the row pipes, so only the attributes of the pipe
+     * parallelizer are configurable
+     *
+     * @param group executor group
+     */
+    @Override
+    protected void createExecutorGroup(GroupBuilder group) {
+        super.createExecutorGroup(group);
+
+        OptionFormat optionFormat = new OptionFormat(getOptionFormat());
+        optionFormat.setValuesSeparator(null);
+
+        Option parallelizerAttributes = newRegexOptionBuilder().
+                withName(PARALLELIZER_ATTRIBUTES).
+                withDescription(getMessage(PARALLELIZER_ATTRIBUTES_OPTION_DESCRIPTION)).
+                withRegex(PARALLELIZER_ATTRIBUTES, 1, LOW).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(PARALLELIZER_ATTRIBUTES_ARGUMENT_NAME)).
+                                withOptionFormat(optionFormat).withMinimum(1).withMaximum(MAX_VALUE).build()
+                ).build();
+        group.withOption(parallelizerAttributes);
+    }
+
+    protected Option createPipeGroup() {
+        GroupBuilder group = newGroupBuilder().withName(getMessage(PIPE_GROUP_NAME));
+
+        Option batchSize = newBasicOptionBuilder().
+                withName(PIPE_BATCH_SIZE).
+                withDescription(getMessage(PIPE_BATCH_SIZE_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(PIPE_BATCH_SIZE_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(batchSize);
+
+        Option queueSize = newBasicOptionBuilder().
+                withName(PIPE_QUEUE_SIZE).
+                withDescription(getMessage(PIPE_QUEUE_SIZE_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(PIPE_QUEUE_SIZE_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(queueSize);
+
+        return group.build();
+    }
+
+    protected void parseDataMigrationGroup(OptionSet optionSet, MigrateJobSpec jobSpec) {
+        jobSpec.setMetaDataFilterManager(parseMetaDataFilterManagerGroup(optionSet, this));
+        jobSpec.setCommitStrategy(parseCommitGroup(optionSet, this));
+        jobSpec.setTimeZone(parseTimeZoneOption(optionSet, this));
+        jobSpec.setQueryLimit(parseQueryLimitOption(optionSet, this));
+        parseInsertTypeGroup(optionSet, jobSpec);
+    }
+
+    protected void parseInsertTypeGroup(OptionSet optionSet, MigrateJobSpec jobSpec) {
+        jobSpec.setInsertType(optionSet.hasOption(REPLACE) ? InsertType.REPLACE : InsertType.INSERT);
+        Map<String, InsertType> tableInsertTypes = newHashMap();
+        for (String table : optionSet.<String>getValues(TABLE_INSERT)) {
+            tableInsertTypes.put(table, InsertType.INSERT);
+        }
+        for (String table : optionSet.<String>getValues(TABLE_REPLACE)) {
+            tableInsertTypes.put(table, InsertType.REPLACE);
+        }
+        jobSpec.setTableInsertTypes(tableInsertTypes);
+    }
+
+    protected QueryLimit parseQueryLimitOption(OptionSet optionSet, Option option) {
+        String queryLimitValue = (String) optionSet.getValue(QUERY_LIMIT);
+        return !isEmpty(queryLimitValue) ? new QueryLimit(parseLong(queryLimitValue)) : null;
+    }
+
+    protected void parseExecutorGroup(OptionSet optionSet, MigrateJobSpec jobSpec) {
+        jobSpec.setThreads(parseThreadsOption(optionSet, this));
+        jobSpec.setMetricsSpec(parseMetricsSpec(optionSet, this));
+        PipeParallelizer parallelizer = new PipeParallelizer();
+        parallelizer.setAttributes(parseAttributes(
+                optionSet.<String>getValues(PARALLELIZER_ATTRIBUTES),
+                optionSet.getOption(PARALLELIZER_ATTRIBUTES)));
+        jobSpec.setParallelizer(parallelizer);
+    }
+
+    protected void parsePipeGroup(OptionSet optionSet, MigrateJobSpec jobSpec) {
+        String batchSizeValue = (String) optionSet.getValue(PIPE_BATCH_SIZE);
+        jobSpec.setBatchSize(!isEmpty(batchSizeValue) ? parseInt(batchSizeValue) : BATCH_SIZE);
+        String queueSizeValue = (String) optionSet.getValue(PIPE_QUEUE_SIZE);
+        jobSpec.setQueueSize(!isEmpty(queueSizeValue) ? parseInt(queueSizeValue) : QUEUE_SIZE);
+    }
+}
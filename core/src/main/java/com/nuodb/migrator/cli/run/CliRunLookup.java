@@ -42,6 +42,7 @@ public class CliRunLookup {
     public CliRunLookup() {
         add(new CliDumpJob());
         add(new CliLoadJob());
+        add(new CliMigrateJob());
         add(new CliSchemaJob());
     }
 
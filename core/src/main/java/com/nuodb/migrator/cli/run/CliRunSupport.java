@@ -40,6 +40,7 @@ import com.nuodb.migrator.cli.processor.JdbcTypeOptionProcessor;
 import com.nuodb.migrator.cli.processor.NuoDBTypesOptionProcessor;
 import com.nuodb.migrator.cli.validation.ConnectionGroupInfo;
 import com.nuodb.migrator.jdbc.JdbcConstants;
+import com.nuodb.migrator.jdbc.commit.AdaptiveCommitStrategy;
 import com.nuodb.migrator.jdbc.commit.BatchCommitStrategy;
 import com.nuodb.migrator.jdbc.commit.CommitStrategy;
 import com.nuodb.migrator.jdbc.commit.SingleCommitStrategy;
@@ -69,6 +70,7 @@ import com.nuodb.migrator.jdbc.metadata.generator.TriggerQualifyNamingStrategy;
 import com.nuodb.migrator.jdbc.type.JdbcTypeCodes;
 import com.nuodb.migrator.spec.DriverConnectionSpec;
 import com.nuodb.migrator.spec.JdbcTypeSpec;
+import com.nuodb.migrator.spec.MetricsSpec;
 import com.nuodb.migrator.spec.MigrationMode;
 import com.nuodb.migrator.spec.ResourceSpec;
 import com.nuodb.migrator.spec.ScriptGeneratorJobSpecBase;
@@ -110,6 +112,7 @@ import static com.nuodb.migrator.utils.ReflectionUtils.newInstance;
 import static java.lang.Boolean.parseBoolean;
 import static java.lang.Integer.MAX_VALUE;
 import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
 import static java.lang.String.CASE_INSENSITIVE_ORDER;
 import static java.lang.String.format;
 import static java.sql.Connection.*;
@@ -145,6 +148,7 @@ public class CliRunSupport extends CliSupport {
     public static final String NAMING_STRATEGY_AUTO = "auto";
     public static final String COMMIT_STRATEGY_SINGLE = "single";
     public static final String COMMIT_STRATEGY_BATCH = "batch";
+    public static final String COMMIT_STRATEGY_ADAPTIVE = "adaptive";
     private JdbcTypeOptionProcessor jdbcTypeOptionProcessor = new JdbcTypeOptionProcessor();
 
     private TimeZone defaultTimeZone = DEFAULT_TIME_ZONE;
@@ -360,6 +364,7 @@ public class CliRunSupport extends CliSupport {
         Map<String, CommitStrategy> commitStrategyMapping = new TreeMap<String, CommitStrategy>(CASE_INSENSITIVE_ORDER);
         commitStrategyMapping.put(COMMIT_STRATEGY_SINGLE, new SingleCommitStrategy());
         commitStrategyMapping.put(COMMIT_STRATEGY_BATCH, new BatchCommitStrategy());
+        commitStrategyMapping.put(COMMIT_STRATEGY_ADAPTIVE, new AdaptiveCommitStrategy());
         return commitStrategyMapping;
     }
 
@@ -491,6 +496,15 @@ public class CliRunSupport extends CliSupport {
                 ).build();
         group.withOption(tableType);
 
+        Option inspectionThreads = newBasicOptionBuilder().
+                withName(INSPECTION_THREADS).
+                withDescription(getMessage(INSPECTION_THREADS_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(INSPECTION_THREADS_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(inspectionThreads);
+
         Option metaData = newRegexOptionBuilder().
                 withName(META_DATA).
                 withDescription(getMessage(META_DATA_OPTION_DESCRIPTION)).
@@ -702,6 +716,24 @@ public class CliRunSupport extends CliSupport {
                                 withName(getMessage(THREADS_ARGUMENT_NAME)).build()
                 ).build();
         group.withOption(threads);
+
+        Option metricsInterval = newBasicOptionBuilder().
+                withName(METRICS_INTERVAL).
+                withDescription(getMessage(METRICS_INTERVAL_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(METRICS_INTERVAL_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(metricsInterval);
+
+        Option metricsFile = newBasicOptionBuilder().
+                withName(METRICS_FILE).
+                withDescription(getMessage(METRICS_FILE_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(METRICS_FILE_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(metricsFile);
     }
 
     protected MetaDataFilterManager parseMetaDataFilterManagerGroup(OptionSet optionSet, Option option) {
@@ -895,6 +927,7 @@ public class CliRunSupport extends CliSupport {
         jobSpec.setIdentifierQuoting(parseIdentifierQuoting(optionSet, option));
         jobSpec.setIdentifierNormalizer(parseIdentifierNormalizer(optionSet, option));
         jobSpec.setTableTypes(parseTableTypes(optionSet));
+        jobSpec.setInspectionThreads(parseInspectionThreadsOption(optionSet, option));
     }
 
     protected TranslationConfig parseTranslationConfig(OptionSet optionSet, Option option) {
@@ -1055,6 +1088,19 @@ public class CliRunSupport extends CliSupport {
         return !StringUtils.isEmpty(threadsValue) ? parseInt(threadsValue) : null;
     }
 
+    protected Integer parseInspectionThreadsOption(OptionSet optionSet, Option option) {
+        String inspectionThreadsValue = (String) optionSet.getValue(INSPECTION_THREADS);
+        return !StringUtils.isEmpty(inspectionThreadsValue) ? parseInt(inspectionThreadsValue) : null;
+    }
+
+    protected MetricsSpec parseMetricsSpec(OptionSet optionSet, Option option) {
+        MetricsSpec metricsSpec = new MetricsSpec();
+        String metricsInterval = (String) optionSet.getValue(METRICS_INTERVAL);
+        metricsSpec.setInterval(!StringUtils.isEmpty(metricsInterval) ? parseLong(metricsInterval) : null);
+        metricsSpec.setFile((String) optionSet.getValue(METRICS_FILE));
+        return metricsSpec;
+    }
+
     protected Map<String, IdentifierNormalizer> getIdentifierNormalizers() {
         Map<String, IdentifierNormalizer> identifierNormalizers =
                 new TreeMap<String, IdentifierNormalizer>(CASE_INSENSITIVE_ORDER);
@@ -36,9 +36,11 @@ import com.nuodb.migrator.job.HasServicesJobBase;
 import com.nuodb.migrator.spec.ConnectionSpec;
 import com.nuodb.migrator.spec.DumpJobSpec;
 import com.nuodb.migrator.spec.MetaDataSpec;
+import com.nuodb.migrator.spec.MetricsSpec;
 import com.nuodb.migrator.spec.MigrationMode;
 import com.nuodb.migrator.spec.QuerySpec;
 import com.nuodb.migrator.spec.ResourceSpec;
+import com.nuodb.migrator.utils.metrics.MetricsReporter;
 
 import java.util.Collection;
 import java.util.Map;
@@ -73,11 +75,13 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
         for (BackupWriterListener listener : getListeners()) {
             backupWriter.addListener(listener);
         }
+        backupWriter.setCatalogStreaming(isCatalogStreaming());
         backupWriter.setFormat(getFormat());
         backupWriter.setFormatAttributes(getFormatAttributes());
         backupWriter.setFormatFactory(createFormatFactory());
         backupWriter.setInspectionManager(createInspectionManager());
         backupWriter.setMetaDataSpec(getMetaDataSpec());
+        backupWriter.setMetrics(createMetrics(BackupWriter.METRICS));
         backupWriter.setMigrationModes(getMigrationModes());
         backupWriter.setQueryLimit(getQueryLimit());
         backupWriter.setQuerySpecs(getQuerySpecs());
@@ -108,7 +112,14 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
     public void execute() throws Exception {
         try {
             BackupWriter backupWriter = getBackupWriter();
-            backupWriter.write(getPath());
+            MetricsReporter metricsReporter = createMetricsReporter(getMetricsSpec(), backupWriter.getMetrics());
+            metricsReporter.start();
+            try {
+                backupWriter.write(getPath());
+            } finally {
+                metricsReporter.stop();
+                backupWriter.getMetrics().close();
+            }
         } catch (MigratorException exception) {
             throw exception;
         } catch (Exception exception) {
@@ -128,6 +139,10 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
         this.backupWriter = backupWriter;
     }
 
+    protected MetricsSpec getMetricsSpec() {
+        return getJobSpec().getMetricsSpec();
+    }
+
     protected Collection<BackupWriterListener> getListeners() {
         return getJobSpec().getListeners();
     }
@@ -175,4 +190,8 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
     protected Integer getThreads() {
         return getJobSpec().getThreads();
     }
+
+    protected boolean isCatalogStreaming() {
+        return getJobSpec().isCatalogStreaming();
+    }
 }
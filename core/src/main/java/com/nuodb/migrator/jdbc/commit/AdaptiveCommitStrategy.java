@@ -0,0 +1,296 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.utils.ObjectUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static com.nuodb.migrator.utils.ValidationUtils.instanceOf;
+import static java.lang.Double.parseDouble;
+import static java.lang.Long.parseLong;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Batches updates like {@link BatchCommitStrategy} does, but tunes the batch size of each commit executor at runtime.
+ * The batch grows while the number of rows loaded per second improves and reverses the direction once it drops, the
+ * batch is halved if the latency of executing a batch per row spikes above the average. Flushing a batch is decoupled
+ * from committing a transaction, several batches share a commit within the commit interval, a latency spike commits
+ * straight away to release the locks held by the transaction.
+ * <p/>
+ * Lock conflicts, i.e. lock wait timeouts & deadlocks, are not retried with a smaller batch. Drivers differ in whether a
+ * failed batch stays queued & whether the whole transaction is rolled back, and the executor doesn't hold the bound
+ * rows to replay the uncommitted batches. Such a failure fails the load, which is resumed from its journal. Lock
+ * waits shorter than the lock timeout show up as latency spikes & shrink the batch.
+ *
+ * @author Sergey Bushik
+ */
+public class AdaptiveCommitStrategy implements CommitStrategy {
+
+    public static final String ATTRIBUTE_BATCH_SIZE = "batch.size";
+    public static final String ATTRIBUTE_MIN_BATCH_SIZE = "min.batch.size";
+    public static final String ATTRIBUTE_MAX_BATCH_SIZE = "max.batch.size";
+    public static final String ATTRIBUTE_COMMIT_INTERVAL = "commit.interval";
+    public static final String ATTRIBUTE_LATENCY_SPIKE = "latency.spike";
+
+    /**
+     * Initial number of updates in a batch
+     */
+    public static final long BATCH_SIZE = 1000;
+    public static final long MIN_BATCH_SIZE = 100;
+    public static final long MAX_BATCH_SIZE = 50000;
+    /**
+     * Max time in milliseconds a transaction spans flushed batches for
+     */
+    public static final long COMMIT_INTERVAL = 1000;
+    /**
+     * Ratio of a batch latency per row to the average latency per row considered as a spike
+     */
+    public static final double LATENCY_SPIKE = 2;
+
+    private long batchSize = BATCH_SIZE;
+    private long minBatchSize = MIN_BATCH_SIZE;
+    private long maxBatchSize = MAX_BATCH_SIZE;
+    private long commitInterval = COMMIT_INTERVAL;
+    private double latencySpike = LATENCY_SPIKE;
+
+    @Override
+    public void setAttributes(Map<String, Object> attributes) {
+        String batchSizeValue = getAttribute(attributes, ATTRIBUTE_BATCH_SIZE);
+        if (batchSizeValue != null) {
+            setBatchSize(parseLong(batchSizeValue));
+        }
+        String minBatchSizeValue = getAttribute(attributes, ATTRIBUTE_MIN_BATCH_SIZE);
+        if (minBatchSizeValue != null) {
+            setMinBatchSize(parseLong(minBatchSizeValue));
+        }
+        String maxBatchSizeValue = getAttribute(attributes, ATTRIBUTE_MAX_BATCH_SIZE);
+        if (maxBatchSizeValue != null) {
+            setMaxBatchSize(parseLong(maxBatchSizeValue));
+        }
+        String commitIntervalValue = getAttribute(attributes, ATTRIBUTE_COMMIT_INTERVAL);
+        if (commitIntervalValue != null) {
+            setCommitInterval(parseLong(commitIntervalValue));
+        }
+        String latencySpikeValue = getAttribute(attributes, ATTRIBUTE_LATENCY_SPIKE);
+        if (latencySpikeValue != null) {
+            setLatencySpike(parseDouble(latencySpikeValue));
+        }
+    }
+
+    protected String getAttribute(Map<String, Object> attributes, String attribute) {
+        Object value = attributes.get(attribute);
+        return value instanceof String && !isEmpty((String) value) ? (String) value : null;
+    }
+
+    @Override
+    public CommitExecutor createCommitExecutor(Statement statement, Query query) {
+        instanceOf(statement, PreparedStatement.class);
+        return new AdaptiveCommitExecutor((PreparedStatement) statement, query);
+    }
+
+    /**
+     * Created per load table fork work, so each worker thread tunes the batch size for the table on its own
+     */
+    protected class AdaptiveCommitExecutor extends CommitExecutorBase<PreparedStatement> {
+
+        /**
+         * Weight of the latest batch in the average latency
+         */
+        private static final double WEIGHT = 0.25;
+
+        private long batchSize = max(minBatchSize, min(maxBatchSize, AdaptiveCommitStrategy.this.batchSize));
+        private long batches;
+        private long uncommitted;
+        private int direction = 1;
+        private double throughput;
+        private double latency;
+        private long flushTime = nanoTime();
+        private long commitTime = flushTime;
+
+        public AdaptiveCommitExecutor(PreparedStatement statement, Query query) {
+            super(statement, query);
+        }
+
+        @Override
+        public boolean execute() throws SQLException {
+            statement.addBatch();
+            batches++;
+            if (batches >= batchSize) {
+                executeBatch();
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public void finish() throws SQLException {
+            if (batches > 0) {
+                statement.executeBatch();
+                uncommitted += batches;
+                batches = 0;
+            }
+            if (uncommitted > 0) {
+                commit(nanoTime());
+            }
+        }
+
+        protected void executeBatch() throws SQLException {
+            long start = nanoTime();
+            statement.executeBatch();
+            long end = nanoTime();
+            boolean spike = adapt(batches, end - start, end - flushTime);
+            uncommitted += batches;
+            batches = 0;
+            flushTime = end;
+            if (spike || end - commitTime >= MILLISECONDS.toNanos(getCommitInterval())) {
+                commit(end);
+            }
+        }
+
+        protected void commit(long time) throws SQLException {
+            commit();
+            uncommitted = 0;
+            commitTime = time;
+        }
+
+        /**
+         * Adjusts batch size with measurements of the executed batch
+         *
+         * @param rows       number of rows in the batch
+         * @param batchNanos time spent executing the batch
+         * @param cycleNanos time spent binding & executing the batch since the previous batch
+         * @return true if batch latency per row spiked
+         */
+        protected boolean adapt(long rows, long batchNanos, long cycleNanos) {
+            double latency = (double) batchNanos / rows;
+            if (this.latency > 0 && latency > this.latency * getLatencySpike()) {
+                this.latency += (latency - this.latency) * WEIGHT;
+                batchSize = max(minBatchSize, batchSize / 2);
+                direction = -1;
+                throughput = 0;
+                return true;
+            }
+            this.latency = this.latency > 0 ? this.latency + (latency - this.latency) * WEIGHT : latency;
+            double throughput = (double) rows / max(cycleNanos, 1);
+            if (this.throughput > 0 && throughput < this.throughput) {
+                direction = -direction;
+            }
+            this.throughput = throughput;
+            batchSize = direction > 0 ?
+                    min(maxBatchSize, batchSize + max(batchSize / 4, 1)) :
+                    max(minBatchSize, batchSize - max(batchSize / 5, 1));
+            return false;
+        }
+
+        public long getBatchSize() {
+            return batchSize;
+        }
+    }
+
+    public long getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(long batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public void setMinBatchSize(long minBatchSize) {
+        this.minBatchSize = minBatchSize;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(long maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getCommitInterval() {
+        return commitInterval;
+    }
+
+    public void setCommitInterval(long commitInterval) {
+        this.commitInterval = commitInterval;
+    }
+
+    public double getLatencySpike() {
+        return latencySpike;
+    }
+
+    public void setLatencySpike(double latencySpike) {
+        this.latencySpike = latencySpike;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        AdaptiveCommitStrategy that = (AdaptiveCommitStrategy) o;
+
+        if (batchSize != that.batchSize) return false;
+        if (commitInterval != that.commitInterval) return false;
+        if (Double.compare(that.latencySpike, latencySpike) != 0) return false;
+        if (maxBatchSize != that.maxBatchSize) return false;
+        if (minBatchSize != that.minBatchSize) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (batchSize ^ (batchSize >>> 32));
+        result = 31 * result + (int) (minBatchSize ^ (minBatchSize >>> 32));
+        result = 31 * result + (int) (maxBatchSize ^ (maxBatchSize >>> 32));
+        result = 31 * result + (int) (commitInterval ^ (commitInterval >>> 32));
+        long temp = Double.doubleToLongBits(latencySpike);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return ObjectUtils.toString(this);
+    }
+}
@@ -88,7 +88,7 @@ public class BatchCommitStrategy implements CommitStrategy {
 
             protected void executeBatch() throws SQLException {
                 statement.executeBatch();
-                statement.getConnection().commit();
+                commit();
                 batches = 0;
             }
         };
@@ -29,8 +29,11 @@ package com.nuodb.migrator.jdbc.commit;
 
 import com.nuodb.migrator.jdbc.query.Query;
 
+import java.sql.SQLException;
 import java.sql.Statement;
 
+import static java.lang.System.nanoTime;
+
 /**
  * @author Sergey Bushik
  */
@@ -38,6 +41,7 @@ public abstract class CommitExecutorBase<S extends Statement> implements CommitE
 
     protected S statement;
     protected Query query;
+    protected CommitListener commitListener;
 
     public CommitExecutorBase(S statement, Query query) {
         this.statement = statement;
@@ -54,6 +58,29 @@ public abstract class CommitExecutorBase<S extends Statement> implements CommitE
         return query;
     }
 
+    @Override
+    public CommitListener getCommitListener() {
+        return commitListener;
+    }
+
+    @Override
+    public void setCommitListener(CommitListener commitListener) {
+        this.commitListener = commitListener;
+    }
+
+    /**
+     * Commits the transaction & notifies the commit listener
+     *
+     * @throws SQLException if commit fails
+     */
+    protected void commit() throws SQLException {
+        long start = nanoTime();
+        statement.getConnection().commit();
+        if (commitListener != null) {
+            commitListener.onCommit(this, nanoTime() - start);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -50,11 +50,20 @@ public class DB2LimitHandler extends SimpleLimitHandler {
 
     @Override
     protected String createLimitOffsetQuery(String query, long count, long offset) {
-        StringBuilder limitQuery = new StringBuilder(query.length());
-        limitQuery.append("SELECT ").append(getColumns(query)).append(" FROM (");
-        limitQuery.append("SELECT QUERY2__.*, ROWNUMBER() OVER (ORDER BY ORDER OF QUERY2__) AS ROW_NUM__ FROM (");
-        limitQuery.append(createLimitQuery(query, offset + count)).append(") AS QUERY2__)");
-        limitQuery.append(" AS QUERY1__ WHERE ROW_NUM__ > ").append(offset).append(" ORDER BY ROW_NUM__");
-        return limitQuery.toString();
+        return createOffsetQuery(query, createLimitQuery(query, offset + count), offset);
+    }
+
+    @Override
+    protected String createOffsetQuery(String query, long offset) {
+        return createOffsetQuery(query, query, offset);
+    }
+
+    protected String createOffsetQuery(String query, String limitQuery, long offset) {
+        StringBuilder offsetQuery = new StringBuilder(query.length());
+        offsetQuery.append("SELECT ").append(getColumns(query)).append(" FROM (");
+        offsetQuery.append("SELECT QUERY2__.*, ROWNUMBER() OVER (ORDER BY ORDER OF QUERY2__) AS ROW_NUM__ FROM (");
+        offsetQuery.append(limitQuery).append(") AS QUERY2__)");
+        offsetQuery.append(" AS QUERY1__ WHERE ROW_NUM__ > ").append(offset).append(" ORDER BY ROW_NUM__");
+        return offsetQuery.toString();
     }
 }
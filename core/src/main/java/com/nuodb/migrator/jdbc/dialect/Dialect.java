@@ -99,6 +99,10 @@ public interface Dialect {
 
     RowCountHandler createRowCountHandler(Table table, Column column, String filter, RowCountType rowCountType);
 
+    boolean supportsRowIdRange(Table table);
+
+    RowIdRangeHandler createRowIdRangeHandler(Table table);
+
     String getNullColumnString();
 
     String getNoColumnsInsert();
@@ -53,11 +53,24 @@ public class MSSQLServer2005LimitHandler extends MSSQLServerLimitHandler {
         return createLimitOffsetQuery(query, valueOf(offset), valueOf(offset + count));
     }
 
+    @Override
+    protected String createParameterizedOffsetQuery(String query) {
+        return createLimitOffsetQuery(query, "?", null);
+    }
+
+    @Override
+    protected String createOffsetQuery(String query, long offset) {
+        return createLimitOffsetQuery(query, valueOf(offset), null);
+    }
+
     protected String createLimitOffsetQuery(String query, String rowStart, String rowEnd) {
         StringBuilder limitQuery = new StringBuilder(query.length());
         limitQuery.append("SELECT ").append(getColumns(query)).append(" FROM (");
         limitQuery.append(addColumn(query, "ROW_NUMBER() OVER (ORDER BY CURRENT_TIMESTAMP) AS ROW_NUMBER__"));
-        limitQuery.append(") QUERY__ WHERE ROW_NUMBER__ > " + rowStart + " AND ROW_NUMBER__ <= " + rowEnd);
+        limitQuery.append(") QUERY__ WHERE ROW_NUMBER__ > " + rowStart);
+        if (rowEnd != null) {
+            limitQuery.append(" AND ROW_NUMBER__ <= " + rowEnd);
+        }
         return limitQuery.toString();
     }
 
@@ -36,6 +36,8 @@ import static java.lang.String.valueOf;
  */
 public class MySQLLimitHandler extends SimpleLimitHandler {
 
+    public static final String MAX_LIMIT = "18446744073709551615";
+
     public MySQLLimitHandler(Dialect dialect, String query, QueryLimit queryLimit) {
         super(dialect, query, queryLimit);
     }
@@ -59,4 +61,17 @@ public class MySQLLimitHandler extends SimpleLimitHandler {
     protected String createParameterizedLimitOffsetQuery(String query) {
         return query + " LIMIT ? OFFSET ?";
     }
+
+    /**
+     * MySQL has no offset without limit syntax, so the largest unsigned BIGINT is used as a limit
+     */
+    @Override
+    protected String createOffsetQuery(String query, long offset) {
+        return query + " LIMIT " + MAX_LIMIT + " OFFSET " + offset;
+    }
+
+    @Override
+    protected String createParameterizedOffsetQuery(String query) {
+        return query + " LIMIT " + MAX_LIMIT + " OFFSET ?";
+    }
 }
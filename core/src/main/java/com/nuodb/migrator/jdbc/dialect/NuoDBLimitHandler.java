@@ -59,4 +59,14 @@ public class NuoDBLimitHandler extends SimpleLimitHandler {
     protected String createParameterizedLimitOffsetQuery(String query) {
         return query + " LIMIT ? OFFSET ?";
     }
+
+    @Override
+    protected String createOffsetQuery(String query, long offset) {
+        return query + " OFFSET " + offset;
+    }
+
+    @Override
+    protected String createParameterizedOffsetQuery(String query) {
+        return query + " OFFSET ?";
+    }
 }
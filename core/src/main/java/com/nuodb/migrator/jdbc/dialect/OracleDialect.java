@@ -222,4 +222,14 @@ public class OracleDialect extends SimpleDialect {
     public RowCountHandler createRowCountHandler(Table table, Column column, String filter, RowCountType rowCountType) {
         return new OracleTableRowCountHandler(this, table, column, filter, rowCountType);
     }
+
+    @Override
+    public boolean supportsRowIdRange(Table table) {
+        return true;
+    }
+
+    @Override
+    public RowIdRangeHandler createRowIdRangeHandler(Table table) {
+        return new OracleRowIdRangeHandler(this, table);
+    }
 }
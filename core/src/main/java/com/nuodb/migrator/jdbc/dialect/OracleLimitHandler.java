@@ -67,6 +67,16 @@ public class OracleLimitHandler extends SimpleLimitHandler {
         return createLimitQuery(query, asList("ROWNUM_ > ?", "ROWNUM_ <= ?"));
     }
 
+    @Override
+    protected String createOffsetQuery(String query, long offset) {
+        return createLimitQuery(query, asList("ROWNUM_ > " + offset));
+    }
+
+    @Override
+    protected String createParameterizedOffsetQuery(String query) {
+        return createLimitQuery(query, asList("ROWNUM_ > ?"));
+    }
+
     protected String createLimitQuery(String query, Collection<String> filters) {
         boolean forUpdate = false;
         if (endsWithIgnoreCase(query, " FOR UPDATE")) {
@@ -27,17 +27,26 @@
  */
 package com.nuodb.migrator.jdbc.dialect;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
 import com.nuodb.migrator.jdbc.type.JdbcTypeException;
 import com.nuodb.migrator.jdbc.type.adapter.JdbcLobTypeSupport;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Map;
 
 import static com.google.common.collect.Maps.newHashMap;
+import static org.apache.commons.io.IOUtils.closeQuietly;
 
 /**
  * @author Sergey Bushik
@@ -101,6 +110,36 @@ public class OracleLobTypeSupport implements JdbcLobTypeSupport {
         releaseLobAfterAccess(connection, blob);
     }
 
+    @Override
+    public long copyBlob(Connection connection, Blob blob, OutputStream output) throws SQLException {
+        initBlobBeforeAccess(connection, blob);
+        InputStream input = null;
+        try {
+            input = blob.getBinaryStream();
+            return ByteStreams.copy(input, output);
+        } catch (IOException exception) {
+            throw new JdbcTypeException(exception);
+        } finally {
+            closeQuietly(input);
+            releaseBlobAfterAccess(connection, blob);
+        }
+    }
+
+    @Override
+    public long copyClob(Connection connection, Clob clob, Writer writer) throws SQLException {
+        initClobBeforeAccess(connection, clob);
+        Reader reader = null;
+        try {
+            reader = clob.getCharacterStream();
+            return CharStreams.copy(reader, writer);
+        } catch (IOException exception) {
+            throw new JdbcTypeException(exception);
+        } finally {
+            closeQuietly(reader);
+            releaseClobAfterAccess(connection, clob);
+        }
+    }
+
     private void closeLob(Connection connection, Object lob) {
         try {
             lob.getClass().getMethod("close", (Class[]) null).invoke(lob, (Object[]) null);
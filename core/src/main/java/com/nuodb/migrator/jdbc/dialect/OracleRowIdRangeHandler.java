@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Table;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+
+/**
+ * Splits table by ROWID ranges starting at table extents, extents are grouped into ranges of about the same number
+ * of blocks. Requires select access to DBA_EXTENTS & DBA_OBJECTS dictionary views, which is checked once with
+ * {@link #isRowIdRangeAvailable(Connection)}, so that the table is split by other means if user lacks DBA or
+ * SELECT_CATALOG_ROLE privileges.
+ *
+ * @author Sergey Bushik
+ */
+public class OracleRowIdRangeHandler extends SimpleRowIdRangeHandler {
+
+    public static final String ROW_ID = "ROWID";
+
+    public static final String ROW_ID_PARAMETER = "CHARTOROWID(?)";
+
+    public static final String EXTENTS_QUERY =
+            "SELECT ROWIDTOCHAR(DBMS_ROWID.ROWID_CREATE(1, O.DATA_OBJECT_ID, E.RELATIVE_FNO, E.BLOCK_ID, 0)), " +
+            "E.BLOCKS FROM DBA_EXTENTS E, DBA_OBJECTS O " +
+            "WHERE E.OWNER=? AND E.SEGMENT_NAME=? AND E.SEGMENT_TYPE LIKE 'TABLE%' " +
+            "AND O.OWNER=E.OWNER AND O.OBJECT_NAME=E.SEGMENT_NAME AND O.OBJECT_TYPE LIKE 'TABLE%' " +
+            "AND (O.SUBOBJECT_NAME=E.PARTITION_NAME OR O.SUBOBJECT_NAME IS NULL AND E.PARTITION_NAME IS NULL) " +
+            "ORDER BY O.DATA_OBJECT_ID, E.RELATIVE_FNO, E.BLOCK_ID";
+
+    public static final String EXTENTS_ACCESS_QUERY = "SELECT 1 FROM DBA_EXTENTS E, DBA_OBJECTS O WHERE 1=0";
+
+    /**
+     * ORA-00942: table or view does not exist
+     */
+    public static final int TABLE_OR_VIEW_DOES_NOT_EXIST = 942;
+
+    /**
+     * ORA-01031: insufficient privileges
+     */
+    public static final int INSUFFICIENT_PRIVILEGES = 1031;
+
+    public OracleRowIdRangeHandler(Dialect dialect, Table table) {
+        super(dialect, table);
+    }
+
+    @Override
+    public boolean isRowIdRangeAvailable(Connection connection) throws SQLException {
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(EXTENTS_ACCESS_QUERY);
+            closeQuietly(statement.executeQuery());
+            return true;
+        } catch (SQLException exception) {
+            int errorCode = exception.getErrorCode();
+            if (errorCode == TABLE_OR_VIEW_DOES_NOT_EXIST || errorCode == INSUFFICIENT_PRIVILEGES) {
+                return false;
+            }
+            throw exception;
+        } finally {
+            closeQuietly(statement);
+        }
+    }
+
+    @Override
+    public String getRowId() {
+        return ROW_ID;
+    }
+
+    @Override
+    public String getRowIdParameter() {
+        return ROW_ID_PARAMETER;
+    }
+
+    @Override
+    protected String getRowIdBoundariesQuery() {
+        return EXTENTS_QUERY;
+    }
+
+    @Override
+    protected void bindParameters(PreparedStatement statement) throws SQLException {
+        Table table = getTable();
+        statement.setString(1, table.getSchema().getName());
+        statement.setString(2, table.getName());
+    }
+
+    @Override
+    protected List<Object> getRowIdBoundaries(ResultSet resultSet, long splits) throws SQLException {
+        List<String> extents = newArrayList();
+        List<Long> blocks = newArrayList();
+        long totalBlocks = 0;
+        while (resultSet.next()) {
+            extents.add(resultSet.getString(1));
+            long extentBlocks = resultSet.getLong(2);
+            blocks.add(extentBlocks);
+            totalBlocks += extentBlocks;
+        }
+        List<Object> boundaries = newArrayList();
+        double splitBlocks = (double) totalBlocks / splits;
+        long offset = blocks.isEmpty() ? 0 : blocks.get(0);
+        for (int extent = 1; extent < extents.size() && boundaries.size() < splits - 1; extent++) {
+            if (offset >= splitBlocks * (boundaries.size() + 1)) {
+                boundaries.add(extents.get(extent));
+            }
+            offset += blocks.get(extent);
+        }
+        return boundaries;
+    }
+}
@@ -201,4 +201,14 @@ public class PostgreSQLDialect extends SimpleDialect {
     public RowCountHandler createRowCountHandler(Table table, Column column, String filter, RowCountType rowCountType) {
         return new PostgreSQLTableRowCountHandler(this, table, column, filter, rowCountType);
     }
+
+    @Override
+    public boolean supportsRowIdRange(Table table) {
+        return true;
+    }
+
+    @Override
+    public RowIdRangeHandler createRowIdRangeHandler(Table table) {
+        return new PostgreSQLRowIdRangeHandler(this, table);
+    }
 }
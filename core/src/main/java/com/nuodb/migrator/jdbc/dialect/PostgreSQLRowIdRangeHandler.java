@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Table;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Splits table by ctid ranges of equal number of heap pages. Ctid range predicates are served by TID range scan
+ * starting from PostgreSQL 14, older servers filter ctid during sequential scan.
+ *
+ * @author Sergey Bushik
+ */
+public class PostgreSQLRowIdRangeHandler extends SimpleRowIdRangeHandler {
+
+    public static final String ROW_ID = "ctid";
+
+    public static final String ROW_ID_PARAMETER = "CAST(? AS tid)";
+
+    public static final String PAGES_QUERY =
+            "SELECT pg_relation_size(CAST(? AS regclass)) / CAST(current_setting('block_size') AS int)";
+
+    public PostgreSQLRowIdRangeHandler(Dialect dialect, Table table) {
+        super(dialect, table);
+    }
+
+    @Override
+    public String getRowId() {
+        return ROW_ID;
+    }
+
+    @Override
+    public String getRowIdParameter() {
+        return ROW_ID_PARAMETER;
+    }
+
+    @Override
+    protected String getRowIdBoundariesQuery() {
+        return PAGES_QUERY;
+    }
+
+    @Override
+    protected void bindParameters(PreparedStatement statement) throws SQLException {
+        statement.setString(1, getTable().getQualifiedName(getDialect()));
+    }
+
+    @Override
+    protected List<Object> getRowIdBoundaries(ResultSet resultSet, long splits) throws SQLException {
+        long pages = resultSet.next() ? resultSet.getLong(1) : 0;
+        long splitPages = (pages + splits - 1) / splits;
+        List<Object> boundaries = newArrayList();
+        for (long page = splitPages; splitPages > 0 && page < pages; page += splitPages) {
+            boundaries.add("(" + page + ",0)");
+        }
+        return boundaries;
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Table;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Plans physical row locator ranges of a table, so that table can be split into chunks scanned in parallel without
+ * a numeric key and without offsets.
+ *
+ * @author Sergey Bushik
+ */
+public interface RowIdRangeHandler {
+
+    /**
+     * Pseudo column holding physical row locator, i.e. ROWID or ctid.
+     *
+     * @return row locator expression
+     */
+    String getRowId();
+
+    /**
+     * Parameter placeholder converting bound string value to row locator type.
+     *
+     * @return parameter expression
+     */
+    String getRowIdParameter();
+
+    /**
+     * Checks that storage layout is readable on the given connection, i.e. current user has access to required
+     * dictionary views.
+     *
+     * @param connection to check storage layout access on
+     * @return true if row locator boundaries can be calculated on this connection
+     * @throws SQLException if access can't be checked
+     */
+    boolean isRowIdRangeAvailable(Connection connection) throws SQLException;
+
+    /**
+     * Calculates ascending boundaries dividing table storage into at most the given number of ranges.
+     *
+     * @param connection to read storage layout with
+     * @param splits     requested number of ranges
+     * @return ascending list of at most splits - 1 boundaries
+     * @throws SQLException if storage layout can't be read
+     */
+    List<Object> getRowIdBoundaries(Connection connection, long splits) throws SQLException;
+
+    Dialect getDialect();
+
+    Table getTable();
+}
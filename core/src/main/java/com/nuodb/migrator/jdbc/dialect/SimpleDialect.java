@@ -416,6 +416,16 @@ public class SimpleDialect extends SimpleServiceResolverAware<Dialect> implement
         return new SimpleTableRowCountHandler(this, table, column, filter, rowCountType);
     }
 
+    @Override
+    public boolean supportsRowIdRange(Table table) {
+        return false;
+    }
+
+    @Override
+    public RowIdRangeHandler createRowIdRangeHandler(Table table) {
+        throw new DialectException("Row id ranges are not supported");
+    }
+
     /**
      * Supports LIMIT {row count} syntax.
      *
@@ -51,7 +51,10 @@ public class SimpleLimitHandler extends QueryHelper implements LimitHandler {
     @Override
     public String getLimitQuery(boolean parameterized) {
         String limitQuery;
-        if (hasOffset()) {
+        if (!hasCount()) {
+            limitQuery = !hasOffset() ? query : parameterized ? createParameterizedOffsetQuery(query) :
+                    createOffsetQuery(query, getOffset());
+        } else if (hasOffset()) {
             limitQuery = parameterized ? createParameterizedLimitOffsetQuery(query) :
                     createLimitOffsetQuery(query, getCount(), getOffset());
         } else {
@@ -61,6 +64,10 @@ public class SimpleLimitHandler extends QueryHelper implements LimitHandler {
         return limitQuery;
     }
 
+    protected boolean hasCount() {
+        return QueryLimitUtils.hasCount(queryLimit);
+    }
+
     protected boolean hasOffset() {
         return getOffset() > 0;
     }
@@ -81,6 +88,14 @@ public class SimpleLimitHandler extends QueryHelper implements LimitHandler {
         throw new DialectException("Limit offset query syntax with parameters is not supported");
     }
 
+    protected String createOffsetQuery(String query, long offset) {
+        throw new DialectException("Offset query syntax is not supported");
+    }
+
+    protected String createParameterizedOffsetQuery(String query) {
+        throw new DialectException("Offset query syntax with parameters is not supported");
+    }
+
     protected long getCount() {
         return QueryLimitUtils.getCount(queryLimit);
     }
@@ -119,7 +134,14 @@ public class SimpleLimitHandler extends QueryHelper implements LimitHandler {
 
     protected int bindParameters(PreparedStatement statement, int index) throws SQLException {
         int parameters;
-        if (!hasOffset()) {
+        if (!hasCount()) {
+            if (hasOffset()) {
+                bindOffset(statement, index);
+                parameters = 1;
+            } else {
+                parameters = 0;
+            }
+        } else if (!hasOffset()) {
             bindLimit(statement, index);
             parameters = 1;
         } else {
@@ -137,6 +159,10 @@ public class SimpleLimitHandler extends QueryHelper implements LimitHandler {
         statement.setLong(index, getCount());
         statement.setLong(index + 1, getOffset());
     }
+
+    protected void bindOffset(PreparedStatement statement, int index) throws SQLException {
+        statement.setLong(index, getOffset());
+    }
 }
 
 
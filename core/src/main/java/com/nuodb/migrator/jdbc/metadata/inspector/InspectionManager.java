@@ -31,6 +31,7 @@ import com.nuodb.migrator.jdbc.dialect.DialectResolver;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.metadata.MetaData;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
 import org.slf4j.Logger;
 
 import java.sql.Connection;
@@ -138,6 +139,31 @@ public class InspectionManager {
         return inspectionResults;
     }
 
+    /**
+     * Inspects objects in the scope fanning out inspection of every object type per schema over the connections
+     * opened from the session factory, falls back to the serial inspection on a single thread.
+     *
+     * @param connection      connection to inspect database, catalogs, schemas and tables with
+     * @param sessionFactory  factory to open additional sessions from
+     * @param threads         number of concurrent inspection threads
+     * @param inspectionScope inspection scope
+     * @param objectTypes     object types to inspect
+     * @return inspection results
+     * @throws SQLException if inspection fails
+     */
+    public InspectionResults inspect(Connection connection, SessionFactory sessionFactory, int threads,
+                                     InspectionScope inspectionScope,
+                                     MetaDataType... objectTypes) throws SQLException {
+        InspectionResults inspectionResults = createInspectionResults();
+        if (sessionFactory != null && threads > 1) {
+            createParallelInspection(sessionFactory, threads).inspect(
+                    connection, inspectionResults, inspectionScope, objectTypes);
+        } else {
+            inspect(connection, inspectionResults, inspectionScope, objectTypes);
+        }
+        return inspectionResults;
+    }
+
     public InspectionResults inspect(Connection connection, MetaData object,
                                      MetaDataType... objectTypes) throws SQLException {
         InspectionResults inspectionResults = createInspectionResults();
@@ -191,6 +217,10 @@ public class InspectionManager {
         }
     }
 
+    protected ParallelInspection createParallelInspection(SessionFactory sessionFactory, int threads) {
+        return new ParallelInspection(this, sessionFactory, threads);
+    }
+
     protected InspectionResults createInspectionResults() {
         return new SimpleInspectionResults();
     }
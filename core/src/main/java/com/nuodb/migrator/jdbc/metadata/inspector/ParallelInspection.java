@@ -0,0 +1,311 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.google.common.collect.Lists;
+import com.nuodb.migrator.jdbc.metadata.MetaData;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Schema;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
+import org.slf4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.partition;
+import static com.google.common.collect.Sets.newTreeSet;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataHandlerUtils.getHandler;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.*;
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.synchronizedList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Inspects meta data using a small pool of connections opened from the session factory. Database, catalogs, schemas
+ * and tables are inspected serially on the provided connection, then each remaining object type is fanned out per
+ * schema (or per batch of tables if the inspector can't query a whole schema at once) and inspected concurrently.
+ * Every task collects its objects into a private {@link InspectionResults}, which are merged into the target results
+ * on the calling thread in the order tasks were submitted, so the order of the results stays deterministic.
+ *
+ * @author Sergey Bushik
+ */
+public class ParallelInspection {
+
+    public static final int TABLES_PER_TASK = 64;
+
+    /**
+     * Object types establishing the structure of the model, which are inspected serially
+     */
+    private static final Collection<MetaDataType> STRUCTURE_TYPES = asList(DATABASE, CATALOG, SCHEMA, TABLE);
+    /**
+     * Object types referencing tables across schemas, which are inspected serially
+     */
+    private static final Collection<MetaDataType> SERIAL_TYPES = asList(FOREIGN_KEY);
+    /**
+     * Object types modifying inspected tables only, which are safe to inspect in batches of tables of the same schema
+     */
+    private static final Collection<MetaDataType> TABLE_TYPES = asList(COLUMN, INDEX, PRIMARY_KEY, CHECK);
+
+    private final transient Logger logger = getLogger(getClass());
+
+    private final InspectionManager inspectionManager;
+    private final SessionFactory sessionFactory;
+    private final int threads;
+    private int tablesPerTask = TABLES_PER_TASK;
+    private final BlockingQueue<Session> idleSessions = new LinkedBlockingQueue<Session>();
+    private final List<Session> sessions = synchronizedList(new ArrayList<Session>());
+
+    public ParallelInspection(InspectionManager inspectionManager, SessionFactory sessionFactory, int threads) {
+        this.inspectionManager = inspectionManager;
+        this.sessionFactory = sessionFactory;
+        this.threads = threads;
+    }
+
+    public void inspect(Connection connection, InspectionResults inspectionResults, InspectionScope inspectionScope,
+                        MetaDataType... objectTypes) throws SQLException {
+        Collection<MetaDataType> structureTypes = newArrayList();
+        Collection<MetaDataType> otherTypes = newArrayList();
+        for (MetaDataType objectType : newTreeSet(asList(objectTypes))) {
+            (STRUCTURE_TYPES.contains(objectType) ? structureTypes : otherTypes).add(objectType);
+        }
+        if (!structureTypes.contains(TABLE) || otherTypes.isEmpty()) {
+            inspectionManager.inspect(connection, inspectionResults, inspectionScope, objectTypes);
+            return;
+        }
+        inspectionManager.inspect(connection, inspectionResults, inspectionScope,
+                structureTypes.toArray(new MetaDataType[structureTypes.size()]));
+        List<List<Table>> tables = getTables(inspectionResults);
+        ExecutorService executorService = createExecutorService();
+        try {
+            for (MetaDataType objectType : otherTypes) {
+                if (SERIAL_TYPES.contains(objectType) || tables.isEmpty()) {
+                    inspectionManager.inspect(connection, inspectionResults, inspectionScope, objectType);
+                } else {
+                    inspect(connection, inspectionResults, inspectionScope, objectType, tables, executorService);
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+            close();
+        }
+    }
+
+    protected void inspect(Connection connection, InspectionResults inspectionResults,
+                           InspectionScope inspectionScope, MetaDataType objectType,
+                           List<List<Table>> tables, ExecutorService executorService) throws SQLException {
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Inspecting %s in %d schema(s) using %d thread(s)", objectType, tables.size(),
+                    threads));
+        }
+        Inspector inspector = getHandler(inspectionManager.getInspectors(), objectType);
+        InspectionContext inspectionContext = inspectionManager.createInspectionContext(
+                connection, inspectionResults, objectType);
+        List<Future<InspectionResults>> futures = newArrayList();
+        try {
+            for (List<Table> schemaTables : tables) {
+                Schema schema = schemaTables.get(0).getSchema();
+                InspectionScope schemaScope = createInspectionScope(inspectionScope, schema);
+                if (schemaScope != null && inspector.supportsScope(inspectionContext, schemaScope)) {
+                    futures.add(executorService.submit(
+                            createTask(schema, schemaScope, null, objectType)));
+                } else {
+                    int size = TABLE_TYPES.contains(objectType) ? tablesPerTask : schemaTables.size();
+                    for (List<Table> batch : partition(schemaTables, size)) {
+                        futures.add(executorService.submit(
+                                createTask(schema, null, batch, objectType)));
+                    }
+                }
+            }
+            for (Future<InspectionResults> future : futures) {
+                merge(inspectionResults, get(future));
+            }
+        } finally {
+            for (Future<InspectionResults> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    protected Callable<InspectionResults> createTask(final Schema schema, final InspectionScope inspectionScope,
+                                                     final Collection<Table> tables,
+                                                     final MetaDataType objectType) {
+        return new Callable<InspectionResults>() {
+            @Override
+            public InspectionResults call() throws Exception {
+                Session session = openSession();
+                try {
+                    InspectionResults inspectionResults = inspectionManager.createInspectionResults();
+                    inspectionResults.addObject(schema.getDatabase());
+                    InspectionContext inspectionContext = inspectionManager.createInspectionContext(
+                            session.getConnection(), inspectionResults, objectType);
+                    try {
+                        if (inspectionScope != null) {
+                            inspectionContext.inspect(inspectionScope, objectType);
+                        } else {
+                            inspectionContext.inspect(Lists.<MetaData>newArrayList(tables), objectType);
+                        }
+                    } finally {
+                        inspectionManager.closeInspectionContext(inspectionContext);
+                    }
+                    return inspectionResults;
+                } finally {
+                    releaseSession(session);
+                }
+            }
+        };
+    }
+
+    /**
+     * Narrows down inspection scope to the given schema, returns null if the scope can't be narrowed down
+     *
+     * @param inspectionScope original inspection scope
+     * @param schema          schema to narrow the scope to
+     * @return inspection scope for the given schema or null
+     */
+    protected InspectionScope createInspectionScope(InspectionScope inspectionScope, Schema schema) {
+        String catalogName = schema.getCatalog().getName();
+        String schemaName = schema.getName();
+        if (inspectionScope instanceof TableInspectionScope) {
+            TableInspectionScope tableInspectionScope = (TableInspectionScope) inspectionScope;
+            TableInspectionScope schemaScope = new TableInspectionScope(catalogName, schemaName,
+                    tableInspectionScope.getTableTypes());
+            schemaScope.setTable(tableInspectionScope.getTable());
+            return schemaScope;
+        } else if (inspectionScope instanceof SchemaInspectionScope) {
+            return new SchemaInspectionScope(catalogName, schemaName);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Groups inspected tables by schema preserving the order of inspection
+     *
+     * @param inspectionResults results containing inspected tables
+     * @return lists of tables, one per schema
+     */
+    protected List<List<Table>> getTables(InspectionResults inspectionResults) {
+        Map<Schema, List<Table>> tables = new IdentityHashMap<Schema, List<Table>>();
+        List<List<Table>> schemas = newArrayList();
+        for (MetaData object : inspectionResults.getObjects(TABLE)) {
+            Table table = (Table) object;
+            List<Table> schemaTables = tables.get(table.getSchema());
+            if (schemaTables == null) {
+                tables.put(table.getSchema(), schemaTables = newArrayList());
+                schemas.add(schemaTables);
+            }
+            schemaTables.add(table);
+        }
+        return schemas;
+    }
+
+    protected void merge(InspectionResults inspectionResults, InspectionResults taskResults) {
+        for (MetaData object : taskResults.getObjects()) {
+            if (object.getObjectType() != DATABASE) {
+                inspectionResults.addObject(object);
+            }
+        }
+    }
+
+    protected InspectionResults get(Future<InspectionResults> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InspectorException(exception);
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new InspectorException(cause);
+            }
+        }
+    }
+
+    protected ExecutorService createExecutorService() {
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Using fork join pool with %d thread(s)", threads));
+        }
+        return new ForkJoinPool(threads);
+    }
+
+    protected Session openSession() throws SQLException {
+        Session session = idleSessions.poll();
+        if (session == null) {
+            session = sessionFactory.openSession();
+            sessions.add(session);
+        }
+        return session;
+    }
+
+    protected void releaseSession(Session session) {
+        idleSessions.offer(session);
+    }
+
+    protected void close() {
+        synchronized (sessions) {
+            for (Session session : sessions) {
+                closeQuietly(session);
+            }
+            sessions.clear();
+        }
+        idleSessions.clear();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getTablesPerTask() {
+        return tablesPerTask;
+    }
+
+    public void setTablesPerTask(int tablesPerTask) {
+        this.tablesPerTask = tablesPerTask;
+    }
+}
@@ -37,7 +37,6 @@ import java.sql.*;
 
 import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getCount;
 import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getOffset;
-import static java.lang.Math.min;
 
 /**
  * @author Sergey Bushik
@@ -63,10 +62,10 @@ public class LimitQuerySplitter extends QuerySplitterBase<Statement> {
     @Override
     protected QueryLimit createQueryLimit(Connection connection, int splitIndex) throws SQLException {
         QueryLimit queryLimit = getQueryLimit();
-        long offset = splitIndex * getCount(queryLimit) + getOffset(queryLimit);
-        // long limit = getLimit(queryLimit);
-        long limit = min(getCount(queryLimit), getRowCount(connection) - offset);
-        return new QueryLimit(limit, offset);
+        long count = getCount(queryLimit);
+        long offset = splitIndex * count + getOffset(queryLimit);
+        // the last split is open ended to include rows missed by an approximate or outdated row count
+        return offset + count < getRowCount(connection) ? new QueryLimit(count, offset) : new QueryLimit(null, offset);
     }
 
     protected long getRowCount(Connection connection) throws SQLException {
@@ -28,12 +28,21 @@
 package com.nuodb.migrator.jdbc.split;
 
 import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.RowCountType;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Index;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.query.Query;
 
+import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.Collection;
 
+import static com.google.common.collect.Iterables.getOnlyElement;
+
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
 import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
 
 /**
@@ -44,7 +53,26 @@ import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
 public class QuerySplitters {
 
     public static boolean supportsLimitSplitter(Dialect dialect, Table table, String filter) {
-        return dialect.supportsLimitOffset() && dialect.supportsRowCount(table, null, filter, EXACT);
+        return dialect.supportsLimitOffset() && getRowCountType(dialect, table, filter) != null;
+    }
+
+    /**
+     * Splits are planned with approximate row count from the catalog statistics, which is returned immediately,
+     * if the dialect provides one. Exact row count is used otherwise.
+     *
+     * @param dialect to check supported row count types
+     * @param table   to count rows of
+     * @param filter  optional table filter
+     * @return row count type or null if row count is not supported
+     */
+    public static RowCountType getRowCountType(Dialect dialect, Table table, String filter) {
+        if (dialect.supportsRowCount(table, null, filter, APPROX)) {
+            return APPROX;
+        } else if (dialect.supportsRowCount(table, null, filter, EXACT)) {
+            return EXACT;
+        } else {
+            return null;
+        }
     }
 
     public static QuerySplitter<Statement> newLimitSplitter(Dialect dialect, RowCountStrategy rowCountStrategy,
@@ -52,6 +80,55 @@ public class QuerySplitters {
         return new LimitQuerySplitter(dialect, rowCountStrategy, query, queryLimit, null);
     }
 
+    public static boolean supportsRangeSplitter(Dialect dialect, Table table, String filter) {
+        return getRangeColumn(table) != null && getRowCountType(dialect, table, filter) != null;
+    }
+
+    /**
+     * Chooses key column to split table by ranges: single column primary key is preferred, otherwise first single
+     * column index is taken. Key column should be of integer, decimal without fraction or date time type.
+     *
+     * @param table to choose key column for
+     * @return key column or null if there's no suitable column
+     */
+    public static Column getRangeColumn(Table table) {
+        PrimaryKey primaryKey = table.getPrimaryKey();
+        if (primaryKey != null && isRangeColumn(primaryKey.getColumns())) {
+            return getOnlyElement(primaryKey.getColumns());
+        }
+        for (Index index : table.getIndexes()) {
+            if (isRangeColumn(index.getColumns())) {
+                return getOnlyElement(index.getColumns());
+            }
+        }
+        return null;
+    }
+
+    private static boolean isRangeColumn(Collection<Column> columns) {
+        return columns != null && columns.size() == 1 && RangeQuerySplitter.supportsRange(getOnlyElement(columns));
+    }
+
+    public static QuerySplitter<PreparedStatement> newRangeSplitter(Dialect dialect, RowCountStrategy rowCountStrategy,
+                                                                    Table table, Collection<Column> columns,
+                                                                    String filter, Query query,
+                                                                    QueryLimit queryLimit) {
+        return new RangeQuerySplitter(dialect, rowCountStrategy, table, columns, filter, getRangeColumn(table),
+                query, queryLimit, null);
+    }
+
+    public static boolean supportsRowIdSplitter(Dialect dialect, Table table, String filter) {
+        return dialect.supportsRowIdRange(table) && getRowCountType(dialect, table, filter) != null;
+    }
+
+    public static QuerySplitter<PreparedStatement> newRowIdSplitter(Dialect dialect, RowCountStrategy rowCountStrategy,
+                                                                    QuerySplitter fallbackQuerySplitter,
+                                                                    Table table, Collection<Column> columns,
+                                                                    String filter, Query query,
+                                                                    QueryLimit queryLimit) {
+        return new RowIdQuerySplitter(dialect, rowCountStrategy, dialect.createRowIdRangeHandler(table),
+                fallbackQuerySplitter, table, columns, filter, query, queryLimit, null);
+    }
+
     public static QuerySplitter<Statement> newNoLimitSplitter(Query query) {
         return new NoLimitQuerySplitter(query, null);
     }
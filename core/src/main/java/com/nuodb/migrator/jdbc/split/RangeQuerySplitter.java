@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.ParametersBinder;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.query.SelectQueryBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static java.math.BigDecimal.ONE;
+import static java.math.BigDecimal.ROUND_DOWN;
+import static java.math.BigDecimal.valueOf;
+import static java.sql.Types.*;
+
+/**
+ * Splits table query into key ranges {@code key >= ? AND key < ?} instead of limit & offset windows, so that every
+ * split is served by an index range scan rather than scanning and discarding preceding rows. Range boundaries are
+ * equally spaced between the minimum and the maximum of the key column. The first range includes nulls.
+ *
+ * @author Sergey Bushik
+ */
+public class RangeQuerySplitter extends RangeQuerySplitterBase {
+
+    private final Column column;
+
+    protected RangeQuerySplitter(Dialect dialect, RowCountStrategy rowCountStrategy,
+                                 Table table, Collection<Column> columns, String filter, Column column,
+                                 Query query, QueryLimit queryLimit, ParametersBinder parametersBinder) {
+        super(dialect, rowCountStrategy, table, columns, filter, query, queryLimit, parametersBinder);
+        this.column = column;
+    }
+
+    public static boolean supportsRange(Column column) {
+        switch (column.getTypeCode()) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case DATE:
+            case TIMESTAMP:
+                return true;
+            case NUMERIC:
+            case DECIMAL:
+                return column.getScale() != null && column.getScale() == 0;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected String getRangeKey() {
+        return column.getName(getDialect());
+    }
+
+    @Override
+    protected boolean isRangeNullable() {
+        return column.isNullable();
+    }
+
+    @Override
+    protected List<Object> createBoundaries(Connection connection, long splits) throws SQLException {
+        List<Object> boundaries = newArrayList();
+        String key = getRangeKey();
+        SelectQueryBuilder builder = createQueryBuilder();
+        builder.column("MIN(" + key + ")");
+        builder.column("MAX(" + key + ")");
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = connection.prepareStatement(builder.build().toString());
+            ParametersBinder parametersBinder = getParametersBinder();
+            if (parametersBinder != null) {
+                parametersBinder.bindParameters(statement, 1);
+            }
+            resultSet = statement.executeQuery();
+            if (resultSet.next()) {
+                switch (column.getTypeCode()) {
+                    case DATE:
+                    case TIMESTAMP:
+                        Timestamp minTime = resultSet.getTimestamp(1);
+                        Timestamp maxTime = resultSet.getTimestamp(2);
+                        if (minTime != null && maxTime != null) {
+                            for (BigDecimal boundary : createBoundaries(valueOf(minTime.getTime()),
+                                    valueOf(maxTime.getTime()), splits)) {
+                                boundaries.add(new Timestamp(boundary.longValue()));
+                            }
+                        }
+                        break;
+                    default:
+                        BigDecimal min = resultSet.getBigDecimal(1);
+                        BigDecimal max = resultSet.getBigDecimal(2);
+                        if (min != null && max != null) {
+                            boundaries.addAll(createBoundaries(min, max, splits));
+                        }
+                        break;
+                }
+            }
+        } finally {
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+        }
+        return boundaries;
+    }
+
+    /**
+     * Divides [min, max] range into at most the given number of equal width ranges with integer boundaries.
+     *
+     * @param min    lowest key value
+     * @param max    highest key value
+     * @param splits requested number of splits
+     * @return ascending list of splits - 1 boundaries, excluding min
+     */
+    protected static List<BigDecimal> createBoundaries(BigDecimal min, BigDecimal max, long splits) {
+        List<BigDecimal> boundaries = newArrayList();
+        BigDecimal range = max.subtract(min).add(ONE);
+        BigDecimal width = range.divide(valueOf(splits), 0, ROUND_DOWN).max(ONE);
+        BigDecimal boundary = min.add(width);
+        for (long split = 1; split < splits && boundary.compareTo(max) <= 0; split++) {
+            boundaries.add(boundary);
+            boundary = boundary.add(width);
+        }
+        return boundaries;
+    }
+
+    public Column getColumn() {
+        return column;
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.ParametersBinder;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.query.SelectQueryBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getCount;
+import static java.lang.Math.max;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Splits table query into ranges {@code key >= ? AND key < ?} of some ordered key, so that no split has to skip over
+ * rows of preceding splits. The number of ranges is calculated from the table row count and query limit count, the
+ * first range is open on the left side, the last range is open on the right side.
+ *
+ * @author Sergey Bushik
+ */
+public abstract class RangeQuerySplitterBase extends QuerySplitterBase<PreparedStatement> {
+
+    private final Dialect dialect;
+    private final RowCountStrategy rowCountStrategy;
+    private final Table table;
+    private final Collection<Column> columns;
+    private final String filter;
+    private List<Object> boundaries;
+
+    protected RangeQuerySplitterBase(Dialect dialect, RowCountStrategy rowCountStrategy,
+                                     Table table, Collection<Column> columns, String filter,
+                                     Query query, QueryLimit queryLimit, ParametersBinder parametersBinder) {
+        super(query, queryLimit, parametersBinder);
+        this.dialect = dialect;
+        this.rowCountStrategy = rowCountStrategy;
+        this.table = table;
+        this.columns = columns;
+        this.filter = filter;
+    }
+
+    @Override
+    protected boolean hasNextQuerySplit(Connection connection, int splitIndex) throws SQLException {
+        return splitIndex <= getBoundaries(connection).size();
+    }
+
+    @Override
+    protected QueryLimit createQueryLimit(Connection connection, int splitIndex) throws SQLException {
+        return getQueryLimit();
+    }
+
+    @Override
+    protected PreparedStatement createStatement(Connection connection, QueryLimit queryLimit,
+                                                int splitIndex) throws SQLException {
+        return prepareStatement(connection, queryLimit, splitIndex);
+    }
+
+    @Override
+    protected PreparedStatement prepareStatement(Connection connection, QueryLimit queryLimit,
+                                                 int splitIndex) throws SQLException {
+        List<Object> boundaries = getBoundaries(connection);
+        PreparedStatement statement = connection.prepareStatement(createSplitQuery(boundaries, splitIndex));
+        int parameter = 1;
+        ParametersBinder parametersBinder = getParametersBinder();
+        if (parametersBinder != null) {
+            parameter += parametersBinder.bindParameters(statement, parameter);
+        }
+        if (splitIndex > 0) {
+            statement.setObject(parameter++, boundaries.get(splitIndex - 1));
+        }
+        if (splitIndex < boundaries.size()) {
+            statement.setObject(parameter, boundaries.get(splitIndex));
+        }
+        return statement;
+    }
+
+    @Override
+    protected ResultSet executeStatement(PreparedStatement statement, QueryLimit queryLimit,
+                                         int splitIndex) throws SQLException {
+        return statement.executeQuery();
+    }
+
+    protected String createSplitQuery(List<Object> boundaries, int splitIndex) {
+        SelectQueryBuilder builder = createQueryBuilder();
+        if (columns != null) {
+            for (Column column : columns) {
+                builder.column(column);
+            }
+        }
+        String key = getRangeKey();
+        String parameter = getRangeParameter();
+        boolean lower = splitIndex > 0;
+        boolean upper = splitIndex < boundaries.size();
+        if (lower && upper) {
+            builder.filter(key + " >= " + parameter + " AND " + key + " < " + parameter);
+        } else if (lower) {
+            builder.filter(key + " >= " + parameter);
+        } else if (upper) {
+            builder.filter(isRangeNullable() ?
+                    "(" + key + " < " + parameter + " OR " + key + " IS NULL)" : key + " < " + parameter);
+        }
+        return builder.build().toString();
+    }
+
+    protected SelectQueryBuilder createQueryBuilder() {
+        SelectQueryBuilder builder = new SelectQueryBuilder();
+        builder.dialect(dialect);
+        builder.from(table);
+        if (!isEmpty(filter)) {
+            builder.filter("(" + filter + ")");
+        }
+        return builder;
+    }
+
+    /**
+     * Lazily plans split boundaries, there are n - 1 ascending boundaries for n splits.
+     *
+     * @param connection to query key range and row count on
+     * @return ascending list of boundaries, empty if the table fits into a single split
+     * @throws SQLException if range can't be calculated
+     */
+    protected List<Object> getBoundaries(Connection connection) throws SQLException {
+        if (boundaries == null) {
+            long count = getCount(getQueryLimit());
+            long rowCount = getRowCount(connection);
+            long splits = count > 0 ? (rowCount + count - 1) / count : 1;
+            boundaries = splits > 1 ? createBoundaries(connection, splits) : newArrayList();
+        }
+        return boundaries;
+    }
+
+    /**
+     * Calculates ascending boundaries dividing key range into at most the given number of ranges.
+     *
+     * @param connection to calculate boundaries on
+     * @param splits     requested number of splits, greater than one
+     * @return ascending list of at most splits - 1 boundaries
+     * @throws SQLException if boundaries can't be calculated
+     */
+    protected abstract List<Object> createBoundaries(Connection connection, long splits) throws SQLException;
+
+    protected abstract String getRangeKey();
+
+    protected String getRangeParameter() {
+        return "?";
+    }
+
+    protected boolean isRangeNullable() {
+        return false;
+    }
+
+    protected long getRowCount(Connection connection) throws SQLException {
+        return max(getRowCountStrategy().getRowCount(connection), 0);
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    public RowCountStrategy getRowCountStrategy() {
+        return rowCountStrategy;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public Collection<Column> getColumns() {
+        return columns;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.RowIdRangeHandler;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.ParametersBinder;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.query.StatementCallback;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Splits table query into ranges of physical row locators, i.e. Oracle ROWID or PostgreSQL ctid, planned by dialect
+ * specific {@link RowIdRangeHandler}. Used for tables without a key suitable for {@link RangeQuerySplitter}. If row
+ * locator ranges can't be planned on the source connection, i.e. dictionary views aren't accessible, splits are
+ * delegated to the fallback splitter.
+ *
+ * @author Sergey Bushik
+ */
+public class RowIdQuerySplitter extends RangeQuerySplitterBase {
+
+    private final RowIdRangeHandler rowIdRangeHandler;
+    private final QuerySplitter fallbackQuerySplitter;
+    private Boolean rowIdRangeAvailable;
+
+    protected RowIdQuerySplitter(Dialect dialect, RowCountStrategy rowCountStrategy,
+                                 RowIdRangeHandler rowIdRangeHandler, QuerySplitter fallbackQuerySplitter,
+                                 Table table, Collection<Column> columns, String filter, Query query,
+                                 QueryLimit queryLimit, ParametersBinder parametersBinder) {
+        super(dialect, rowCountStrategy, table, columns, filter, query, queryLimit, parametersBinder);
+        this.rowIdRangeHandler = rowIdRangeHandler;
+        this.fallbackQuerySplitter = fallbackQuerySplitter;
+    }
+
+    @Override
+    public boolean hasNextQuerySplit(Connection connection) throws SQLException {
+        return isRowIdRangeAvailable(connection) ?
+                super.hasNextQuerySplit(connection) : fallbackQuerySplitter.hasNextQuerySplit(connection);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public QuerySplit getNextQuerySplit(Connection connection,
+                                        StatementCallback<PreparedStatement> callback) throws SQLException {
+        return isRowIdRangeAvailable(connection) ?
+                super.getNextQuerySplit(connection, callback) :
+                fallbackQuerySplitter.getNextQuerySplit(connection, callback);
+    }
+
+    /**
+     * Checks once whether row locator ranges can be planned on the source connection
+     *
+     * @param connection to check row locator ranges access on
+     * @return true if splits are planned by row locator ranges, false if they are delegated to fallback splitter
+     * @throws SQLException if access can't be checked
+     */
+    protected boolean isRowIdRangeAvailable(Connection connection) throws SQLException {
+        if (rowIdRangeAvailable == null) {
+            rowIdRangeAvailable = rowIdRangeHandler.isRowIdRangeAvailable(connection);
+        }
+        return rowIdRangeAvailable;
+    }
+
+    @Override
+    protected List<Object> createBoundaries(Connection connection, long splits) throws SQLException {
+        return rowIdRangeHandler.getRowIdBoundaries(connection, splits);
+    }
+
+    @Override
+    protected String getRangeKey() {
+        return rowIdRangeHandler.getRowId();
+    }
+
+    @Override
+    protected String getRangeParameter() {
+        return rowIdRangeHandler.getRowIdParameter();
+    }
+
+    public RowIdRangeHandler getRowIdRangeHandler() {
+        return rowIdRangeHandler;
+    }
+
+    public QuerySplitter getFallbackQuerySplitter() {
+        return fallbackQuerySplitter;
+    }
+}
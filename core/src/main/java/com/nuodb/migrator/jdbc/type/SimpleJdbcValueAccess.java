@@ -66,6 +66,14 @@ public class SimpleJdbcValueAccess<T> implements JdbcValueAccess<T> {
         this.field = field;
     }
 
+    public JdbcValueGetter<T> getJdbcValueGetter() {
+        return jdbcValueGetter;
+    }
+
+    public JdbcValueSetter getJdbcValueSetter() {
+        return jdbcValueSetter;
+    }
+
     @Override
     public Connection getConnection() {
         return connection;
@@ -48,6 +48,10 @@ public class SimpleJdbcValueGetter<T> implements JdbcValueGetter<T> {
         this.jdbcTypeValue = jdbcTypeValue;
     }
 
+    public JdbcTypeValue<T> getJdbcTypeValue() {
+        return jdbcTypeValue;
+    }
+
     @Override
     public T getValue(ResultSet resultSet, Connection connection, int columnIndex,
                       Field field, Map<String, Object> options) throws SQLException {
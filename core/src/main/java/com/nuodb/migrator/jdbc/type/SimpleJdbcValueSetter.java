@@ -48,6 +48,10 @@ public class SimpleJdbcValueSetter implements JdbcValueSetter {
         this.jdbcTypeValue = jdbcTypeValue;
     }
 
+    public JdbcTypeValue getJdbcTypeValue() {
+        return jdbcTypeValue;
+    }
+
     @Override
     public <X> void setValue(PreparedStatement statement, Connection connection, int index, Field field,
                              X value, Map<String, Object> options) throws SQLException {
@@ -34,6 +34,7 @@ import com.nuodb.migrator.jdbc.type.JdbcTypeException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -105,6 +106,15 @@ public class JdbcBlobTypeAdapter extends JdbcTypeAdapterBase<Blob> {
         }
     }
 
+    /**
+     * Streams content of the blob to the output without loading it to memory
+     *
+     * @return number of copied bytes
+     */
+    public long copy(Blob value, OutputStream output, Connection connection) throws SQLException {
+        return jdbcLobTypeSupport.copyBlob(connection, value, output);
+    }
+
     protected Blob createBlob(Connection connection) throws SQLException {
         return jdbcLobTypeSupport.createBlob(connection);
     }
@@ -36,6 +36,7 @@ import com.nuodb.migrator.jdbc.type.JdbcTypeException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.Writer;
 import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -136,6 +137,15 @@ public class JdbcClobTypeAdapter extends JdbcTypeAdapterBase<Clob> {
         }
     }
 
+    /**
+     * Streams content of the clob to the writer without loading it to memory
+     *
+     * @return number of copied characters
+     */
+    public long copy(Clob value, Writer writer, Connection connection) throws SQLException {
+        return jdbcLobTypeSupport.copyClob(connection, value, writer);
+    }
+
     protected Clob createClob(Connection connection) throws SQLException {
         return jdbcLobTypeSupport.createClob(connection);
     }
@@ -27,6 +27,8 @@
  */
 package com.nuodb.migrator.jdbc.type.adapter;
 
+import java.io.OutputStream;
+import java.io.Writer;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Connection;
@@ -52,4 +54,26 @@ public interface JdbcLobTypeSupport {
     void releaseClobAfterAccess(Connection connection, Clob clob) throws SQLException;
 
     void releaseBlobAfterAccess(Connection connection, Blob blob) throws SQLException;
+
+    /**
+     * Streams content of the blob to the output, the blob is released once the content is copied
+     *
+     * @param connection connection the blob belongs to
+     * @param blob       blob to copy
+     * @param output     output to copy to, left open
+     * @return number of copied bytes
+     * @throws SQLException if the blob can't be read
+     */
+    long copyBlob(Connection connection, Blob blob, OutputStream output) throws SQLException;
+
+    /**
+     * Streams content of the clob to the writer, the clob is released once the content is copied
+     *
+     * @param connection connection the clob belongs to
+     * @param clob       clob to copy
+     * @param writer     writer to copy to, left open
+     * @return number of copied characters
+     * @throws SQLException if the clob can't be read
+     */
+    long copyClob(Connection connection, Clob clob, Writer writer) throws SQLException;
 }
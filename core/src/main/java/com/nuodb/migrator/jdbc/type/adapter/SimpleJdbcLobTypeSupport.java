@@ -27,11 +27,22 @@
  */
 package com.nuodb.migrator.jdbc.type.adapter;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
+import com.nuodb.migrator.jdbc.type.JdbcTypeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
 /**
  * @author Sergey Bushik
  */
@@ -70,4 +81,34 @@ public class SimpleJdbcLobTypeSupport implements JdbcLobTypeSupport {
     @Override
     public void releaseBlobAfterAccess(Connection connection, Blob blob) throws SQLException {
     }
+
+    @Override
+    public long copyBlob(Connection connection, Blob blob, OutputStream output) throws SQLException {
+        initBlobBeforeAccess(connection, blob);
+        InputStream input = null;
+        try {
+            input = blob.getBinaryStream();
+            return ByteStreams.copy(input, output);
+        } catch (IOException exception) {
+            throw new JdbcTypeException(exception);
+        } finally {
+            closeQuietly(input);
+            releaseBlobAfterAccess(connection, blob);
+        }
+    }
+
+    @Override
+    public long copyClob(Connection connection, Clob clob, Writer writer) throws SQLException {
+        initClobBeforeAccess(connection, clob);
+        Reader reader = null;
+        try {
+            reader = clob.getCharacterStream();
+            return CharStreams.copy(reader, writer);
+        } catch (IOException exception) {
+            throw new JdbcTypeException(exception);
+        } finally {
+            closeQuietly(reader);
+            releaseClobAfterAccess(connection, clob);
+        }
+    }
 }
@@ -33,6 +33,9 @@ import com.nuodb.migrator.jdbc.connection.ConnectionProviderFactory;
 import com.nuodb.migrator.jdbc.dialect.DialectResolver;
 import com.nuodb.migrator.jdbc.metadata.inspector.InspectionManager;
 import com.nuodb.migrator.spec.JobSpec;
+import com.nuodb.migrator.spec.MetricsSpec;
+import com.nuodb.migrator.utils.metrics.Metrics;
+import com.nuodb.migrator.utils.metrics.MetricsReporter;
 
 import static com.nuodb.migrator.context.ContextUtils.createService;
 
@@ -113,4 +116,21 @@ public abstract class HasServicesJobBase<J extends JobSpec> extends HasJobSpecBa
     public void setValueFormatRegistryResolver(ValueFormatRegistryResolver valueFormatRegistryResolver) {
         this.valueFormatRegistryResolver = valueFormatRegistryResolver;
     }
+
+    protected Metrics createMetrics(String name) {
+        Metrics metrics = new Metrics(name);
+        metrics.setJmx(true);
+        return metrics;
+    }
+
+    protected MetricsReporter createMetricsReporter(MetricsSpec metricsSpec, Metrics... metrics) {
+        MetricsReporter metricsReporter = new MetricsReporter(metrics);
+        if (metricsSpec != null) {
+            if (metricsSpec.getInterval() != null) {
+                metricsReporter.setInterval(metricsSpec.getInterval());
+            }
+            metricsReporter.setFile(metricsSpec.getFile());
+        }
+        return metricsReporter;
+    }
 }
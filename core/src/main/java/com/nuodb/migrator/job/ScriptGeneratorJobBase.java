@@ -63,6 +63,11 @@ public abstract class ScriptGeneratorJobBase<T extends ScriptGeneratorJobSpecBas
         return getJobSpec().getTableTypes();
     }
 
+    protected int getInspectionThreads() {
+        Integer inspectionThreads = getJobSpec().getInspectionThreads();
+        return inspectionThreads != null ? inspectionThreads : 1;
+    }
+
     protected Collection<MetaDataType> getObjectTypes() {
         return getJobSpec().getObjectTypes();
     }
@@ -37,8 +37,10 @@ import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.job.ScriptGeneratorJobBase;
 import com.nuodb.migrator.spec.ConnectionSpec;
 import com.nuodb.migrator.spec.LoadJobSpec;
+import com.nuodb.migrator.spec.MetricsSpec;
 import com.nuodb.migrator.spec.MigrationMode;
 import com.nuodb.migrator.spec.ResourceSpec;
+import com.nuodb.migrator.utils.metrics.MetricsReporter;
 
 import java.util.Collection;
 import java.util.Map;
@@ -68,6 +70,7 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         for (BackupLoaderListener listener : getListeners()) {
             backupLoader.addListener(listener);
         }
+        backupLoader.setCatalogStreaming(isCatalogStreaming());
         backupLoader.setCommitStrategy(getCommitStrategy());
         backupLoader.setDialectResolver(createDialectResolver());
         backupLoader.setFormatAttributes(getFormatAttributes());
@@ -79,9 +82,14 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         backupLoader.setInsertTypeFactory(createInsertTypeMapper());
         backupLoader.setInspectionManager(createInspectionManager());
         backupLoader.setMetaDataSpec(getMetaDataSpec());
+        backupLoader.setMetrics(createMetrics(BackupLoader.METRICS));
         backupLoader.setMigrationModes(getMigrationModes());
         backupLoader.setNamingStrategies(getNamingStrategies());
         backupLoader.setParallelizer(getParallelizer());
+        backupLoader.setReadAhead(getReadAhead());
+        backupLoader.setJournal(isJournal() || isResume());
+        backupLoader.setJournalFile(getJournalFile());
+        backupLoader.setResume(isResume());
         backupLoader.setScriptTypes(getScriptTypes());
         backupLoader.setMetaDataFilterManager(getMetaDataFilterManager());
         backupLoader.setTargetSpec(getTargetSpec());
@@ -109,7 +117,14 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
     public void execute() throws Exception {
         try {
             BackupLoader backupLoader = getBackupLoader();
-            backupLoader.load(getPath());
+            MetricsReporter metricsReporter = createMetricsReporter(getMetricsSpec(), backupLoader.getMetrics());
+            metricsReporter.start();
+            try {
+                backupLoader.load(getPath());
+            } finally {
+                metricsReporter.stop();
+                backupLoader.getMetrics().close();
+            }
         } catch (MigratorException exception) {
             throw exception;
         } catch (Exception exception) {
@@ -129,6 +144,10 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         this.backupLoader = backupLoader;
     }
 
+    protected MetricsSpec getMetricsSpec() {
+        return getJobSpec().getMetricsSpec();
+    }
+
     protected Collection<BackupLoaderListener> getListeners() {
         return getJobSpec().getListeners();
     }
@@ -181,6 +200,26 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         return getJobSpec().getTranslationConfig();
     }
 
+    protected int getReadAhead() {
+        return getJobSpec().getReadAhead();
+    }
+
+    protected boolean isResume() {
+        return getJobSpec().isResume();
+    }
+
+    protected boolean isJournal() {
+        return getJobSpec().isJournal();
+    }
+
+    protected String getJournalFile() {
+        return getJobSpec().getJournalFile();
+    }
+
+    protected boolean isCatalogStreaming() {
+        return getJobSpec().isCatalogStreaming();
+    }
+
     protected Integer getThreads() {
         return getJobSpec().getThreads();
     }
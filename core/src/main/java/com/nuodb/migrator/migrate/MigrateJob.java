@@ -0,0 +1,442 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.MigratorException;
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.TableRowSet;
+import com.nuodb.migrator.backup.format.pipe.PipeBackupOps;
+import com.nuodb.migrator.backup.format.pipe.RowPipes;
+import com.nuodb.migrator.backup.loader.BackupLoader;
+import com.nuodb.migrator.backup.loader.InsertTypeFactory;
+import com.nuodb.migrator.backup.loader.Parallelizer;
+import com.nuodb.migrator.backup.loader.SimpleInsertTypeFactory;
+import com.nuodb.migrator.backup.writer.BackupWriter;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.dialect.TranslationConfig;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.metadata.filter.MetaDataFilter;
+import com.nuodb.migrator.jdbc.metadata.inspector.TableInspectionScope;
+import com.nuodb.migrator.jdbc.query.InsertType;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.job.ScriptGeneratorJobBase;
+import com.nuodb.migrator.spec.ConnectionSpec;
+import com.nuodb.migrator.spec.MetricsSpec;
+import com.nuodb.migrator.spec.MigrateJobSpec;
+import com.nuodb.migrator.spec.MigrationMode;
+import com.nuodb.migrator.utils.metrics.MetricsReporter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.nuodb.migrator.backup.format.pipe.PipeFormat.ATTRIBUTE_ROW_PIPES;
+import static com.nuodb.migrator.backup.format.pipe.PipeFormat.TYPE;
+import static com.nuodb.migrator.backup.loader.BackupLoader.THREADS;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.DATABASE;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.TABLE;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
+import static com.nuodb.migrator.jdbc.session.SessionObservers.newSessionTimeZoneSetter;
+import static com.nuodb.migrator.jdbc.session.SessionObservers.newTransactionIsolationSetter;
+import static com.nuodb.migrator.spec.MigrationMode.DATA;
+import static java.lang.Long.MAX_VALUE;
+import static java.sql.Connection.*;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+/**
+ * Copies schema & data from a source database to a target database in one pass. Rows are read by the write query works
+ * of a {@link BackupWriter} and handed over as typed values through {@link RowPipes} to the load table works of a
+ * {@link BackupLoader}, without writing them to a file format. Writing & loading run at the same time, each with a pool
+ * of its own, and the bounded pipes throttle the source reads down to the pace of the target writes.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("ConstantConditions")
+public class MigrateJob extends ScriptGeneratorJobBase<MigrateJobSpec> {
+
+    private BackupWriter backupWriter;
+    private BackupLoader backupLoader;
+    private SessionFactory sourceSessionFactory;
+    private RowPipes rowPipes;
+    private ExecutorService writeExecutor;
+    private Future<Backup> write;
+
+    public MigrateJob(MigrateJobSpec jobSpec) {
+        super(jobSpec);
+    }
+
+    @Override
+    protected void init() throws Exception {
+        super.init();
+
+        RowPipes rowPipes = new RowPipes(getBatchSize(), getQueueSize());
+        Map<String, Object> formatAttributes = newHashMap();
+        formatAttributes.put(ATTRIBUTE_ROW_PIPES, rowPipes);
+        setRowPipes(rowPipes);
+
+        SessionFactory sourceSessionFactory = createSourceSessionFactory();
+        setSourceSessionFactory(sourceSessionFactory);
+
+        BackupWriter backupWriter = new BackupWriter();
+        backupWriter.addListener(new RowPipeWriterListener(rowPipes));
+        backupWriter.setFormat(TYPE);
+        backupWriter.setFormatAttributes(formatAttributes);
+        backupWriter.setFormatFactory(createFormatFactory());
+        backupWriter.setInspectionManager(createInspectionManager());
+        backupWriter.setMetaDataSpec(getMetaDataSpec());
+        backupWriter.setMetrics(createMetrics(BackupWriter.METRICS));
+        backupWriter.setMigrationModes(newHashSet(DATA));
+        backupWriter.setQueryLimit(getQueryLimit());
+        backupWriter.setSourceSpec(getSourceSpec());
+        backupWriter.setSourceSessionFactory(sourceSessionFactory);
+        backupWriter.setTimeZone(getTimeZone());
+        backupWriter.setThreads(getThreads() != null ? getThreads() : THREADS);
+        backupWriter.setValueFormatRegistryResolver(createValueFormatRegistryResolver());
+        setBackupWriter(backupWriter);
+
+        BackupLoader backupLoader = new BackupLoader();
+        backupLoader.addListener(new RowPipeLoaderListener(rowPipes));
+        backupLoader.setCommitStrategy(getCommitStrategy());
+        backupLoader.setDialectResolver(createDialectResolver());
+        backupLoader.setFormatAttributes(formatAttributes);
+        backupLoader.setFormatFactory(createFormatFactory());
+        backupLoader.setJdbcTypeSpecs(getJdbcTypeSpecs());
+        backupLoader.setGroupScriptsBy(getGroupScriptsBy());
+        backupLoader.setIdentifierNormalizer(getIdentifierNormalizer());
+        backupLoader.setIdentifierQuoting(getIdentifierQuoting());
+        backupLoader.setInsertTypeFactory(createInsertTypeFactory());
+        backupLoader.setInspectionManager(createInspectionManager());
+        backupLoader.setMetaDataSpec(getMetaDataSpec());
+        backupLoader.setMetrics(createMetrics(BackupLoader.METRICS));
+        backupLoader.setMigrationModes(getMigrationModes());
+        backupLoader.setNamingStrategies(getNamingStrategies());
+        backupLoader.setParallelizer(getParallelizer());
+        backupLoader.setScriptTypes(getScriptTypes());
+        backupLoader.setMetaDataFilterManager(getMetaDataFilterManager());
+        backupLoader.setTargetSpec(getTargetSpec());
+        backupLoader.setTargetSessionFactory(createTargetSessionFactory());
+        backupLoader.setTimeZone(getTimeZone());
+        backupLoader.setThreads(getThreads() != null ? getThreads() : THREADS);
+        backupLoader.setTranslationConfig(getTranslationConfig());
+        backupLoader.setValueFormatRegistryResolver(createValueFormatRegistryResolver());
+        setBackupLoader(backupLoader);
+    }
+
+    protected InsertTypeFactory createInsertTypeFactory() {
+        return new SimpleInsertTypeFactory(getInsertType(), getTableInsertTypes());
+    }
+
+    protected SessionFactory createSourceSessionFactory() {
+        SessionFactory sessionFactory = newSessionFactory(
+                createConnectionProviderFactory().
+                        createConnectionProvider(getSourceSpec()), createDialectResolver());
+        if (getSourceSpec().getTransactionIsolation() == null) {
+            sessionFactory.addSessionObserver(newTransactionIsolationSetter(new int[]{
+                    TRANSACTION_SERIALIZABLE,
+                    TRANSACTION_REPEATABLE_READ,
+                    TRANSACTION_READ_COMMITTED
+            }));
+        }
+        sessionFactory.addSessionObserver(newSessionTimeZoneSetter(getTimeZone()));
+        return sessionFactory;
+    }
+
+    protected SessionFactory createTargetSessionFactory() {
+        SessionFactory targetSessionFactory =
+                newSessionFactory(createConnectionProviderFactory().
+                        createConnectionProvider(getTargetSpec()), createDialectResolver());
+        targetSessionFactory.addSessionObserver(newSessionTimeZoneSetter(getTimeZone()));
+        return targetSessionFactory;
+    }
+
+    @Override
+    public void execute() throws Exception {
+        MetricsReporter metricsReporter = createMetricsReporter(getMetricsSpec(),
+                getBackupWriter().getMetrics(), getBackupLoader().getMetrics());
+        metricsReporter.start();
+        try {
+            migrate();
+        } catch (MigratorException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new MigrateException(exception);
+        } finally {
+            metricsReporter.stop();
+            getBackupWriter().getMetrics().close();
+            getBackupLoader().getMetrics().close();
+        }
+    }
+
+    /**
+     * Inspects source database once for both the writer & the loader, starts writing row sets to the pipes in the
+     * background and loads schema & row sets from the pipes to the target database.
+     *
+     * @throws Exception if writing or loading caused error
+     */
+    protected void migrate() throws Exception {
+        Database database = openDatabase();
+        BackupOps backupOps = new PipeBackupOps(createBackup(database));
+        Future<Backup> write = null;
+        if (getMigrationModes().contains(DATA)) {
+            BackupWriter backupWriter = getBackupWriter();
+            backupWriter.setDatabase(database);
+            write = write(backupWriter, backupOps);
+        }
+        RowPipes rowPipes = getRowPipes();
+        Throwable failure = null;
+        try {
+            getBackupLoader().load(backupOps, newHashMap());
+        } catch (Exception exception) {
+            rowPipes.fail(failure = exception);
+        } catch (Error error) {
+            rowPipes.fail(failure = error);
+        } finally {
+            // releases writers of the row sets left without loaders
+            rowPipes.discard();
+        }
+        if (write != null) {
+            try {
+                write.get();
+            } catch (ExecutionException exception) {
+                failure = exception.getCause();
+            }
+        }
+        if (failure != null) {
+            // the first failure reported to the pipes caused the other side to fail
+            Throwable cause = rowPipes.getFailure();
+            if (cause == null) {
+                cause = failure;
+            }
+            throw cause instanceof Exception ? (Exception) cause : new MigrateException(cause);
+        }
+    }
+
+    /**
+     * Writes row sets to the pipes on a dedicated thread of the job, which is awaited when the job is closed
+     *
+     * @param backupWriter writer of the row sets
+     * @param backupOps    pipe backup ops
+     * @return future result of the writer
+     */
+    protected Future<Backup> write(final BackupWriter backupWriter, final BackupOps backupOps) {
+        final RowPipes rowPipes = getRowPipes();
+        writeExecutor = newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, MigrateJob.this.getClass().getSimpleName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        write = writeExecutor.submit(new Callable<Backup>() {
+            @Override
+            public Backup call() throws Exception {
+                try {
+                    return backupWriter.write(backupOps, newHashMap());
+                } catch (Exception exception) {
+                    rowPipes.fail(exception);
+                    throw exception;
+                } catch (Error error) {
+                    rowPipes.fail(error);
+                    throw error;
+                } finally {
+                    rowPipes.close();
+                }
+            }
+        });
+        return write;
+    }
+
+    protected Database openDatabase() throws Exception {
+        Session session = getSourceSessionFactory().openSession();
+        try {
+            ConnectionSpec sourceSpec = getSourceSpec();
+            TableInspectionScope inspectionScope = new TableInspectionScope(
+                    sourceSpec.getCatalog(), sourceSpec.getSchema(), getTableTypes());
+            return createInspectionManager().inspect(session.getConnection(), getSourceSessionFactory(),
+                    getInspectionThreads(), inspectionScope,
+                    getObjectTypes().toArray(new MetaDataType[0])).getObject(DATABASE);
+        } finally {
+            closeQuietly(session);
+        }
+    }
+
+    /**
+     * Creates in memory catalog with a row set per migrated table, which is named after the table as the write query
+     * work names it, so that the writer & the loader meet at the same row pipe
+     *
+     * @param database source database
+     * @return catalog to load
+     */
+    protected Backup createBackup(Database database) {
+        Backup backup = new Backup(TYPE, database);
+        MetaDataFilter tableFilter = getMetaDataFilterManager() != null ?
+                getMetaDataFilterManager().getMetaDataFilter(TABLE) : null;
+        for (Table table : database.getTables()) {
+            if (tableFilter != null && !tableFilter.accepts(table)) {
+                continue;
+            }
+            TableRowSet rowSet = new TableRowSet(table);
+            rowSet.setName(lowerCase(table.getQualifiedName(null)));
+            for (Column column : table.getColumns()) {
+                rowSet.addColumn(column.getName(), null);
+            }
+            Chunk chunk = new Chunk();
+            chunk.setName(rowSet.getName());
+            rowSet.addChunk(chunk);
+            // number of rows is unknown until the writer is done
+            rowSet.setRowCount(-1);
+            backup.addRowSet(rowSet);
+            getRowPipes().getRowPipe(rowSet.getName());
+        }
+        return backup;
+    }
+
+    /**
+     * Releases the writer if the job failed before the loader drained the pipes & waits for the writer thread, which
+     * closes source sessions of the writer
+     *
+     * @throws Exception if close is interrupted
+     */
+    @Override
+    public void close() throws Exception {
+        RowPipes rowPipes = getRowPipes();
+        if (rowPipes != null && write != null && !write.isDone()) {
+            rowPipes.fail(new MigrateException("Migration is closed before the rows are written"));
+        }
+        if (writeExecutor != null) {
+            writeExecutor.shutdown();
+            writeExecutor.awaitTermination(MAX_VALUE, SECONDS);
+            writeExecutor = null;
+        }
+        if (rowPipes != null) {
+            rowPipes.close();
+        }
+    }
+
+    public BackupWriter getBackupWriter() {
+        return backupWriter;
+    }
+
+    public void setBackupWriter(BackupWriter backupWriter) {
+        this.backupWriter = backupWriter;
+    }
+
+    public BackupLoader getBackupLoader() {
+        return backupLoader;
+    }
+
+    public void setBackupLoader(BackupLoader backupLoader) {
+        this.backupLoader = backupLoader;
+    }
+
+    public SessionFactory getSourceSessionFactory() {
+        return sourceSessionFactory;
+    }
+
+    public void setSourceSessionFactory(SessionFactory sourceSessionFactory) {
+        this.sourceSessionFactory = sourceSessionFactory;
+    }
+
+    public RowPipes getRowPipes() {
+        return rowPipes;
+    }
+
+    public void setRowPipes(RowPipes rowPipes) {
+        this.rowPipes = rowPipes;
+    }
+
+    protected int getBatchSize() {
+        return getJobSpec().getBatchSize();
+    }
+
+    protected CommitStrategy getCommitStrategy() {
+        return getJobSpec().getCommitStrategy();
+    }
+
+    protected InsertType getInsertType() {
+        return getJobSpec().getInsertType();
+    }
+
+    protected Collection<MigrationMode> getMigrationModes() {
+        return getJobSpec().getMigrationModes();
+    }
+
+    protected Parallelizer getParallelizer() {
+        return getJobSpec().getParallelizer();
+    }
+
+    protected QueryLimit getQueryLimit() {
+        return getJobSpec().getQueryLimit();
+    }
+
+    protected int getQueueSize() {
+        return getJobSpec().getQueueSize();
+    }
+
+    protected ConnectionSpec getSourceSpec() {
+        return getJobSpec().getSourceSpec();
+    }
+
+    protected Map<String, InsertType> getTableInsertTypes() {
+        return getJobSpec().getTableInsertTypes();
+    }
+
+    protected MetricsSpec getMetricsSpec() {
+        return getJobSpec().getMetricsSpec();
+    }
+
+    protected Integer getThreads() {
+        return getJobSpec().getThreads();
+    }
+
+    protected TimeZone getTimeZone() {
+        return getJobSpec().getTimeZone();
+    }
+
+    protected TranslationConfig getTranslationConfig() {
+        return getJobSpec().getTranslationConfig();
+    }
+}
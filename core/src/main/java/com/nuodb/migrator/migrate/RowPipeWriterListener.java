@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.backup.format.pipe.RowPipes;
+import com.nuodb.migrator.backup.writer.BackupWriterAdapter;
+import com.nuodb.migrator.backup.writer.WriteChunkEvent;
+import com.nuodb.migrator.backup.writer.WriteQueryWork;
+import com.nuodb.migrator.jdbc.session.WorkEvent;
+
+/**
+ * Closes the pipe of a row set once all of its query splits are written and fails the pipes if writing fails.
+ *
+ * @author Sergey Bushik
+ */
+public class RowPipeWriterListener extends BackupWriterAdapter {
+
+    private final RowPipes rowPipes;
+
+    public RowPipeWriterListener(RowPipes rowPipes) {
+        this.rowPipes = rowPipes;
+    }
+
+    @Override
+    public void onWriteEnd(WriteChunkEvent event) {
+        if (event.getChunk() == null) {
+            WriteQueryWork writeQueryWork = (WriteQueryWork) event.getWork();
+            rowPipes.getRowPipe(event.getWriteQuery().getRowSet().getName()).writeDone(
+                    writeQueryWork.getQuerySplit().getSplitIndex(), writeQueryWork.isHasNextQuerySplit());
+        }
+    }
+
+    @Override
+    public void onFailure(WorkEvent event) {
+        rowPipes.fail(event.getFailure());
+    }
+}
@@ -73,6 +73,7 @@ public class SchemaJob extends ScriptGeneratorJobBase<SchemaJobSpec> {
 
     private boolean failOnEmptyScripts = FAIL_ON_EMPTY_SCRIPTS;
 
+    private SessionFactory sourceSessionFactory;
     private Session sourceSession;
     private Session targetSession;
     private ScriptExporter scriptExporter;
@@ -94,6 +95,7 @@ public class SchemaJob extends ScriptGeneratorJobBase<SchemaJobSpec> {
                 createConnectionProviderFactory().createConnectionProvider(
                         sourceSpec), createDialectResolver());
         Session sourceSession = sourceSessionFactory.openSession();
+        setSourceSessionFactory(sourceSessionFactory);
         setSourceSession(sourceSession);
 
         Session targetSession = null;
@@ -142,8 +144,8 @@ public class SchemaJob extends ScriptGeneratorJobBase<SchemaJobSpec> {
     protected Database inspect() throws SQLException {
         InspectionScope inspectionScope = new TableInspectionScope(
                 getSourceSpec().getCatalog(), getSourceSpec().getSchema(), getTableTypes());
-        return createInspectionManager().inspect(
-                getSourceSession().getConnection(), inspectionScope, TYPES).getObject(DATABASE);
+        return createInspectionManager().inspect(getSourceSession().getConnection(), getSourceSessionFactory(),
+                getInspectionThreads(), inspectionScope, TYPES).getObject(DATABASE);
     }
 
     protected ScriptGeneratorManager createScriptGeneratorManager() throws SQLException {
@@ -207,6 +209,14 @@ public class SchemaJob extends ScriptGeneratorJobBase<SchemaJobSpec> {
         return getJobSpec().getTranslationConfig();
     }
 
+    protected SessionFactory getSourceSessionFactory() {
+        return sourceSessionFactory;
+    }
+
+    protected void setSourceSessionFactory(SessionFactory sourceSessionFactory) {
+        this.sourceSessionFactory = sourceSessionFactory;
+    }
+
     protected Session getSourceSession() {
         return sourceSession;
     }
@@ -54,6 +54,7 @@ public class DumpJobSpec extends JobSpecBase {
     private MetaDataSpec metaDataSpec = new MetaDataSpec();
     private Collection<QuerySpec> querySpecs = newArrayList();
     private QueryLimit queryLimit;
+    private boolean catalogStreaming;
 
     public void addListener(BackupWriterListener listener) {
         listeners.add(listener);
@@ -131,6 +132,14 @@ public class DumpJobSpec extends JobSpecBase {
         return metaDataSpec.getTableTypes();
     }
 
+    public Integer getInspectionThreads() {
+        return metaDataSpec.getInspectionThreads();
+    }
+
+    public void setInspectionThreads(Integer inspectionThreads) {
+        metaDataSpec.setInspectionThreads(inspectionThreads);
+    }
+
     public void setMetaDataFilterManager(MetaDataFilterManager metaDataFilterManager) {
         metaDataSpec.setMetaDataFilterManager(metaDataFilterManager);
     }
@@ -155,6 +164,14 @@ public class DumpJobSpec extends JobSpecBase {
         this.queryLimit = queryLimit;
     }
 
+    public boolean isCatalogStreaming() {
+        return catalogStreaming;
+    }
+
+    public void setCatalogStreaming(boolean catalogStreaming) {
+        this.catalogStreaming = catalogStreaming;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -172,6 +189,7 @@ public class DumpJobSpec extends JobSpecBase {
         if (sourceSpec != null ? !sourceSpec.equals(that.sourceSpec) : that.sourceSpec != null) return false;
         if (threads != null ? !threads.equals(that.threads) : that.threads != null) return false;
         if (timeZone != null ? !timeZone.equals(that.timeZone) : that.timeZone != null) return false;
+        if (catalogStreaming != that.catalogStreaming) return false;
 
         return true;
     }
@@ -187,6 +205,7 @@ public class DumpJobSpec extends JobSpecBase {
         result = 31 * result + (metaDataSpec != null ? metaDataSpec.hashCode() : 0);
         result = 31 * result + (querySpecs != null ? querySpecs.hashCode() : 0);
         result = 31 * result + (queryLimit != null ? queryLimit.hashCode() : 0);
+        result = 31 * result + (catalogStreaming ? 1 : 0);
         return result;
     }
 }
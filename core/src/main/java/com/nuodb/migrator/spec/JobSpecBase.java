@@ -31,4 +31,34 @@ package com.nuodb.migrator.spec;
  * @author Sergey Bushik
  */
 public class JobSpecBase extends SpecBase implements JobSpec {
+
+    private MetricsSpec metricsSpec = new MetricsSpec();
+
+    public MetricsSpec getMetricsSpec() {
+        return metricsSpec;
+    }
+
+    public void setMetricsSpec(MetricsSpec metricsSpec) {
+        this.metricsSpec = metricsSpec;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+
+        JobSpecBase that = (JobSpecBase) o;
+
+        if (metricsSpec != null ? !metricsSpec.equals(that.metricsSpec) : that.metricsSpec != null) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (metricsSpec != null ? metricsSpec.hashCode() : 0);
+        return result;
+    }
 }
\ No newline at end of file
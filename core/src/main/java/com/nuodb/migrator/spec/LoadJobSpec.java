@@ -50,17 +50,30 @@ import static com.nuodb.migrator.spec.MigrationMode.SCHEMA;
  */
 public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
 
+    private boolean catalogStreaming;
     private CommitStrategy commitStrategy = new BatchCommitStrategy();
     private ResourceSpec inputSpec;
     private InsertType insertType;
+    private boolean journal;
+    private String journalFile;
     private Collection<BackupLoaderListener> listeners = newArrayList();
     private Collection<MigrationMode> migrationModes = newHashSet(DATA, SCHEMA);
     private Parallelizer parallelizer = new TableLevelParallelizer();
+    private int readAhead;
+    private boolean resume;
     private Map<String, InsertType> tableInsertTypes = newHashMap();
     private ConnectionSpec targetSpec;
     private TimeZone timeZone;
     private Integer threads;
 
+    public boolean isCatalogStreaming() {
+        return catalogStreaming;
+    }
+
+    public void setCatalogStreaming(boolean catalogStreaming) {
+        this.catalogStreaming = catalogStreaming;
+    }
+
     public CommitStrategy getCommitStrategy() {
         return commitStrategy;
     }
@@ -85,6 +98,22 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
         this.insertType = insertType;
     }
 
+    public boolean isJournal() {
+        return journal;
+    }
+
+    public void setJournal(boolean journal) {
+        this.journal = journal;
+    }
+
+    public String getJournalFile() {
+        return journalFile;
+    }
+
+    public void setJournalFile(String journalFile) {
+        this.journalFile = journalFile;
+    }
+
     public void addListener(BackupLoaderListener listener) {
         listeners.add(listener);
     }
@@ -145,6 +174,22 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
         this.parallelizer = parallelizer;
     }
 
+    public int getReadAhead() {
+        return readAhead;
+    }
+
+    public void setReadAhead(int readAhead) {
+        this.readAhead = readAhead;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -153,10 +198,15 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
 
         LoadJobSpec that = (LoadJobSpec) o;
 
+        if (catalogStreaming != that.catalogStreaming) return false;
         if (commitStrategy != null ? !commitStrategy.equals(that.commitStrategy) : that.commitStrategy != null)
             return false;
         if (inputSpec != null ? !inputSpec.equals(that.inputSpec) : that.inputSpec != null) return false;
         if (insertType != that.insertType) return false;
+        if (journal != that.journal) return false;
+        if (journalFile != null ? !journalFile.equals(that.journalFile) : that.journalFile != null) return false;
+        if (readAhead != that.readAhead) return false;
+        if (resume != that.resume) return false;
         if (migrationModes != null ? !migrationModes.equals(that.migrationModes) : that.migrationModes != null)
             return false;
         if (tableInsertTypes != null ? !tableInsertTypes.equals(that.tableInsertTypes) : that.tableInsertTypes != null)
@@ -171,10 +221,15 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
     @Override
     public int hashCode() {
         int result = super.hashCode();
+        result = 31 * result + (catalogStreaming ? 1 : 0);
         result = 31 * result + (commitStrategy != null ? commitStrategy.hashCode() : 0);
         result = 31 * result + (inputSpec != null ? inputSpec.hashCode() : 0);
         result = 31 * result + (insertType != null ? insertType.hashCode() : 0);
+        result = 31 * result + (journal ? 1 : 0);
+        result = 31 * result + (journalFile != null ? journalFile.hashCode() : 0);
         result = 31 * result + (migrationModes != null ? migrationModes.hashCode() : 0);
+        result = 31 * result + readAhead;
+        result = 31 * result + (resume ? 1 : 0);
         result = 31 * result + (tableInsertTypes != null ? tableInsertTypes.hashCode() : 0);
         result = 31 * result + (targetSpec != null ? targetSpec.hashCode() : 0);
         result = 31 * result + (timeZone != null ? timeZone.hashCode() : 0);
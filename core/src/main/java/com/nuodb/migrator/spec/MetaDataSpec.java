@@ -49,6 +49,7 @@ public class MetaDataSpec extends SpecBase {
     private Collection<MetaDataType> objectTypes = OBJECT_TYPES;
     private MetaDataFilterManager metaDataFilterManager = new MetaDataFilterManager();
     private String[] tableTypes = TABLE_TYPES;
+    private Integer inspectionThreads;
 
     public Collection<MetaDataType> getObjectTypes() {
         return objectTypes;
@@ -79,6 +80,14 @@ public class MetaDataSpec extends SpecBase {
         this.tableTypes = tableTypes;
     }
 
+    public Integer getInspectionThreads() {
+        return inspectionThreads;
+    }
+
+    public void setInspectionThreads(Integer inspectionThreads) {
+        this.inspectionThreads = inspectionThreads;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -91,6 +100,8 @@ public class MetaDataSpec extends SpecBase {
         if (metaDataFilterManager != null ? !metaDataFilterManager.equals(that.metaDataFilterManager) :
                 that.metaDataFilterManager != null) return false;
         if (!Arrays.equals(tableTypes, that.tableTypes)) return false;
+        if (inspectionThreads != null ? !inspectionThreads.equals(that.inspectionThreads) :
+                that.inspectionThreads != null) return false;
 
         return true;
     }
@@ -101,6 +112,7 @@ public class MetaDataSpec extends SpecBase {
         result = 31 * result + (objectTypes != null ? objectTypes.hashCode() : 0);
         result = 31 * result + (metaDataFilterManager != null ? metaDataFilterManager.hashCode() : 0);
         result = 31 * result + (tableTypes != null ? Arrays.hashCode(tableTypes) : 0);
+        result = 31 * result + (inspectionThreads != null ? inspectionThreads.hashCode() : 0);
         return result;
     }
 }
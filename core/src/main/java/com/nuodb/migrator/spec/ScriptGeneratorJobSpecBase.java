@@ -89,6 +89,14 @@ public class ScriptGeneratorJobSpecBase extends JobSpecBase {
         return metaDataSpec.getTableTypes();
     }
 
+    public Integer getInspectionThreads() {
+        return metaDataSpec.getInspectionThreads();
+    }
+
+    public void setInspectionThreads(Integer inspectionThreads) {
+        metaDataSpec.setInspectionThreads(inspectionThreads);
+    }
+
     public void setObjectTypes(Collection<MetaDataType> objectTypes) {
         metaDataSpec.setObjectTypes(objectTypes);
     }
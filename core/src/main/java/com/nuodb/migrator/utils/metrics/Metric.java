@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.metrics;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Rows, bytes & batches processed in a scope, which is a table, a worker thread or a chunk, along with the commit
+ * latency histogram. Works hold a reference to their metrics and update them in place on every row.
+ *
+ * @author Sergey Bushik
+ */
+public class Metric implements MetricMBean {
+
+    private static final double NANOS_PER_MILLI = 1000000D;
+
+    private final String name;
+    private final String scope;
+    private final long start = nanoTime();
+    private final StripedCounter rows = new StripedCounter();
+    private final StripedCounter bytes = new StripedCounter();
+    private final Histogram commitLatency = new Histogram();
+
+    public Metric(String name, String scope) {
+        this.name = name;
+        this.scope = scope;
+    }
+
+    public void addRows(long rows) {
+        this.rows.add(rows);
+    }
+
+    public void addBytes(long bytes) {
+        this.bytes.add(bytes);
+    }
+
+    /**
+     * Records committed batch
+     *
+     * @param nanos time taken by the commit
+     */
+    public void addBatch(long nanos) {
+        commitLatency.record(nanos);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getScope() {
+        return scope;
+    }
+
+    @Override
+    public long getRows() {
+        return rows.get();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    @Override
+    public long getBatches() {
+        return commitLatency.getCount();
+    }
+
+    @Override
+    public double getRowsPerSecond() {
+        return getRate(getRows());
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return getRate(getBytes());
+    }
+
+    @Override
+    public double getCommitLatencyMean() {
+        return commitLatency.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getCommitLatency99() {
+        return commitLatency.getPercentile(0.99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getCommitLatencyMax() {
+        return commitLatency.getMax() / NANOS_PER_MILLI;
+    }
+
+    public Histogram getCommitLatency() {
+        return commitLatency;
+    }
+
+    protected double getRate(long value) {
+        long elapsed = nanoTime() - start;
+        return elapsed > 0 ? value * (double) SECONDS.toNanos(1) / elapsed : 0;
+    }
+
+    @Override
+    public String toString() {
+        return scope + " " + name;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.metrics;
+
+import org.slf4j.Logger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.collect.Iterables.concat;
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static java.lang.management.ManagementFactory.getPlatformMBeanServer;
+import static java.util.Collections.unmodifiableCollection;
+import static javax.management.ObjectName.quote;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Registry of the metrics collected by a dump or a load, keyed by table, worker thread & chunk names. Table & thread
+ * metrics are registered as MBeans under {@value #DOMAIN} domain once JMX is enabled, chunk metrics are not as there
+ * may be thousands of them, they are available through {@link MetricsReporter} status file.
+ *
+ * @author Sergey Bushik
+ */
+public class Metrics implements Closeable {
+
+    public static final String DOMAIN = "com.nuodb.migrator";
+
+    public static final String TABLE = "table";
+    public static final String THREAD = "thread";
+    public static final String CHUNK = "chunk";
+
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    private transient final Logger logger = getLogger(getClass());
+
+    private final String name;
+    private final int id = IDS.incrementAndGet();
+    private final ConcurrentMap<String, Metric> tables = newConcurrentMap();
+    private final ConcurrentMap<String, Metric> threads = newConcurrentMap();
+    private final ConcurrentMap<String, Metric> chunks = newConcurrentMap();
+    private final Collection<ObjectName> objectNames = new CopyOnWriteArrayList<ObjectName>();
+    private MBeanServer mBeanServer;
+
+    public Metrics(String name) {
+        this.name = name;
+    }
+
+    public Metric getTable(String table) {
+        return getMetric(tables, table, TABLE);
+    }
+
+    public Metric getThread(String thread) {
+        return getMetric(threads, thread, THREAD);
+    }
+
+    public Metric getThread() {
+        return getThread(Thread.currentThread().getName());
+    }
+
+    public Metric getChunk(String chunk) {
+        return getMetric(chunks, chunk, CHUNK);
+    }
+
+    protected Metric getMetric(ConcurrentMap<String, Metric> metrics, String name, String scope) {
+        Metric metric = metrics.get(name);
+        if (metric == null) {
+            Metric current = metrics.putIfAbsent(name, metric = new Metric(name, scope));
+            if (current != null) {
+                metric = current;
+            } else if (mBeanServer != null && !CHUNK.equals(scope)) {
+                registerMBean(metric);
+            }
+        }
+        return metric;
+    }
+
+    protected void registerMBean(Metric metric) {
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + name + "-" + id +
+                    ",scope=" + metric.getScope() + ",name=" + quote(metric.getName()));
+            mBeanServer.registerMBean(metric, objectName);
+            objectNames.add(objectName);
+        } catch (Exception exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(String.format("Can't register %s MBean", metric), exception);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Collection<Metric> getTables() {
+        return unmodifiableCollection(tables.values());
+    }
+
+    public Collection<Metric> getThreads() {
+        return unmodifiableCollection(threads.values());
+    }
+
+    public Collection<Metric> getChunks() {
+        return unmodifiableCollection(chunks.values());
+    }
+
+    public boolean isJmx() {
+        return mBeanServer != null;
+    }
+
+    public void setJmx(boolean jmx) {
+        this.mBeanServer = jmx ? getPlatformMBeanServer() : null;
+        if (jmx) {
+            for (Metric metric : concat(tables.values(), threads.values())) {
+                registerMBean(metric);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (ObjectName objectName : objectNames) {
+            try {
+                getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Exception exception) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug(String.format("Can't unregister %s MBean", objectName), exception);
+                }
+            }
+        }
+        objectNames.clear();
+    }
+}
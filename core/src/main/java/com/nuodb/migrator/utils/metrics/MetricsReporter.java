@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.metrics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Periodically logs per table rates of the collected metrics and optionally writes them all out to a JSON status
+ * file. Status file is written to a temporary file first and renamed over the previous one, so that external
+ * monitoring never reads a partially written file.
+ *
+ * @author Sergey Bushik
+ */
+public class MetricsReporter implements Runnable {
+
+    public static final long INTERVAL = 10;
+
+    private static final double MB = 1024D * 1024D;
+
+    private transient final Logger logger = getLogger(getClass());
+
+    private final Collection<Metrics> metrics;
+    private final Map<Metric, long[]> snapshots = newHashMap();
+    private long interval = INTERVAL;
+    private String file;
+    private ScheduledExecutorService executor;
+    private long time;
+
+    public MetricsReporter(Metrics... metrics) {
+        this.metrics = asList(metrics);
+    }
+
+    public synchronized void start() {
+        time = nanoTime();
+        if (interval > 0) {
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "metrics-reporter");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.scheduleWithFixedDelay(this, interval, interval, SECONDS);
+        }
+    }
+
+    /**
+     * Stops periodic reporting & reports final figures
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        run();
+    }
+
+    @Override
+    public synchronized void run() {
+        try {
+            report();
+        } catch (Exception exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Can't report metrics", exception);
+            }
+        }
+    }
+
+    protected void report() throws IOException {
+        long now = nanoTime();
+        double seconds = (now - time) / (double) SECONDS.toNanos(1);
+        time = now;
+        if (logger.isInfoEnabled()) {
+            for (Metrics metrics : this.metrics) {
+                for (Metric table : metrics.getTables()) {
+                    logger.info(getMessage(metrics, table, seconds));
+                }
+            }
+        }
+        if (file != null) {
+            writeFile();
+        }
+    }
+
+    protected String getMessage(Metrics metrics, Metric metric, double seconds) {
+        long rows = metric.getRows();
+        long bytes = metric.getBytes();
+        long[] snapshot = snapshots.get(metric);
+        if (snapshot == null) {
+            snapshots.put(metric, snapshot = new long[2]);
+        }
+        double rowsRate = seconds > 0 ? (rows - snapshot[0]) / seconds : 0;
+        double bytesRate = seconds > 0 ? (bytes - snapshot[1]) / seconds : 0;
+        snapshot[0] = rows;
+        snapshot[1] = bytes;
+        StringBuilder message = new StringBuilder(format("%s %s %s: %d rows (%.1f rows/s), %.2f MB (%.2f MB/s)",
+                metrics.getName(), metric.getScope(), metric.getName(), rows, rowsRate, bytes / MB, bytesRate / MB));
+        long batches = metric.getBatches();
+        if (batches > 0) {
+            message.append(format(", %d batches, commit latency mean %.2f ms, p99 %.2f ms, max %.2f ms",
+                    batches, metric.getCommitLatencyMean(), metric.getCommitLatency99(),
+                    metric.getCommitLatencyMax()));
+        }
+        return message.toString();
+    }
+
+    protected void writeFile() throws IOException {
+        File file = new File(this.file);
+        File temp = new File(file.getPath() + ".tmp");
+        JsonGenerator generator = new JsonFactory().createGenerator(temp, JsonEncoding.UTF8);
+        try {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeNumberField("time", currentTimeMillis());
+            for (Metrics metrics : this.metrics) {
+                generator.writeObjectFieldStart(metrics.getName());
+                writeMetrics(generator, Metrics.TABLE, metrics.getTables());
+                writeMetrics(generator, Metrics.THREAD, metrics.getThreads());
+                writeMetrics(generator, Metrics.CHUNK, metrics.getChunks());
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        } finally {
+            generator.close();
+        }
+        if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+            throw new IOException(format("Can't rename %s to %s", temp, file));
+        }
+    }
+
+    protected void writeMetrics(JsonGenerator generator, String scope, Collection<Metric> metrics)
+            throws IOException {
+        generator.writeArrayFieldStart(scope + "s");
+        for (Metric metric : metrics) {
+            generator.writeStartObject();
+            generator.writeStringField("name", metric.getName());
+            generator.writeNumberField("rows", metric.getRows());
+            generator.writeNumberField("bytes", metric.getBytes());
+            generator.writeNumberField("batches", metric.getBatches());
+            generator.writeNumberField("rowsPerSecond", metric.getRowsPerSecond());
+            generator.writeNumberField("bytesPerSecond", metric.getBytesPerSecond());
+            if (metric.getBatches() > 0) {
+                generator.writeNumberField("commitLatencyMean", metric.getCommitLatencyMean());
+                generator.writeNumberField("commitLatency99", metric.getCommitLatency99());
+                generator.writeNumberField("commitLatencyMax", metric.getCommitLatencyMax());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * @param interval reporting interval in seconds, 0 reports final figures only
+     */
+    public void setInterval(long interval) {
+        this.interval = interval;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+}
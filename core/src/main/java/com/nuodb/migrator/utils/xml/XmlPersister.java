@@ -124,6 +124,14 @@ public class XmlPersister {
         return new Persister(strategy, format);
     }
 
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
     public boolean isUseXml10FilterReader() {
         return useXml10FilterReader;
     }
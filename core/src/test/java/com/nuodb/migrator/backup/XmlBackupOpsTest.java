@@ -39,11 +39,16 @@ import com.nuodb.migrator.jdbc.type.JdbcTypeDesc;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
 import static com.nuodb.migrator.jdbc.metadata.Identifier.EMPTY;
 import static com.nuodb.migrator.jdbc.type.JdbcTypeOptions.newOptions;
 import static org.apache.commons.io.IOUtils.toInputStream;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 
 /**
@@ -63,20 +68,7 @@ public class XmlBackupOpsTest {
         Backup expected = new Backup();
         expected.setDatabase(new Database());
         expected.setFormat("csv");
-
-        TableRowSet rowSet = new TableRowSet();
-        rowSet.setType("table");
-        rowSet.setName("test.t1");
-        rowSet.setRowCount(1L);
-        rowSet.setCatalog("test");
-        rowSet.setTable("t1");
-        rowSet.addColumn("f1", STRING);
-
-        Chunk chunk = new Chunk();
-        chunk.setName("test.t1.csv");
-        chunk.setRowCount(1L);
-        rowSet.addChunk(chunk);
-        expected.addRowSet(rowSet);
+        expected.addRowSet(createRowSet("t1"));
 
         String input =
                 "<?xml version=\"1.0\"?>\n" +
@@ -91,6 +83,80 @@ public class XmlBackupOpsTest {
         assertEquals(actual, expected);
     }
 
+    @Test
+    public void testReadStreaming() {
+        String input =
+                "<?xml version=\"1.0\"?>\n" +
+                "<backup version=\"" + Migrator.getVersion() + "\" format=\"csv\">\n" +
+                "  <database/>\n" +
+                "  <row-set type=\"table\" name=\"test.t1\" row-count=\"1\" catalog=\"test\" table=\"t1\">\n" +
+                "    <column name=\"f1\" value-type=\"string\"/>\n" +
+                "    <chunk name=\"test.t1.csv\" row-count=\"1\"/>\n" +
+                "  </row-set>\n" +
+                "  <row-set type=\"table\" name=\"test.t2\" row-count=\"1\" catalog=\"test\" table=\"t2\">\n" +
+                "    <column name=\"f1\" value-type=\"string\"/>\n" +
+                "    <chunk name=\"test.t2.csv\" row-count=\"1\"/>\n" +
+                "  </row-set>\n" +
+                "</backup>";
+        final List<Object> events = newArrayList();
+        Backup actual = xmlBackupOps.read(toInputStream(input), null, new BackupReadListener() {
+            @Override
+            public void onDatabase(Backup backup) {
+                events.add(backup.getDatabase());
+            }
+
+            @Override
+            public void onRowSet(Backup backup, RowSet rowSet) {
+                events.add(rowSet);
+            }
+        });
+        assertTrue(actual.getRowSets().isEmpty());
+        assertEquals(events, newArrayList(new Database(), createRowSet("t1"), createRowSet("t2")));
+    }
+
+    /**
+     * Verifies that appended catalog is the same as the catalog written at once with row sets in the appended order
+     */
+    @Test
+    public void testAppendRowSets() {
+        RowSet rowSet1 = createRowSet("t1");
+        RowSet rowSet2 = createRowSet("t2");
+        Backup backup = new Backup();
+        backup.setFormat("csv");
+        backup.addRowSet(rowSet1);
+        backup.addRowSet(rowSet2);
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        BackupAppender backupAppender = xmlBackupOps.openAppender(backup, actual, null);
+        backupAppender.appendRowSet(rowSet2);
+        // the rest of row sets is appended on close
+        backupAppender.close();
+
+        Backup expected = new Backup();
+        expected.setFormat("csv");
+        expected.addRowSet(rowSet2);
+        expected.addRowSet(rowSet1);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        xmlBackupOps.write(expected, output);
+        assertEquals(actual.toString(), output.toString());
+    }
+
+    protected RowSet createRowSet(String table) {
+        TableRowSet rowSet = new TableRowSet();
+        rowSet.setType("table");
+        rowSet.setName("test." + table);
+        rowSet.setRowCount(1L);
+        rowSet.setCatalog("test");
+        rowSet.setTable(table);
+        rowSet.addColumn("f1", STRING);
+
+        Chunk chunk = new Chunk();
+        chunk.setName("test." + table + ".csv");
+        chunk.setRowCount(1L);
+        rowSet.addChunk(chunk);
+        return rowSet;
+    }
+
     /**
      * Tests MIG-44 implicitly declared tables (referenced by foreign-key)
      */
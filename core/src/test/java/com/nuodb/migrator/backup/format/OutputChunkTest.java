@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format;
+
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.Output.ATTRIBUTE_CHUNK_ROWS;
+import static com.nuodb.migrator.backup.format.Output.ATTRIBUTE_CHUNK_SIZE;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class OutputChunkTest {
+
+    private static final int MAX_ROWS = 100000;
+
+    @DataProvider(name = "format")
+    public Object[][] createFormatData() {
+        return new Object[][]{{"csv"}, {"xml"}, {"bson"}, {"columnar"}};
+    }
+
+    @Test(dataProvider = "format")
+    public void testChunkRows(String format) {
+        Map<String, Object> attributes = newHashMap();
+        attributes.put(ATTRIBUTE_CHUNK_ROWS, 3);
+        Output output = createOutput(format, attributes);
+        for (int row = 0; row < 3; row++) {
+            assertTrue(output.canWrite());
+            output.writeValues(new Value[]{string("value")});
+        }
+        assertFalse(output.canWrite());
+
+        output.writeEnd();
+        output.close();
+        output.setOutputStream(new ByteArrayOutputStream());
+        output.init();
+        assertTrue(output.canWrite());
+    }
+
+    @Test(dataProvider = "format")
+    public void testChunkSize(String format) {
+        Map<String, Object> attributes = newHashMap();
+        attributes.put(ATTRIBUTE_CHUNK_SIZE, "64");
+        attributes.put(Format.ATTRIBUTE_BUFFERING, "false");
+        Output output = createOutput(format, attributes);
+        int rows = 0;
+        while (output.canWrite() && rows < MAX_ROWS) {
+            output.writeValues(new Value[]{string("value")});
+            rows++;
+        }
+        // writer based formats are counted after encoder flushes its buffer
+        assertTrue(rows > 0 && rows < MAX_ROWS);
+    }
+
+    protected Output createOutput(String format, Map<String, Object> attributes) {
+        RowSet rowSet = new RowSet();
+        rowSet.addColumn("f1", STRING);
+        Output output = new SimpleFormatFactory().createOutput(format, attributes);
+        output.setRowSet(rowSet);
+        output.setOutputStream(new ByteArrayOutputStream());
+        output.init();
+        output.writeStart();
+        return output;
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format;
+
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.Row;
+import com.nuodb.migrator.backup.format.value.RowReader;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.value.RowReaders.newChunkRowReaders;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
+import static java.io.File.createTempFile;
+import static java.util.Collections.sort;
+import static org.apache.commons.io.FileUtils.writeByteArrayToFile;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verifies that rows of a chunk split into byte ranges at arbitrary offsets are read exactly once
+ *
+ * @author Sergey Bushik
+ */
+public class SplittableInputTest {
+
+    private static final int ROWS = 200;
+
+    @DataProvider(name = "splitChunk")
+    public Object[][] createSplitChunkData() {
+        Map<String, Object> csv = newHashMap();
+        csv.put("csv.line.separator", "LF");
+        Map<String, Object> csvQuoting = newHashMap();
+        csvQuoting.put("csv.line.separator", "CRLF");
+        csvQuoting.put("csv.quoting", "true");
+        Map<String, Object> bson = newHashMap();
+        Map<String, Object> csvMapped = newHashMap(csv);
+        csvMapped.put(Input.ATTRIBUTE_MAPPED, "true");
+        Map<String, Object> bsonMapped = newHashMap();
+        bsonMapped.put(Input.ATTRIBUTE_MAPPED, "true");
+        List<Object[]> data = newArrayList();
+        for (long splitSize : new long[]{16, 37, 100, 1000}) {
+            data.add(new Object[]{"csv", csv, splitSize});
+            data.add(new Object[]{"csv", csvQuoting, splitSize});
+            data.add(new Object[]{"bson", bson, splitSize});
+            data.add(new Object[]{"csv", csvMapped, splitSize});
+            data.add(new Object[]{"bson", bsonMapped, splitSize});
+        }
+        return data.toArray(new Object[data.size()][]);
+    }
+
+    @Test(dataProvider = "splitChunk")
+    public void testSplitChunk(String format, Map<String, Object> formatAttributes, long splitSize) throws Exception {
+        Backup backup = new Backup();
+        backup.setFormat(format);
+        RowSet rowSet = new RowSet();
+        rowSet.addColumn("f1", STRING);
+        rowSet.addColumn("f2", BINARY);
+        rowSet.addColumn("f3", STRING);
+        backup.addRowSet(rowSet);
+
+        FormatFactory formatFactory = new SimpleFormatFactory();
+        Output output = formatFactory.createOutput(format, formatAttributes);
+        output.setRowSet(rowSet);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        output.setOutputStream(bytes);
+        output.init();
+        output.writeStart();
+        List<String> expected = newArrayList();
+        for (int index = 0; index < ROWS; index++) {
+            Value[] values = createValues(index);
+            output.writeValues(values);
+            expected.add(toString(values));
+        }
+        output.writeEnd();
+        output.close();
+
+        Chunk chunk = new Chunk();
+        chunk.setName("t1." + format);
+        chunk.setRowCount(ROWS);
+        rowSet.addChunk(chunk);
+
+        BackupOps backupOps = mock(BackupOps.class);
+        when(backupOps.openInput(anyString())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return new ByteArrayInputStream(bytes.toByteArray());
+            }
+        });
+        when(backupOps.getLength(anyString())).thenReturn((long) bytes.size());
+        final File file = createTempFile("chunk", format);
+        file.deleteOnExit();
+        writeByteArrayToFile(file, bytes.toByteArray());
+        when(backupOps.openChannel(anyString())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return new FileInputStream(file).getChannel();
+            }
+        });
+
+        SplittableInput input = (SplittableInput) formatFactory.createInput(format, formatAttributes);
+        input.setRowSet(rowSet);
+        assertTrue(input.isSplittable());
+        long offset = bytes.size() / 2;
+        long sync = input.sync(new ByteArrayInputStream(bytes.toByteArray(), (int) offset, bytes.size()), offset);
+        assertTrue(sync >= offset && sync < bytes.size());
+
+        Collection<RowReader> rowReaders = newChunkRowReaders(rowSet, backupOps, formatFactory,
+                formatAttributes, 1, splitSize);
+        List<String> actual = newArrayList();
+        for (RowReader rowReader : rowReaders) {
+            Row row;
+            while ((row = rowReader.readRow()) != null) {
+                actual.add(toString(row.getValues()));
+            }
+            rowReader.close();
+        }
+        file.delete();
+        sort(expected);
+        sort(actual);
+        assertEquals(actual, expected);
+    }
+
+    protected Value[] createValues(int index) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < index % 11; i++) {
+            text.append(i % 3 == 0 ? "\"q\"," : i % 3 == 1 ? "\r\n#" : "x\n");
+        }
+        return new Value[]{
+                index % 3 == 0 ? longValue(index) : index % 3 == 1 ? doubleValue(index / 8.0) : bool(index % 2 == 0),
+                binary(index % 4 == 0 ? null : new byte[]{(byte) index, 4, 0x0A, 0x30, 0}),
+                string(index % 5 == 0 ? null : "t" + text)
+        };
+    }
+
+    protected String toString(Value[] values) {
+        return values[0].asString() + "/" + Arrays.toString(values[1].asBytes()) + "/" + values[2].asString();
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.codec;
+
+import com.nuodb.migrator.backup.format.FormatFactory;
+import com.nuodb.migrator.backup.format.OutputException;
+import com.nuodb.migrator.backup.format.SimpleFormatFactory;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.apache.commons.io.IOUtils.toByteArray;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class CodecTest {
+
+    private FormatFactory formatFactory = new SimpleFormatFactory();
+
+    @DataProvider(name = "codec")
+    public Object[][] createCodecData() {
+        return new Object[][]{{GzipCodec.CODEC}, {DeflateCodec.CODEC}, {GzipCodec.class.getName()}};
+    }
+
+    @Test(dataProvider = "codec")
+    public void testCodec(String name) throws Exception {
+        Codec codec = formatFactory.createCodec(name);
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < 1000; row++) {
+            text.append("row,").append(row).append(",\"text value\"\n");
+        }
+        byte[] bytes = text.toString().getBytes("UTF-8");
+
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        OutputStream outputStream = codec.encode(encoded);
+        outputStream.write(bytes);
+        outputStream.close();
+        assertTrue(encoded.size() < bytes.length / 4);
+
+        InputStream inputStream = codec.decode(new ByteArrayInputStream(encoded.toByteArray()));
+        assertEquals(toByteArray(inputStream), bytes);
+        inputStream.close();
+    }
+
+    @Test
+    public void testCodecName() {
+        assertEquals(formatFactory.getCodecName(formatFactory.createCodec(GzipCodec.CODEC)), GzipCodec.CODEC);
+        Codec codec = formatFactory.createCodec(CustomCodec.class.getName());
+        String name = formatFactory.getCodecName(codec);
+        assertEquals(name, CustomCodec.class.getName());
+        assertTrue(formatFactory.createCodec(name) instanceof CustomCodec);
+    }
+
+    @Test(expectedExceptions = OutputException.class)
+    public void testUnknownCodec() {
+        formatFactory.createCodec("unknown");
+    }
+
+    public static class CustomCodec extends DeflateCodec {
+
+        @Override
+        public String getCodec() {
+            return "custom";
+        }
+    }
+}
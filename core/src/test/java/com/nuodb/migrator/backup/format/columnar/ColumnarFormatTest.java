@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.Input;
+import com.nuodb.migrator.backup.format.Output;
+import com.nuodb.migrator.backup.format.SimpleFormatFactory;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.columnar.ColumnarFormat.ATTRIBUTE_ROW_GROUP_SIZE;
+import static com.nuodb.migrator.backup.format.value.ValueType.*;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ColumnarFormatTest {
+
+    private static final int ROWS = 25;
+    private static final int BINARY_INDEX = 6;
+
+    @Test
+    public void testReadWrite() {
+        RowSet rowSet = new RowSet();
+        rowSet.addColumn("f1", STRING);
+        rowSet.addColumn("f2", STRING);
+        rowSet.addColumn("f3", STRING);
+        rowSet.addColumn("f4", STRING);
+        rowSet.addColumn("f5", STRING);
+        rowSet.addColumn("f6", STRING);
+        rowSet.addColumn("f7", BINARY);
+
+        List<Value[]> rows = newArrayList();
+        for (int row = 0; row < ROWS; row++) {
+            Timestamp timestamp = new Timestamp(1400000000000L + row * 1000L);
+            timestamp.setNanos(row * 1000);
+            rows.add(new Value[]{
+                    row % 5 == 0 ? nullValue(null, STRING) : longValue(row),
+                    doubleValue(row / 4.0),
+                    decimal(new BigDecimal("12345678901234567890.00" + row)),
+                    timestamp(timestamp),
+                    string(row % 2 == 0 ? "even" : "odd"),
+                    row % 3 == 0 ? bool(true) : string("mixed " + row),
+                    row % 7 == 0 ? nullValue(null, BINARY) : binary(new byte[]{(byte) row, 1, 2})
+            });
+        }
+
+        Input input = writeRead(rowSet, rows, 10);
+        Value[] values = null;
+        for (Value[] expected : rows) {
+            values = input.readValues(values);
+            for (int index = 0; index < expected.length; index++) {
+                Value value = values[index];
+                assertEquals(value.isNull(), expected[index].isNull());
+                if (index == BINARY_INDEX) {
+                    assertEquals(value.asBytes(), expected[index].asBytes());
+                } else {
+                    assertEquals(value.asString(), expected[index].asString());
+                }
+            }
+            // typed values of the homogeneous columns are decoded as typed values
+            if (!expected[0].isNull()) {
+                assertEquals(values[0].getValueType(), LONG);
+                assertEquals(values[0].asLong(), expected[0].asLong());
+            }
+            assertEquals(values[1].getValueType(), DOUBLE);
+            assertEquals(values[1].asDouble(), expected[1].asDouble());
+            assertEquals(values[2].getValueType(), DECIMAL);
+            assertEquals(values[2].asDecimal(), expected[2].asDecimal());
+            assertEquals(values[3].getValueType(), TIMESTAMP);
+            assertEquals(values[3].asTimestamp(), expected[3].asTimestamp());
+            assertEquals(values[4].getValueType(), STRING);
+        }
+        assertNull(input.readValues(values));
+        input.readEnd();
+        input.close();
+    }
+
+    @Test
+    public void testNulls() {
+        RowSet rowSet = new RowSet();
+        rowSet.addColumn("f1", STRING);
+        rowSet.addColumn("f2", BINARY);
+        List<Value[]> rows = newArrayList();
+        for (int row = 0; row < ROWS; row++) {
+            rows.add(new Value[]{nullValue(null, STRING), row % 2 == 0 ? nullValue(null, BINARY) :
+                    binary(new byte[]{(byte) row})});
+        }
+        Input input = writeRead(rowSet, rows, 10);
+        Value[] values = null;
+        for (Value[] expected : rows) {
+            values = input.readValues(values);
+            assertTrue(values[0].isNull());
+            assertEquals(values[1].isNull(), expected[1].isNull());
+            assertEquals(values[1].asBytes(), expected[1].asBytes());
+        }
+        assertNull(input.readValues(values));
+        input.close();
+    }
+
+    /**
+     * Dictionary of more than 256 strings is indexed with unsigned shorts
+     */
+    @Test
+    public void testWideDictionary() {
+        RowSet rowSet = new RowSet();
+        rowSet.addColumn("f1", STRING);
+        List<Value[]> rows = newArrayList();
+        for (int row = 0; row < 2000; row++) {
+            rows.add(new Value[]{row % 11 == 0 ? nullValue(null, STRING) : string("value " + (row * 7) % 600)});
+        }
+        Input input = writeRead(rowSet, rows, 2000);
+        Value[] values = null;
+        for (Value[] expected : rows) {
+            values = input.readValues(values);
+            assertEquals(values[0].isNull(), expected[0].isNull());
+            assertEquals(values[0].asString(), expected[0].asString());
+        }
+        assertNull(input.readValues(values));
+        input.close();
+    }
+
+    protected Input writeRead(RowSet rowSet, List<Value[]> rows, int rowGroupSize) {
+        Map<String, Object> attributes = newHashMap();
+        attributes.put(ATTRIBUTE_ROW_GROUP_SIZE, Integer.toString(rowGroupSize));
+        SimpleFormatFactory formatFactory = new SimpleFormatFactory();
+        Output output = formatFactory.createOutput(ColumnarFormat.TYPE, attributes);
+        assertTrue(output instanceof ColumnarOutput);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        output.setRowSet(rowSet);
+        output.setOutputStream(outputStream);
+        output.init();
+        output.writeStart();
+        for (Value[] values : rows) {
+            output.writeValues(values);
+        }
+        output.writeEnd();
+        output.close();
+
+        Input input = formatFactory.createInput(ColumnarFormat.TYPE, attributes);
+        assertTrue(input instanceof ColumnarInput);
+        input.setRowSet(rowSet);
+        input.setInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        input.init();
+        input.readStart();
+        return input;
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.csv;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.csv.CsvFormat.*;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Verifies that csv encoder & decoder produce the same output and read the same records as commons-csv does
+ *
+ * @author Sergey Bushik
+ */
+public class CsvCodecTest {
+
+    private static final char[] CHARS = {'a', 'Z', '0', 'n', 'r', 't', 'b', 'f', ' ', ',', ';', '"', '\'', '|', '#',
+            '\t', '\r', '\n', '\b', '\u00e9'};
+
+    @DataProvider(name = "formats")
+    public Object[][] createFormats() {
+        return new Object[][]{
+                {format(null, null, null, null)},
+                {format(null, "true", null, null)},
+                {format(ATTRIBUTE_DELIMITER_TAB, null, null, ATTRIBUTE_LINE_SEPARATOR_CRLF)},
+                {format(";", "true", "'", ATTRIBUTE_LINE_SEPARATOR_CR)},
+        };
+    }
+
+    protected CsvFormatBuilder format(String delimiter, String quoting, String quote, String lineSeparator) {
+        Map<String, Object> attributes = newHashMap();
+        attributes.put(ATTRIBUTE_DELIMITER, delimiter);
+        attributes.put(ATTRIBUTE_QUOTING, quoting);
+        attributes.put(ATTRIBUTE_QUOTE, quote);
+        attributes.put(ATTRIBUTE_LINE_SEPARATOR, lineSeparator);
+        CsvOutput output = new CsvOutput();
+        output.setAttributes(attributes);
+        return new CsvFormatBuilder(output);
+    }
+
+    @Test(dataProvider = "formats")
+    public void testEncode(CsvFormatBuilder builder) throws Exception {
+        CSVFormat format = builder.build();
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            List<List<String>> records = newRecords(random);
+            StringWriter expected = new StringWriter();
+            CSVPrinter printer = new CSVPrinter(expected, format);
+            StringWriter actual = new StringWriter();
+            CsvEncoder encoder = new CsvEncoder(actual, builder);
+            for (List<String> record : records) {
+                printer.printRecord(record);
+                for (String value : record) {
+                    encoder.write(value);
+                }
+                encoder.writeRecord();
+            }
+            assertEquals(actual.toString(), expected.toString());
+        }
+    }
+
+    @Test(dataProvider = "formats")
+    public void testDecode(CsvFormatBuilder builder) throws Exception {
+        CSVFormat format = builder.build();
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            String csv;
+            if (i % 2 == 0) {
+                StringWriter writer = new StringWriter();
+                CSVPrinter printer = new CSVPrinter(writer, format);
+                for (List<String> record : newRecords(random)) {
+                    printer.printRecord(record);
+                }
+                csv = writer.toString();
+            } else {
+                csv = newValue(random, 24);
+            }
+            assertEquals(decode(builder, csv, 1 + random.nextInt(8)), parse(format, csv), csv);
+        }
+    }
+
+    protected List<List<String>> newRecords(Random random) {
+        List<List<String>> records = newArrayList();
+        for (int i = random.nextInt(4); i >= 0; i--) {
+            List<String> record = newArrayList();
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                record.add(random.nextInt(8) == 0 ? null : newValue(random, 6));
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    protected String newValue(Random random, int length) {
+        StringBuilder value = new StringBuilder();
+        for (int i = random.nextInt(length + 1); i > 0; i--) {
+            value.append(CHARS[random.nextInt(CHARS.length)]);
+        }
+        return value.toString();
+    }
+
+    protected List<Object> parse(CSVFormat format, String csv) {
+        List<Object> records = newArrayList();
+        try {
+            for (CSVRecord record : new CSVParser(new StringReader(csv), format)) {
+                List<String> values = newArrayList();
+                for (String value : record) {
+                    values.add(value);
+                }
+                records.add(values);
+            }
+        } catch (Exception exception) {
+            records.add(IllegalStateException.class);
+        }
+        return records;
+    }
+
+    protected List<Object> decode(CsvFormatBuilder builder, String csv, int bufferSize) {
+        List<Object> records = newArrayList();
+        try {
+            CsvDecoder decoder = new CsvDecoder(new StringReader(csv), builder, bufferSize);
+            while (decoder.next()) {
+                List<String> values = newArrayList();
+                for (int i = 0; i < decoder.size(); i++) {
+                    values.add(decoder.get(i));
+                }
+                records.add(values);
+            }
+        } catch (Exception exception) {
+            records.add(IllegalStateException.class);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.lob;
+
+import com.google.common.io.CharStreams;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.format.value.SimpleValueFormatRegistry;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.SimpleDialect;
+import com.nuodb.migrator.jdbc.metadata.DatabaseInfo;
+import com.nuodb.migrator.jdbc.model.Field;
+import com.nuodb.migrator.jdbc.model.SimpleField;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.TimeZone;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.STRING_NULL;
+import static org.apache.commons.io.IOUtils.toByteArray;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LobValueBindersTest {
+
+    private static final byte[] BYTES = {0, 1, 2, 3, 4, 5, 6, 7};
+    private static final String CHARS = "large object \u00e9\u4e2d";
+
+    private Connection connection;
+    private Dialect dialect;
+    private Collection<Field> fields;
+    private File file;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connection = mock(Connection.class);
+        dialect = new SimpleDialect(new DatabaseInfo("H2"));
+        fields = newArrayList();
+        fields.add(newField("f1", Types.BLOB));
+        fields.add(newField("f2", Types.CLOB));
+        file = File.createTempFile("chunk", ".lob");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testCopyAndBind() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getBlob(1)).thenReturn(new SerialBlob(BYTES));
+        when(resultSet.getClob(2)).thenReturn(new SerialClob(CHARS.toCharArray()));
+        ValueHandleList getters = newValueHandleList(resultSet);
+
+        LobOutput lobOutput = new LobOutput();
+        lobOutput.open(new FileOutputStream(file));
+        Value blob = new LobValueGetter(getters.get(0), lobOutput, dialect.getJdbcTypeRegistry()).getValue();
+        Value clob = new LobValueGetter(getters.get(1), lobOutput, dialect.getJdbcTypeRegistry()).getValue();
+        lobOutput.close();
+
+        assertEquals(LobReference.parse(blob.asString()), new LobReference(0, BYTES.length));
+        assertEquals(LobReference.parse(clob.asString()), new LobReference(BYTES.length,
+                CHARS.getBytes(UTF_8).length, CHARS.length()));
+
+        BackupOps backupOps = mock(BackupOps.class);
+        when(backupOps.openChannel("chunk.lob")).thenReturn(new RandomAccessFile(file, "r").getChannel());
+        Chunk chunk = new Chunk();
+        chunk.setLob("chunk.lob");
+        LobInput lobInput = new LobInput(backupOps);
+        lobInput.setChunk(chunk);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ValueHandleList setters = newValueHandleList(statement);
+        new LobValueSetter(setters.get(0), statement, lobInput).setValue(blob);
+        new LobValueSetter(setters.get(1), statement, lobInput).setValue(clob);
+
+        ArgumentCaptor<InputStream> input = ArgumentCaptor.forClass(InputStream.class);
+        verify(statement).setBinaryStream(eq(1), input.capture(), eq(BYTES.length));
+        assertEquals(toByteArray(input.getValue()), BYTES);
+        ArgumentCaptor<Reader> reader = ArgumentCaptor.forClass(Reader.class);
+        verify(statement).setCharacterStream(eq(2), reader.capture(), eq(CHARS.length()));
+        assertEquals(CharStreams.toString(reader.getValue()), CHARS);
+        lobInput.close();
+    }
+
+    @Test
+    public void testNull() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        LobOutput lobOutput = new LobOutput();
+        lobOutput.open(new FileOutputStream(file));
+        Value value = new LobValueGetter(newValueHandleList(resultSet).get(0), lobOutput,
+                dialect.getJdbcTypeRegistry()).getValue();
+        lobOutput.close();
+        assertEquals(value, STRING_NULL);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        new LobValueSetter(newValueHandleList(statement).get(0), statement,
+                new LobInput(mock(BackupOps.class))).setValue(value);
+        verify(statement).setNull(eq(1), anyInt());
+    }
+
+    protected ValueHandleList newValueHandleList(ResultSet resultSet) {
+        return newBuilder(connection, resultSet).withDialect(dialect).withFields(fields).
+                withTimeZone(TimeZone.getDefault()).withValueFormatRegistry(new SimpleValueFormatRegistry()).build();
+    }
+
+    protected ValueHandleList newValueHandleList(PreparedStatement statement) {
+        return newBuilder(connection, statement).withDialect(dialect).withFields(fields).
+                withTimeZone(TimeZone.getDefault()).withValueFormatRegistry(new SimpleValueFormatRegistry()).build();
+    }
+
+    protected static Field newField(String name, int typeCode) {
+        SimpleField field = new SimpleField();
+        field.setName(name);
+        field.setTypeCode(typeCode);
+        return field;
+    }
+}
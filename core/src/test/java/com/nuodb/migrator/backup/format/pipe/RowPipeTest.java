@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.pipe;
+
+import com.nuodb.migrator.backup.BackupException;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class RowPipeTest {
+
+    @Test
+    public void testCloseOnLastSplit() {
+        RowPipe rowPipe = new RowPipe("table", 4);
+        rowPipe.write(batch("1"));
+        rowPipe.writeDone(1, false);
+        rowPipe.write(batch("2"));
+        rowPipe.writeDone(0, true);
+
+        assertEquals(rowPipe.read()[0][0].asString(), "1");
+        assertEquals(rowPipe.read()[0][0].asString(), "2");
+        assertNull(rowPipe.read());
+    }
+
+    @Test
+    public void testDiscardReleasesWriter() throws Exception {
+        final RowPipe rowPipe = new RowPipe("table", 1);
+        rowPipe.write(batch("1"));
+        ExecutorService executor = newSingleThreadExecutor();
+        try {
+            Future<Boolean> write = executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    rowPipe.write(batch("2"));
+                    return true;
+                }
+            });
+            rowPipe.discard();
+            assertTrue(write.get(5, SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expectedExceptions = BackupException.class)
+    public void testFailReleasesReader() {
+        RowPipe rowPipe = new RowPipe("table", 4);
+        rowPipe.fail(new IllegalStateException());
+        rowPipe.read();
+    }
+
+    private static Value[][] batch(String value) {
+        return new Value[][]{new Value[]{string(value)}};
+    }
+}
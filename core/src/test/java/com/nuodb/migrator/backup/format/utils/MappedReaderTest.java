@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.utils;
+
+import org.apache.commons.io.IOUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import static java.io.File.createTempFile;
+import static java.nio.charset.Charset.forName;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.apache.commons.io.IOUtils.toByteArray;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class MappedReaderTest {
+
+    private static final String TEXT = "abc,\u00e9\u00e8\u00ea,\u20ac\u4e2d\u6587,\ud83d\ude00\n";
+
+    private File file;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        file = createTempFile("mapped", "csv");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append(i).append(TEXT);
+        }
+        writeStringToFile(file, text.toString(), "UTF-8");
+    }
+
+    @Test
+    public void testReadAcrossWindows() throws IOException {
+        String expected = IOUtils.toString(new FileInputStream(file), "UTF-8");
+        for (long windowSize : new long[]{7, 13, 64, MappedInputStream.WINDOW_SIZE}) {
+            MappedInputStream inputStream = new MappedInputStream(
+                    new FileInputStream(file).getChannel(), 0, file.length(), windowSize);
+            MappedReader reader = new MappedReader(inputStream, forName("UTF-8"));
+            assertEquals(IOUtils.toString(reader), expected);
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testReadRange() throws IOException {
+        byte[] bytes = toByteArray(new FileInputStream(file));
+        MappedInputStream inputStream = new MappedInputStream(new FileInputStream(file).getChannel(), 10, 100, 16);
+        assertEquals(inputStream.skip(5), 5);
+        byte[] range = toByteArray(inputStream);
+        inputStream.close();
+        assertEquals(range.length, 85);
+        for (int i = 0; i < range.length; i++) {
+            assertEquals(range[i], bytes[15 + i]);
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        file.delete();
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.FormatFactory;
+import com.nuodb.migrator.backup.format.SimpleFormatFactory;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.value.RowReaders.newChunkRowReaders;
+import static com.nuodb.migrator.backup.format.value.RowReaders.newReadAheadRowReader;
+import static com.nuodb.migrator.backup.format.value.RowReaders.newSequentialRowReader;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static java.lang.String.format;
+import static java.util.Collections.newSetFromMap;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class RowReadersTest {
+
+    private static final int CHUNKS = 5;
+    private static final int ROWS = 100;
+
+    private RowSet rowSet;
+    private BackupOps backupOps;
+    private FormatFactory formatFactory;
+    private Map<String, byte[]> files;
+
+    @BeforeMethod
+    public void setUp() {
+        Backup backup = new Backup();
+        backup.setFormat("csv");
+        rowSet = new RowSet();
+        rowSet.addColumn("f1", STRING);
+        backup.addRowSet(rowSet);
+
+        files = newHashMap();
+        for (int index = 0; index < CHUNKS; index++) {
+            StringBuilder content = new StringBuilder("f1\n");
+            for (int row = 0; row < ROWS; row++) {
+                content.append(format("%d.%d\n", index, row));
+            }
+            Chunk chunk = new Chunk();
+            chunk.setName(format("t1.%d.csv", index + 1));
+            chunk.setRowCount(ROWS);
+            rowSet.addChunk(chunk);
+            files.put(chunk.getName(), content.toString().getBytes());
+        }
+        backupOps = mock(BackupOps.class);
+        when(backupOps.openInput(anyString())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return new ByteArrayInputStream(files.get((String) invocation.getArguments()[0]));
+            }
+        });
+        when(backupOps.getLength(anyString())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return (long) files.get((String) invocation.getArguments()[0]).length;
+            }
+        });
+        formatFactory = new SimpleFormatFactory();
+    }
+
+    @Test
+    public void testChunkRowReaders() throws Exception {
+        Map<String, Object> formatAttributes = newHashMap();
+        formatAttributes.put("csv.line.separator", "LF");
+        Collection<RowReader> rowReaders = newChunkRowReaders(
+                rowSet, backupOps, formatFactory, formatAttributes, 3);
+        assertEquals(rowReaders.size(), 3);
+
+        final Set<String> values = newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        ExecutorService executor = newFixedThreadPool(rowReaders.size());
+        try {
+            Collection<Future<Integer>> futures = newArrayList();
+            for (final RowReader rowReader : rowReaders) {
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        int rows = 0;
+                        Row row;
+                        while ((row = rowReader.readRow()) != null) {
+                            values.add(row.getValues()[0].asString());
+                            rows++;
+                        }
+                        rowReader.close();
+                        return rows;
+                    }
+                }));
+            }
+            int rows = 0;
+            for (Future<Integer> future : futures) {
+                rows += future.get();
+            }
+            assertEquals(rows, CHUNKS * ROWS);
+            assertEquals(values.size(), CHUNKS * ROWS);
+        } finally {
+            executor.shutdown();
+        }
+        for (RowReader rowReader : rowReaders) {
+            assertNull(rowReader.readRow());
+        }
+    }
+
+    @Test
+    public void testReadRowReuse() {
+        Map<String, Object> formatAttributes = newHashMap();
+        formatAttributes.put("csv.line.separator", "LF");
+        RowReader rowReader = newSequentialRowReader(rowSet, backupOps, formatFactory, formatAttributes);
+        Row reuse = new Row();
+        Value[] values = null;
+        int rows = 0;
+        Row row;
+        while ((row = rowReader.readRow(reuse)) != null) {
+            assertSame(row, reuse);
+            if (values != null) {
+                assertSame(row.getValues(), values);
+            }
+            values = row.getValues();
+            assertTrue(values[0] instanceof MutableValue);
+            assertEquals(values[0].asString(), format("%d.%d", rows / ROWS, rows % ROWS));
+            rows++;
+        }
+        rowReader.close();
+        assertEquals(rows, CHUNKS * ROWS);
+    }
+
+    @Test
+    public void testReadAheadRowReader() {
+        Map<String, Object> formatAttributes = newHashMap();
+        formatAttributes.put("csv.line.separator", "LF");
+        RowReader sequentialRowReader = newSequentialRowReader(rowSet, backupOps, formatFactory, formatAttributes);
+        RowReader rowReader = newReadAheadRowReader(sequentialRowReader, 2, 7);
+        Row previous = null;
+        int rows = 0;
+        Row row;
+        while ((row = rowReader.readRow(previous)) != null) {
+            assertNotSame(row, previous);
+            assertEquals(row.getValues()[0].asString(), format("%d.%d", rows / ROWS, rows % ROWS));
+            previous = row;
+            rows++;
+        }
+        rowReader.close();
+        sequentialRowReader.close();
+        assertEquals(rows, CHUNKS * ROWS);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testReadAheadRowReaderFailure() {
+        RowReader failingRowReader = mock(RowReader.class);
+        when(failingRowReader.readRow()).thenThrow(new IllegalStateException());
+        RowReader rowReader = newReadAheadRowReader(failingRowReader, 2);
+        try {
+            rowReader.readRow();
+        } finally {
+            rowReader.close();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+import static com.nuodb.migrator.backup.format.value.TemporalUtils.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Sergey Bushik
+ */
+public class TemporalUtilsTest {
+
+    @DataProvider(name = "timestamp")
+    public Object[][] createTimestampData() {
+        return new Object[][]{
+                {"2014-01-02 03:04:05"},
+                {"2014-01-02 03:04:05.0"},
+                {"2014-1-2 3:4:5.1"},
+                {"2014-12-31 23:59:59.123456789"},
+                {" 1999-06-15 12:00:00.000100 "},
+        };
+    }
+
+    @Test(dataProvider = "timestamp")
+    public void testParseTimestamp(String value) {
+        Timestamp timestamp = Timestamp.valueOf(value);
+        assertEquals(parseTimestamp(value), timestamp);
+        assertEquals(formatTimestamp(timestamp), timestamp.toString());
+    }
+
+    @DataProvider(name = "invalid")
+    public Object[][] createInvalidData() {
+        return new Object[][]{
+                {""},
+                {"2014"},
+                {"2014-13-01"},
+                {"2014-01-32 00:00:00"},
+                {"14-01-01 00:00:00"},
+                {"2014-01-01 00:00"},
+                {"2014-01-01 00:00:00."},
+                {"2014-01-01 00:00:00.1234567890"},
+                {"2014-01-01T00:00:00"},
+                {"text"},
+                {"-2014-01-01 00:00:00"},
+                {"1234567:00:00"},
+        };
+    }
+
+    @Test(dataProvider = "invalid")
+    public void testParseInvalid(String value) {
+        assertNull(parseTimestamp(value));
+        if (value.length() != 4) {
+            assertNull(parseDate(value));
+            assertNull(parseYear(value));
+        }
+        assertNull(parseTime(value));
+    }
+
+    @Test
+    public void testParseDuration() {
+        long midnight = Time.valueOf("00:00:00").getTime();
+        assertEquals(parseTime("838:59:59").getTime(), midnight + ((838 * 60 + 59) * 60 + 59) * 1000L);
+        assertEquals(parseTime("100:00:00.5").getTime(), midnight + 100 * 3600 * 1000L + 500);
+        assertEquals(parseTime("-01:30:00").getTime(), midnight - 90 * 60 * 1000L);
+        assertEquals(parseTime("-838:59:59").getTime(), midnight - ((838 * 60 + 59) * 60 + 59) * 1000L);
+        assertNull(parseTime("--01:00:00"));
+        assertNull(parseTime("-:00:00"));
+    }
+
+    @Test
+    public void testParseDate() {
+        assertEquals(parseDate("2014-01-02"), Date.valueOf("2014-01-02"));
+        assertEquals(parseDate("2014-1-2"), Date.valueOf("2014-1-2"));
+        assertNull(parseDate("2014-01-02 00:00:00"));
+    }
+
+    @Test
+    public void testParseTime() {
+        assertEquals(parseTime("03:04:05"), Time.valueOf("03:04:05"));
+        assertEquals(parseTime("03:04:05.250").getTime(), Time.valueOf("03:04:05").getTime() + 250);
+    }
+
+    @Test
+    public void testYear() {
+        assertEquals(parseYear("2014"), Date.valueOf("2014-01-01"));
+        assertEquals(formatYear(Date.valueOf("2014-05-06")), "2014");
+        assertEquals(formatYear(Date.valueOf("0012-05-06")), "0012");
+    }
+
+    @Test
+    public void testFormatTime() {
+        assertEquals(formatTime(Timestamp.valueOf("2014-01-02 03:04:05")), "03:04:05");
+        assertEquals(formatTime(Timestamp.valueOf("2014-01-02 03:04:05.25")), "03:04:05.25");
+    }
+}
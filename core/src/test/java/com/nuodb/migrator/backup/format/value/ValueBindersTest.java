@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.dialect.SimpleDialect;
+import com.nuodb.migrator.jdbc.metadata.DatabaseInfo;
+import com.nuodb.migrator.jdbc.model.Field;
+import com.nuodb.migrator.jdbc.model.SimpleField;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.TimeZone;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.decimal;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.longValue;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ValueBindersTest {
+
+    private Connection connection;
+    private Dialect dialect;
+    private Collection<Field> fields;
+
+    @BeforeMethod
+    public void setUp() {
+        connection = mock(Connection.class);
+        dialect = new SimpleDialect(new DatabaseInfo("H2"));
+        fields = newArrayList();
+        fields.add(newField("f1", Types.BIGINT));
+        fields.add(newField("f2", Types.VARCHAR));
+        fields.add(newField("f3", Types.DECIMAL));
+        fields.add(newField("f4", Types.DATE));
+    }
+
+    @Test
+    public void testGetValue() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(7L);
+        when(resultSet.getString(2)).thenReturn("a");
+        when(resultSet.getBigDecimal(3)).thenReturn(new BigDecimal("1.5"));
+        ValueHandleList valueHandleList = newBuilder(connection, resultSet).
+                withDialect(dialect).withFields(fields).withTimeZone(TimeZone.getDefault()).
+                withValueFormatRegistry(new SimpleValueFormatRegistry()).build();
+
+        assertTrue(valueHandleList.get(0).getValueBinder() instanceof ValueBinders.LongGetter);
+        assertTrue(valueHandleList.get(1).getValueBinder() instanceof ValueBinders.StringGetter);
+        assertTrue(valueHandleList.get(2).getValueBinder() instanceof ValueBinders.DecimalGetter);
+        assertTrue(valueHandleList.get(3).getValueBinder() instanceof ValueBinders.FormatValueBinder);
+
+        assertEquals(valueHandleList.get(0).getValueBinder().getValue(), longValue(7L));
+        assertEquals(valueHandleList.get(1).getValueBinder().getValue(), string("a"));
+        assertEquals(valueHandleList.get(2).getValueBinder().getValue(), decimal(new BigDecimal("1.5")));
+
+        when(resultSet.wasNull()).thenReturn(true);
+        assertTrue(valueHandleList.get(0).getValueBinder().getValue().isNull());
+    }
+
+    @Test
+    public void testSetValue() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ValueHandleList valueHandleList = newBuilder(connection, statement).
+                withDialect(dialect).withFields(fields).withTimeZone(TimeZone.getDefault()).
+                withValueFormatRegistry(new SimpleValueFormatRegistry()).build();
+
+        ValueBinder valueBinder = valueHandleList.get(0).getValueBinder();
+        assertTrue(valueBinder instanceof ValueBinders.LongSetter);
+        valueBinder.setValue(longValue(7L));
+        verify(statement).setLong(1, 7L);
+        valueBinder.setValue(string("8"));
+        verify(statement).setLong(1, 8L);
+        valueBinder.setValue(string(""));
+        verify(statement).setNull(1, Types.BIGINT);
+
+        valueHandleList.get(1).getValueBinder().setValue(string("a"));
+        verify(statement).setString(2, "a");
+    }
+
+    @Test
+    public void testSetNuoDBValue() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ValueHandleList valueHandleList = newBuilder(connection, statement).
+                withDialect(new NuoDBDialect()).withFields(fields).withTimeZone(TimeZone.getDefault()).
+                withValueFormatRegistry(new NuoDBValueFormatRegistry()).build();
+
+        ValueBinder valueBinder = valueHandleList.get(0).getValueBinder();
+        assertTrue(valueBinder instanceof ValueBinders.NuoDBDecimalSetter);
+        valueBinder.setValue(longValue(7L));
+        verify(statement).setBigDecimal(1, BigDecimal.valueOf(7L));
+    }
+
+    @Test(expectedExceptions = ValueFormatException.class)
+    public void testSetValueError() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ValueHandleList valueHandleList = newBuilder(connection, statement).
+                withDialect(dialect).withFields(fields).withTimeZone(TimeZone.getDefault()).
+                withValueFormatRegistry(new SimpleValueFormatRegistry()).build();
+        valueHandleList.get(0).getValueBinder().setValue(string("a"));
+    }
+
+    @Test
+    public void testGetValueConversionError() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenThrow(new SQLException("Bad value for type long", "22003")).thenReturn(7L);
+        when(resultSet.getString(2)).thenThrow(new SQLException("Connection is closed", "08003"));
+        ValueHandleList valueHandleList = newBuilder(connection, resultSet).
+                withDialect(dialect).withFields(fields).withTimeZone(TimeZone.getDefault()).
+                withValueFormatRegistry(new SimpleValueFormatRegistry()).build();
+
+        ValueBinder valueBinder = valueHandleList.get(0).getValueBinder();
+        valueBinder.getValue();
+        valueBinder.getValue();
+        // the column is switched to the value format after the first conversion failure, which reads it once per call
+        verify(resultSet, times(3)).getLong(1);
+        try {
+            valueHandleList.get(1).getValueBinder().getValue();
+            fail("Non conversion error is rethrown");
+        } catch (ValueFormatException exception) {
+            assertTrue(exception.getCause() instanceof SQLException);
+        }
+        verify(resultSet, times(1)).getString(2);
+    }
+
+    @Test
+    public void testSetValueSQLError() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        SQLException failure = new SQLException("Value too long", "22001");
+        doThrow(failure).when(statement).setString(2, "abc");
+        ValueHandleList valueHandleList = newBuilder(connection, statement).
+                withDialect(dialect).withFields(fields).withTimeZone(TimeZone.getDefault()).
+                withValueFormatRegistry(new SimpleValueFormatRegistry()).build();
+        try {
+            valueHandleList.get(1).getValueBinder().setValue(string("abc"));
+            fail("Truncation is rethrown");
+        } catch (ValueFormatException exception) {
+            assertEquals(exception.getCause(), failure);
+        }
+        verify(statement, times(1)).setString(2, "abc");
+    }
+
+    private static Field newField(String name, int typeCode) {
+        SimpleField field = new SimpleField();
+        field.setName(name);
+        field.setTypeCode(typeCode);
+        return field;
+    }
+}
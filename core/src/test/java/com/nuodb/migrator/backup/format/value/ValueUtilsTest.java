@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import static com.nuodb.migrator.backup.format.value.ValueType.*;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ValueUtilsTest {
+
+    @DataProvider(name = "value")
+    public Object[][] createValueData() {
+        Timestamp timestamp = Timestamp.valueOf("2014-01-02 03:04:05.123456789");
+        return new Object[][]{
+                {Integer.valueOf(42), LONG, "42"},
+                {Long.MAX_VALUE, LONG, Long.toString(Long.MAX_VALUE)},
+                {Short.valueOf((short) -7), LONG, "-7"},
+                {Double.valueOf(0.1), DOUBLE, "0.1"},
+                {Float.valueOf(0.1f), STRING, "0.1"},
+                {new BigDecimal("12345678901234567890.0100"), DECIMAL, "12345678901234567890.0100"},
+                {Boolean.TRUE, BOOLEAN, "true"},
+                {"text", STRING, "text"},
+                {timestamp, STRING, timestamp.toString()},
+        };
+    }
+
+    @Test(dataProvider = "value")
+    public void testValue(Object object, ValueType valueType, String string) {
+        Value value = value(object);
+        assertEquals(value.getValueType(), valueType);
+        assertEquals(value.asString(), string);
+    }
+
+    @Test
+    public void testTypedValues() {
+        assertEquals(longValue(5).asDecimal(), BigDecimal.valueOf(5));
+        assertEquals(string("5").asLong(), 5L);
+        assertEquals(string("2.5").asDouble(), 2.5);
+        assertEquals(decimal(new BigDecimal("7.00")).asLong(), 7L);
+        assertEquals(doubleValue(3.0).asLong(), 3L);
+        assertEquals(bool(true).asLong(), 1L);
+        assertEquals(string("true").asBoolean(), true);
+        Timestamp timestamp = Timestamp.valueOf("2014-01-02 03:04:05.1");
+        assertEquals(timestamp(timestamp).getValueType(), TIMESTAMP);
+        assertEquals(string(timestamp.toString()).asTimestamp(), timestamp);
+    }
+
+    @Test(expectedExceptions = NumberFormatException.class)
+    public void testDoubleAsLong() {
+        doubleValue(2.5).asLong();
+    }
+
+    @Test(expectedExceptions = ArithmeticException.class)
+    public void testDecimalAsLong() {
+        decimal(new BigDecimal("2.5")).asLong();
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.xml;
+
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+import org.testng.annotations.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
+import static com.nuodb.migrator.backup.format.utils.BitSetUtils.fromHexString;
+import static com.nuodb.migrator.backup.format.utils.BitSetUtils.toHexString;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.backup.format.xml.XmlFormat.*;
+import static com.nuodb.migrator.backup.format.xml.XmlUtils.isValid;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class XmlRowCodecTest {
+
+    private static final char[] CHARS = {'a', 'Z', '0', ' ', '&', '<', '>', '"', '\'', ';', '#', '\t', '\n', '\r',
+            '\u00e9', '\u4e2d', '\u0001', '\ud83d', '\ude00'};
+
+    private static final ValueType[] VALUE_TYPES = {STRING, BINARY, STRING, STRING, STRING, STRING, STRING, STRING,
+            STRING, STRING};
+
+    @Test
+    public void testWriteRead() throws Exception {
+        Random random = new Random(7);
+        for (String encoding : new String[]{"utf-8", "iso-8859-1"}) {
+            for (int i = 0; i < 500; i++) {
+                List<Value[]> rows = newRows(random, true);
+                StringWriter writer = new StringWriter();
+                XmlRowWriter rowWriter = new XmlRowWriter(writer, encoding);
+                rowWriter.writeStart(encoding, VERSION);
+                for (Value[] row : rows) {
+                    rowWriter.writeRow(row, VALUE_TYPES);
+                }
+                rowWriter.writeEnd();
+                String xml = writer.toString();
+
+                List<List<String>> expected = expected(rows, false);
+                assertEquals(read(xml, 1 + random.nextInt(16)), expected, xml);
+                assertEquals(parse(xml), expected, xml);
+            }
+        }
+    }
+
+    /**
+     * Rows written by a generic XML stream writer are read the same
+     */
+    @Test
+    public void testReadStreamWriter() throws Exception {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            List<Value[]> rows = newRows(random, false);
+            StringWriter writer = new StringWriter();
+            XMLStreamWriter xmlWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+            xmlWriter.writeStartDocument(ENCODING, VERSION);
+            xmlWriter.writeStartElement(ELEMENT_ROWS);
+            for (Value[] row : rows) {
+                xmlWriter.writeStartElement(ELEMENT_ROW);
+                BitSet nulls = new BitSet();
+                for (int index = 0; index < row.length; index++) {
+                    nulls.set(index, row[index].isNull());
+                }
+                if (!nulls.isEmpty()) {
+                    xmlWriter.writeAttribute(ATTRIBUTE_NULLS, toHexString(nulls));
+                }
+                for (int index = 0; index < row.length; index++) {
+                    if (!row[index].isNull()) {
+                        xmlWriter.writeStartElement(ELEMENT_COLUMN);
+                        if (VALUE_TYPES[index] == BINARY) {
+                            xmlWriter.writeCharacters(BASE64.encode(row[index].asBytes()));
+                        } else if (!isValid(row[index].asString())) {
+                            xmlWriter.writeAttribute(ATTRIBUTE_VALUE_TYPE, ATTRIBUTE_VALUE_TYPE_BINARY);
+                            xmlWriter.writeCharacters(BASE64.encode(row[index].asBytes()));
+                        } else {
+                            xmlWriter.writeCharacters(row[index].asString());
+                        }
+                        xmlWriter.writeEndElement();
+                    }
+                }
+                xmlWriter.writeEndElement();
+            }
+            xmlWriter.writeEndElement();
+            xmlWriter.writeEndDocument();
+            xmlWriter.close();
+            String xml = writer.toString();
+            assertEquals(read(xml, 1 + random.nextInt(16)), expected(rows, true), xml);
+        }
+    }
+
+    @Test
+    public void testReadMarkup() throws Exception {
+        String xml = "\ufeff<?xml version=\"1.0\"?>\n<!-- rows -->\n<rs>\n  <r ns='02'>\n    <c>a&#x1F600;&amp;</c>\n" +
+                "    <x><c>skipped</c></x>\n  </r>\n  <r><c><![CDATA[<b>]]]></c><c/><c vt=\"b\">AQI=</c></r>\n</rs>";
+        List<List<String>> rows = newArrayList();
+        XmlRowReader rowReader = new XmlRowReader(new StringReader(xml), 4);
+        rowReader.readStart();
+        while (rowReader.nextRow()) {
+            List<String> row = newArrayList();
+            for (int index = 0; index < 3; index++) {
+                row.add(!rowReader.isNull(index) && rowReader.nextColumn() ?
+                        rowReader.getValueType() + ":" + rowReader.getText() : null);
+            }
+            rows.add(row);
+        }
+        assertEquals(rows.size(), 2);
+        assertEquals(rows.get(0), newArrayList("null:a\ud83d\ude00&", null, null));
+        assertEquals(rows.get(1), newArrayList("null:<b>]", "null:", "BINARY:AQI="));
+    }
+
+    protected List<Value[]> newRows(Random random, boolean cr) {
+        List<Value[]> rows = newArrayList();
+        for (int i = random.nextInt(4); i >= 0; i--) {
+            Value[] row = new Value[VALUE_TYPES.length];
+            for (int index = 0; index < row.length; index++) {
+                if (random.nextInt(4) == 0) {
+                    row[index] = VALUE_TYPES[index] == BINARY ? binary(null) : string(null);
+                } else if (VALUE_TYPES[index] == BINARY) {
+                    byte[] bytes = new byte[random.nextInt(8)];
+                    random.nextBytes(bytes);
+                    row[index] = binary(bytes);
+                } else {
+                    StringBuilder value = new StringBuilder();
+                    for (int length = random.nextInt(8); length > 0; length--) {
+                        char c = CHARS[random.nextInt(CHARS.length)];
+                        value.append(c == '\r' && !cr ? '\n' : c);
+                    }
+                    row[index] = string(value.toString());
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Rows as lists of values prefixed with value types, where invalid strings are base64 encoded
+     */
+    protected List<List<String>> expected(List<Value[]> rows, boolean trailingNulls) {
+        List<List<String>> expected = newArrayList();
+        for (Value[] row : rows) {
+            List<String> values = newArrayList();
+            for (int index = 0; index < row.length; index++) {
+                Value value = row[index];
+                if (value.isNull()) {
+                    values.add(null);
+                } else if (VALUE_TYPES[index] == BINARY) {
+                    values.add("null:" + BASE64.encode(value.asBytes()));
+                } else if (!isValid(value.asString())) {
+                    values.add("BINARY:" + BASE64.encode(value.asBytes()));
+                } else {
+                    values.add("null:" + value.asString());
+                }
+            }
+            expected.add(values);
+        }
+        return expected;
+    }
+
+    protected List<List<String>> read(String xml, int bufferSize) throws Exception {
+        List<List<String>> rows = newArrayList();
+        XmlRowReader rowReader = new XmlRowReader(new StringReader(xml), bufferSize);
+        rowReader.readStart();
+        while (rowReader.nextRow()) {
+            List<String> row = newArrayList();
+            for (int index = 0; index < VALUE_TYPES.length; index++) {
+                row.add(!rowReader.isNull(index) && rowReader.nextColumn() ?
+                        rowReader.getValueType() + ":" + rowReader.getText() : null);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Parses rows with a generic XML stream reader
+     */
+    protected List<List<String>> parse(String xml) throws Exception {
+        List<List<String>> rows = newArrayList();
+        XMLStreamReader xmlReader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml));
+        List<String> row = null;
+        while (xmlReader.hasNext()) {
+            if (xmlReader.next() != START_ELEMENT) {
+                continue;
+            }
+            if (xmlReader.getLocalName().equals(ELEMENT_ROW)) {
+                rows.add(row = newArrayList());
+                for (int index = 0; index < VALUE_TYPES.length; index++) {
+                    row.add(null);
+                }
+                String nulls = xmlReader.getAttributeValue(null, ATTRIBUTE_NULLS);
+                BitSet bits = nulls != null ? fromHexString(nulls) : new BitSet();
+                int index = 0;
+                while (xmlReader.nextTag() == START_ELEMENT) {
+                    while (bits.get(index)) {
+                        index++;
+                    }
+                    String valueType = xmlReader.getAttributeValue(null, ATTRIBUTE_VALUE_TYPE);
+                    row.set(index++, (valueType != null ? "BINARY" : "null") + ":" + xmlReader.getElementText());
+                }
+            }
+        }
+        return rows;
+    }
+}
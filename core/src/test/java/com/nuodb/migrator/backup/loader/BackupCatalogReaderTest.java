@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.MigratorException;
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.BackupReadListener;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.XmlBackupOps;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.apache.commons.io.IOUtils.toInputStream;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Sergey Bushik
+ */
+public class BackupCatalogReaderTest {
+
+    private static final String CATALOG =
+            "<?xml version=\"1.0\"?>\n" +
+            "<backup format=\"csv\">\n" +
+            "  <database/>\n" +
+            "  <row-set type=\"table\" name=\"test.t1\" catalog=\"test\" table=\"t1\"/>\n" +
+            "  <row-set type=\"table\" name=\"test.t2\" catalog=\"test\" table=\"t2\"/>\n";
+
+    @Test
+    public void testReadRowSets() throws Exception {
+        BackupCatalogReader backupCatalogReader = new BackupCatalogReader(createBackupOps(CATALOG + "</backup>"),
+                null, 1);
+        backupCatalogReader.start();
+        Backup backup = backupCatalogReader.getBackup();
+        assertNotNull(backup.getDatabase());
+        RowSet rowSet = backupCatalogReader.readRowSet();
+        assertEquals(rowSet.getName(), "test.t1");
+        assertEquals(rowSet.getBackup(), backup);
+        assertEquals(backupCatalogReader.readRowSet().getName(), "test.t2");
+        assertNull(backupCatalogReader.readRowSet());
+        assertNull(backupCatalogReader.readRowSet());
+    }
+
+    /**
+     * Row sets parsed before the failure are handed over, failure is raised at the end of the catalog
+     */
+    @Test(expectedExceptions = MigratorException.class)
+    public void testReadTruncated() throws Exception {
+        BackupCatalogReader backupCatalogReader = new BackupCatalogReader(createBackupOps(CATALOG), null);
+        backupCatalogReader.start();
+        assertNotNull(backupCatalogReader.getBackup());
+        assertEquals(backupCatalogReader.readRowSet().getName(), "test.t1");
+        assertEquals(backupCatalogReader.readRowSet().getName(), "test.t2");
+        backupCatalogReader.readRowSet();
+    }
+
+    protected BackupOps createBackupOps(final String catalog) {
+        BackupOps backupOps = mock(BackupOps.class);
+        when(backupOps.read(anyMap(), any(BackupReadListener.class))).thenAnswer(new Answer<Backup>() {
+            @Override
+            public Backup answer(InvocationOnMock invocation) throws Throwable {
+                Object[] arguments = invocation.getArguments();
+                return new XmlBackupOps().read(toInputStream(catalog), (Map) arguments[0],
+                        (BackupReadListener) arguments[1]);
+            }
+        });
+        return backupOps;
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.format.value.Row;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static java.io.File.createTempFile;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LoadJournalTest {
+
+    private File file;
+    private Chunk chunk;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        file = createTempFile("backup", "." + LoadJournal.EXTENSION);
+        chunk = new Chunk();
+        chunk.setName("t1.csv");
+        chunk.setRowCount(10);
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        LoadJournal loadJournal = new LoadJournal(file);
+        loadJournal.open(false);
+        LoadJournal.Batch batch = new LoadJournal.Batch();
+        for (long number : new long[]{0, 1, 2, 5, 6}) {
+            batch.add(new Row(chunk, null, number));
+        }
+        loadJournal.commit(batch);
+        assertFalse(loadJournal.isCommitted(chunk));
+        loadJournal.close();
+
+        loadJournal = new LoadJournal(file);
+        loadJournal.open(true);
+        assertTrue(loadJournal.isCommitted(new Row(chunk, null, 2)));
+        assertFalse(loadJournal.isCommitted(new Row(chunk, null, 3)));
+        assertTrue(loadJournal.isCommitted(new Row(chunk, null, 6)));
+
+        Row row = new Row(chunk, null, 3);
+        row.setOffset(100);
+        assertFalse(loadJournal.isCommitted(row));
+        for (long number : new long[]{3, 4, 7, 8, 9}) {
+            batch.add(new Row(chunk, null, number));
+        }
+        loadJournal.commit(batch);
+        assertTrue(loadJournal.isCommitted(chunk));
+        loadJournal.close();
+
+        loadJournal = new LoadJournal(file);
+        loadJournal.open(false);
+        assertFalse(loadJournal.isCommitted(chunk));
+        loadJournal.close();
+    }
+
+    @Test
+    public void testTornLine() throws IOException {
+        writeStringToFile(file, "t1.csv\t0\t10\nt1.cs", "UTF-8");
+        LoadJournal loadJournal = new LoadJournal(file);
+        loadJournal.open(true);
+        assertTrue(loadJournal.isCommitted(chunk));
+        LoadJournal.Batch batch = new LoadJournal.Batch();
+        batch.add(new Row(chunk, null, 10));
+        loadJournal.commit(batch);
+        loadJournal.close();
+
+        loadJournal = new LoadJournal(file);
+        loadJournal.open(true);
+        assertTrue(loadJournal.isCommitted(new Row(chunk, null, 10)));
+        loadJournal.close();
+    }
+
+    @Test
+    public void testRanges() throws IOException {
+        LoadJournal loadJournal = new LoadJournal(file);
+        loadJournal.open(false);
+        LoadJournal.Batch batch = new LoadJournal.Batch();
+        for (long offset : new long[]{0, 100, 200}) {
+            for (long number = 0; number < (offset == 200 ? 2 : 4); number++) {
+                Row row = new Row(chunk, null, number);
+                row.setOffset(offset);
+                batch.add(row);
+            }
+        }
+        loadJournal.commit(batch);
+        assertTrue(loadJournal.isCommitted(chunk));
+        loadJournal.close();
+
+        loadJournal = new LoadJournal(file);
+        loadJournal.open(true);
+        assertTrue(loadJournal.isCommitted(chunk));
+        chunk.setRowCount(11);
+        assertFalse(loadJournal.isCommitted(chunk));
+        loadJournal.close();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        file.delete();
+    }
+}
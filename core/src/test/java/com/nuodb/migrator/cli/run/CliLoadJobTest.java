@@ -76,7 +76,8 @@ public class CliLoadJobTest {
 
                 "--table.deployments.insert",
                 "--table.deployments_nodes.replace",
-                "--time.zone=GMT+2"
+                "--time.zone=GMT+2",
+                "--journal.file=/tmp/dump.journal"
         };
         parser.parse(arguments, cliLoadJob);
 
@@ -111,6 +112,8 @@ public class CliLoadJobTest {
         loadJobSpec.setTableInsertTypes(tableInsertTypes);
         loadJobSpec.setTimeZone(TimeZone.getTimeZone("GMT+2"));
         loadJobSpec.setCommitStrategy(new BatchCommitStrategy());
+        loadJobSpec.setJournal(true);
+        loadJobSpec.setJournalFile("/tmp/dump.journal");
         return loadJobSpec;
     }
 }
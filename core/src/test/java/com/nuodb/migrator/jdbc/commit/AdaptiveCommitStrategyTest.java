@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.commit.AdaptiveCommitStrategy.AdaptiveCommitExecutor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class AdaptiveCommitStrategyTest {
+
+    private AdaptiveCommitStrategy commitStrategy;
+    private PreparedStatement statement;
+    private Connection connection;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        commitStrategy = new AdaptiveCommitStrategy();
+        commitStrategy.setBatchSize(1000);
+        commitStrategy.setMinBatchSize(100);
+        commitStrategy.setMaxBatchSize(2000);
+        statement = mock(PreparedStatement.class);
+        connection = mock(Connection.class);
+        when(statement.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    public void testGrowWhileThroughputImproves() {
+        AdaptiveCommitExecutor commitExecutor = createCommitExecutor();
+        assertFalse(commitExecutor.adapt(1000, 1000000, 2000000));
+        assertEquals(commitExecutor.getBatchSize(), 1250);
+        assertFalse(commitExecutor.adapt(1250, 1250000, 2000000));
+        assertEquals(commitExecutor.getBatchSize(), 1562);
+    }
+
+    @Test
+    public void testReverseWhenThroughputDrops() {
+        AdaptiveCommitExecutor commitExecutor = createCommitExecutor();
+        commitExecutor.adapt(1000, 1000000, 2000000);
+        commitExecutor.adapt(1250, 1250000, 5000000);
+        assertEquals(commitExecutor.getBatchSize(), 1000);
+    }
+
+    @Test
+    public void testShrinkOnLatencySpike() {
+        AdaptiveCommitExecutor commitExecutor = createCommitExecutor();
+        commitExecutor.adapt(1000, 1000000, 2000000);
+        assertTrue(commitExecutor.adapt(1250, 5000000, 6000000));
+        assertEquals(commitExecutor.getBatchSize(), 625);
+    }
+
+    @Test
+    public void testBatchSizeBounds() {
+        commitStrategy.setBatchSize(5000);
+        AdaptiveCommitExecutor commitExecutor = createCommitExecutor();
+        assertEquals(commitExecutor.getBatchSize(), 2000);
+        commitExecutor.adapt(2000, 1000000, 2000000);
+        assertEquals(commitExecutor.getBatchSize(), 2000);
+    }
+
+    @Test
+    public void testBatchesShareCommit() throws Exception {
+        commitStrategy.setBatchSize(100);
+        commitStrategy.setMaxBatchSize(100);
+        commitStrategy.setCommitInterval(Long.MAX_VALUE / 1000000);
+        commitStrategy.setLatencySpike(Double.MAX_VALUE);
+        AdaptiveCommitExecutor commitExecutor = createCommitExecutor();
+        for (int i = 0; i < 250; i++) {
+            commitExecutor.execute();
+        }
+        verify(statement, times(2)).executeBatch();
+        verify(connection, never()).commit();
+        commitExecutor.finish();
+        verify(statement, times(3)).executeBatch();
+        verify(connection, times(1)).commit();
+    }
+
+    private AdaptiveCommitExecutor createCommitExecutor() {
+        return (AdaptiveCommitExecutor) commitStrategy.createCommitExecutor(statement, null);
+    }
+}
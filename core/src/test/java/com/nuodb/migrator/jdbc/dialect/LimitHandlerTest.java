@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.MYSQL;
+import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.ORACLE;
+import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.POSTGRE_SQL;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LimitHandlerTest {
+
+    private static final String QUERY = "SELECT a, b FROM t";
+
+    @DataProvider(name = "limitQuery")
+    public Object[][] createLimitQueryData() {
+        Dialect mysql = new MySQLDialect(MYSQL);
+        Dialect postgresql = new PostgreSQLDialect(POSTGRE_SQL);
+        Dialect oracle = new OracleDialect(ORACLE);
+        return new Object[][]{
+                {mysql, new QueryLimit(10L, 20L), QUERY + " LIMIT 10 OFFSET 20"},
+                {mysql, new QueryLimit(null, 20L), QUERY + " LIMIT 18446744073709551615 OFFSET 20"},
+                {postgresql, new QueryLimit(null, 20L), QUERY + " OFFSET 20"},
+                {postgresql, new QueryLimit(null, 0L), QUERY},
+                {oracle, new QueryLimit(null, 20L),
+                        "SELECT a, b FROM ( SELECT ROW_.*, ROWNUM ROWNUM_ FROM (" + QUERY + ") ROW_ ) " +
+                                "WHERE ROWNUM_ > 20"}
+        };
+    }
+
+    @Test(dataProvider = "limitQuery")
+    public void testLimitQuery(Dialect dialect, QueryLimit queryLimit, String limitQuery) {
+        LimitHandler limitHandler = dialect.createLimitHandler(QUERY, queryLimit);
+        assertEquals(limitHandler.getLimitQuery(false), limitQuery);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.ORACLE;
+import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.POSTGRE_SQL;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static java.util.Arrays.asList;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class RowIdRangeHandlerTest {
+
+    private Connection mockConnection(ResultSet resultSet) throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        return connection;
+    }
+
+    @Test
+    public void testOracleRowIdBoundaries() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, true, true, true, false);
+        when(resultSet.getString(1)).thenReturn("AAA", "BBB", "CCC", "DDD");
+        when(resultSet.getLong(2)).thenReturn(8L, 16L, 8L, 16L);
+        Table table = createTable(null, "SCHEMA", "TABLE");
+        RowIdRangeHandler rowIdRangeHandler = new OracleDialect(ORACLE).createRowIdRangeHandler(table);
+
+        assertEquals(rowIdRangeHandler.getRowIdBoundaries(mockConnection(resultSet), 2), asList("CCC"));
+    }
+
+    @Test
+    public void testPostgreSQLRowIdBoundaries() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(10L);
+        Table table = createTable(null, "schema", "table");
+        Connection connection = mockConnection(resultSet);
+        RowIdRangeHandler rowIdRangeHandler = new PostgreSQLDialect(POSTGRE_SQL).createRowIdRangeHandler(table);
+
+        assertEquals(rowIdRangeHandler.getRowIdBoundaries(connection, 3), asList("(4,0)", "(8,0)"));
+        verify(connection.prepareStatement(anyString())).setString(1, "\"schema\".\"table\"");
+    }
+
+    @Test
+    public void testOracleRowIdRangeAvailable() throws Exception {
+        Table table = createTable(null, "SCHEMA", "TABLE");
+        RowIdRangeHandler rowIdRangeHandler = new OracleDialect(ORACLE).createRowIdRangeHandler(table);
+        Connection connection = mockConnection(mock(ResultSet.class));
+        assertTrue(rowIdRangeHandler.isRowIdRangeAvailable(connection));
+
+        PreparedStatement statement = connection.prepareStatement(anyString());
+        doThrow(new SQLException("ORA-00942: table or view does not exist", "42000", 942)).when(statement)
+                .executeQuery();
+        assertFalse(rowIdRangeHandler.isRowIdRangeAvailable(connection));
+    }
+
+    @Test(expectedExceptions = SQLException.class)
+    public void testOracleRowIdRangeAvailableFailure() throws Exception {
+        Table table = createTable(null, "SCHEMA", "TABLE");
+        RowIdRangeHandler rowIdRangeHandler = new OracleDialect(ORACLE).createRowIdRangeHandler(table);
+        Connection connection = mockConnection(mock(ResultSet.class));
+        PreparedStatement statement = connection.prepareStatement(anyString());
+        doThrow(new SQLException("ORA-03113: end-of-file on communication channel", "08006", 3113)).when(statement)
+                .executeQuery();
+        rowIdRangeHandler.isRowIdRangeAvailable(connection);
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.google.common.collect.Lists;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Identifiable;
+import com.nuodb.migrator.jdbc.metadata.MetaData;
+import com.nuodb.migrator.jdbc.metadata.MetaDataHandlerBase;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Schema;
+import com.nuodb.migrator.jdbc.metadata.Sequence;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.*;
+import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addSchema;
+import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addTable;
+import static java.util.Collections.synchronizedList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verifies that parallel inspection yields the same objects in the same order as the serial one
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class ParallelInspectionTest {
+
+    private static final int SCHEMAS = 3;
+    private static final int TABLES = 10;
+    private static final int THREADS = 4;
+
+    private InspectionManager inspectionManager;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        inspectionManager = new InspectionManager();
+        inspectionManager.setInspectors(Lists.<Inspector>newArrayList(
+                new TableInspector(), new ColumnInspector(), new SequenceInspector()));
+    }
+
+    @Test
+    public void testInspect() throws Exception {
+        final List<Session> sessions = synchronizedList(new ArrayList<Session>());
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.openSession()).thenAnswer(new Answer<Session>() {
+            @Override
+            public Session answer(InvocationOnMock invocation) throws Throwable {
+                Session session = mock(Session.class);
+                when(session.getConnection()).thenReturn(mock(Connection.class));
+                sessions.add(session);
+                return session;
+            }
+        });
+        InspectionScope inspectionScope = new TableInspectionScope();
+        MetaDataType[] objectTypes = new MetaDataType[]{TABLE, COLUMN, SEQUENCE};
+
+        InspectionResults expected = inspectionManager.inspect(mock(Connection.class), inspectionScope, objectTypes);
+        ParallelInspection parallelInspection = new ParallelInspection(inspectionManager, sessionFactory, THREADS);
+        parallelInspection.setTablesPerTask(3);
+        InspectionResults actual = inspectionManager.createInspectionResults();
+        parallelInspection.inspect(mock(Connection.class), actual, inspectionScope, objectTypes);
+
+        assertEquals(getNames(actual, COLUMN), getNames(expected, COLUMN));
+        assertEquals(getNames(actual, SEQUENCE), getNames(expected, SEQUENCE));
+        assertEquals(getNames(actual, COLUMN).size(), SCHEMAS * TABLES * 2);
+        assertTrue(!sessions.isEmpty() && sessions.size() <= THREADS);
+        for (Session session : sessions) {
+            verify(session).close();
+        }
+    }
+
+    protected List<String> getNames(InspectionResults inspectionResults, MetaDataType objectType) {
+        List<String> names = newArrayList();
+        for (MetaData object : inspectionResults.getObjects(objectType)) {
+            names.add(((Identifiable) object).getName());
+        }
+        return names;
+    }
+
+    static abstract class StubInspector extends MetaDataHandlerBase implements Inspector<MetaData, InspectionScope> {
+
+        private final Random random = new Random();
+
+        protected StubInspector(MetaDataType objectType) {
+            super(objectType);
+        }
+
+        @Override
+        public void inspect(InspectionContext inspectionContext) throws SQLException {
+            inspectObjects(inspectionContext, inspectionContext.getInspectionResults().<MetaData>getObjects(TABLE));
+        }
+
+        @Override
+        public void inspectObject(InspectionContext inspectionContext, MetaData object) throws SQLException {
+            inspectObjects(inspectionContext, newArrayList(object));
+        }
+
+        @Override
+        public void inspectObjects(InspectionContext inspectionContext,
+                                   Collection<? extends MetaData> objects) throws SQLException {
+        }
+
+        @Override
+        public void inspectScopes(InspectionContext inspectionContext,
+                                  Collection<? extends InspectionScope> inspectionScopes) throws SQLException {
+            for (InspectionScope inspectionScope : inspectionScopes) {
+                inspectScope(inspectionContext, inspectionScope);
+            }
+        }
+
+        @Override
+        public void inspectScope(InspectionContext inspectionContext,
+                                 InspectionScope inspectionScope) throws SQLException {
+        }
+
+        protected void pause() {
+            try {
+                Thread.sleep(random.nextInt(3));
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static class TableInspector extends StubInspector {
+
+        public TableInspector() {
+            super(TABLE);
+        }
+
+        @Override
+        public void inspectScope(InspectionContext inspectionContext,
+                                 InspectionScope inspectionScope) throws SQLException {
+            for (int schema = 0; schema < SCHEMAS; schema++) {
+                for (int table = 0; table < TABLES; table++) {
+                    addTable(inspectionContext.getInspectionResults(), null, "s" + schema, "t" + table);
+                }
+            }
+        }
+
+        @Override
+        public boolean supportsScope(InspectionContext inspectionContext, InspectionScope inspectionScope) {
+            return true;
+        }
+    }
+
+    /**
+     * Inspects columns table by table, as scope is not supported
+     */
+    static class ColumnInspector extends StubInspector {
+
+        public ColumnInspector() {
+            super(COLUMN);
+        }
+
+        @Override
+        public void inspectObjects(InspectionContext inspectionContext,
+                                   Collection<? extends MetaData> objects) throws SQLException {
+            for (MetaData object : objects) {
+                Table table = (Table) object;
+                pause();
+                for (int index = 0; index < 2; index++) {
+                    Column column = table.addColumn(table.getSchema().getName() + "_" + table.getName() + "_" + index);
+                    inspectionContext.getInspectionResults().addObject(column);
+                }
+            }
+        }
+
+        @Override
+        public boolean supportsScope(InspectionContext inspectionContext, InspectionScope inspectionScope) {
+            return false;
+        }
+    }
+
+    /**
+     * Inspects sequences of a schema in the scope, or of every schema if schema is not set
+     */
+    static class SequenceInspector extends StubInspector {
+
+        public SequenceInspector() {
+            super(SEQUENCE);
+        }
+
+        @Override
+        public void inspectScope(InspectionContext inspectionContext,
+                                 InspectionScope inspectionScope) throws SQLException {
+            String schemaName = ((SchemaInspectionScope) inspectionScope).getSchema();
+            for (int index = 0; index < SCHEMAS; index++) {
+                if (schemaName == null || schemaName.equals("s" + index)) {
+                    pause();
+                    InspectionResults inspectionResults = inspectionContext.getInspectionResults();
+                    Schema schema = addSchema(inspectionResults, null, "s" + index);
+                    Sequence sequence = new Sequence(schema.getName() + "_seq");
+                    schema.addSequence(sequence);
+                    inspectionResults.addObject(sequence);
+                }
+            }
+        }
+
+        @Override
+        public boolean supportsScope(InspectionContext inspectionContext, InspectionScope inspectionScope) {
+            return inspectionScope instanceof SchemaInspectionScope;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.dialect.RowIdRangeHandler;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static java.math.BigDecimal.valueOf;
+import static java.sql.Types.BIGINT;
+import static java.util.Arrays.asList;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class RangeQuerySplitterTest {
+
+    private Table table;
+    private Column column;
+
+    @BeforeMethod
+    public void setUp() {
+        table = createTable(null, "schema", "table");
+        column = table.addColumn("id");
+        column.setTypeCode(BIGINT);
+        column.setNullable(true);
+    }
+
+    @Test
+    public void testCreateBoundaries() {
+        assertEquals(RangeQuerySplitter.createBoundaries(valueOf(1), valueOf(1000), 4),
+                asList(valueOf(251), valueOf(501), valueOf(751)));
+        assertEquals(RangeQuerySplitter.createBoundaries(valueOf(10), valueOf(11), 4),
+                asList(valueOf(11)));
+        assertEquals(RangeQuerySplitter.createBoundaries(valueOf(5), valueOf(5), 4),
+                asList());
+    }
+
+    @Test
+    public void testQuerySplits() throws Exception {
+        RowCountStrategy rowCountStrategy = mock(RowCountStrategy.class);
+        when(rowCountStrategy.getRowCount(any(Connection.class))).thenReturn(1000L);
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBigDecimal(1)).thenReturn(valueOf(1));
+        when(resultSet.getBigDecimal(2)).thenReturn(valueOf(1000));
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        RangeQuerySplitter querySplitter = new RangeQuerySplitter(new NuoDBDialect(), rowCountStrategy,
+                table, table.getColumns(), "id <> 0", column, newQuery(table, table.getColumns(), null),
+                new QueryLimit(300L), null);
+        int splits = 0;
+        while (querySplitter.hasNextQuerySplit(connection)) {
+            querySplitter.getNextQuerySplit(connection).getResultSet();
+            splits++;
+        }
+        assertEquals(splits, 4);
+
+        List<Object> boundaries = querySplitter.getBoundaries(connection);
+        assertEquals(boundaries, asList(valueOf(251), valueOf(501), valueOf(751)));
+        String first = querySplitter.createSplitQuery(boundaries, 0);
+        String middle = querySplitter.createSplitQuery(boundaries, 1);
+        String last = querySplitter.createSplitQuery(boundaries, 3);
+        assertTrue(first.endsWith("WHERE (id <> 0) AND (\"id\" < ? OR \"id\" IS NULL)"), first);
+        assertTrue(middle.endsWith("WHERE (id <> 0) AND \"id\" >= ? AND \"id\" < ?"), middle);
+        assertTrue(last.endsWith("WHERE (id <> 0) AND \"id\" >= ?"), last);
+
+        verify(statement, times(2)).setObject(1, new BigDecimal(251));
+        verify(statement).setObject(2, new BigDecimal(501));
+        verify(statement).setObject(1, new BigDecimal(501));
+        verify(statement).setObject(2, new BigDecimal(751));
+        verify(statement).setObject(1, new BigDecimal(751));
+    }
+
+    @Test
+    public void testSingleSplit() throws Exception {
+        RowCountStrategy rowCountStrategy = mock(RowCountStrategy.class);
+        when(rowCountStrategy.getRowCount(any(Connection.class))).thenReturn(100L);
+        Connection connection = mock(Connection.class);
+
+        RangeQuerySplitter querySplitter = new RangeQuerySplitter(new NuoDBDialect(), rowCountStrategy,
+                table, table.getColumns(), null, column, newQuery(table, table.getColumns(), null),
+                new QueryLimit(300L), null);
+        assertTrue(querySplitter.hasNextQuerySplit(connection));
+        querySplitter.getNextQuerySplit(connection);
+        assertFalse(querySplitter.hasNextQuerySplit(connection));
+        verify(connection, never()).prepareStatement(anyString());
+    }
+
+    @Test
+    public void testRowIdFallbackQuerySplits() throws Exception {
+        RowIdRangeHandler rowIdRangeHandler = mock(RowIdRangeHandler.class);
+        Connection connection = mock(Connection.class);
+        when(rowIdRangeHandler.isRowIdRangeAvailable(connection)).thenReturn(false);
+        QuerySplitter fallbackQuerySplitter = mock(QuerySplitter.class);
+        when(fallbackQuerySplitter.hasNextQuerySplit(connection)).thenReturn(true, false);
+        QuerySplit querySplit = mock(QuerySplit.class);
+        when(fallbackQuerySplitter.getNextQuerySplit(connection, null)).thenReturn(querySplit);
+
+        RowIdQuerySplitter querySplitter = new RowIdQuerySplitter(new NuoDBDialect(),
+                mock(RowCountStrategy.class), rowIdRangeHandler, fallbackQuerySplitter, table, table.getColumns(),
+                null, newQuery(table, table.getColumns(), null), new QueryLimit(300L), null);
+        assertTrue(querySplitter.hasNextQuerySplit(connection));
+        assertEquals(querySplitter.getNextQuerySplit(connection), querySplit);
+        assertFalse(querySplitter.hasNextQuerySplit(connection));
+        verify(rowIdRangeHandler).isRowIdRangeAvailable(connection);
+        verify(rowIdRangeHandler, never()).getRowIdBoundaries(any(Connection.class), anyLong());
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.metrics;
+
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+
+import static java.io.File.createTempFile;
+import static org.apache.commons.io.FileUtils.readFileToString;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class MetricsTest {
+
+    @Test
+    public void testStripedCounter() throws Exception {
+        final StripedCounter counter = new StripedCounter(4);
+        final int threads = 8;
+        final int increments = 10000;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int increment = 0; increment < increments; increment++) {
+                        counter.increment();
+                    }
+                    latch.countDown();
+                }
+            }.start();
+        }
+        latch.await();
+        assertEquals(counter.get(), threads * increments);
+    }
+
+    @Test
+    public void testHistogram() {
+        Histogram histogram = new Histogram();
+        assertEquals(histogram.getPercentile(0.99), 0);
+        for (long nanos = 1; nanos <= 1000; nanos++) {
+            histogram.record(nanos);
+        }
+        assertEquals(histogram.getCount(), 1000);
+        assertEquals(histogram.getMax(), 1000);
+        assertEquals(histogram.getMean(), 500);
+        long median = histogram.getPercentile(0.5);
+        assertTrue(median >= 500 && median < 1024, "Median " + median);
+        assertEquals(histogram.getPercentile(1), 1000);
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        Metrics metrics = new Metrics("load");
+        metrics.setJmx(true);
+        Metric table = metrics.getTable("t1");
+        assertSame(metrics.getTable("t1"), table);
+        table.addRows(10);
+        table.addBytes(1024);
+        table.addBatch(2000000);
+        metrics.getChunk("t1.csv").addRows(10);
+        assertEquals(table.getBatches(), 1);
+        assertEquals(table.getCommitLatencyMax(), 2D);
+        assertTrue(ManagementFactory.getPlatformMBeanServer().queryNames(null, null).toString().contains(
+                "scope=table,name=\"t1\""));
+
+        File file = createTempFile("metrics", ".json");
+        file.deleteOnExit();
+        MetricsReporter metricsReporter = new MetricsReporter(metrics);
+        metricsReporter.setInterval(0);
+        metricsReporter.setFile(file.getPath());
+        metricsReporter.start();
+        metricsReporter.stop();
+        String status = readFileToString(file);
+        assertTrue(status.contains("\"tables\""), status);
+        assertTrue(status.contains("\"t1.csv\""), status);
+        assertTrue(status.contains("\"rows\" : 10"), status);
+        file.delete();
+
+        metrics.close();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().queryNames(null, null).toString().contains(
+                "scope=table,name=\"t1\""));
+    }
+}